@@ -0,0 +1,37 @@
+-- PostgreSQL migration: request.token varchar(255) -> native uuid
+--
+-- Existing UUIDv4 tokens are valid uuid literals, so they convert in place and keep working
+-- for clients. New requests get time-ordered UUIDv7 tokens generated by the application.
+-- The textual token format exposed by the API is unchanged.
+
+BEGIN;
+
+-- Foreign keys pointing at request.token have Hibernate-generated names, drop them by lookup
+DO $$
+DECLARE
+    fk RECORD;
+BEGIN
+    FOR fk IN
+        SELECT con.conname, rel.relname
+        FROM pg_constraint con
+        JOIN pg_class rel ON rel.oid = con.conrelid
+        WHERE con.contype = 'f'
+          AND con.confrelid = 'request'::regclass
+    LOOP
+        EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', fk.relname, fk.conname);
+    END LOOP;
+END $$;
+
+ALTER TABLE request ALTER COLUMN token TYPE uuid USING token::uuid;
+ALTER TABLE residue ALTER COLUMN request_token TYPE uuid USING request_token::uuid;
+ALTER TABLE status ALTER COLUMN request_token TYPE uuid USING request_token::uuid;
+ALTER TABLE request_statuses ALTER COLUMN request_token TYPE uuid USING request_token::uuid;
+
+ALTER TABLE residue
+    ADD CONSTRAINT fk_residue_request FOREIGN KEY (request_token) REFERENCES request (token);
+ALTER TABLE status
+    ADD CONSTRAINT fk_status_request FOREIGN KEY (request_token) REFERENCES request (token);
+ALTER TABLE request_statuses
+    ADD CONSTRAINT fk_request_statuses_request FOREIGN KEY (request_token) REFERENCES request (token);
+
+COMMIT;
@@ -0,0 +1,3 @@
+-- PostgreSQL migration: optimistic locking column for request
+
+ALTER TABLE request ADD COLUMN version bigint NOT NULL DEFAULT 0;
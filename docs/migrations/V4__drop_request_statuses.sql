@@ -0,0 +1,4 @@
+-- PostgreSQL migration: Request.statuses is now mapped by status.request_token,
+-- the request_statuses join table duplicated every status row and is no longer written
+
+DROP TABLE IF EXISTS request_statuses;
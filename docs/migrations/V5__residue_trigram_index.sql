@@ -0,0 +1,7 @@
+-- PostgreSQL migration: trigram GIN indexes backing ResidueRepository.findAllByTrigramSimilarity,
+-- used when zeromonos.residues.search.pg-trgm=true
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS residue_name_trgm_idx ON residue USING gin (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS residue_desc_trgm_idx ON residue USING gin ("desc" gin_trgm_ops);
@@ -0,0 +1,35 @@
+-- PostgreSQL migration: request.municipality (free text) becomes a reference to the municipality table.
+-- normalized_name mirrors Municipality.normalize (lower case, no accents, hyphens and spaces folded);
+-- unaccent must be available for the backfill.
+
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+CREATE TABLE municipality (
+    id              SERIAL PRIMARY KEY,
+    normalized_name VARCHAR(50) NOT NULL UNIQUE,
+    name            VARCHAR(50) NOT NULL
+);
+
+INSERT INTO municipality (normalized_name, name)
+SELECT DISTINCT ON (normalized_name) normalized_name, name
+FROM (
+    SELECT regexp_replace(lower(unaccent(trim(municipality))), '[\s\-]+', ' ', 'g') AS normalized_name,
+           trim(municipality) AS name
+    FROM request
+) names
+ORDER BY normalized_name, name;
+
+ALTER TABLE request ADD COLUMN municipality_id INTEGER;
+
+UPDATE request r
+SET municipality_id = m.id
+FROM municipality m
+WHERE m.normalized_name = regexp_replace(lower(unaccent(trim(r.municipality))), '[\s\-]+', ' ', 'g');
+
+ALTER TABLE request ALTER COLUMN municipality_id SET NOT NULL;
+ALTER TABLE request ADD CONSTRAINT request_municipality_fk FOREIGN KEY (municipality_id) REFERENCES municipality (id);
+ALTER TABLE request DROP COLUMN municipality;
+
+-- Covers the municipality listing: the range scan returns rows in datetime order and the
+-- included columns answer summary reads without visiting the heap
+CREATE INDEX request_municipality_datetime_idx ON request (municipality_id, datetime) INCLUDE (token, request_status);
@@ -0,0 +1,62 @@
+-- PostgreSQL migration: status becomes an append-only history partitioned by month on datetime.
+-- Range queries over datetime (StatusRepository.findAllByRequestStatusBetween) only scan the partitions
+-- they overlap; old months can be detached or dropped without touching the rest.
+-- The primary key has to include the partition key, the application still identifies rows by id.
+
+BEGIN;
+
+ALTER TABLE status RENAME TO status_unpartitioned;
+ALTER SEQUENCE IF EXISTS status_id_seq RENAME TO status_unpartitioned_id_seq;
+
+CREATE SEQUENCE status_id_seq;
+
+CREATE TABLE status (
+    id             BIGINT       NOT NULL DEFAULT nextval('status_id_seq'),
+    request_status VARCHAR(255) NOT NULL,
+    datetime       TIMESTAMP(6) NOT NULL,
+    request_token  UUID         NOT NULL,
+    PRIMARY KEY (id, datetime),
+    CONSTRAINT fk_status_request FOREIGN KEY (request_token) REFERENCES request (token)
+) PARTITION BY RANGE (datetime);
+
+ALTER SEQUENCE status_id_seq OWNED BY status.id;
+
+-- Rows outside every monthly partition land here instead of failing the insert
+CREATE TABLE status_default PARTITION OF status DEFAULT;
+
+-- One partition per month from the given one; run monthly (pg_cron or ops) to keep a year ahead.
+-- A month still holding rows in status_default has to be moved out of it before its partition is created.
+CREATE OR REPLACE FUNCTION create_status_partitions(first_month DATE, months INTEGER) RETURNS VOID AS $$
+DECLARE
+    partition_start DATE;
+BEGIN
+    FOR i IN 0 .. months - 1 LOOP
+        partition_start := date_trunc('month', first_month)::date + make_interval(months => i);
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF status FOR VALUES FROM (%L) TO (%L)',
+            'status_' || to_char(partition_start, 'YYYY_MM'), partition_start, partition_start + INTERVAL '1 month'
+        );
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Every month with history, up to a year ahead
+SELECT create_status_partitions(m::date, 1)
+FROM generate_series(
+    date_trunc('month', COALESCE((SELECT min(datetime) FROM status_unpartitioned), now())),
+    date_trunc('month', now() + INTERVAL '12 months'),
+    INTERVAL '1 month'
+) AS m;
+
+INSERT INTO status (id, request_status, datetime, request_token)
+SELECT id, request_status, datetime, request_token FROM status_unpartitioned;
+
+-- Created on the parent, so every partition gets its own copy
+CREATE INDEX status_request_datetime_idx ON status (request_token, datetime);
+CREATE INDEX status_status_datetime_idx ON status (request_status, datetime);
+
+SELECT setval('status_id_seq', COALESCE((SELECT max(id) FROM status), 0) + 1, false);
+
+DROP TABLE status_unpartitioned;
+
+COMMIT;
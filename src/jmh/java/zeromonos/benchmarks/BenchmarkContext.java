@@ -0,0 +1,27 @@
+package zeromonos.benchmarks;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import zeromonos.ZeroMonosApplication;
+
+// The application on an in-memory H2, without the web server, the live GEO API or scheduled refreshes
+final class BenchmarkContext {
+
+    private BenchmarkContext() {}
+
+    static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(ZeroMonosApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmarks;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "zeromonos.municipalities.url=",
+                        "zeromonos.municipalities.snapshot=target/benchmark-municipalities.json",
+                        "zeromonos.slots.capacity=1000000"
+                )
+                .run();
+    }
+}
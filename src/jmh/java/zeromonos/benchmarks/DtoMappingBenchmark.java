@@ -0,0 +1,86 @@
+package zeromonos.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import zeromonos.data.municipalities.Municipality;
+import zeromonos.data.requests.Request;
+import zeromonos.data.requests.RequestDTO;
+import zeromonos.data.residues.Residue;
+import zeromonos.data.residues.ResidueDTO;
+import zeromonos.data.statuses.StatusDTO;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Entity to DTO mapping of one request, and of pages of requests, as the request endpoints serialize them
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    private int residues;
+
+    @Param({"1", "100"})
+    private int requests;
+
+    private Request request;
+    private List<Request> page;
+
+    @Setup
+    public void setUp() {
+        Municipality municipality = new Municipality("Aveiro");
+        page = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            page.add(request(municipality));
+        }
+        request = page.get(0);
+    }
+
+    private Request request(Municipality municipality) {
+        Request created = new Request(municipality, LocalDateTime.now());
+        created.setToken(UUID.randomUUID().toString());
+        for (int i = 0; i < residues; i++) {
+            Residue residue = new Residue("Residue " + i, "Description of residue " + i, 1f + i, 0.5f);
+            residue.setId((long) i);
+            created.addResidue(residue);
+        }
+        created.assign().start();
+        return created;
+    }
+
+    @Benchmark
+    public RequestDTO requestDto() {
+        return RequestDTO.fromRequestEntity(request);
+    }
+
+    @Benchmark
+    public List<RequestDTO> requestDtoPage() {
+        return page.stream().map(RequestDTO::fromRequestEntity).toList();
+    }
+
+    @Benchmark
+    public List<ResidueDTO> residueDtos() {
+        return request.getResidues().stream().map(ResidueDTO::fromResidueEntity).toList();
+    }
+
+    @Benchmark
+    public List<StatusDTO> statusDtos() {
+        return request.getStatuses().stream().map(StatusDTO::fromStatusEntity).toList();
+    }
+}
@@ -0,0 +1,95 @@
+package zeromonos.benchmarks;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import zeromonos.data.requests.RequestStatus;
+import zeromonos.services.requests.RequestStatusChangedEvent;
+import zeromonos.services.requests.RequestTransitionMetrics;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Cost the metrics add to a request: counting a transition and timing the endpoint and a repository call
+// with histogram buckets, as configured in application.properties. Compare each against the bare work.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class InstrumentationBenchmark {
+
+    private PrometheusMeterRegistry registry;
+    private RequestTransitionMetrics transitionMetrics;
+    private RequestStatusChangedEvent event;
+    private Timer endpointTimer;
+    private Timer repositoryTimer;
+
+    @Setup
+    public void setUp() {
+        registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        transitionMetrics = new RequestTransitionMetrics(registry);
+        event = new RequestStatusChangedEvent(UUID.randomUUID(), RequestStatus.ASSIGNED, LocalDateTime.now(), null);
+        endpointTimer = Timer.builder("http.server.requests")
+                .tags("method", "PUT", "uri", "/api/requests/{token}/assign", "status", "200", "outcome", "SUCCESS", "exception", "none")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(registry);
+        repositoryTimer = Timer.builder("spring.data.repository.invocations")
+                .tags("repository", "RequestRepository", "method", "updateRequestStatusIfIn", "state", "SUCCESS", "exception", "None")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofSeconds(5))
+                .register(registry);
+    }
+
+    // Stand-in for the in-memory part of a transition, so the overhead is read against something real
+    private static long work() {
+        Blackhole.consumeCPU(64);
+        return 1;
+    }
+
+    @Benchmark
+    public long baseline() {
+        return work();
+    }
+
+    @Benchmark
+    public long countedTransition() {
+        long result = work();
+        transitionMetrics.onRequestStatusChanged(event);
+        return result;
+    }
+
+    @Benchmark
+    public long timedEndpointAndRepository() {
+        return endpointTimer.record(() -> {
+            Long result = repositoryTimer.record(() -> work());
+            transitionMetrics.onRequestStatusChanged(event);
+            return result;
+        });
+    }
+
+    // What one Prometheus scrape costs the application, off the request path
+    @Benchmark
+    @Threads(1)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String scrape() {
+        return registry.scrape();
+    }
+}
@@ -0,0 +1,250 @@
+package zeromonos.benchmarks;
+
+import zeromonos.data.requests.Request;
+import zeromonos.data.requests.RequestStatus;
+import zeromonos.data.statuses.Status;
+
+import java.time.LocalDateTime;
+
+// Baseline for RequestTransitionBenchmark: a copy of the State pattern the transition table replaced. Every lookup
+// allocates a state bound to its request and every transition allocates the next one. It drives a real Request, so
+// a walk appends the same Status rows as the entity does.
+final class LegacyRequestStates {
+
+    private LegacyRequestStates() {}
+
+    interface LegacyState {
+        void assign();
+        void start();
+        void complete();
+        void cancel();
+    }
+
+    // What Request used to do with its transient state field
+    static final class LegacyRequest {
+
+        private final Request request;
+        private LegacyState state;
+
+        LegacyRequest(Request request) {
+            this.request = request;
+        }
+
+        LegacyState getState() {
+            if (state == null) {
+                state = LegacyRequestStates.getState(this);
+            }
+            return state;
+        }
+
+        void setState(LegacyState state) {
+            this.state = state;
+        }
+
+        Request request() {
+            return request;
+        }
+
+        LegacyRequest assign() {
+            getState().assign();
+            request.getStatuses().add(new Status(RequestStatus.ASSIGNED, LocalDateTime.now(), request));
+            return this;
+        }
+
+        LegacyRequest start() {
+            getState().start();
+            request.getStatuses().add(new Status(RequestStatus.IN_PROGRESS, LocalDateTime.now(), request));
+            return this;
+        }
+
+        LegacyRequest complete() {
+            getState().complete();
+            request.getStatuses().add(new Status(RequestStatus.COMPLETED, LocalDateTime.now(), request));
+            return this;
+        }
+
+        LegacyRequest cancel() {
+            getState().cancel();
+            request.getStatuses().add(new Status(RequestStatus.CANCELED, LocalDateTime.now(), request));
+            return this;
+        }
+    }
+
+    static LegacyState getState(LegacyRequest request) {
+        return switch (request.request().getRequestStatus()) {
+            case RECEIVED -> new ReceivedState(request);
+            case ASSIGNED -> new AssignedState(request);
+            case IN_PROGRESS -> new InProgressState(request);
+            case COMPLETED -> new CompletedState(request);
+            case CANCELED -> new CanceledState(request);
+        };
+    }
+
+    // The old way to ask whether a move is allowed: try it and catch the exception
+    static boolean tryTransition(LegacyRequest request, RequestStatus target) {
+        LegacyState state = getState(request);
+        try {
+            switch (target) {
+                case ASSIGNED -> state.assign();
+                case IN_PROGRESS -> state.start();
+                case COMPLETED -> state.complete();
+                case CANCELED -> state.cancel();
+                case RECEIVED -> {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    private static void moveTo(LegacyRequest request, RequestStatus status) {
+        request.request().setRequestStatus(status);
+        request.setState(getState(request));
+    }
+
+    private static IllegalStateException illegal() {
+        return new IllegalStateException("Illegal state transition.");
+    }
+
+    static final class ReceivedState implements LegacyState {
+        private final LegacyRequest request;
+
+        ReceivedState(LegacyRequest request) {
+            this.request = request;
+        }
+
+        @Override
+        public void assign() {
+            moveTo(request, RequestStatus.ASSIGNED);
+        }
+
+        @Override
+        public void start() {
+            throw illegal();
+        }
+
+        @Override
+        public void complete() {
+            throw illegal();
+        }
+
+        @Override
+        public void cancel() {
+            moveTo(request, RequestStatus.CANCELED);
+        }
+    }
+
+    static final class AssignedState implements LegacyState {
+        private final LegacyRequest request;
+
+        AssignedState(LegacyRequest request) {
+            this.request = request;
+        }
+
+        @Override
+        public void assign() {
+            throw illegal();
+        }
+
+        @Override
+        public void start() {
+            moveTo(request, RequestStatus.IN_PROGRESS);
+        }
+
+        @Override
+        public void complete() {
+            throw illegal();
+        }
+
+        @Override
+        public void cancel() {
+            moveTo(request, RequestStatus.CANCELED);
+        }
+    }
+
+    static final class InProgressState implements LegacyState {
+        private final LegacyRequest request;
+
+        InProgressState(LegacyRequest request) {
+            this.request = request;
+        }
+
+        @Override
+        public void assign() {
+            throw illegal();
+        }
+
+        @Override
+        public void start() {
+            throw illegal();
+        }
+
+        @Override
+        public void complete() {
+            moveTo(request, RequestStatus.COMPLETED);
+        }
+
+        @Override
+        public void cancel() {
+            throw illegal();
+        }
+    }
+
+    static final class CompletedState implements LegacyState {
+        private final LegacyRequest request;
+
+        CompletedState(LegacyRequest request) {
+            this.request = request;
+        }
+
+        @Override
+        public void assign() {
+            throw illegal();
+        }
+
+        @Override
+        public void start() {
+            throw illegal();
+        }
+
+        @Override
+        public void complete() {
+            throw illegal();
+        }
+
+        @Override
+        public void cancel() {
+            throw illegal();
+        }
+    }
+
+    static final class CanceledState implements LegacyState {
+        private final LegacyRequest request;
+
+        CanceledState(LegacyRequest request) {
+            this.request = request;
+        }
+
+        @Override
+        public void assign() {
+            throw illegal();
+        }
+
+        @Override
+        public void start() {
+            throw illegal();
+        }
+
+        @Override
+        public void complete() {
+            throw illegal();
+        }
+
+        @Override
+        public void cancel() {
+            throw illegal();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package zeromonos.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import zeromonos.data.municipalities.Municipality;
+import zeromonos.services.municipalities.MunicipalityService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Requests of one municipality among 308, out of a million: the range scan on (municipality_id, datetime)
+// against the case-insensitive name match the request table used before the municipality dimension.
+// The old layout is rebuilt as request_by_name from the same rows, with a plain index on the name.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MunicipalityLookupBenchmark {
+
+    private static final int MUNICIPALITIES = 308;
+
+    @Param({"1000000"})
+    private int requests;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private MunicipalityService municipalityService;
+    private String query;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        municipalityService = context.getBean(MunicipalityService.class);
+
+        for (int i = 1; i <= MUNICIPALITIES; i++) {
+            municipalityService.getOrCreate("Municipality " + i);
+        }
+        jdbcTemplate.update("""
+                INSERT INTO request (token, version, request_status, municipality_id, datetime)
+                SELECT RANDOM_UUID(), 0, 'RECEIVED', m.id, DATEADD('MINUTE', x, TIMESTAMP '2025-01-01 00:00:00')
+                FROM SYSTEM_RANGE(1, ?) JOIN municipality m ON m.name = 'Municipality ' || (MOD(x, ?) + 1)
+                """, requests, MUNICIPALITIES);
+
+        jdbcTemplate.execute("CREATE TABLE request_by_name (token UUID PRIMARY KEY, municipality VARCHAR(50), datetime TIMESTAMP)");
+        jdbcTemplate.execute("CREATE INDEX request_by_name_municipality_idx ON request_by_name (municipality)");
+        jdbcTemplate.execute("INSERT INTO request_by_name SELECT r.token, m.name, r.datetime FROM request r JOIN municipality m ON m.id = r.municipality_id");
+        jdbcTemplate.execute("ANALYZE");
+
+        // Mixed case, as users type it
+        query = "MUNICIPALITY 154";
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> indexedRangeScan() {
+        Municipality municipality = municipalityService.find(query).orElseThrow();
+        return jdbcTemplate.queryForList(
+                "SELECT token, datetime FROM request WHERE municipality_id = ? ORDER BY datetime", municipality.getId()
+        );
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> caseInsensitiveNameScan() {
+        return jdbcTemplate.queryForList(
+                "SELECT token, datetime FROM request_by_name WHERE UPPER(municipality) = UPPER(?) ORDER BY datetime", query
+        );
+    }
+}
@@ -0,0 +1,83 @@
+package zeromonos.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import zeromonos.data.municipalities.Municipality;
+import zeromonos.data.requests.Request;
+import zeromonos.data.residues.Residue;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Request.equals walks the status and residue lists, hashCode does not. The copy shares the original's
+// Status and Residue instances in lists of its own, as a request read twice in one persistence context would.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestEqualityBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int residues;
+
+    private Request request;
+    private Request copy;
+    private Request other;
+    private Residue last;
+
+    @Setup
+    public void setUp() {
+        Municipality municipality = new Municipality("Aveiro");
+        LocalDateTime datetime = LocalDateTime.now();
+        request = new Request(municipality, datetime);
+        request.setToken(UUID.randomUUID().toString());
+        for (int i = 0; i < residues; i++) {
+            Residue residue = new Residue("Residue " + i, "Description " + i, 1f, 1f);
+            residue.setId((long) i);
+            request.addResidue(residue);
+        }
+        last = request.getResidues().get(residues - 1);
+
+        copy = new Request(municipality, datetime);
+        copy.setToken(request.getToken());
+        copy.getStatuses().clear();
+        copy.getStatuses().addAll(request.getStatuses());
+        copy.getResidues().addAll(request.getResidues());
+
+        other = new Request(municipality, datetime);
+        other.setToken(UUID.randomUUID().toString());
+    }
+
+    @Benchmark
+    public boolean equalsCopy() {
+        return request.equals(copy);
+    }
+
+    @Benchmark
+    public boolean equalsOther() {
+        return request.equals(other);
+    }
+
+    @Benchmark
+    public int hashCodeOf() {
+        return request.hashCode();
+    }
+
+    // What removeResidue pays to find the residue it removes
+    @Benchmark
+    public int indexOfLastResidue() {
+        return request.getResidues().indexOf(last);
+    }
+}
@@ -0,0 +1,189 @@
+package zeromonos.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import zeromonos.data.requests.TimeOrderedUuidGenerator;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Request tokens as random UUIDv4 strings in a VARCHAR(36) key, as before, against time-ordered UUIDv7 in a native
+// uuid key, on a request table and a residue table referencing it. Runs on an in-memory H2; set
+// ZEROMONOS_BENCHMARK_URL to a JDBC url with credentials, such as jdbc:postgresql://localhost/bench?user=u&password=p,
+// to run the same statements on PostgreSQL.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RequestKeyBenchmark {
+
+    // H2 would otherwise hand back the previous result of a query on unchanged tables
+    private static final String H2_URL = "jdbc:h2:mem:request-keys;DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE";
+    private static final int BATCH = 100;
+    private static final int RESIDUES_PER_REQUEST = 2;
+    private static final int LOOKUPS = 100;
+
+    public enum Keys {
+        V4_VARCHAR("VARCHAR(36)") {
+            @Override
+            Object next() {
+                return UUID.randomUUID().toString();
+            }
+        },
+        V7_UUID("UUID") {
+            @Override
+            Object next() {
+                return TimeOrderedUuidGenerator.next();
+            }
+        };
+
+        private final String columnType;
+
+        Keys(String columnType) {
+            this.columnType = columnType;
+        }
+
+        abstract Object next();
+    }
+
+    @Param({"V4_VARCHAR", "V7_UUID"})
+    private Keys keys;
+
+    @Param({"100000"})
+    private int requests;
+
+    private Connection connection;
+    private PreparedStatement insertRequest;
+    private PreparedStatement insertResidue;
+    private PreparedStatement joinByTokens;
+    private Statement joinAll;
+    private final List<Object> seeded = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        String url = System.getenv().getOrDefault("ZEROMONOS_BENCHMARK_URL", H2_URL);
+        connection = DriverManager.getConnection(url);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS key_residue");
+            statement.execute("DROP TABLE IF EXISTS key_request");
+            statement.execute("CREATE TABLE key_request (token " + keys.columnType + " PRIMARY KEY,"
+                    + " seeded BOOLEAN NOT NULL, datetime TIMESTAMP NOT NULL)");
+            statement.execute("CREATE TABLE key_residue (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,"
+                    + " request_token " + keys.columnType + " NOT NULL REFERENCES key_request (token),"
+                    + " seeded BOOLEAN NOT NULL, name VARCHAR(50) NOT NULL)");
+            statement.execute("CREATE INDEX key_residue_request_idx ON key_residue (request_token)");
+        }
+        insertRequest = connection.prepareStatement("INSERT INTO key_request (token, seeded, datetime) VALUES (?, ?, ?)");
+        insertResidue = connection.prepareStatement("INSERT INTO key_residue (request_token, seeded, name) VALUES (?, ?, ?)");
+
+        connection.setAutoCommit(false);
+        for (int i = 0; i < requests; i += BATCH) {
+            insertBatch(true, seeded);
+        }
+
+        List<Object> lookups = new ArrayList<>(seeded);
+        Collections.shuffle(lookups, new Random(42));
+        joinByTokens = connection.prepareStatement("SELECT r.token, x.name FROM key_request r"
+                + " JOIN key_residue x ON x.request_token = r.token WHERE r.token IN ("
+                + String.join(", ", Collections.nCopies(LOOKUPS, "?")) + ")");
+        for (int i = 0; i < LOOKUPS; i++) {
+            joinByTokens.setObject(i + 1, lookups.get(i));
+        }
+        joinAll = connection.createStatement();
+    }
+
+    // Keeps the tables at the seeded size, so every iteration inserts into the same index
+    @Setup(Level.Iteration)
+    public void removeInserted() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM key_residue WHERE NOT seeded");
+            statement.executeUpdate("DELETE FROM key_request WHERE NOT seeded");
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE key_residue");
+            statement.execute("DROP TABLE key_request");
+        }
+        connection.commit();
+        connection.close();
+    }
+
+    // BATCH requests and their residues in one transaction
+    @Benchmark
+    public void insert() throws SQLException {
+        insertBatch(false, null);
+    }
+
+    @Benchmark
+    public void joinByTokens(Blackhole blackhole) throws SQLException {
+        try (ResultSet rows = joinByTokens.executeQuery()) {
+            while (rows.next()) {
+                blackhole.consume(rows.getObject(1));
+                blackhole.consume(rows.getString(2));
+            }
+        }
+    }
+
+    // Reads a request column, so every residue is looked up through the request's primary key
+    @Benchmark
+    public long joinAll() throws SQLException {
+        try (ResultSet rows = joinAll.executeQuery(
+                "SELECT COUNT(r.datetime) FROM key_residue x JOIN key_request r ON r.token = x.request_token")) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+
+    private void insertBatch(boolean seed, List<Object> tokens) throws SQLException {
+        Timestamp datetime = Timestamp.valueOf(LocalDateTime.now());
+        for (int i = 0; i < BATCH; i++) {
+            Object token = keys.next();
+            insertRequest.setObject(1, token);
+            insertRequest.setBoolean(2, seed);
+            insertRequest.setTimestamp(3, datetime);
+            insertRequest.addBatch();
+            for (int j = 0; j < RESIDUES_PER_REQUEST; j++) {
+                insertResidue.setObject(1, token);
+                insertResidue.setBoolean(2, seed);
+                insertResidue.setString(3, "Residue " + j);
+                insertResidue.addBatch();
+            }
+            if (tokens != null) {
+                tokens.add(token);
+            }
+        }
+        insertRequest.executeBatch();
+        insertResidue.executeBatch();
+        connection.commit();
+    }
+}
@@ -0,0 +1,120 @@
+package zeromonos.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import zeromonos.benchmarks.LegacyRequestStates.LegacyRequest;
+import zeromonos.data.municipalities.Municipality;
+import zeromonos.data.requests.Request;
+import zeromonos.data.requests.RequestStateFactory;
+import zeromonos.data.requests.RequestStatus;
+import zeromonos.data.requests.RequestTransitions;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// State lookups and transition checks over every (source, target) pair, and a request walked to COMPLETED. The
+// legacy* benchmarks run the same work on the allocating state classes in LegacyRequestStates, as the baseline.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestTransitionBenchmark {
+
+    private static final RequestStatus[] STATUSES = RequestStatus.values();
+
+    private final Municipality municipality = new Municipality("Aveiro");
+    private final LocalDateTime datetime = LocalDateTime.now();
+    private final LegacyRequest[] legacyRequests = new LegacyRequest[STATUSES.length];
+    private final LegacyRequest legacyScratch = new LegacyRequest(new Request(municipality, datetime));
+
+    @Setup
+    public void setup() {
+        for (RequestStatus status : STATUSES) {
+            Request request = new Request(municipality, datetime);
+            request.setRequestStatus(status);
+            legacyRequests[status.ordinal()] = new LegacyRequest(request);
+        }
+    }
+
+    @Benchmark
+    public void stateFactory(Blackhole blackhole) {
+        for (RequestStatus status : STATUSES) {
+            blackhole.consume(RequestStateFactory.getState(status));
+        }
+    }
+
+    @Benchmark
+    public void legacyStateFactory(Blackhole blackhole) {
+        for (LegacyRequest request : legacyRequests) {
+            blackhole.consume(LegacyRequestStates.getState(request));
+        }
+    }
+
+    @Benchmark
+    public void stateCanTransitionTo(Blackhole blackhole) {
+        for (RequestStatus source : STATUSES) {
+            for (RequestStatus target : STATUSES) {
+                blackhole.consume(RequestStateFactory.getState(source).canTransitionTo(target));
+            }
+        }
+    }
+
+    @Benchmark
+    public void transitionTable(Blackhole blackhole) {
+        for (RequestStatus source : STATUSES) {
+            for (RequestStatus target : STATUSES) {
+                blackhole.consume(RequestTransitions.canTransition(source, target));
+            }
+        }
+    }
+
+    // The old states had no check, callers tried the move and caught IllegalStateException
+    @Benchmark
+    public void legacyTryTransition(Blackhole blackhole) {
+        for (RequestStatus source : STATUSES) {
+            for (RequestStatus target : STATUSES) {
+                legacyScratch.request().setRequestStatus(source);
+                blackhole.consume(LegacyRequestStates.tryTransition(legacyScratch, target));
+            }
+        }
+    }
+
+    @Benchmark
+    public void allowedSources(Blackhole blackhole) {
+        for (RequestStatus target : STATUSES) {
+            blackhole.consume(RequestTransitions.allowedSources(target));
+        }
+    }
+
+    // Includes creating the request and appending a Status per transition
+    @Benchmark
+    public Request walkToCompleted() {
+        return new Request(municipality, datetime).assign().start().complete();
+    }
+
+    @Benchmark
+    public Request cancel() {
+        return new Request(municipality, datetime).cancel();
+    }
+
+    @Benchmark
+    public LegacyRequest legacyWalkToCompleted() {
+        return new LegacyRequest(new Request(municipality, datetime)).assign().start().complete();
+    }
+
+    @Benchmark
+    public LegacyRequest legacyCancel() {
+        return new LegacyRequest(new Request(municipality, datetime)).cancel();
+    }
+}
@@ -0,0 +1,81 @@
+package zeromonos.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import zeromonos.data.residues.Residue;
+import zeromonos.data.residues.ResidueRepository;
+import zeromonos.services.residues.ResidueSearchIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Residue search on H2: the LIKE query of ResidueRepository against the in-memory trigram index
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResidueSearchBenchmark {
+
+    private static final String[] WORDS = {
+            "plastic", "glass", "paper", "cardboard", "metal", "wood", "textile", "battery", "oil", "electronic",
+            "furniture", "mattress", "garden", "rubble", "tyre", "appliance", "bottle", "packaging", "cable", "lamp"
+    };
+
+    @Param({"1000", "10000"})
+    private int residues;
+
+    @Param({"bottle", "electr", "nothing"})
+    private String query;
+
+    private ConfigurableApplicationContext context;
+    private ResidueRepository residueRepository;
+    private ResidueSearchIndex searchIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        residueRepository = context.getBean(ResidueRepository.class);
+        searchIndex = context.getBean(ResidueSearchIndex.class);
+
+        Random random = new Random(42);
+        List<Residue> batch = new ArrayList<>(residues);
+        for (int i = 0; i < residues; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + i;
+            String desc = "Old " + WORDS[random.nextInt(WORDS.length)] + " and " + WORDS[random.nextInt(WORDS.length)];
+            batch.add(new Residue(name, desc, 1f, 1f));
+        }
+        residueRepository.saveAll(batch);
+        searchIndex.rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Residue> repositoryLike() {
+        return residueRepository.findAllBySimilarNameOrDesc(query);
+    }
+
+    @Benchmark
+    public List<Long> trigramIndex() {
+        return searchIndex.search(query, 100);
+    }
+}
@@ -0,0 +1,86 @@
+package zeromonos.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import zeromonos.services.requests.TruckPacker;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Packing the open requests of a municipality into trucks, against a first fit that scans every open truck
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TruckPackerBenchmark {
+
+    private static final double MAX_WEIGHT = 1000;
+    private static final double MAX_VOLUME = 20;
+
+    @Param({"10000", "100000"})
+    private int requests;
+
+    private double[] weights;
+    private double[] volumes;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        weights = new double[requests];
+        volumes = new double[requests];
+        for (int i = 0; i < requests; i++) {
+            weights[i] = 1 + random.nextDouble() * 50;
+            volumes[i] = 0.05 + random.nextDouble() * 2;
+        }
+    }
+
+    @Benchmark
+    public int[] segmentTree() {
+        return TruckPacker.pack(weights, volumes, MAX_WEIGHT, MAX_VOLUME);
+    }
+
+    @Benchmark
+    public int[] linearScan() {
+        Integer[] order = new Integer[requests];
+        for (int i = 0; i < requests; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(share(b), share(a)));
+
+        int[] trucks = new int[requests];
+        double[] spareWeight = new double[requests];
+        double[] spareVolume = new double[requests];
+        int open = 0;
+        for (int i : order) {
+            int truck = 0;
+            while (truck < open && (spareWeight[truck] < weights[i] || spareVolume[truck] < volumes[i])) {
+                truck++;
+            }
+            if (truck == open) {
+                spareWeight[open] = MAX_WEIGHT;
+                spareVolume[open] = MAX_VOLUME;
+                open++;
+            }
+            spareWeight[truck] -= weights[i];
+            spareVolume[truck] -= volumes[i];
+            trucks[i] = truck;
+        }
+        return trucks;
+    }
+
+    private double share(int i) {
+        return Math.max(weights[i] / MAX_WEIGHT, volumes[i] / MAX_VOLUME);
+    }
+}
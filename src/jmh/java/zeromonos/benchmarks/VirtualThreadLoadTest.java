@@ -0,0 +1,170 @@
+package zeromonos.benchmarks;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import zeromonos.ZeroMonosApplication;
+import zeromonos.data.municipalities.Municipality;
+import zeromonos.data.requests.Request;
+import zeromonos.data.residues.Residue;
+import zeromonos.services.metrics.LogHistogram;
+import zeromonos.services.requests.RequestService;
+import zeromonos.services.residues.ResidueService;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Load test of the REST layer on platform and on virtual threads, not a JMH benchmark. Every connection is
+// held for dbLatencyMs more before it returns to the pool, as a slow database would, and the clients mix
+// request lookups, which need the database, with cached residue searches, which do not.
+//
+//   mvn -Pbenchmarks -DskipTests test-compile exec:java -Dexec.classpathScope=test \
+//       -Dexec.mainClass=zeromonos.benchmarks.VirtualThreadLoadTest -Dexec.args="both 1000 30 20"
+//
+// Arguments: platform|virtual|both, concurrent clients, seconds per mode, database latency in ms.
+public final class VirtualThreadLoadTest {
+
+    private static final int REQUESTS = 200;
+    private static final double LOOKUP_SHARE = 0.2;
+
+    private VirtualThreadLoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "both";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30);
+        long dbLatencyMs = args.length > 3 ? Long.parseLong(args[3]) : 20;
+
+        System.out.printf("%-8s %8s %10s %10s %10s %8s%n", "mode", "calls", "calls/s", "p50 ms", "p99 ms", "errors");
+        for (boolean virtual : mode.equals("both") ? new boolean[]{false, true} : new boolean[]{mode.equals("virtual")}) {
+            Result result = run(virtual, clients, duration, dbLatencyMs);
+            System.out.printf("%-8s %8d %10.0f %10.1f %10.1f %8d%n", virtual ? "virtual" : "platform",
+                    result.latencies().count(), result.latencies().count() / (double) duration.toSeconds(),
+                    result.latencies().percentile(0.50), result.latencies().percentile(0.99), result.errors());
+        }
+    }
+
+    private static Result run(boolean virtual, int clients, Duration duration, long dbLatencyMs) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ZeroMonosApplication.class)
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(slowConnections(dbLatencyMs)))
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtual,
+                        "spring.datasource.url=jdbc:h2:mem:load-test;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "logging.level.root=WARN",
+                        "zeromonos.municipalities.url=",
+                        "zeromonos.municipalities.snapshot=target/load-test-municipalities.json",
+                        "zeromonos.slots.capacity=1000000",
+                        "zeromonos.db.max-wait=60s"
+                )
+                .run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            List<String> tokens = seed(context);
+            return drive(port, tokens, clients, duration);
+        }
+    }
+
+    private static List<String> seed(ConfigurableApplicationContext context) {
+        ResidueService residueService = context.getBean(ResidueService.class);
+        RequestService requestService = context.getBean(RequestService.class);
+        List<String> tokens = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            Long residue = residueService.createResidue(new Residue("Furniture " + i, "Old furniture", 10f, 1f));
+            Request request = new Request(new Municipality("Municipality " + i % 20), LocalDateTime.now().plusDays(1));
+            tokens.add(requestService.createRequest(request, List.of(residue)));
+        }
+        return tokens;
+    }
+
+    private static Result drive(int port, List<String> tokens, int clients, Duration duration) throws Exception {
+        String base = "http://localhost:" + port;
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Result>> futures = new ArrayList<>(clients);
+            for (int c = 0; c < clients; c++) {
+                futures.add(executor.submit(() -> {
+                    LogHistogram latencies = new LogHistogram(0.01, 1.05, 400);
+                    long errors = 0;
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        String path = random.nextDouble() < LOOKUP_SHARE
+                                ? "/api/requests/" + tokens.get(random.nextInt(tokens.size()))
+                                : "/api/residues/search/furniture";
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(
+                                    HttpRequest.newBuilder(URI.create(base + path)).timeout(Duration.ofSeconds(60)).build(),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors++;
+                            }
+                        } catch (IOException e) {
+                            errors++;
+                        }
+                        latencies.add((System.nanoTime() - start) / 1e6, 1);
+                    }
+                    return new Result(latencies, errors);
+                }));
+            }
+
+            LogHistogram latencies = new LogHistogram(0.01, 1.05, 400);
+            long errors = 0;
+            for (Future<Result> future : futures) {
+                latencies.merge(future.get().latencies());
+                errors += future.get().errors();
+            }
+            return new Result(latencies, errors);
+        }
+    }
+
+    // Holds every connection for latencyMs before it goes back, so it is busy as long as a slow query would keep it
+    private static BeanPostProcessor slowConnections(long latencyMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                return new DelegatingDataSource(dataSource) {
+                    @Override
+                    public Connection getConnection() throws SQLException {
+                        Connection connection = super.getConnection();
+                        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                                (proxy, method, methodArgs) -> {
+                                    if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                                        Thread.sleep(latencyMs);
+                                    }
+                                    try {
+                                        return method.invoke(connection, methodArgs);
+                                    } catch (InvocationTargetException e) {
+                                        throw e.getTargetException();
+                                    }
+                                });
+                    }
+                };
+            }
+        };
+    }
+
+    private record Result(LogHistogram latencies, long errors) {}
+}
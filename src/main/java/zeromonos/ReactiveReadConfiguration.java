@@ -0,0 +1,61 @@
+package zeromonos;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+
+// Reactive read path, only with the r2dbc profile. Writes stay on JPA; the R2DBC pool reads the same database
+// and has no transaction manager, so @Transactional keeps resolving to the JPA one. Boot's own R2DBC
+// auto-configuration is excluded in application.properties for that reason, and the JDBC DataSource is
+// declared below because Boot's would not be created next to a ConnectionFactory.
+@Configuration(proxyBeanMethods = false)
+@Profile("r2dbc")
+public class ReactiveReadConfiguration {
+
+    @Bean(destroyMethod = "dispose")
+    ConnectionPool reactiveConnectionFactory(@Value("${zeromonos.r2dbc.url}") String url,
+                                             @Value("${zeromonos.r2dbc.username}") String username,
+                                             @Value("${zeromonos.r2dbc.password}") String password,
+                                             @Value("${zeromonos.r2dbc.pool-size:10}") int poolSize) {
+        ConnectionFactory connectionFactory = ConnectionFactories.get(ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build());
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .initialSize(1)
+                .maxSize(poolSize)
+                .maxIdleTime(Duration.ofMinutes(30))
+                .build());
+    }
+
+    // DataSourceAutoConfiguration backs off once a ConnectionFactory bean exists, so the JPA pool is declared
+    // here from the same spring.datasource properties
+    @Bean
+    @ConfigurationProperties("spring.datasource")
+    DataSourceProperties dataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource dataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+}
@@ -0,0 +1,52 @@
+package zeromonos;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import zeromonos.data.BoundedDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// With spring.threads.virtual.enabled=true Tomcat runs every request, and the service and repository calls
+// it makes, on a virtual thread. Nothing bounds how many of them reach the database then, so the
+// DataSource is wrapped to hand out at most zeromonos.db.max-concurrency connections at once.
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfiguration {
+
+    // Static so the post processor is registered before the DataSource is created
+    @Bean
+    static BeanPostProcessor boundedDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof BoundedDataSource) {
+                    return bean;
+                }
+                return new BoundedDataSource(dataSource,
+                        environment.getProperty("zeromonos.db.max-concurrency", Integer.class, 8),
+                        environment.getProperty("zeromonos.db.max-wait", Duration.class, Duration.ofSeconds(5)));
+            }
+        };
+    }
+
+    @Bean
+    MeterBinder boundedDataSourceMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof BoundedDataSource bounded) {
+                Gauge.builder("zeromonos.db.permits.active", bounded, BoundedDataSource::getActive)
+                        .description("Connections handed out under the database concurrency cap")
+                        .register(registry);
+                Gauge.builder("zeromonos.db.permits.waiting", bounded, BoundedDataSource::getWaiting)
+                        .description("Callers waiting for a database permit")
+                        .register(registry);
+            }
+        };
+    }
+}
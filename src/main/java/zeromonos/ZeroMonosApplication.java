@@ -2,8 +2,10 @@ package zeromonos;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ZeroMonosApplication {
     public static void main(String[] args) {
         SpringApplication.run(ZeroMonosApplication.class, args);
@@ -0,0 +1,60 @@
+package zeromonos.boundary;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import zeromonos.data.requests.SlotDTO;
+import zeromonos.services.municipalities.MunicipalityDirectory;
+import zeromonos.services.municipalities.MunicipalityListing;
+import zeromonos.services.requests.SlotScheduler;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/municipalities")
+public class MunicipalityController {
+
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofHours(1)).cachePublic();
+
+    private final MunicipalityDirectory municipalityDirectory;
+    private final SlotScheduler slotScheduler;
+
+    public MunicipalityController(MunicipalityDirectory municipalityDirectory, SlotScheduler slotScheduler) {
+        this.municipalityDirectory = municipalityDirectory;
+        this.slotScheduler = slotScheduler;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<String>> getMunicipalities(WebRequest webRequest) {
+        MunicipalityListing listing = municipalityDirectory.getListing();
+
+        if (webRequest.checkNotModified(listing.etag())) {
+            return null;
+        }
+        // checkNotModified already set the ETag
+        return ResponseEntity.ok()
+                .cacheControl(CACHE_CONTROL)
+                .body(listing.municipalities());
+    }
+
+    @GetMapping("/{municipality}/slots")
+    public ResponseEntity<List<SlotDTO>> getFreeSlots(@PathVariable("municipality") String municipality,
+                                                      @RequestParam(value = "count", defaultValue = "5") int count) {
+        try {
+            String canonical = municipalityDirectory.resolve(municipality)
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown municipality " + municipality));
+            return ResponseEntity.ok(slotScheduler.findFreeSlots(canonical, LocalDateTime.now(), count));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package zeromonos.boundary;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import zeromonos.data.requests.RequestDTO;
+import zeromonos.data.statuses.StatusDTO;
+import zeromonos.services.requests.ReactiveRequestReader;
+
+// With the r2dbc profile, the high-traffic list reads are also served from R2DBC as NDJSON. They share the
+// paths of RequestController and StatusController and are chosen with Accept: application/x-ndjson;
+// a plain JSON request still goes to the JPA handlers. Spring MVC writes each element as it arrives and
+// only requests more from the Flux once it has been flushed.
+@RestController
+@Profile("r2dbc")
+public class ReactiveReadController {
+
+    private final ReactiveRequestReader reactiveRequestReader;
+
+    public ReactiveReadController(ReactiveRequestReader reactiveRequestReader) {
+        this.reactiveRequestReader = reactiveRequestReader;
+    }
+
+    @GetMapping(value = "/api/requests", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<RequestDTO> streamAllRequests() {
+        return reactiveRequestReader.streamAllRequests();
+    }
+
+    @GetMapping(value = "/api/requests/municipality/{query}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<RequestDTO> streamRequestsByMunicipality(@PathVariable("query") String query) {
+        return reactiveRequestReader.streamRequestsByMunicipality(query);
+    }
+
+    @GetMapping(value = "/api/statuses/request/{token}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<StatusDTO> streamStatuses(@PathVariable("token") String token) {
+        return reactiveRequestReader.streamStatuses(token);
+    }
+}
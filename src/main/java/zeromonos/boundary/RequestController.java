@@ -1,14 +1,30 @@
 package zeromonos.boundary;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import zeromonos.data.requests.Request;
+import zeromonos.data.requests.RequestBatchResultDTO;
+import zeromonos.data.requests.RequestCursor;
 import zeromonos.data.requests.RequestDTO;
+import zeromonos.data.requests.RequestPageDTO;
+import zeromonos.data.requests.RequestSummary;
 import zeromonos.data.residues.ResidueDTO;
+import zeromonos.services.municipalities.MunicipalityDirectory;
+import zeromonos.services.requests.RequestDetailCache;
 import zeromonos.services.requests.RequestService;
+import zeromonos.services.versions.ChangeVersions;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.NoSuchElementException;
 
@@ -17,32 +33,116 @@ import java.util.NoSuchElementException;
 public class RequestController {
 
     private final RequestService requestService;
+    private final RequestEventBroadcaster requestEventBroadcaster;
+    private final MunicipalityDirectory municipalityDirectory;
+    private final ObjectMapper objectMapper;
+    private final RequestDetailCache requestDetailCache;
+    private final ChangeVersions changeVersions;
 
-    public RequestController(RequestService requestService) {
+    public RequestController(RequestService requestService, RequestEventBroadcaster requestEventBroadcaster,
+                             MunicipalityDirectory municipalityDirectory, ObjectMapper objectMapper,
+                             RequestDetailCache requestDetailCache, ChangeVersions changeVersions) {
         this.requestService = requestService;
+        this.requestEventBroadcaster = requestEventBroadcaster;
+        this.municipalityDirectory = municipalityDirectory;
+        this.objectMapper = objectMapper;
+        this.requestDetailCache = requestDetailCache;
+        this.changeVersions = changeVersions;
     }
 
+    // A matching If-None-Match is answered 304 before querying; the tag is read first, so never newer than the rows
     @GetMapping
-    public ResponseEntity<List<RequestDTO>> getAllRequests() {
+    public ResponseEntity<List<RequestDTO>> getAllRequests(WebRequest webRequest) {
+        if (webRequest.checkNotModified(changeVersions.requestsTag())) {
+            return null;
+        }
         List<Request> requests = requestService.getAllRequests();
-        return ResponseEntity.ok(
+        return revalidated(
             requests.stream().map(RequestDTO::fromRequestEntity).toList()
         );
     }
 
+    // Token, municipality, datetime, status and residue count only; paging takes precedence when size is given
+    @GetMapping(params = {"view=summary", "!size"})
+    public ResponseEntity<List<RequestSummary>> getAllRequestSummaries(WebRequest webRequest) {
+        if (webRequest.checkNotModified(changeVersions.requestsTag())) {
+            return null;
+        }
+        return revalidated(requestService.getAllRequestSummaries());
+    }
+
+    @GetMapping(params = "size")
+    public ResponseEntity<RequestPageDTO> getRequestsPage(@RequestParam(value = "after", required = false) String after,
+                                                          @RequestParam("size") int size) {
+        try {
+            RequestCursor cursor = after == null || after.isBlank() ? null : RequestCursor.decode(after);
+            List<Request> requests = requestService.getRequestsPage(cursor, size);
+
+            String nextCursor = requests.size() == size
+                    ? RequestCursor.of(requests.get(requests.size() - 1)).encode()
+                    : null;
+            return ResponseEntity.ok(new RequestPageDTO(
+                    requests.stream().map(RequestDTO::fromRequestEntity).toList(),
+                    nextCursor
+            ));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllRequests() {
+        StreamingResponseBody body = outputStream -> requestService.streamAllRequests(request -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(RequestDTO.fromRequestEntity(request)));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamRequestEvents(@RequestParam(value = "municipality", required = false) String municipality,
+                                          @RequestParam(value = "token", required = false) String token,
+                                          @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return requestEventBroadcaster.subscribe(municipality, token, lastEventId);
+    }
+
     @GetMapping("/municipality/{query}")
-    public ResponseEntity<List<RequestDTO>> getAllRequestsByMunicipality(@PathVariable("query") String query) {
+    public ResponseEntity<List<RequestDTO>> getAllRequestsByMunicipality(@PathVariable("query") String query,
+                                                                         WebRequest webRequest) {
+        if (webRequest.checkNotModified(changeVersions.municipalityTag(query))) {
+            return null;
+        }
         List<Request> requests = requestService.getAllRequestsByMunicipality(query);
-        return ResponseEntity.ok(
+        return revalidated(
                 requests.stream().map(RequestDTO::fromRequestEntity).toList()
         );
     }
 
+    @GetMapping(value = "/municipality/{query}", params = "view=summary")
+    public ResponseEntity<List<RequestSummary>> getRequestSummariesByMunicipality(@PathVariable("query") String query,
+                                                                                  WebRequest webRequest) {
+        if (webRequest.checkNotModified(changeVersions.municipalityTag(query))) {
+            return null;
+        }
+        return revalidated(requestService.getRequestSummariesByMunicipality(query));
+    }
+
+    // checkNotModified already set the ETag; no-cache makes the browser revalidate every load with If-None-Match
+    private static <T> ResponseEntity<T> revalidated(T body) {
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(body);
+    }
+
     @PostMapping
     public ResponseEntity<String> createRequest(@RequestBody RequestDTO request) {
         try {
             String token = requestService.createRequest(
-                    RequestDTO.toRequestEntity(request),
+                    RequestDTO.toRequestEntity(request, municipalityDirectory),
                     request.getResidues().stream().map(ResidueDTO::getId).toList()
             );
             return ResponseEntity.status(HttpStatus.CREATED).body(token);
@@ -50,15 +150,37 @@ public class RequestController {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
         } catch (IllegalArgumentException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (IllegalStateException e) {
+            // The pickup slot is fully booked
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
         }
     }
 
-    @GetMapping("/{token}")
-    public ResponseEntity<RequestDTO> getRequest(@PathVariable("token") String token) {
+    @PostMapping("/batch")
+    public ResponseEntity<List<RequestBatchResultDTO>> createRequests(@RequestBody List<RequestDTO> requests) {
         try {
-            return ResponseEntity.ok(
-                    RequestDTO.fromRequestEntity(requestService.getRequest(token))
+            // Unknown municipalities are rejected item by item, like unknown residues
+            List<RequestBatchResultDTO> results = requestService.createRequests(
+                    requests.stream().map(RequestDTO::toRequestEntity).toList(),
+                    requests.stream().map(r -> r.getResidues().stream().map(ResidueDTO::getId).toList()).toList(),
+                    municipalityDirectory
             );
+            return ResponseEntity.status(HttpStatus.CREATED).body(results);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    // Served from the detail cache; a GET whose If-None-Match matches the ETag is answered 304 without a body
+    @GetMapping("/{token}")
+    public ResponseEntity<byte[]> getRequest(@PathVariable("token") String token) {
+        try {
+            RequestDetailCache.RequestDetail detail = requestDetailCache.get(token);
+            return ResponseEntity.ok()
+                    .eTag(detail.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(detail.json());
         } catch (NoSuchElementException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
         }
@@ -71,6 +193,9 @@ public class RequestController {
             return ResponseEntity.noContent().build();
         } catch (NoSuchElementException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        } catch (OptimisticLockingFailureException e) {
+            // A transition committed between reading the request and deleting it
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
         }
     }
 
@@ -0,0 +1,279 @@
+package zeromonos.boundary;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import zeromonos.data.municipalities.Municipality;
+import zeromonos.data.requests.RequestEventDTO;
+import zeromonos.data.requests.RequestLoad;
+import zeromonos.services.requests.RequestLoadsChangedEvent;
+import zeromonos.services.requests.RequestService;
+import zeromonos.services.requests.RequestStatusChangedEvent;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Status changes and deletions over SSE, as "status" and "deleted" events. Every event has an id made of the instance start time and a sequence number, and the
+// last REPLAY_SIZE events are kept, so a client reconnecting with Last-Event-ID catches up on what it missed.
+// When that is no longer possible, because the id is too old or from another instance or because the send queue
+// overflowed, the client gets a "resync" event and reloads instead.
+@Component
+public class RequestEventBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestEventBroadcaster.class);
+    private static final long EMITTER_TIMEOUT_MILLIS = 30 * 60 * 1000L;
+    static final int REPLAY_SIZE = 256;
+    static final int QUEUE_CAPACITY = 1024;
+    static final String STATUS = "status";
+    static final String DELETED = "deleted";
+
+    // The municipality filter is kept normalized, so it matches the way the municipality lists do
+    record Subscription(SseEmitter emitter, String municipality, String token) {
+
+        Subscription {
+            municipality = municipality == null ? null : Municipality.normalize(municipality);
+        }
+
+        boolean needsMunicipality() {
+            return municipality != null;
+        }
+
+        boolean matches(RequestEventDTO event) {
+            return (token == null || token.equals(event.getToken()))
+                    && (municipality == null
+                    || event.getMunicipality() != null && municipality.equals(Municipality.normalize(event.getMunicipality())));
+        }
+    }
+
+    private record Sent(long id, String name, RequestEventDTO event) {}
+
+    private final RequestService requestService;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    // Slow clients must not hold up the thread that committed the transition, nor pile up events without bound
+    private final ThreadPoolExecutor sender = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY));
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    // Ids are assigned and queued under this lock, so the sender sends them in id order
+    private final Deque<Sent> recent = new ArrayDeque<>(REPLAY_SIZE);
+    private long lastId;
+    private final AtomicBoolean overflowed = new AtomicBoolean();
+
+    public RequestEventBroadcaster(RequestService requestService) {
+        this.requestService = requestService;
+    }
+
+    public SseEmitter subscribe(String municipality, String token) {
+        return subscribe(municipality, token, null);
+    }
+
+    public SseEmitter subscribe(String municipality, String token, String lastEventId) {
+        SseEmitter emitter = newEmitter();
+        Subscription subscription = new Subscription(emitter, blankToNull(municipality), blankToNull(token));
+
+        emitter.onCompletion(() -> subscriptions.remove(subscription));
+        emitter.onTimeout(() -> subscriptions.remove(subscription));
+        emitter.onError(e -> subscriptions.remove(subscription));
+
+        if (blankToNull(lastEventId) == null) {
+            subscriptions.add(subscription);
+            return emitter;
+        }
+        // Events queued before this point are sent before the subscriber is added, so they are replayed instead
+        long upTo;
+        synchronized (recent) {
+            upTo = lastId;
+            try {
+                sender.execute(() -> {
+                    if (replay(subscription, lastEventId, upTo)) {
+                        subscriptions.add(subscription);
+                    }
+                });
+                return emitter;
+            } catch (RejectedExecutionException e) {
+                subscriptions.add(subscription);
+            }
+        }
+        send(subscription, resync(upTo));
+        return emitter;
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(EMITTER_TIMEOUT_MILLIS);
+    }
+
+    int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    // Waits until everything queued so far has been sent
+    void awaitSent() throws Exception {
+        sender.submit(() -> {}).get(10, TimeUnit.SECONDS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(RequestStatusChangedEvent event) {
+        String token = event.token().toString();
+        String municipality = event.municipality();
+        if (municipality == null && subscriptions.stream().anyMatch(Subscription::needsMunicipality)) {
+            municipality = requestService.getMunicipality(token).orElse(null);
+        }
+
+        publish(STATUS, new RequestEventDTO(token, event.requestStatus(), event.datetime(), municipality));
+    }
+
+    // A deleted request carries the status it was in and its municipality, so every filter matches as before
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRequestLoadsChanged(RequestLoadsChangedEvent event) {
+        if (event.change() != RequestLoadsChangedEvent.Change.DELETED) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (RequestLoad load : event.loads()) {
+            publish(DELETED, new RequestEventDTO(load.token().toString(), load.requestStatus(), now, load.municipality()));
+        }
+    }
+
+    private void publish(String name, RequestEventDTO dto) {
+        synchronized (recent) {
+            Sent sent = new Sent(++lastId, name, dto);
+            if (recent.size() == REPLAY_SIZE) {
+                recent.removeFirst();
+            }
+            recent.addLast(sent);
+            // Queued even without subscribers, a reconnecting one may be waiting for its replay in the queue
+            try {
+                sender.execute(() -> broadcast(sent));
+            } catch (RejectedExecutionException e) {
+                overflowed.set(true);
+            }
+        }
+    }
+
+    // Keeps idle connections from being closed by proxies, and tells everyone to resync after an overflow
+    @Scheduled(fixedDelayString = "${zeromonos.requests.events.heartbeat:PT15S}")
+    public void heartbeat() {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        try {
+            sender.execute(() -> {
+                boolean resync = overflowed.getAndSet(false);
+                long id = currentId();
+                // Builders are consumed by the send, so every subscriber gets its own
+                subscriptions.forEach(subscription -> send(subscription,
+                        resync ? resync(id) : SseEmitter.event().comment("heartbeat")));
+            });
+        } catch (RejectedExecutionException e) {
+            // The queue is full of events, which keep the connections busy anyway
+        }
+    }
+
+    private void broadcast(Sent sent) {
+        if (overflowed.getAndSet(false)) {
+            subscriptions.forEach(subscription -> send(subscription, resync(sent.id() - 1)));
+        }
+        for (Subscription subscription : subscriptions) {
+            if (subscription.matches(sent.event())) {
+                send(subscription, event(sent));
+            }
+        }
+    }
+
+    // False when the subscriber went away while catching up
+    private boolean replay(Subscription subscription, String lastEventId, long upTo) {
+        long from = parseId(lastEventId);
+        List<Sent> missed = new ArrayList<>();
+        boolean complete;
+        synchronized (recent) {
+            complete = from >= 0 && from <= upTo && (from == upTo || recent.getFirst().id() <= from + 1);
+            if (complete) {
+                recent.stream().filter(sent -> sent.id() > from && sent.id() <= upTo).forEach(missed::add);
+            }
+        }
+
+        if (!complete) {
+            return send(subscription, resync(upTo));
+        }
+        for (Sent sent : missed) {
+            if (subscription.matches(sent.event()) && !send(subscription, event(sent))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean send(Subscription subscription, SseEmitter.SseEventBuilder event) {
+        try {
+            subscription.emitter().send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Dropping request event subscriber", e);
+            subscriptions.remove(subscription);
+            subscription.emitter().completeWithError(e);
+            return false;
+        }
+    }
+
+    private SseEmitter.SseEventBuilder event(Sent sent) {
+        return SseEmitter.event()
+                .id(eventId(sent.id()))
+                .name(sent.name())
+                .data(sent.event(), MediaType.APPLICATION_JSON);
+    }
+
+    // Moves the client's Last-Event-ID up to id, so a reconnect after the reload does not ask again
+    private SseEmitter.SseEventBuilder resync(long id) {
+        return SseEmitter.event()
+                .id(eventId(id))
+                .name("resync")
+                .data("reload");
+    }
+
+    private long currentId() {
+        synchronized (recent) {
+            return lastId;
+        }
+    }
+
+    private String eventId(long id) {
+        return epoch + "-" + id;
+    }
+
+    // The sequence number of an id issued by this instance, or -1
+    private long parseId(String eventId) {
+        int separator = eventId.lastIndexOf('-');
+        if (separator < 0 || !eventId.substring(0, separator).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdownNow();
+        subscriptions.forEach(subscription -> subscription.emitter().complete());
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
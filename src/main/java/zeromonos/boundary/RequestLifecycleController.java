@@ -0,0 +1,58 @@
+package zeromonos.boundary;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import zeromonos.data.municipalities.Municipality;
+import zeromonos.data.requests.LifecycleTimingDTO;
+import zeromonos.services.municipalities.MunicipalityService;
+import zeromonos.services.requests.RequestLifecycleMetrics;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/requests/lifecycle")
+public class RequestLifecycleController {
+
+    private static final int DEFAULT_DAYS = 7;
+
+    private final RequestLifecycleMetrics requestLifecycleMetrics;
+    private final MunicipalityService municipalityService;
+
+    public RequestLifecycleController(RequestLifecycleMetrics requestLifecycleMetrics, MunicipalityService municipalityService) {
+        this.requestLifecycleMetrics = requestLifecycleMetrics;
+        this.municipalityService = municipalityService;
+    }
+
+    // Days are inclusive and default to the last week; without a municipality, all of them
+    @GetMapping
+    public ResponseEntity<List<LifecycleTimingDTO>> getTimings(
+            @RequestParam(value = "municipality", required = false) String municipality,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_DAYS - 1L);
+
+        String name = null;
+        if (municipality != null) {
+            Optional<Municipality> found = municipalityService.find(municipality);
+            if (found.isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Municipality " + municipality + " has no requests");
+            }
+            name = found.get().getName();
+        }
+
+        try {
+            return ResponseEntity.ok(requestLifecycleMetrics.getTimings(name, start, end));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+}
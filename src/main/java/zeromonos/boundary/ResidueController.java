@@ -1,12 +1,16 @@
 package zeromonos.boundary;
 
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 import zeromonos.data.residues.Residue;
+import zeromonos.data.residues.ResidueCacheStatsDTO;
 import zeromonos.data.residues.ResidueDTO;
 import zeromonos.services.residues.ResidueService;
+import zeromonos.services.versions.ChangeVersions;
 
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -17,17 +21,24 @@ import java.util.Optional;
 public class ResidueController {
 
     private final ResidueService residueService;
+    private final ChangeVersions changeVersions;
 
-    public ResidueController(ResidueService residueService) {
+    public ResidueController(ResidueService residueService, ChangeVersions changeVersions) {
         this.residueService = residueService;
+        this.changeVersions = changeVersions;
     }
 
+    // A matching If-None-Match is answered 304 before the catalogue is read
     @GetMapping
-    public ResponseEntity<List<ResidueDTO>> getAllResidues() {
+    public ResponseEntity<List<ResidueDTO>> getAllResidues(WebRequest webRequest) {
+        if (webRequest.checkNotModified(changeVersions.residuesTag())) {
+            return null;
+        }
         List<Residue> residues = residueService.getAllResidues();
-        return ResponseEntity.ok(
-                residues.stream().map(ResidueDTO::fromResidueEntity).toList()
-        );
+        // checkNotModified already set the ETag
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(residues.stream().map(ResidueDTO::fromResidueEntity).toList());
     }
 
     @PostMapping
@@ -56,10 +67,20 @@ public class ResidueController {
     }
 
     @GetMapping("/search/{query}")
-    public ResponseEntity<List<ResidueDTO>> searchResidues(@PathVariable("query") String query) {
-        List<Residue> results = residueService.getResiduesBySimilarNameOrDesc(query);
-        return ResponseEntity.ok(
-                results.stream().map(ResidueDTO::fromResidueEntity).toList()
-        );
+    public ResponseEntity<List<ResidueDTO>> searchResidues(@PathVariable("query") String query,
+                                                           @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        try {
+            List<Residue> results = residueService.getResiduesBySimilarNameOrDesc(query, limit);
+            return ResponseEntity.ok(
+                    results.stream().map(ResidueDTO::fromResidueEntity).toList()
+            );
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<List<ResidueCacheStatsDTO>> getCacheStats() {
+        return ResponseEntity.ok(residueService.getCacheStats());
     }
 }
@@ -0,0 +1,49 @@
+package zeromonos.boundary;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import zeromonos.data.residues.ResidueLoadCheckDTO;
+import zeromonos.data.residues.ResidueLoadDTO;
+import zeromonos.services.residues.ResidueLoadAggregates;
+
+import java.util.List;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/residues/load")
+public class ResidueLoadController {
+
+    private final ResidueLoadAggregates residueLoadAggregates;
+
+    public ResidueLoadController(ResidueLoadAggregates residueLoadAggregates) {
+        this.residueLoadAggregates = residueLoadAggregates;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ResidueLoadDTO>> getLoads(@RequestParam(value = "by", defaultValue = "municipality") String by) {
+        ResidueLoadAggregates.Dimension dimension;
+        try {
+            dimension = ResidueLoadAggregates.Dimension.valueOf(by.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Loads are grouped by municipality, status or day", e);
+        }
+        return ResponseEntity.ok(residueLoadAggregates.getLoads(dimension));
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<Void> rebuild() {
+        residueLoadAggregates.rebuild();
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/check")
+    public ResponseEntity<ResidueLoadCheckDTO> check() {
+        return ResponseEntity.ok(residueLoadAggregates.check());
+    }
+}
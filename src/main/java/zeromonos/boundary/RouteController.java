@@ -0,0 +1,39 @@
+package zeromonos.boundary;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import zeromonos.data.requests.RoutePlanDTO;
+import zeromonos.services.requests.RouteBatcher;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/requests/routes")
+public class RouteController {
+
+    private final RouteBatcher routeBatcher;
+
+    public RouteController(RouteBatcher routeBatcher) {
+        this.routeBatcher = routeBatcher;
+    }
+
+    @PostMapping
+    public ResponseEntity<RoutePlanDTO> batchReceivedRequests(
+            @RequestParam("municipality") String municipality,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "maxWeight", required = false) Double maxWeight,
+            @RequestParam(value = "maxVolume", required = false) Double maxVolume) {
+        try {
+            return ResponseEntity.ok(routeBatcher.batchReceivedRequests(municipality, from, to, maxWeight, maxVolume));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+}
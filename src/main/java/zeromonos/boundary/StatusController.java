@@ -1,22 +1,49 @@
 package zeromonos.boundary;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import zeromonos.data.requests.Request;
 import zeromonos.data.requests.RequestStatus;
 import zeromonos.data.statuses.Status;
 import zeromonos.data.statuses.StatusDTO;
 import zeromonos.services.statuses.StatusService;
 
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/statuses")
 public class StatusController {
 
     private final StatusService statusService;
+    private final ObjectMapper objectMapper;
 
-    public StatusController(StatusService statusService) {
+    public StatusController(StatusService statusService, ObjectMapper objectMapper) {
         this.statusService = statusService;
+        this.objectMapper = objectMapper;
+    }
+
+    // e.g. everything completed yesterday: ?status=COMPLETED&from=2025-01-01T00:00:00&to=2025-01-02T00:00:00
+    @GetMapping
+    public ResponseEntity<List<StatusDTO>> getStatusesBetween(
+            @RequestParam("status") RequestStatus status,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        try {
+            return ResponseEntity.ok(statusService.getStatusesBetween(status, from, to));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
     }
 
     @GetMapping("/request/{token}")
@@ -27,6 +54,56 @@ public class StatusController {
         );
     }
 
+    // {token: [status, ...]} for every requested token, written while walking the rows grouped by token
+    @PostMapping(value = "/batch", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getStatusesByTokens(@RequestBody(required = false) List<String> tokens) {
+        // Checked before streaming, a failure once the 200 is committed would leave the client truncated JSON
+        if (tokens == null || tokens.contains(null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Body must be a JSON array of tokens");
+        }
+        List<StatusDTO> statuses;
+        try {
+            statuses = statusService.getStatusesByTokens(tokens);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+
+        // Tokens without history still get an entry, in the canonical form the rows use
+        Set<String> withoutHistory = new LinkedHashSet<>();
+        for (String token : tokens) {
+            withoutHistory.add(Request.parseToken(token).map(UUID::toString).orElse(token));
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartObject();
+                String current = null;
+                for (StatusDTO status : statuses) {
+                    if (!status.getRequestToken().equals(current)) {
+                        if (current != null) {
+                            generator.writeEndArray();
+                        }
+                        current = status.getRequestToken();
+                        withoutHistory.remove(current);
+                        generator.writeArrayFieldStart(current);
+                    }
+                    generator.writeObject(status);
+                }
+                if (current != null) {
+                    generator.writeEndArray();
+                }
+                for (String token : withoutHistory) {
+                    generator.writeArrayFieldStart(token);
+                    generator.writeEndArray();
+                }
+                generator.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
     @GetMapping("/request/{token}/filter/{status}")
     public ResponseEntity<List<StatusDTO>> getStatusesByType(@PathVariable("token") String token,
                                                           @PathVariable("status") RequestStatus status) {
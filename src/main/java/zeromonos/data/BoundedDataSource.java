@@ -0,0 +1,129 @@
+package zeromonos.data;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Caps the connections handed out at once below the pool size. On virtual threads every request can reach
+// the pool at the same time; callers over the cap wait here in arrival order, and give up after maxWait
+// instead of piling onto the pool's own timeout. A permit is held from getConnection until close.
+// A thread that already holds one, such as a REQUIRES_NEW transaction inside another, takes further connections
+// without a second permit: waiting there could deadlock once every permit is held by such a thread.
+public class BoundedDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final long maxWaitNanos;
+    // Connections open on each thread; the permit is taken by the first and given back by the last
+    private final ThreadLocal<AtomicInteger> held = ThreadLocal.withInitial(AtomicInteger::new);
+
+    public BoundedDataSource(DataSource target, int maxConcurrency, Duration maxWait) {
+        super(target);
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Database concurrency must be at least 1");
+        }
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.maxConcurrency = maxConcurrency;
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        AtomicInteger open = acquire();
+        try {
+            return bounded(super.getConnection(), open);
+        } catch (SQLException | RuntimeException e) {
+            release(open);
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        AtomicInteger open = acquire();
+        try {
+            return bounded(super.getConnection(username, password), open);
+        } catch (SQLException | RuntimeException e) {
+            release(open);
+            throw e;
+        }
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int getActive() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    public int getWaiting() {
+        return permits.getQueueLength();
+    }
+
+    private AtomicInteger acquire() throws SQLException {
+        AtomicInteger open = held.get();
+        if (open.getAndIncrement() > 0) {
+            return open;
+        }
+        try {
+            if (!permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "No database permit within " + Duration.ofNanos(maxWaitNanos) + ", " + getWaiting() + " callers waiting");
+            }
+            return open;
+        } catch (InterruptedException e) {
+            open.decrementAndGet();
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database permit", e);
+        } catch (SQLException e) {
+            open.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void release(AtomicInteger open) {
+        if (open.decrementAndGet() == 0) {
+            permits.release();
+        }
+    }
+
+    // Counts the connection as closed on the first close only, a connection may be closed more than once
+    private Connection bounded(Connection connection, AtomicInteger open) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                        try {
+                            connection.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                release(open);
+                            }
+                        }
+                        return null;
+                    }
+                    if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+                        return proxy == args[0];
+                    }
+                    if (method.getName().equals("hashCode") && method.getParameterCount() == 0) {
+                        return System.identityHashCode(proxy);
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
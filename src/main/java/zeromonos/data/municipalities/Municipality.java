@@ -0,0 +1,76 @@
+package zeromonos.data.municipalities;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.validator.constraints.Length;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+@Entity
+@Immutable
+@BatchSize(size = 64)
+public class Municipality {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[\\s\\-]+");
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    // Lookup key: lower case, no accents, hyphens and runs of spaces folded to one space
+    @NotNull
+    @Column(unique = true)
+    @Length(max = 50)
+    private String normalizedName;
+
+    @NotNull
+    @Column
+    @Length(max = 50)
+    private String name;
+
+    // Constructors
+
+    public Municipality() {}
+
+    public Municipality(String name) {
+        this.name = name.trim();
+        this.normalizedName = normalize(name);
+    }
+
+    public static String normalize(String name) {
+        String stripped = DIACRITICS.matcher(Normalizer.normalize(name.trim(), Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ");
+    }
+
+    // Getters
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getNormalizedName() {
+        return normalizedName;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        Municipality municipality = (Municipality) o;
+        return Objects.equals(getNormalizedName(), municipality.getNormalizedName());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(getNormalizedName());
+    }
+}
@@ -0,0 +1,9 @@
+package zeromonos.data.municipalities;
+
+import java.util.Optional;
+
+public interface MunicipalityLookup {
+
+    // Canonical spelling of the municipality, or empty when it is not known
+    Optional<String> resolve(String municipality);
+}
@@ -0,0 +1,12 @@
+package zeromonos.data.municipalities;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface MunicipalityRepository extends JpaRepository<Municipality, Integer> {
+
+    Optional<Municipality> findByNormalizedName(String normalizedName);
+}
@@ -1,31 +1,12 @@
 package zeromonos.data.requests;
 
-public class AssignedState implements RequestState {
-    private Request request;
+public final class AssignedState implements RequestState {
+    static final AssignedState INSTANCE = new AssignedState();
 
-    public AssignedState(Request request) {
-        this.request = request;
-    }
-
-    @Override
-    public void assign() {
-        throw new IllegalStateException("Illegal state transition.");
-    }
-
-    @Override
-    public void start() {
-        request.setRequestStatus(RequestStatus.IN_PROGRESS);
-        request.setState(RequestStateFactory.getState(request));
-    }
-
-    @Override
-    public void complete() {
-        throw new IllegalStateException("Illegal state transition.");
-    }
+    private AssignedState() {}
 
     @Override
-    public void cancel() {
-        request.setRequestStatus(RequestStatus.CANCELED);
-        request.setState(RequestStateFactory.getState(request));
+    public RequestStatus getStatus() {
+        return RequestStatus.ASSIGNED;
     }
 }
@@ -1,29 +1,12 @@
 package zeromonos.data.requests;
 
-public class CanceledState implements RequestState {
-    private Request request;
+public final class CanceledState implements RequestState {
+    static final CanceledState INSTANCE = new CanceledState();
 
-    public CanceledState(Request request) {
-        this.request = request;
-    }
-
-    @Override
-    public void assign() {
-        throw new IllegalStateException("Illegal state transition.");
-    }
-
-    @Override
-    public void start() {
-        throw new IllegalStateException("Illegal state transition.");
-    }
-
-    @Override
-    public void complete() {
-        throw new IllegalStateException("Illegal state transition.");
-    }
+    private CanceledState() {}
 
     @Override
-    public void cancel() {
-        throw new IllegalStateException("Illegal state transition.");
+    public RequestStatus getStatus() {
+        return RequestStatus.CANCELED;
     }
 }
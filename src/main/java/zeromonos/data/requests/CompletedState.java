@@ -1,29 +1,12 @@
 package zeromonos.data.requests;
 
-public class CompletedState implements RequestState {
-    private Request request;
+public final class CompletedState implements RequestState {
+    static final CompletedState INSTANCE = new CompletedState();
 
-    public CompletedState(Request request) {
-        this.request = request;
-    }
-
-    @Override
-    public void assign() {
-        throw new IllegalStateException("Illegal state transition.");
-    }
-
-    @Override
-    public void start() {
-        throw new IllegalStateException("Illegal state transition.");
-    }
-
-    @Override
-    public void complete() {
-        throw new IllegalStateException("Illegal state transition.");
-    }
+    private CompletedState() {}
 
     @Override
-    public void cancel() {
-        throw new IllegalStateException("Illegal state transition.");
+    public RequestStatus getStatus() {
+        return RequestStatus.COMPLETED;
     }
 }
@@ -1,30 +1,12 @@
 package zeromonos.data.requests;
 
-public class InProgressState implements RequestState {
-    private Request request;
+public final class InProgressState implements RequestState {
+    static final InProgressState INSTANCE = new InProgressState();
 
-    public InProgressState(Request request) {
-        this.request = request;
-    }
-
-    @Override
-    public void assign() {
-        throw new IllegalStateException("Illegal state transition.");
-    }
-
-    @Override
-    public void start() {
-        throw new IllegalStateException("Illegal state transition.");
-    }
-
-    @Override
-    public void complete() {
-        request.setRequestStatus(RequestStatus.COMPLETED);
-        request.setState(RequestStateFactory.getState(request));
-    }
+    private InProgressState() {}
 
     @Override
-    public void cancel() {
-        throw new IllegalStateException("Illegal state transition.");
+    public RequestStatus getStatus() {
+        return RequestStatus.IN_PROGRESS;
     }
 }
@@ -0,0 +1,61 @@
+package zeromonos.data.requests;
+
+// How long requests stayed in one status before moving on, in seconds
+public class LifecycleTimingDTO {
+
+    private RequestStatus phase;
+    private long transitions;
+    private double p50;
+    private double p95;
+    private double p99;
+
+    public LifecycleTimingDTO() {}
+
+    public LifecycleTimingDTO(RequestStatus phase, long transitions, double p50, double p95, double p99) {
+        this.phase = phase;
+        this.transitions = transitions;
+        this.p50 = p50;
+        this.p95 = p95;
+        this.p99 = p99;
+    }
+
+    public RequestStatus getPhase() {
+        return phase;
+    }
+
+    public void setPhase(RequestStatus phase) {
+        this.phase = phase;
+    }
+
+    public long getTransitions() {
+        return transitions;
+    }
+
+    public void setTransitions(long transitions) {
+        this.transitions = transitions;
+    }
+
+    public double getP50() {
+        return p50;
+    }
+
+    public void setP50(double p50) {
+        this.p50 = p50;
+    }
+
+    public double getP95() {
+        return p95;
+    }
+
+    public void setP95(double p95) {
+        this.p95 = p95;
+    }
+
+    public double getP99() {
+        return p99;
+    }
+
+    public void setP99(double p99) {
+        this.p99 = p99;
+    }
+}
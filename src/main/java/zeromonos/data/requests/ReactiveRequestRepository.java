@@ -0,0 +1,71 @@
+package zeromonos.data.requests;
+
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import zeromonos.data.residues.ResidueDTO;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+// R2DBC mirror of the RequestRepository reads behind the list endpoints. Rows are mapped straight to DTOs,
+// residues and statuses are fetched per batch of requests by the caller.
+@Repository
+@Profile("r2dbc")
+public class ReactiveRequestRepository {
+
+    private static final String SELECT_REQUESTS = "SELECT r.token, r.request_status, m.name AS municipality, r.datetime "
+            + "FROM request r JOIN municipality m ON m.id = r.municipality_id ";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveRequestRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    // Same order as streamAllOrderedByCursor
+    public Flux<RequestDTO> findAllOrderedByCursor() {
+        return databaseClient.sql(SELECT_REQUESTS + "ORDER BY r.datetime, r.token")
+                .map(ReactiveRequestRepository::toRequest)
+                .all();
+    }
+
+    // A range scan on request_municipality_datetime_idx, like findAllWithResiduesByMunicipalityOrderByDatetime
+    public Flux<RequestDTO> findAllByMunicipalityOrderByDatetime(Integer municipalityId) {
+        return databaseClient.sql(SELECT_REQUESTS + "WHERE r.municipality_id = :municipality ORDER BY r.datetime, r.token")
+                .bind("municipality", municipalityId)
+                .map(ReactiveRequestRepository::toRequest)
+                .all();
+    }
+
+    public Flux<ResidueDTO> findAllResiduesByRequestTokenIn(Collection<UUID> tokens) {
+        // desc is a keyword, and H2 and PostgreSQL fold the quoted column differently, so it is read by label
+        return databaseClient.sql("SELECT * FROM residue WHERE request_token IN (:tokens) ORDER BY id")
+                .bind("tokens", tokens)
+                .map(ReactiveRequestRepository::toResidue)
+                .all();
+    }
+
+    private static RequestDTO toRequest(Readable row) {
+        RequestDTO request = new RequestDTO();
+        request.setToken(row.get("token", UUID.class).toString());
+        request.setRequestStatus(RequestStatus.valueOf(row.get("request_status", String.class)));
+        request.setMunicipality(row.get("municipality", String.class));
+        request.setDatetime(row.get("datetime", LocalDateTime.class));
+        return request;
+    }
+
+    private static ResidueDTO toResidue(Readable row) {
+        ResidueDTO residue = new ResidueDTO();
+        residue.setId(row.get("id", Long.class));
+        residue.setName(row.get("name", String.class));
+        residue.setDesc(row.get("desc", String.class));
+        residue.setWeight(row.get("weight", Float.class));
+        residue.setVolume(row.get("volume", Float.class));
+        residue.setRequestToken(row.get("request_token", UUID.class).toString());
+        return residue;
+    }
+}
@@ -1,31 +1,12 @@
 package zeromonos.data.requests;
 
-public class ReceivedState implements RequestState {
-    private Request request;
+public final class ReceivedState implements RequestState {
+    static final ReceivedState INSTANCE = new ReceivedState();
 
-    public ReceivedState(Request request) {
-        this.request = request;
-    }
-
-    @Override
-    public void assign() {
-        request.setRequestStatus(RequestStatus.ASSIGNED);
-        request.setState(RequestStateFactory.getState(request));
-    }
-
-    @Override
-    public void start() {
-        throw new IllegalStateException("Illegal state transition.");
-    }
-
-    @Override
-    public void complete() {
-        throw new IllegalStateException("Illegal state transition.");
-    }
+    private ReceivedState() {}
 
     @Override
-    public void cancel() {
-        request.setRequestStatus(RequestStatus.CANCELED);
-        request.setState(RequestStateFactory.getState(request));
+    public RequestStatus getStatus() {
+        return RequestStatus.RECEIVED;
     }
 }
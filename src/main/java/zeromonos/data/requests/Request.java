@@ -2,7 +2,8 @@ package zeromonos.data.requests;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
-import org.hibernate.validator.constraints.Length;
+import org.hibernate.annotations.BatchSize;
+import zeromonos.data.municipalities.Municipality;
 import zeromonos.data.residues.Residue;
 import zeromonos.data.statuses.Status;
 
@@ -10,15 +11,21 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
 
 @Entity
+@Table(indexes = @Index(name = "request_municipality_datetime_idx", columnList = "municipality_id, datetime"))
 public class Request {
 
     // Persisted state
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
-    private String token;
+    @TimeOrderedUuid
+    private UUID token;
+
+    @Version
+    private Long version;
 
     @NotNull
     @Column
@@ -26,18 +33,21 @@ public class Request {
     private RequestStatus requestStatus = RequestStatus.RECEIVED;
 
     @NotNull
-    @Column
-    @Length(max = 50)
-    private String municipality;
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "municipality_id")
+    private Municipality municipality;
 
     @NotNull
     @Column
     private LocalDateTime datetime;
 
-    @OneToMany(cascade = CascadeType.ALL)
+    @BatchSize(size = 64)
+    @OrderBy("id")
+    @OneToMany(mappedBy = "request", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Status> statuses = new ArrayList<>();
 
     @NotNull
+    @BatchSize(size = 64)
     @OneToMany(mappedBy = "request", cascade = CascadeType.ALL,  orphanRemoval = true)
     private List<Residue> residues = new ArrayList<>();
 
@@ -45,7 +55,7 @@ public class Request {
 
     public Request() {}
 
-    public Request(String municipality, LocalDateTime datetime) {
+    public Request(Municipality municipality, LocalDateTime datetime) {
         this.municipality = municipality;
         this.datetime = datetime;
         this.statuses.add(new Status(RequestStatus.RECEIVED, LocalDateTime.now(), this));
@@ -63,62 +73,65 @@ public class Request {
         residue.setRequest(null);
     }
 
-    // Transient state
-
-    @Transient
-    private RequestState state;
-
-    @PostLoad
-    @PostPersist
-    private void initState() {
-        this.state = RequestStateFactory.getState(this);
-    }
-
     // Expose state behavior
 
     public Request assign() {
-        getState().assign();
-        this.statuses.add(new Status(RequestStatus.ASSIGNED, LocalDateTime.now(), this));
-        return this;
+        return transitionTo(RequestStatus.ASSIGNED);
     }
 
     public Request start() {
-        getState().start();
-        this.statuses.add(new Status(RequestStatus.IN_PROGRESS, LocalDateTime.now(), this));
-        return this;
+        return transitionTo(RequestStatus.IN_PROGRESS);
     }
 
     public Request complete() {
-        getState().complete();
-        this.statuses.add(new Status(RequestStatus.COMPLETED, LocalDateTime.now(), this));
-        return this;
+        return transitionTo(RequestStatus.COMPLETED);
     }
 
     public Request cancel() {
-        getState().cancel();
-        this.statuses.add(new Status(RequestStatus.CANCELED, LocalDateTime.now(), this));
+        return transitionTo(RequestStatus.CANCELED);
+    }
+
+    public boolean canTransitionTo(RequestStatus target) {
+        return RequestTransitions.canTransition(requestStatus, target);
+    }
+
+    private Request transitionTo(RequestStatus target) {
+        if (!canTransitionTo(target)) {
+            throw new IllegalStateException("Illegal state transition.");
+        }
+        this.requestStatus = target;
+        this.statuses.add(new Status(target, LocalDateTime.now(), this));
         return this;
     }
 
     // Getters and Setters
 
     public RequestState getState() {
-        if (state == null) {
-            state = RequestStateFactory.getState(this);
-        }
-        return state;
+        return RequestStateFactory.getState(requestStatus);
     }
 
-    public void setState(RequestState state) {
-        this.state = state;
+    public UUID getId() {
+        return token;
     }
 
     public String getToken() {
-        return token;
+        return token != null ? token.toString() : null;
     }
 
     public void setToken(String token) {
-        this.token = token;
+        this.token = token != null ? UUID.fromString(token) : null;
+    }
+
+    public static Optional<UUID> parseToken(String token) {
+        try {
+            return Optional.of(UUID.fromString(token));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return Optional.empty();
+        }
+    }
+
+    public Long getVersion() {
+        return version;
     }
 
     public RequestStatus getRequestStatus() {
@@ -129,10 +142,14 @@ public class Request {
         this.requestStatus = requestStatus;
     }
 
-    public String getMunicipality() {
+    public Municipality getMunicipality() {
         return municipality;
     }
 
+    public void setMunicipality(Municipality municipality) {
+        this.municipality = municipality;
+    }
+
     public LocalDateTime getDatetime() {
         return datetime;
     }
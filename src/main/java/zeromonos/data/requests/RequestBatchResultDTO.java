@@ -0,0 +1,48 @@
+package zeromonos.data.requests;
+
+public class RequestBatchResultDTO {
+
+    private int index;
+    private String token;
+    private String error;
+
+    public static RequestBatchResultDTO created(int index, String token) {
+        return new RequestBatchResultDTO(index, token, null);
+    }
+
+    public static RequestBatchResultDTO rejected(int index, String error) {
+        return new RequestBatchResultDTO(index, null, error);
+    }
+
+    public RequestBatchResultDTO() {}
+
+    public RequestBatchResultDTO(int index, String token, String error) {
+        this.index = index;
+        this.token = token;
+        this.error = error;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
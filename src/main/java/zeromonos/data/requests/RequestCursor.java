@@ -0,0 +1,34 @@
+package zeromonos.data.requests;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+public record RequestCursor(LocalDateTime datetime, UUID token) {
+
+    private static final String SEPARATOR = "|";
+
+    public static RequestCursor of(Request request) {
+        return new RequestCursor(request.getDatetime(), request.getId());
+    }
+
+    public static RequestCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Malformed cursor " + cursor);
+            }
+            return new RequestCursor(LocalDateTime.parse(raw.substring(0, separator)), UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed cursor " + cursor, e);
+        }
+    }
+
+    public String encode() {
+        String raw = datetime + SEPARATOR + token;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
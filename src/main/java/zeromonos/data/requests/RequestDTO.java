@@ -1,5 +1,7 @@
 package zeromonos.data.requests;
 
+import zeromonos.data.municipalities.Municipality;
+import zeromonos.data.municipalities.MunicipalityLookup;
 import zeromonos.data.residues.Residue;
 import zeromonos.data.residues.ResidueDTO;
 import zeromonos.data.statuses.Status;
@@ -18,12 +20,22 @@ public class RequestDTO {
     private List<ResidueDTO> residues = new ArrayList<>();
     private List<StatusDTO> statuses = new ArrayList<>();
 
+    public static Request toRequestEntity(RequestDTO requestDTO, MunicipalityLookup municipalities) {
+        String municipality = municipalities.resolve(requestDTO.municipality)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown municipality " + requestDTO.municipality));
+        // Resolved to its row by RequestService before the request is saved
+        return new Request(new Municipality(municipality), requestDTO.datetime);
+    }
+
+    // Keeps the municipality as given, for RequestService.createRequests to resolve item by item
     public static Request toRequestEntity(RequestDTO requestDTO) {
-        return new Request(requestDTO.municipality, requestDTO.datetime);
+        return new Request(requestDTO.municipality == null ? null : new Municipality(requestDTO.municipality), requestDTO.datetime);
     }
 
     public static RequestDTO fromRequestEntity(Request request) {
-        return new RequestDTO(request.getToken(), request.getRequestStatus(), request.getMunicipality(), request.getDatetime(), request.getResidues(), request.getStatuses());
+        // A request without a municipality maps to a null name, as it did before municipalities had their own table
+        String municipality = request.getMunicipality() == null ? null : request.getMunicipality().getName();
+        return new RequestDTO(request.getToken(), request.getRequestStatus(), municipality, request.getDatetime(), request.getResidues(), request.getStatuses());
     }
 
     public RequestDTO() {}
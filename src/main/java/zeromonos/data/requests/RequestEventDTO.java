@@ -0,0 +1,52 @@
+package zeromonos.data.requests;
+
+import java.time.LocalDateTime;
+
+public class RequestEventDTO {
+
+    private String token;
+    private RequestStatus requestStatus;
+    private LocalDateTime datetime;
+    private String municipality;
+
+    public RequestEventDTO() {}
+
+    public RequestEventDTO(String token, RequestStatus requestStatus, LocalDateTime datetime, String municipality) {
+        this.token = token;
+        this.requestStatus = requestStatus;
+        this.datetime = datetime;
+        this.municipality = municipality;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public RequestStatus getRequestStatus() {
+        return requestStatus;
+    }
+
+    public void setRequestStatus(RequestStatus requestStatus) {
+        this.requestStatus = requestStatus;
+    }
+
+    public LocalDateTime getDatetime() {
+        return datetime;
+    }
+
+    public void setDatetime(LocalDateTime datetime) {
+        this.datetime = datetime;
+    }
+
+    public String getMunicipality() {
+        return municipality;
+    }
+
+    public void setMunicipality(String municipality) {
+        this.municipality = municipality;
+    }
+}
@@ -0,0 +1,22 @@
+package zeromonos.data.requests;
+
+import zeromonos.data.residues.Residue;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Residue weight and volume carried by one request
+public record RequestLoad(UUID token, String municipality, LocalDateTime datetime, RequestStatus requestStatus,
+                          Double weight, Double volume) {
+
+    public static RequestLoad of(Request request) {
+        double weight = 0;
+        double volume = 0;
+        for (Residue residue : request.getResidues()) {
+            weight += residue.getWeight();
+            volume += residue.getVolume();
+        }
+        return new RequestLoad(request.getId(), request.getMunicipality().getName(), request.getDatetime(),
+                request.getRequestStatus(), weight, volume);
+    }
+}
@@ -0,0 +1,8 @@
+package zeromonos.data.requests;
+
+import java.time.LocalDate;
+
+// Residue load of every request sharing a municipality, status and pickup day
+public record RequestLoadTotals(String municipality, RequestStatus requestStatus, LocalDate day,
+                                Long requests, Double weight, Double volume) {
+}
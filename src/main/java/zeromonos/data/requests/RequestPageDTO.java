@@ -0,0 +1,33 @@
+package zeromonos.data.requests;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RequestPageDTO {
+
+    private List<RequestDTO> requests = new ArrayList<>();
+    private String nextCursor;
+
+    public RequestPageDTO() {}
+
+    public RequestPageDTO(List<RequestDTO> requests, String nextCursor) {
+        this.requests = requests;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<RequestDTO> getRequests() {
+        return requests;
+    }
+
+    public void setRequests(List<RequestDTO> requests) {
+        this.requests = requests;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -1,25 +1,130 @@
 package zeromonos.data.requests;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import zeromonos.data.municipalities.Municipality;
 import zeromonos.data.residues.Residue;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface RequestRepository extends JpaRepository<Request, String> {
+public interface RequestRepository extends JpaRepository<Request, UUID> {
 
-    Optional<Request> findRequestByTokenEquals(String token);
-
-    List<Request> findAllByMunicipalityEqualsIgnoreCase(String municipality);
+    Optional<Request> findRequestByTokenEquals(UUID token);
 
     List<Request> findAllByRequestStatusEquals(RequestStatus requestStatus);
 
+    // Fetch residues with the requests, statuses are fetched in a second query (two bags cannot be joined at once)
+
+    @EntityGraph(attributePaths = {"residues", "municipality"})
+    @Query("SELECT r FROM Request r")
+    List<Request> findAllWithResidues();
+
+    // Compares municipality_id only, a range scan on request_municipality_datetime_idx
+    @EntityGraph(attributePaths = {"residues", "municipality"})
+    List<Request> findAllWithResiduesByMunicipalityOrderByDatetime(Municipality municipality);
+
+    // Same predicates as the two reads above, so the statuses land on the requests already loaded without binding
+    // one parameter per request
+
+    @Query("SELECT DISTINCT r FROM Request r LEFT JOIN FETCH r.statuses")
+    List<Request> fetchAllStatuses();
+
+    @Query("SELECT DISTINCT r FROM Request r LEFT JOIN FETCH r.statuses WHERE r.municipality = :municipality")
+    List<Request> fetchStatusesByMunicipality(@Param("municipality") Municipality municipality);
+
     @Query("SELECT r.residues FROM Request r WHERE r.token = :requestToken")
-    List<Residue> findAllResiduesByRequestId(@Param("requestToken") String requestToken);
+    List<Residue> findAllResiduesByRequestId(@Param("requestToken") UUID requestToken);
+
+    // List views, one projection row per request; residues are counted and their names joined, statuses are not read at all
+
+    @Query("SELECT new zeromonos.data.requests.RequestSummary(r.token, m.name, r.datetime, r.requestStatus, COUNT(res.id), "
+            + "LISTAGG(res.name, ', ') WITHIN GROUP (ORDER BY res.id)) "
+            + "FROM Request r JOIN r.municipality m LEFT JOIN r.residues res "
+            + "GROUP BY r.token, m.name, r.datetime, r.requestStatus ORDER BY r.datetime, r.token")
+    List<RequestSummary> findAllSummaries();
+
+    // A range scan on request_municipality_datetime_idx
+    @Query("SELECT new zeromonos.data.requests.RequestSummary(r.token, m.name, r.datetime, r.requestStatus, COUNT(res.id), "
+            + "LISTAGG(res.name, ', ') WITHIN GROUP (ORDER BY res.id)) "
+            + "FROM Request r JOIN r.municipality m LEFT JOIN r.residues res WHERE r.municipality = :municipality "
+            + "GROUP BY r.token, m.name, r.datetime, r.requestStatus ORDER BY r.datetime, r.token")
+    List<RequestSummary> findSummariesByMunicipality(@Param("municipality") Municipality municipality);
+
+    // Keyset pagination over (datetime, token)
+
+    @EntityGraph(attributePaths = "municipality")
+    List<Request> findAllByOrderByDatetimeAscTokenAsc(Limit limit);
+
+    @EntityGraph(attributePaths = "municipality")
+    @Query("SELECT r FROM Request r WHERE r.datetime > :datetime OR (r.datetime = :datetime AND r.token > :token) ORDER BY r.datetime, r.token")
+    List<Request> findAllAfterCursor(@Param("datetime") LocalDateTime datetime, @Param("token") UUID token, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256"))
+    @Query("SELECT r FROM Request r ORDER BY r.datetime, r.token")
+    Stream<Request> streamAllOrderedByCursor();
+
+    // Transition fast path, the allowed source statuses come from RequestTransitions
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Request r SET r.requestStatus = :target, r.version = r.version + 1 WHERE r.token = :token AND r.requestStatus IN :sources")
+    int updateRequestStatusIfIn(@Param("token") UUID token, @Param("sources") Collection<RequestStatus> sources, @Param("target") RequestStatus target);
+
+    // Whole truck load at once, the caller compares the count with the tokens it asked for
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Request r SET r.requestStatus = :target, r.version = r.version + 1 WHERE r.token IN :tokens AND r.requestStatus IN :sources")
+    int updateRequestStatusesIfIn(@Param("tokens") Collection<UUID> tokens, @Param("sources") Collection<RequestStatus> sources, @Param("target") RequestStatus target);
+
+    @Query("SELECT r.requestStatus FROM Request r WHERE r.token = :token")
+    Optional<RequestStatus> findRequestStatusByToken(@Param("token") UUID token);
+
+    // Bookings that still hold a pickup slot, a range scan on request_municipality_datetime_idx
+    @Query("SELECT r.datetime FROM Request r WHERE r.municipality = :municipality AND r.datetime >= :from AND r.datetime < :to "
+            + "AND r.requestStatus <> zeromonos.data.requests.RequestStatus.CANCELED")
+    List<LocalDateTime> findActiveDatetimesByMunicipalityBetween(@Param("municipality") Municipality municipality,
+                                                                 @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT r.municipality.name FROM Request r WHERE r.token = :token")
+    Optional<String> findMunicipalityByToken(@Param("token") UUID token);
+
+    // Reads the foreign key only, a primary key lookup
+    @Query("SELECT r.municipality.id FROM Request r WHERE r.token = :token")
+    Optional<Integer> findMunicipalityIdByToken(@Param("token") UUID token);
+
+    // Residue load, per request to rebuild the in-memory aggregates and per group to check them
+
+    @Query("SELECT new zeromonos.data.requests.RequestLoad(r.token, r.municipality.name, r.datetime, r.requestStatus, "
+            + "COALESCE(SUM(res.weight), 0.0), COALESCE(SUM(res.volume), 0.0)) "
+            + "FROM Request r LEFT JOIN r.residues res GROUP BY r.token, r.municipality.name, r.datetime, r.requestStatus")
+    List<RequestLoad> findAllLoads();
+
+    // Loads to batch into trucks, a range scan on request_municipality_datetime_idx
+    @Query("SELECT new zeromonos.data.requests.RequestLoad(r.token, r.municipality.name, r.datetime, r.requestStatus, "
+            + "COALESCE(SUM(res.weight), 0.0), COALESCE(SUM(res.volume), 0.0)) "
+            + "FROM Request r LEFT JOIN r.residues res "
+            + "WHERE r.municipality = :municipality AND r.requestStatus = :status AND r.datetime >= :from AND r.datetime < :to "
+            + "GROUP BY r.token, r.municipality.name, r.datetime, r.requestStatus ORDER BY r.datetime, r.token")
+    List<RequestLoad> findLoadsByMunicipalityAndStatusBetween(@Param("municipality") Municipality municipality,
+                                                              @Param("status") RequestStatus status,
+                                                              @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT new zeromonos.data.requests.RequestLoadTotals(r.municipality.name, r.requestStatus, cast(r.datetime as LocalDate), "
+            + "COUNT(DISTINCT r.token), COALESCE(SUM(res.weight), 0.0), COALESCE(SUM(res.volume), 0.0)) "
+            + "FROM Request r LEFT JOIN r.residues res GROUP BY r.municipality.name, r.requestStatus, cast(r.datetime as LocalDate)")
+    List<RequestLoadTotals> sumLoadsByMunicipalityStatusAndDay();
 
-    void deleteByToken(String token);
+    void deleteByToken(UUID token);
 }
@@ -1,8 +1,9 @@
 package zeromonos.data.requests;
 
 public interface RequestState {
-    void assign();
-    void start();
-    void complete();
-    void cancel();
+    RequestStatus getStatus();
+
+    default boolean canTransitionTo(RequestStatus target) {
+        return RequestTransitions.canTransition(getStatus(), target);
+    }
 }
@@ -1,15 +1,26 @@
 package zeromonos.data.requests;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 public class RequestStateFactory {
+    private static final Map<RequestStatus, RequestState> STATES = new EnumMap<>(RequestStatus.class);
+
+    static {
+        STATES.put(RequestStatus.RECEIVED, ReceivedState.INSTANCE);
+        STATES.put(RequestStatus.ASSIGNED, AssignedState.INSTANCE);
+        STATES.put(RequestStatus.IN_PROGRESS, InProgressState.INSTANCE);
+        STATES.put(RequestStatus.COMPLETED, CompletedState.INSTANCE);
+        STATES.put(RequestStatus.CANCELED, CanceledState.INSTANCE);
+    }
+
     private RequestStateFactory() {}
 
+    public static RequestState getState(RequestStatus status) {
+        return STATES.get(status);
+    }
+
     public static RequestState getState(Request request) {
-        return switch (request.getRequestStatus()) {
-            case RECEIVED -> new ReceivedState(request);
-            case ASSIGNED -> new AssignedState(request);
-            case IN_PROGRESS -> new InProgressState(request);
-            case COMPLETED -> new CompletedState(request);
-            case CANCELED -> new CanceledState(request);
-        };
+        return getState(request.getRequestStatus());
     }
 }
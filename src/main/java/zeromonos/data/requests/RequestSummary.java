@@ -0,0 +1,10 @@
+package zeromonos.data.requests;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// What the request lists show, read as one row per request instead of the request with its residues and statuses.
+// residueNames is null when the request has no residues.
+public record RequestSummary(UUID token, String municipality, LocalDateTime datetime, RequestStatus requestStatus,
+                             Long residueCount, String residueNames) {
+}
@@ -0,0 +1,73 @@
+package zeromonos.data.requests;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+public final class RequestTransitions {
+
+    private static final Map<RequestStatus, Set<RequestStatus>> TARGETS = new EnumMap<>(RequestStatus.class);
+    private static final Map<RequestStatus, Set<RequestStatus>> SOURCES = new EnumMap<>(RequestStatus.class);
+    private static final boolean[][] MATRIX;
+    // Transitive closure of MATRIX, the statuses a request can still get to
+    private static final boolean[][] REACHABLE;
+
+    static {
+        TARGETS.put(RequestStatus.RECEIVED, EnumSet.of(RequestStatus.ASSIGNED, RequestStatus.CANCELED));
+        TARGETS.put(RequestStatus.ASSIGNED, EnumSet.of(RequestStatus.IN_PROGRESS, RequestStatus.CANCELED));
+        TARGETS.put(RequestStatus.IN_PROGRESS, EnumSet.of(RequestStatus.COMPLETED));
+        TARGETS.put(RequestStatus.COMPLETED, EnumSet.noneOf(RequestStatus.class));
+        TARGETS.put(RequestStatus.CANCELED, EnumSet.noneOf(RequestStatus.class));
+
+        RequestStatus[] statuses = RequestStatus.values();
+        MATRIX = new boolean[statuses.length][statuses.length];
+        for (RequestStatus to : statuses) {
+            SOURCES.put(to, EnumSet.noneOf(RequestStatus.class));
+        }
+        for (RequestStatus from : statuses) {
+            for (RequestStatus to : TARGETS.get(from)) {
+                MATRIX[from.ordinal()][to.ordinal()] = true;
+                SOURCES.get(to).add(from);
+            }
+        }
+
+        // Warshall's closure, one pass per intermediate status
+        REACHABLE = new boolean[statuses.length][];
+        for (int i = 0; i < statuses.length; i++) {
+            REACHABLE[i] = MATRIX[i].clone();
+        }
+        for (int via = 0; via < statuses.length; via++) {
+            for (int from = 0; from < statuses.length; from++) {
+                if (REACHABLE[from][via]) {
+                    for (int to = 0; to < statuses.length; to++) {
+                        REACHABLE[from][to] |= REACHABLE[via][to];
+                    }
+                }
+            }
+        }
+
+        TARGETS.replaceAll((status, set) -> Collections.unmodifiableSet(set));
+        SOURCES.replaceAll((status, set) -> Collections.unmodifiableSet(set));
+    }
+
+    private RequestTransitions() {}
+
+    public static boolean canTransition(RequestStatus from, RequestStatus to) {
+        return MATRIX[from.ordinal()][to.ordinal()];
+    }
+
+    // True when one or more transitions lead from one status to the other
+    public static boolean canReach(RequestStatus from, RequestStatus to) {
+        return REACHABLE[from.ordinal()][to.ordinal()];
+    }
+
+    public static Set<RequestStatus> allowedTargets(RequestStatus from) {
+        return TARGETS.get(from);
+    }
+
+    public static Set<RequestStatus> allowedSources(RequestStatus to) {
+        return SOURCES.get(to);
+    }
+}
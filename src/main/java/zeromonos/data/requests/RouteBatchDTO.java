@@ -0,0 +1,63 @@
+package zeromonos.data.requests;
+
+import java.util.List;
+
+// One truck load, assigned as a whole or not at all
+public class RouteBatchDTO {
+
+    private int truck;
+    private List<String> tokens;
+    private double weight;
+    private double volume;
+    private boolean assigned;
+
+    public RouteBatchDTO() {}
+
+    public RouteBatchDTO(int truck, List<String> tokens, double weight, double volume, boolean assigned) {
+        this.truck = truck;
+        this.tokens = tokens;
+        this.weight = weight;
+        this.volume = volume;
+        this.assigned = assigned;
+    }
+
+    public int getTruck() {
+        return truck;
+    }
+
+    public void setTruck(int truck) {
+        this.truck = truck;
+    }
+
+    public List<String> getTokens() {
+        return tokens;
+    }
+
+    public void setTokens(List<String> tokens) {
+        this.tokens = tokens;
+    }
+
+    public double getWeight() {
+        return weight;
+    }
+
+    public void setWeight(double weight) {
+        this.weight = weight;
+    }
+
+    public double getVolume() {
+        return volume;
+    }
+
+    public void setVolume(double volume) {
+        this.volume = volume;
+    }
+
+    public boolean isAssigned() {
+        return assigned;
+    }
+
+    public void setAssigned(boolean assigned) {
+        this.assigned = assigned;
+    }
+}
@@ -0,0 +1,43 @@
+package zeromonos.data.requests;
+
+import java.util.List;
+
+public class RoutePlanDTO {
+
+    private String municipality;
+    private List<RouteBatchDTO> batches;
+    // Requests heavier or bulkier than a whole truck
+    private List<String> oversized;
+
+    public RoutePlanDTO() {}
+
+    public RoutePlanDTO(String municipality, List<RouteBatchDTO> batches, List<String> oversized) {
+        this.municipality = municipality;
+        this.batches = batches;
+        this.oversized = oversized;
+    }
+
+    public String getMunicipality() {
+        return municipality;
+    }
+
+    public void setMunicipality(String municipality) {
+        this.municipality = municipality;
+    }
+
+    public List<RouteBatchDTO> getBatches() {
+        return batches;
+    }
+
+    public void setBatches(List<RouteBatchDTO> batches) {
+        this.batches = batches;
+    }
+
+    public List<String> getOversized() {
+        return oversized;
+    }
+
+    public void setOversized(List<String> oversized) {
+        this.oversized = oversized;
+    }
+}
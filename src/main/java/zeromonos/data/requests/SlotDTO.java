@@ -0,0 +1,42 @@
+package zeromonos.data.requests;
+
+import java.time.LocalDateTime;
+
+public class SlotDTO {
+
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private int remaining;
+
+    public SlotDTO() {}
+
+    public SlotDTO(LocalDateTime start, LocalDateTime end, int remaining) {
+        this.start = start;
+        this.end = end;
+        this.remaining = remaining;
+    }
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public void setStart(LocalDateTime start) {
+        this.start = start;
+    }
+
+    public LocalDateTime getEnd() {
+        return end;
+    }
+
+    public void setEnd(LocalDateTime end) {
+        this.end = end;
+    }
+
+    public int getRemaining() {
+        return remaining;
+    }
+
+    public void setRemaining(int remaining) {
+        this.remaining = remaining;
+    }
+}
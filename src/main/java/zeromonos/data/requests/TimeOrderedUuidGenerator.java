@@ -0,0 +1,58 @@
+package zeromonos.data.requests;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+
+/**
+ * Generates version 7 UUIDs (RFC 9562): a 48 bit unix millisecond timestamp followed by a
+ * 12 bit sequence and 62 random bits. Ids created later always compare greater, so inserts
+ * append to the right edge of the primary key index instead of splitting random pages.
+ */
+public class TimeOrderedUuidGenerator implements BeforeExecutionGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int MAX_SEQUENCE = 0xFFF;
+
+    private static long lastMillis = -1;
+    private static int sequence;
+
+    public static UUID next() {
+        long millis;
+        int seq;
+        synchronized (TimeOrderedUuidGenerator.class) {
+            millis = Math.max(System.currentTimeMillis(), lastMillis);
+            if (millis == lastMillis) {
+                sequence++;
+                if (sequence > MAX_SEQUENCE) {
+                    // Sequence exhausted within this millisecond, borrow the next one
+                    millis++;
+                    sequence = RANDOM.nextInt(MAX_SEQUENCE / 2);
+                }
+            } else {
+                sequence = RANDOM.nextInt(MAX_SEQUENCE / 2);
+            }
+            lastMillis = millis;
+            seq = sequence;
+        }
+
+        long msb = (millis << 16) | 0x7000L | seq;
+        long lsb = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
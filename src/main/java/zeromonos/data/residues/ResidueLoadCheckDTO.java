@@ -0,0 +1,42 @@
+package zeromonos.data.residues;
+
+import java.util.List;
+
+public class ResidueLoadCheckDTO {
+
+    private boolean consistent;
+    private int groups;
+    private List<String> mismatches;
+
+    public ResidueLoadCheckDTO() {}
+
+    public ResidueLoadCheckDTO(boolean consistent, int groups, List<String> mismatches) {
+        this.consistent = consistent;
+        this.groups = groups;
+        this.mismatches = mismatches;
+    }
+
+    public boolean isConsistent() {
+        return consistent;
+    }
+
+    public void setConsistent(boolean consistent) {
+        this.consistent = consistent;
+    }
+
+    public int getGroups() {
+        return groups;
+    }
+
+    public void setGroups(int groups) {
+        this.groups = groups;
+    }
+
+    public List<String> getMismatches() {
+        return mismatches;
+    }
+
+    public void setMismatches(List<String> mismatches) {
+        this.mismatches = mismatches;
+    }
+}
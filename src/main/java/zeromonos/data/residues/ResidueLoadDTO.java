@@ -0,0 +1,110 @@
+package zeromonos.data.residues;
+
+public class ResidueLoadDTO {
+
+    private String group;
+    private long requests;
+    private double totalWeight;
+    private double totalVolume;
+    private double weightP50;
+    private double weightP95;
+    private double weightP99;
+    private double volumeP50;
+    private double volumeP95;
+    private double volumeP99;
+
+    public ResidueLoadDTO() {}
+
+    public ResidueLoadDTO(String group, long requests, double totalWeight, double totalVolume, double weightP50, double weightP95, double weightP99, double volumeP50, double volumeP95, double volumeP99) {
+        this.group = group;
+        this.requests = requests;
+        this.totalWeight = totalWeight;
+        this.totalVolume = totalVolume;
+        this.weightP50 = weightP50;
+        this.weightP95 = weightP95;
+        this.weightP99 = weightP99;
+        this.volumeP50 = volumeP50;
+        this.volumeP95 = volumeP95;
+        this.volumeP99 = volumeP99;
+    }
+
+    public String getGroup() {
+        return group;
+    }
+
+    public void setGroup(String group) {
+        this.group = group;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public void setRequests(long requests) {
+        this.requests = requests;
+    }
+
+    public double getTotalWeight() {
+        return totalWeight;
+    }
+
+    public void setTotalWeight(double totalWeight) {
+        this.totalWeight = totalWeight;
+    }
+
+    public double getTotalVolume() {
+        return totalVolume;
+    }
+
+    public void setTotalVolume(double totalVolume) {
+        this.totalVolume = totalVolume;
+    }
+
+    public double getWeightP50() {
+        return weightP50;
+    }
+
+    public void setWeightP50(double weightP50) {
+        this.weightP50 = weightP50;
+    }
+
+    public double getWeightP95() {
+        return weightP95;
+    }
+
+    public void setWeightP95(double weightP95) {
+        this.weightP95 = weightP95;
+    }
+
+    public double getWeightP99() {
+        return weightP99;
+    }
+
+    public void setWeightP99(double weightP99) {
+        this.weightP99 = weightP99;
+    }
+
+    public double getVolumeP50() {
+        return volumeP50;
+    }
+
+    public void setVolumeP50(double volumeP50) {
+        this.volumeP50 = volumeP50;
+    }
+
+    public double getVolumeP95() {
+        return volumeP95;
+    }
+
+    public void setVolumeP95(double volumeP95) {
+        this.volumeP95 = volumeP95;
+    }
+
+    public double getVolumeP99() {
+        return volumeP99;
+    }
+
+    public void setVolumeP99(double volumeP99) {
+        this.volumeP99 = volumeP99;
+    }
+}
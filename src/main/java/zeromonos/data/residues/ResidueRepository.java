@@ -16,4 +16,13 @@ public interface ResidueRepository extends JpaRepository<Residue, Long> {
     @Query("SELECT r FROM Residue r WHERE LOWER(r.name) LIKE LOWER(CONCAT('%', :query, '%')) OR LOWER(r.desc) LIKE LOWER(CONCAT('%', :query, '%'))")
     List<Residue> findAllBySimilarNameOrDesc(@Param("query") String query);
 
+    // PostgreSQL only, served by the pg_trgm GIN indexes from docs/migrations/V5__residue_trigram_index.sql
+    @Query(value = """
+            SELECT r.* FROM residue r
+            WHERE :query <% r.name OR :query <% r."desc"
+            ORDER BY GREATEST(word_similarity(:query, r.name), word_similarity(:query, r."desc")) DESC, r.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Residue> findAllByTrigramSimilarity(@Param("query") String query, @Param("limit") int limit);
+
 }
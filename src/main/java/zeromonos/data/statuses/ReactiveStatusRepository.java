@@ -0,0 +1,49 @@
+package zeromonos.data.statuses;
+
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import zeromonos.data.requests.RequestStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+// R2DBC mirror of the StatusRepository history reads, served by status_request_datetime_idx
+@Repository
+@Profile("r2dbc")
+public class ReactiveStatusRepository {
+
+    private static final String SELECT_STATUSES = "SELECT id, request_status, datetime, request_token FROM status ";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveStatusRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<StatusDTO> findAllByRequestToken(UUID token) {
+        return databaseClient.sql(SELECT_STATUSES + "WHERE request_token = :token ORDER BY datetime, id")
+                .bind("token", token)
+                .map(ReactiveStatusRepository::toStatus)
+                .all();
+    }
+
+    public Flux<StatusDTO> findAllByRequestTokenIn(Collection<UUID> tokens) {
+        return databaseClient.sql(SELECT_STATUSES + "WHERE request_token IN (:tokens) ORDER BY request_token, datetime, id")
+                .bind("tokens", tokens)
+                .map(ReactiveStatusRepository::toStatus)
+                .all();
+    }
+
+    private static StatusDTO toStatus(Readable row) {
+        return new StatusDTO(
+                row.get("id", Long.class),
+                RequestStatus.valueOf(row.get("request_status", String.class)),
+                row.get("datetime", LocalDateTime.class),
+                row.get("request_token", UUID.class)
+        );
+    }
+}
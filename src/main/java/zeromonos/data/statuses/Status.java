@@ -2,13 +2,21 @@ package zeromonos.data.statuses;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Immutable;
 import zeromonos.data.requests.Request;
 import zeromonos.data.requests.RequestStatus;
 
 import java.time.LocalDateTime;
 import java.util.Objects;
 
+// Append-only history: rows are inserted with the transition and never updated, so Hibernate skips dirty checks.
+// On PostgreSQL the table is partitioned by month on datetime (docs/migrations/V7__status_history.sql).
 @Entity
+@Immutable
+@Table(indexes = {
+        @Index(name = "status_request_datetime_idx", columnList = "request_token, datetime"),
+        @Index(name = "status_status_datetime_idx", columnList = "request_status, datetime")
+})
 public class Status {
 
     @Id
@@ -26,7 +34,7 @@ public class Status {
 
     @NotNull
     @ManyToOne
-    @JoinColumn
+    @JoinColumn(name = "request_token", updatable = false)
     private Request request;
 
     public Status() {}
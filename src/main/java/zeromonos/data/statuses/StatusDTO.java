@@ -4,6 +4,7 @@ import zeromonos.data.requests.Request;
 import zeromonos.data.requests.RequestStatus;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 public class StatusDTO {
     private Long id;
@@ -22,6 +23,14 @@ public class StatusDTO {
         this.requestToken = request != null ? request.getToken() : null ;
     }
 
+    // Projection straight from the status table, without loading the request
+    public StatusDTO(Long id, RequestStatus requestStatus, LocalDateTime datetime, UUID requestToken) {
+        this.id = id;
+        this.requestStatus = requestStatus;
+        this.datetime = datetime;
+        this.requestToken = requestToken != null ? requestToken.toString() : null;
+    }
+
     public Long getId() {
         return id;
     }
@@ -1,16 +1,46 @@
 package zeromonos.data.statuses;
 
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.stereotype.Repository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
 import zeromonos.data.requests.RequestStatus;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
-@Repository
-public interface StatusRepository extends JpaRepository<Status, Long> {
+// Append-only: statuses can be inserted and read, and only go away with their request
+@org.springframework.stereotype.Repository
+public interface StatusRepository extends Repository<Status, Long> {
 
-    List<Status> findAllByRequest_TokenAndRequestStatusEquals(String token, RequestStatus status);
+    <S extends Status> S save(S status);
 
-    List<Status> findAllByRequest_Token(String requestToken);
+    <S extends Status> List<S> saveAll(Iterable<S> statuses);
 
+    List<Status> findAllByRequest_TokenAndRequestStatusEquals(UUID token, RequestStatus status);
+
+    // History of one request, a range scan on status_request_datetime_idx
+    @Query("SELECT s FROM Status s WHERE s.request.token = :requestToken ORDER BY s.datetime, s.id")
+    List<Status> findAllByRequest_Token(@Param("requestToken") UUID requestToken);
+
+    // Histories of many requests in one IN query, grouped by request so they can be written out in one pass
+    @Query("SELECT new zeromonos.data.statuses.StatusDTO(s.id, s.requestStatus, s.datetime, s.request.token) FROM Status s "
+            + "WHERE s.request.token IN :requestTokens ORDER BY s.request.token, s.datetime, s.id")
+    List<StatusDTO> findAllByRequestTokenIn(@Param("requestTokens") Collection<UUID> requestTokens);
+
+    // Transitions to one status across all requests, a range scan on status_status_datetime_idx.
+    // Reads only the status table, and on PostgreSQL only the monthly partitions the window overlaps.
+    @Query("SELECT new zeromonos.data.statuses.StatusDTO(s.id, s.requestStatus, s.datetime, s.request.token) FROM Status s "
+            + "WHERE s.requestStatus = :status AND s.datetime >= :from AND s.datetime < :to ORDER BY s.datetime, s.id")
+    List<StatusDTO> findAllByRequestStatusBetween(@Param("status") RequestStatus status,
+                                                  @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Full history of every request still open or with a transition since the given time, grouped by request
+    @Query("SELECT new zeromonos.data.statuses.StatusTransition(r.token, r.municipality.name, s.requestStatus, s.datetime) "
+            + "FROM Status s JOIN s.request r "
+            + "WHERE r.requestStatus IN :open OR EXISTS (SELECT 1 FROM Status recent WHERE recent.request = r AND recent.datetime >= :since) "
+            + "ORDER BY r.token, s.datetime, s.id")
+    List<StatusTransition> findAllTransitionsOfOpenOrRecentRequests(@Param("open") Collection<RequestStatus> open,
+                                                                    @Param("since") LocalDateTime since);
 }
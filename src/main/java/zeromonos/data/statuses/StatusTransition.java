@@ -0,0 +1,10 @@
+package zeromonos.data.statuses;
+
+import zeromonos.data.requests.RequestStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// One status row with the request it belongs to, to replay lifecycles without loading entities
+public record StatusTransition(UUID token, String municipality, RequestStatus requestStatus, LocalDateTime datetime) {
+}
@@ -0,0 +1,71 @@
+package zeromonos.services.metrics;
+
+// Counts of observations in log-scale buckets, each a fixed ratio wider than the last, so a percentile
+// is within about half that ratio of the exact value. Removing an observation is exact, and two histograms
+// with the same layout merge by adding their counts, so a percentile over any set of them costs O(buckets).
+public final class LogHistogram {
+
+    private final double min;
+    private final double logGrowth;
+    private final double growth;
+    private final int[] counts;
+    private long total;
+
+    public LogHistogram(double min, double growth, int buckets) {
+        this.min = min;
+        this.growth = growth;
+        this.logGrowth = Math.log(growth);
+        this.counts = new int[buckets];
+    }
+
+    public void add(double value, int sign) {
+        counts[bucket(value)] += sign;
+        total += sign;
+    }
+
+    public void merge(LogHistogram other) {
+        if (other.counts.length != counts.length || other.min != min || other.growth != growth) {
+            throw new IllegalArgumentException("Histograms have different buckets");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+    }
+
+    public long count() {
+        return total;
+    }
+
+    public double percentile(double quantile) {
+        if (total <= 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return value(i);
+            }
+        }
+        return value(counts.length - 1);
+    }
+
+    // An empty histogram with the same buckets, to merge others into
+    public LogHistogram emptyCopy() {
+        return new LogHistogram(min, growth, counts.length);
+    }
+
+    private int bucket(double value) {
+        if (value < min) {
+            return 0;
+        }
+        return Math.min(counts.length - 1, 1 + (int) (Math.log(value / min) / logGrowth));
+    }
+
+    // Geometric middle of the bucket
+    private double value(int bucket) {
+        return bucket == 0 ? 0 : min * Math.pow(growth, bucket - 0.5);
+    }
+}
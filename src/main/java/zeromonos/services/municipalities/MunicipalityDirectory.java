@@ -0,0 +1,191 @@
+package zeromonos.services.municipalities;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import zeromonos.data.municipalities.Municipality;
+import zeromonos.data.municipalities.MunicipalityLookup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Collator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+
+// Municipalities from the GEO API, served from memory and mirrored to a local snapshot for offline startups
+@Service
+public class MunicipalityDirectory implements MunicipalityLookup {
+
+    private static final Logger logger = LoggerFactory.getLogger(MunicipalityDirectory.class);
+
+    private record Snapshot(MunicipalityListing listing, Map<String, String> index, String upstreamETag) {
+
+        static final Snapshot EMPTY = new Snapshot(new MunicipalityListing(List.of(), etag(List.of())), Map.of(), null);
+    }
+
+    private final RestClient restClient;
+    private final ObjectMapper objectMapper;
+    private final MunicipalityService municipalityService;
+    private final String url;
+    private final Path snapshotPath;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public MunicipalityDirectory(RestClient.Builder restClientBuilder, ObjectMapper objectMapper,
+                                 MunicipalityService municipalityService,
+                                 @Value("${zeromonos.municipalities.url:https://json.geoapi.pt/municipios}") String url,
+                                 @Value("${zeromonos.municipalities.snapshot:data/municipalities.json}") Path snapshotPath) {
+        this.restClient = restClientBuilder.build();
+        this.objectMapper = objectMapper;
+        this.municipalityService = municipalityService;
+        this.url = url;
+        this.snapshotPath = snapshotPath;
+    }
+
+    public MunicipalityListing getListing() {
+        return snapshot.listing();
+    }
+
+    public boolean isLoaded() {
+        return !snapshot.index().isEmpty();
+    }
+
+    // Until a list has been loaded only municipalities that already have a row are accepted, so a first boot without
+    // the GEO API and without a snapshot does not store whatever names are typed
+    @Override
+    public Optional<String> resolve(String municipality) {
+        if (municipality == null || municipality.isBlank()) {
+            return Optional.empty();
+        }
+        if (!isLoaded()) {
+            return municipalityService.find(municipality).map(Municipality::getName);
+        }
+        return Optional.ofNullable(snapshot.index().get(Municipality.normalize(municipality)));
+    }
+
+    @PostConstruct
+    public void loadSnapshot() {
+        if (!Files.isReadable(snapshotPath)) {
+            return;
+        }
+        try {
+            JsonNode root = objectMapper.readTree(snapshotPath.toFile());
+            JsonNode upstreamETag = root.get("etag");
+            snapshot = build(names(root.get("municipalities")), upstreamETag == null ? null : upstreamETag.asText());
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable municipality snapshot {}", snapshotPath, e);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${zeromonos.municipalities.initial-delay:PT0S}",
+            fixedDelayString = "${zeromonos.municipalities.refresh-interval:PT24H}")
+    public void refresh() {
+        if (url == null || url.isBlank()) {
+            return;
+        }
+        Snapshot current = snapshot;
+        try {
+            ResponseEntity<String> response = restClient.get()
+                    .uri(url)
+                    .headers(headers -> {
+                        if (current.upstreamETag() != null) {
+                            headers.setIfNoneMatch(current.upstreamETag());
+                        }
+                    })
+                    .retrieve()
+                    .toEntity(String.class);
+
+            if (response.getStatusCode() == HttpStatus.NOT_MODIFIED || response.getBody() == null) {
+                return;
+            }
+            List<String> names = names(objectMapper.readTree(response.getBody()));
+            if (names.isEmpty()) {
+                logger.warn("Municipality API returned an empty list, keeping the current one");
+                return;
+            }
+
+            Snapshot refreshed = build(names, response.getHeaders().getFirst(HttpHeaders.ETAG));
+            if (!refreshed.listing().equals(current.listing())) {
+                snapshot = refreshed;
+                writeSnapshot(refreshed);
+            }
+        } catch (RestClientException | IOException e) {
+            logger.warn("Could not refresh municipalities from {}, keeping {} cached entries",
+                    url, current.listing().municipalities().size(), e);
+        }
+    }
+
+    private void writeSnapshot(Snapshot snapshot) throws IOException {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("etag", snapshot.upstreamETag());
+        root.set("municipalities", objectMapper.valueToTree(snapshot.listing().municipalities()));
+
+        Path parent = snapshotPath.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temporary = Files.createTempFile(parent, "municipalities", ".json");
+        Files.write(temporary, objectMapper.writeValueAsBytes(root));
+        Files.move(temporary, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static Snapshot build(List<String> names, String upstreamETag) {
+        Map<String, String> index = new HashMap<>(names.size() * 2);
+        for (String name : names) {
+            index.putIfAbsent(Municipality.normalize(name), name);
+        }
+        return new Snapshot(new MunicipalityListing(names, etag(names)), Map.copyOf(index), upstreamETag);
+    }
+
+    // Every string in the document, like Object.values(data).flat() did in the browser, in Portuguese
+    // dictionary order; secondary strength folds case but keeps Águeda apart from Agueda
+    private static List<String> names(JsonNode node) {
+        Collator collator = Collator.getInstance(Locale.forLanguageTag("pt-PT"));
+        collator.setStrength(Collator.SECONDARY);
+        TreeSet<String> names = new TreeSet<>(collator);
+        collect(node, names);
+        return List.copyOf(names);
+    }
+
+    private static void collect(JsonNode node, TreeSet<String> names) {
+        if (node == null) {
+            return;
+        }
+        if (node.isTextual() && !node.asText().isBlank()) {
+            names.add(node.asText().trim());
+        } else if (node.isContainerNode()) {
+            node.forEach(child -> collect(child, names));
+        }
+    }
+
+    private static String etag(List<String> names) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String name : names) {
+                digest.update(name.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package zeromonos.services.municipalities;
+
+import java.util.List;
+
+public record MunicipalityListing(List<String> municipalities, String etag) {}
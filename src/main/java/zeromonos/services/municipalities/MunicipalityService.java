@@ -0,0 +1,82 @@
+package zeromonos.services.municipalities;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import zeromonos.data.municipalities.Municipality;
+import zeromonos.data.municipalities.MunicipalityRepository;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Resolves municipality names to their rows; rows are immutable, so resolved ones are kept in memory
+@Service
+public class MunicipalityService {
+
+    private final MunicipalityRepository municipalityRepository;
+    private final TransactionTemplate insertTransaction;
+    private final Map<String, Municipality> municipalities = new ConcurrentHashMap<>();
+    private final Map<Integer, Municipality> byId = new ConcurrentHashMap<>();
+
+    public MunicipalityService(MunicipalityRepository municipalityRepository, PlatformTransactionManager transactionManager) {
+        this.municipalityRepository = municipalityRepository;
+        this.insertTransaction = new TransactionTemplate(transactionManager);
+        this.insertTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public Optional<Municipality> find(String name) {
+        if (name == null || name.isBlank()) {
+            return Optional.empty();
+        }
+        String normalizedName = Municipality.normalize(name);
+        Municipality cached = municipalities.get(normalizedName);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<Municipality> found = municipalityRepository.findByNormalizedName(normalizedName);
+        found.ifPresent(this::remember);
+        return found;
+    }
+
+    // For writers that only got the foreign key back; each municipality is read once per instance
+    public Optional<Municipality> findById(Integer id) {
+        Municipality cached = byId.get(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<Municipality> found = municipalityRepository.findById(id);
+        found.ifPresent(this::remember);
+        return found;
+    }
+
+    private void remember(Municipality municipality) {
+        municipalities.put(municipality.getNormalizedName(), municipality);
+        if (municipality.getId() != null) {
+            byId.put(municipality.getId(), municipality);
+        }
+    }
+
+    public Municipality getOrCreate(String name) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Municipality cannot be empty");
+        }
+        return find(name).orElseGet(() -> create(name));
+    }
+
+    // Inserted in its own transaction so losing a race on the unique key does not doom the caller's. Writers resolve
+    // before opening theirs, so this does not hold a second connection
+    private Municipality create(String name) {
+        try {
+            Municipality created = insertTransaction.execute(status -> municipalityRepository.saveAndFlush(new Municipality(name)));
+            remember(created);
+            return created;
+        } catch (DataIntegrityViolationException e) {
+            return find(name).orElseThrow(() -> e);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package zeromonos.services.requests;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import zeromonos.data.requests.ReactiveRequestRepository;
+import zeromonos.data.requests.Request;
+import zeromonos.data.requests.RequestDTO;
+import zeromonos.data.residues.ResidueDTO;
+import zeromonos.data.statuses.ReactiveStatusRepository;
+import zeromonos.data.statuses.StatusDTO;
+import zeromonos.services.municipalities.MunicipalityService;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Reactive counterpart of the RequestService list reads. Requests are taken in batches as the subscriber asks
+// for them; each batch costs one residue and one status query, so demand flows back to the database cursor.
+@Service
+@Profile("r2dbc")
+public class ReactiveRequestReader {
+
+    static final int BATCH_SIZE = 256;
+
+    private final ReactiveRequestRepository requestRepository;
+    private final ReactiveStatusRepository statusRepository;
+    private final MunicipalityService municipalityService;
+
+    public ReactiveRequestReader(ReactiveRequestRepository requestRepository, ReactiveStatusRepository statusRepository,
+                                 MunicipalityService municipalityService) {
+        this.requestRepository = requestRepository;
+        this.statusRepository = statusRepository;
+        this.municipalityService = municipalityService;
+    }
+
+    public Flux<RequestDTO> streamAllRequests() {
+        return withChildren(requestRepository.findAllOrderedByCursor());
+    }
+
+    // Unknown municipalities have no requests; the name is resolved from the in-memory cache first
+    public Flux<RequestDTO> streamRequestsByMunicipality(String municipality) {
+        return Mono.fromCallable(() -> municipalityService.find(municipality))
+                .flatMapMany(found -> found
+                        .map(m -> withChildren(requestRepository.findAllByMunicipalityOrderByDatetime(m.getId())))
+                        .orElseGet(Flux::empty));
+    }
+
+    // Malformed tokens have no history, as in StatusService
+    public Flux<StatusDTO> streamStatuses(String token) {
+        return Request.parseToken(token)
+                .map(statusRepository::findAllByRequestToken)
+                .orElseGet(Flux::empty);
+    }
+
+    private Flux<RequestDTO> withChildren(Flux<RequestDTO> requests) {
+        return requests
+                .buffer(BATCH_SIZE)
+                .concatMap(this::attachChildren, 1);
+    }
+
+    private Flux<RequestDTO> attachChildren(List<RequestDTO> batch) {
+        List<UUID> tokens = batch.stream().map(request -> UUID.fromString(request.getToken())).toList();
+        Mono<Map<String, Collection<ResidueDTO>>> residues = requestRepository.findAllResiduesByRequestTokenIn(tokens)
+                .collectMultimap(ResidueDTO::getRequestToken);
+        Mono<Map<String, Collection<StatusDTO>>> statuses = statusRepository.findAllByRequestTokenIn(tokens)
+                .collectMultimap(StatusDTO::getRequestToken);
+
+        return Mono.zip(residues, statuses).flatMapIterable(children -> {
+            for (RequestDTO request : batch) {
+                request.getResidues().addAll(children.getT1().getOrDefault(request.getToken(), List.of()));
+                request.getStatuses().addAll(children.getT2().getOrDefault(request.getToken(), List.of()));
+            }
+            return batch;
+        });
+    }
+}
@@ -0,0 +1,96 @@
+package zeromonos.services.requests;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import zeromonos.data.requests.Request;
+import zeromonos.data.requests.RequestDTO;
+import zeromonos.data.requests.RequestLoad;
+import zeromonos.data.statuses.Status;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.UUID;
+
+// Serialized RequestDTO of single requests, keyed by token, for clients polling their own request.
+// The ETag is the id of the latest Status, which changes with every transition of that request.
+@Component
+public class RequestDetailCache {
+
+    private final RequestService requestService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<UUID, RequestDetail> details;
+
+    public RequestDetailCache(RequestService requestService, ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${zeromonos.requests.cache.maximum-size:10000}") long maximumSize,
+                              @Value("${zeromonos.requests.cache.ttl:10m}") Duration ttl) {
+        this.requestService = requestService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.details = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public RequestDetail get(String token) {
+        UUID key = Request.parseToken(token)
+                .orElseThrow(() -> new NoSuchElementException("Request with Token " + token + " not found"));
+        // Unknown tokens throw out of the loader and are not cached, so a request created afterwards is found
+        return details.get(key, this::load);
+    }
+
+    private RequestDetail load(UUID token) {
+        return transactionTemplate.execute(status -> {
+            Request request = requestService.getRequest(token.toString());
+            try {
+                return new RequestDetail(
+                        objectMapper.writeValueAsBytes(RequestDTO.fromRequestEntity(request)),
+                        etag(request)
+                );
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static String etag(Request request) {
+        long latest = request.getStatuses().stream()
+                .map(Status::getId)
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .max()
+                .orElse(0L);
+        return "\"" + latest + "\"";
+    }
+
+    // Runs after commit, and before the broadcaster, so a client reacting to the event never reads the old entry
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRequestStatusChanged(RequestStatusChangedEvent event) {
+        details.invalidate(event.token());
+    }
+
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRequestLoadsChanged(RequestLoadsChangedEvent event) {
+        if (event.change() != RequestLoadsChangedEvent.Change.DELETED) {
+            return;
+        }
+        details.invalidateAll(event.loads().stream().map(RequestLoad::token).toList());
+    }
+
+    public record RequestDetail(byte[] json, String etag) {}
+}
@@ -0,0 +1,285 @@
+package zeromonos.services.requests;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import zeromonos.data.requests.LifecycleTimingDTO;
+import zeromonos.data.requests.RequestLoad;
+import zeromonos.data.requests.RequestStatus;
+import zeromonos.data.requests.RequestTransitions;
+import zeromonos.data.statuses.StatusRepository;
+import zeromonos.data.statuses.StatusTransition;
+import zeromonos.services.metrics.LogHistogram;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Time requests spend in RECEIVED, ASSIGNED and IN_PROGRESS, per municipality and day of the transition that
+// ended the phase. Durations are measured from the status events, so reading percentiles merges one histogram
+// per day instead of replaying status rows. Open requests are tracked with the time their current phase began.
+@Component
+public class RequestLifecycleMetrics {
+
+    public static final String METRIC = "zeromonos.requests.phase.duration";
+    private static final double[] QUANTILES = {0.50, 0.95, 0.99};
+    private static final Set<RequestStatus> PHASES = EnumSet.of(RequestStatus.RECEIVED, RequestStatus.ASSIGNED, RequestStatus.IN_PROGRESS);
+
+    private final StatusRepository statusRepository;
+    private final MeterRegistry meterRegistry;
+    private final int retentionDays;
+    private final int metricsWindowDays;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<UUID, Phase> open = new HashMap<>();
+    private final Map<PhaseKey, NavigableMap<LocalDate, LogHistogram>> byMunicipality = new HashMap<>();
+    private final Map<RequestStatus, NavigableMap<LocalDate, LogHistogram>> overall = new EnumMap<>(RequestStatus.class);
+
+    // Last published percentiles, read by the gauges
+    private final Map<GaugeKey, Double> published = new ConcurrentHashMap<>();
+    private final Map<GaugeKey, Gauge> gauges = new HashMap<>();
+
+    public RequestLifecycleMetrics(StatusRepository statusRepository, MeterRegistry meterRegistry,
+                                   @Value("${zeromonos.lifecycle.retention-days:30}") int retentionDays,
+                                   @Value("${zeromonos.lifecycle.metrics-window-days:7}") int metricsWindowDays) {
+        this.statusRepository = statusRepository;
+        this.meterRegistry = meterRegistry;
+        this.retentionDays = retentionDays;
+        this.metricsWindowDays = metricsWindowDays;
+    }
+
+    // Replays the history of open and recently moved requests; events held back by the lock are applied afterwards
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            open.clear();
+            byMunicipality.clear();
+            overall.clear();
+            List<StatusTransition> transitions = statusRepository.findAllTransitionsOfOpenOrRecentRequests(
+                    PHASES, oldestRetainedDay().atStartOfDay()
+            );
+            for (StatusTransition transition : transitions) {
+                apply(transition.token(), transition.municipality(), transition.requestStatus(), transition.datetime());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        publish();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRequestStatusChanged(RequestStatusChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            apply(event.token(), event.municipality(), event.requestStatus(), event.datetime());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRequestLoadsChanged(RequestLoadsChangedEvent event) {
+        if (event.change() != RequestLoadsChangedEvent.Change.DELETED) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (RequestLoad load : event.loads()) {
+                open.remove(load.token());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Percentiles per phase over whole days [from, to]; every municipality when municipality is null
+    public List<LifecycleTimingDTO> getTimings(String municipality, LocalDate from, LocalDate to) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("Window must start before it ends");
+        }
+        List<LifecycleTimingDTO> timings = new ArrayList<>(PHASES.size());
+        lock.readLock().lock();
+        try {
+            for (RequestStatus phase : PHASES) {
+                NavigableMap<LocalDate, LogHistogram> days = municipality == null
+                        ? overall.get(phase)
+                        : byMunicipality.get(new PhaseKey(municipality, phase));
+                LogHistogram merged = merge(days, from, to);
+                timings.add(new LifecycleTimingDTO(phase, merged.count(),
+                        merged.percentile(QUANTILES[0]), merged.percentile(QUANTILES[1]), merged.percentile(QUANTILES[2])));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return timings;
+    }
+
+    // Recomputes the gauges over the metrics window; a scrape only reads the published values. A phase with no
+    // transitions in the window reports 0, and the gauges of a municipality whose days were all evicted are removed.
+    @Scheduled(fixedDelayString = "${zeromonos.lifecycle.publish-interval:PT1M}")
+    public synchronized void publish() {
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(metricsWindowDays - 1L);
+        Set<GaugeKey> current = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<PhaseKey, NavigableMap<LocalDate, LogHistogram>> entry : byMunicipality.entrySet()) {
+                LogHistogram merged = merge(entry.getValue(), from, to);
+                for (double quantile : QUANTILES) {
+                    GaugeKey key = new GaugeKey(entry.getKey().municipality(), entry.getKey().phase(), quantile);
+                    published.put(key, merged.percentile(quantile));
+                    gauges.computeIfAbsent(key, this::register);
+                    current.add(key);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Iterator<Map.Entry<GaugeKey, Gauge>> registered = gauges.entrySet().iterator();
+        while (registered.hasNext()) {
+            Map.Entry<GaugeKey, Gauge> entry = registered.next();
+            if (!current.contains(entry.getKey())) {
+                meterRegistry.remove(entry.getValue());
+                published.remove(entry.getKey());
+                registered.remove();
+            }
+        }
+    }
+
+    @Scheduled(cron = "0 10 0 * * *")
+    public void evictExpiredDays() {
+        LocalDate oldest = oldestRetainedDay();
+        lock.writeLock().lock();
+        try {
+            byMunicipality.values().forEach(days -> days.headMap(oldest).clear());
+            byMunicipality.values().removeIf(NavigableMap::isEmpty);
+            overall.values().forEach(days -> days.headMap(oldest).clear());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        publish();
+    }
+
+    private Gauge register(GaugeKey key) {
+        return Gauge.builder(METRIC, published, values -> values.getOrDefault(key, 0.0))
+                .description("Time requests spent in a status before moving on, over the last " + metricsWindowDays + " days")
+                .baseUnit("seconds")
+                .tag("municipality", key.municipality())
+                .tag("phase", key.phase().name())
+                .tag("quantile", Double.toString(key.quantile()))
+                .register(meterRegistry);
+    }
+
+    private LocalDate oldestRetainedDay() {
+        return LocalDate.now().minusDays(retentionDays);
+    }
+
+    private static LogHistogram merge(NavigableMap<LocalDate, LogHistogram> days, LocalDate from, LocalDate to) {
+        LogHistogram merged = newHistogram();
+        if (days != null) {
+            days.subMap(from, true, to, true).values().forEach(merged::merge);
+        }
+        return merged;
+    }
+
+    // Durations from one second up to years, percentiles within about 2.5%
+    private static LogHistogram newHistogram() {
+        return new LogHistogram(1, 1.05, 450);
+    }
+
+    // Called with the write lock held; stale and repeated transitions are ignored, so replay and events can overlap.
+    // After-commit events can arrive out of order: a status reachable from the current one is applied, and the step
+    // it skipped is remembered so the late event can still split the time between the two phases.
+    private void apply(UUID token, String municipality, RequestStatus status, LocalDateTime datetime) {
+        Phase current = open.get(token);
+        if (current == null) {
+            if (status == RequestStatus.RECEIVED && municipality != null) {
+                open.put(token, new Phase(municipality, status, datetime, null));
+            }
+            return;
+        }
+        if (current.fills(status, datetime)) {
+            record(current.municipality(), current.skipped().status(), current.skipped().since(), datetime);
+            record(current.municipality(), status, datetime, current.since());
+            close(token, new Phase(current.municipality(), current.status(), current.since(), null));
+            return;
+        }
+        if (!RequestTransitions.canReach(current.status(), status)) {
+            return;
+        }
+
+        if (RequestTransitions.canTransition(current.status(), status)) {
+            record(current.municipality(), current.status(), current.since(), datetime);
+            close(token, new Phase(current.municipality(), status, datetime, null));
+        } else {
+            // Only a single skipped step can be filled in later, longer gaps lose their durations
+            Phase skipped = oneStepBetween(current.status(), status) ? current : null;
+            close(token, new Phase(current.municipality(), status, datetime, skipped));
+        }
+    }
+
+    private static boolean oneStepBetween(RequestStatus from, RequestStatus to) {
+        return RequestTransitions.allowedTargets(from).stream().anyMatch(step -> RequestTransitions.canTransition(step, to));
+    }
+
+    // Ends the phase from since to until, on the day of the transition that ended it
+    private void record(String municipality, RequestStatus phase, LocalDateTime since, LocalDateTime until) {
+        LocalDate day = until.toLocalDate();
+        if (day.isBefore(oldestRetainedDay())) {
+            return;
+        }
+        double seconds = Duration.between(since, until).toMillis() / 1000.0;
+        byMunicipality.computeIfAbsent(new PhaseKey(municipality, phase), k -> new TreeMap<>())
+                .computeIfAbsent(day, d -> newHistogram())
+                .add(seconds, 1);
+        overall.computeIfAbsent(phase, k -> new TreeMap<>())
+                .computeIfAbsent(day, d -> newHistogram())
+                .add(seconds, 1);
+    }
+
+    // A finished request is dropped, unless it still waits for the event of a step it skipped
+    private void close(UUID token, Phase phase) {
+        if (RequestTransitions.allowedTargets(phase.status()).isEmpty() && phase.skipped() == null) {
+            open.remove(token);
+        } else {
+            open.put(token, phase);
+        }
+    }
+
+    private record Phase(String municipality, RequestStatus status, LocalDateTime since, Phase skipped) {
+
+        // Whether status is the one step between skipped and this phase
+        boolean fills(RequestStatus status, LocalDateTime datetime) {
+            return skipped != null
+                    && RequestTransitions.canTransition(skipped.status(), status)
+                    && RequestTransitions.canTransition(status, this.status)
+                    && !datetime.isBefore(skipped.since()) && !datetime.isAfter(since);
+        }
+    }
+
+    private record PhaseKey(String municipality, RequestStatus phase) {}
+
+    private record GaugeKey(String municipality, RequestStatus phase, double quantile) {}
+}
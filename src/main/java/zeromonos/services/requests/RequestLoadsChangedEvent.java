@@ -0,0 +1,18 @@
+package zeromonos.services.requests;
+
+import zeromonos.data.requests.RequestLoad;
+
+import java.util.List;
+
+// Published when requests, and the residue load they carry, are created or deleted
+public record RequestLoadsChangedEvent(Change change, List<RequestLoad> loads) {
+
+    public enum Change {
+        CREATED,
+        DELETED
+    }
+
+    public RequestLoadsChangedEvent {
+        loads = List.copyOf(loads);
+    }
+}
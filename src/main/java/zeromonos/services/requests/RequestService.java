@@ -1,59 +1,271 @@
 package zeromonos.services.requests;
 
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import org.hibernate.Hibernate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import zeromonos.data.municipalities.Municipality;
+import zeromonos.data.municipalities.MunicipalityLookup;
 import zeromonos.data.requests.Request;
+import zeromonos.data.requests.RequestBatchResultDTO;
+import zeromonos.data.requests.RequestCursor;
+import zeromonos.data.requests.RequestLoad;
 import zeromonos.data.requests.RequestRepository;
+import zeromonos.data.requests.RequestStatus;
+import zeromonos.data.requests.RequestSummary;
+import zeromonos.data.requests.RequestTransitions;
 import zeromonos.data.residues.Residue;
 import zeromonos.data.residues.ResidueRepository;
+import zeromonos.data.statuses.Status;
+import zeromonos.data.statuses.StatusRepository;
+import zeromonos.services.municipalities.MunicipalityService;
+import zeromonos.services.residues.ResiduesChangedEvent;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class RequestService implements RequestServiceInterface {
 
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_BATCH_SIZE = 5000;
+    // Tokens bound by one UPDATE of assignAll, far below PostgreSQL's 32767 parameters even once IN lists are padded
+    public static final int ASSIGN_CHUNK_SIZE = 1000;
+
     private final RequestRepository requestRepository;
     private final ResidueRepository residueRepository;
+    private final StatusRepository statusRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final MunicipalityService municipalityService;
+    private final SlotScheduler slotScheduler;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RequestTransitionMetrics transitionMetrics;
 
-    RequestService(RequestRepository requestRepository, ResidueRepository residueRepository) {
+    RequestService(RequestRepository requestRepository, ResidueRepository residueRepository, StatusRepository statusRepository,
+                   EntityManager entityManager, PlatformTransactionManager transactionManager,
+                   MunicipalityService municipalityService, SlotScheduler slotScheduler, ApplicationEventPublisher eventPublisher,
+                   RequestTransitionMetrics transitionMetrics) {
         this.requestRepository = requestRepository;
         this.residueRepository = residueRepository;
+        this.statusRepository = statusRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.municipalityService = municipalityService;
+        this.slotScheduler = slotScheduler;
+        this.eventPublisher = eventPublisher;
+        this.transitionMetrics = transitionMetrics;
     }
 
+    // The municipality is resolved before the transaction opens, so inserting a new one does not need a second
+    // connection while this one is held. A rolled back insert gives its slot back through the scheduler's
+    // afterCompletion hook.
     @Override
     public String createRequest(Request request, List<Long> residueIds) {
         if (residueIds.isEmpty()) {
             throw new IllegalArgumentException("Argument residueIds cannot be empty");
         }
+        resolveMunicipality(request);
 
-        for (Long id: residueIds) {
-            Optional<Residue> r0 = residueRepository.findById(id);
-            if (r0.isPresent()) {
-                request.addResidue(r0.get());
-            } else {
-                throw new NoSuchElementException("Residue with id " + id + " not found");
+        return transactionTemplate.execute(status -> {
+            List<Residue> residues = new ArrayList<>(residueIds.size());
+            for (Long id: residueIds) {
+                Optional<Residue> r0 = residueRepository.findById(id);
+                if (r0.isPresent()) {
+                    residues.add(r0.get());
+                } else {
+                    throw new NoSuchElementException("Residue with id " + id + " not found");
+                }
+            }
+            // Reserved before any residue points at the unsaved request, the scheduler may query and flush
+            if (!slotScheduler.tryReserve(request)) {
+                throw new IllegalStateException(fullSlotMessage(request));
             }
+            residues.forEach(request::addResidue);
+
+            Request saved = requestRepository.saveAndFlush(request);
+            eventPublisher.publishEvent(new ResiduesChangedEvent(ResiduesChangedEvent.Change.UPDATED, saved.getResidues()));
+            eventPublisher.publishEvent(new RequestLoadsChangedEvent(RequestLoadsChangedEvent.Change.CREATED, List.of(RequestLoad.of(saved))));
+            publishCreated(saved);
+            return saved.getToken();
+        });
+    }
+
+    private void resolveMunicipality(Request request) {
+        if (request.getMunicipality() == null) {
+            throw new IllegalArgumentException("Municipality cannot be empty");
         }
-        return requestRepository.saveAndFlush(request).getToken();
+        request.setMunicipality(municipalityService.getOrCreate(request.getMunicipality().getName()));
+    }
+
+    private String resolveMunicipality(Request request, MunicipalityLookup municipalities) {
+        if (request.getMunicipality() == null || request.getMunicipality().getName() == null
+                || request.getMunicipality().getName().isBlank()) {
+            return "Municipality cannot be empty";
+        }
+        String name = request.getMunicipality().getName();
+        Optional<String> canonical = municipalities.resolve(name);
+        if (canonical.isEmpty()) {
+            return "Unknown municipality " + name;
+        }
+        request.setMunicipality(municipalityService.getOrCreate(canonical.get()));
+        return null;
+    }
+
+    private static String fullSlotMessage(Request request) {
+        return "Pickup slot at " + request.getDatetime() + " in " + request.getMunicipality().getName() + " is fully booked";
+    }
+
+    private void publishCreated(Request request) {
+        eventPublisher.publishEvent(new RequestStatusChangedEvent(
+                request.getId(), request.getRequestStatus(), LocalDateTime.now(), request.getMunicipality().getName()
+        ));
+    }
+
+    @Override
+    public List<RequestBatchResultDTO> createRequests(List<Request> requests, List<List<Long>> residueIds,
+                                                     MunicipalityLookup municipalities) {
+        if (requests.size() != residueIds.size()) {
+            throw new IllegalArgumentException("Every request must have its own list of residueIds");
+        }
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch cannot contain more than " + MAX_BATCH_SIZE + " requests");
+        }
+        // Resolved before the transaction opens, as in createRequest
+        List<String> municipalityErrors = requests.stream()
+                .map(request -> resolveMunicipality(request, municipalities))
+                .toList();
+
+        return transactionTemplate.execute(status -> createAccepted(requests, residueIds, municipalityErrors));
+    }
+
+    private List<RequestBatchResultDTO> createAccepted(List<Request> requests, List<List<Long>> residueIds,
+                                                       List<String> municipalityErrors) {
+
+        Map<Long, Residue> residues = residueRepository.findAllById(
+                residueIds.stream().flatMap(List::stream).filter(Objects::nonNull).collect(Collectors.toSet())
+        ).stream().collect(Collectors.toMap(Residue::getId, Function.identity()));
+
+        List<RequestBatchResultDTO> results = new ArrayList<>(requests.size());
+        List<Request> accepted = new ArrayList<>(requests.size());
+        List<Integer> acceptedIndexes = new ArrayList<>(requests.size());
+        Set<Long> claimed = new HashSet<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            String error = validateResidues(residueIds.get(i), residues, claimed);
+            if (error != null) {
+                results.add(RequestBatchResultDTO.rejected(i, error));
+                continue;
+            }
+
+            Request request = requests.get(i);
+            error = municipalityErrors.get(i);
+            if (error != null) {
+                results.add(RequestBatchResultDTO.rejected(i, error));
+                continue;
+            }
+            try {
+                if (!slotScheduler.tryReserve(request)) {
+                    results.add(RequestBatchResultDTO.rejected(i, fullSlotMessage(request)));
+                    continue;
+                }
+            } catch (IllegalArgumentException e) {
+                results.add(RequestBatchResultDTO.rejected(i, e.getMessage()));
+                continue;
+            }
+            claimed.addAll(residueIds.get(i));
+            accepted.add(request);
+            acceptedIndexes.add(i);
+            results.add(null);
+        }
+        // Attached only once every slot is reserved, a reservation may query and flush
+        for (int i = 0; i < accepted.size(); i++) {
+            for (Long id : residueIds.get(acceptedIndexes.get(i))) {
+                accepted.get(i).addResidue(residues.get(id));
+            }
+        }
+
+        requestRepository.saveAll(accepted);
+        requestRepository.flush();
+        eventPublisher.publishEvent(new ResiduesChangedEvent(
+                ResiduesChangedEvent.Change.UPDATED,
+                accepted.stream().flatMap(request -> request.getResidues().stream()).toList()
+        ));
+        eventPublisher.publishEvent(new RequestLoadsChangedEvent(
+                RequestLoadsChangedEvent.Change.CREATED,
+                accepted.stream().map(RequestLoad::of).toList()
+        ));
+
+        for (int i = 0; i < accepted.size(); i++) {
+            int index = acceptedIndexes.get(i);
+            results.set(index, RequestBatchResultDTO.created(index, accepted.get(i).getToken()));
+            publishCreated(accepted.get(i));
+        }
+        return results;
+    }
+
+    private String validateResidues(List<Long> ids, Map<Long, Residue> residues, Set<Long> claimed) {
+        if (ids.isEmpty()) {
+            return "Argument residueIds cannot be empty";
+        }
+        // Repeated ids would attach the same residue twice and count its load twice
+        Set<Long> listed = new HashSet<>();
+        for (Long id : ids) {
+            Residue residue = residues.get(id);
+            if (residue == null) {
+                return "Residue with id " + id + " not found";
+            }
+            if (!listed.add(id)) {
+                return "Residue with id " + id + " is listed more than once";
+            }
+            if (residue.getRequest() != null || claimed.contains(id)) {
+                return "Residue with id " + id + " already belongs to a Request";
+            }
+        }
+        return null;
     }
 
     @Override
     @Transactional
     public void deleteRequest(String token) {
-        Optional<Request> requestOptional = requestRepository.findRequestByTokenEquals(token);
+        Optional<Request> requestOptional = findRequestByToken(token);
 
         if (requestOptional.isPresent()) {
-            requestRepository.deleteByToken(token);
+            if (requestOptional.get().getRequestStatus() != RequestStatus.CANCELED) {
+                slotScheduler.release(requestOptional.get());
+            }
+            // Residues are removed along with the request
+            eventPublisher.publishEvent(new ResiduesChangedEvent(ResiduesChangedEvent.Change.DELETED, requestOptional.get().getResidues()));
+            eventPublisher.publishEvent(new RequestLoadsChangedEvent(RequestLoadsChangedEvent.Change.DELETED, List.of(RequestLoad.of(requestOptional.get()))));
+            requestRepository.deleteByToken(requestOptional.get().getId());
         } else {
             throw new NoSuchElementException("Request with Token " + token + " not found");
         }
     }
 
+    private Optional<Request> findRequestByToken(String token) {
+        return Request.parseToken(token).flatMap(requestRepository::findRequestByTokenEquals);
+    }
+
     @Override
     public Request getRequest(String token) {
-        Optional<Request> req = requestRepository.findRequestByTokenEquals(token);
+        Optional<Request> req = findRequestByToken(token);
 
         if (req.isPresent()) {
             return req.get();
@@ -64,59 +276,155 @@ public class RequestService implements RequestServiceInterface {
 
     @Override
     public void cancelRequest(String token) {
-        Optional<Request> requestOptional = requestRepository.findRequestByTokenEquals(token);
-
-        if (requestOptional.isPresent()) {
-            Request request = requestOptional.get();
-            requestRepository.save(request.cancel());
-        } else {
-            throw new  NoSuchElementException("Request with Token " + token + " not found");
-        }
+        transition(token, RequestStatus.CANCELED);
     }
 
     @Override
     public void assignRequest(String token) {
-        Optional<Request> requestOptional = requestRepository.findRequestByTokenEquals(token);
-
-        if (requestOptional.isPresent()) {
-            Request request = requestOptional.get();
-            requestRepository.save(request.assign());
-        } else {
-            throw new  NoSuchElementException("Request with Token " + token + " not found");
-        }
+        transition(token, RequestStatus.ASSIGNED);
     }
 
     @Override
     public void startRequest(String token) {
-        Optional<Request> requestOptional = requestRepository.findRequestByTokenEquals(token);
-
-        if (requestOptional.isPresent()) {
-            Request request = requestOptional.get();
-            requestRepository.save(request.start());
-        } else {
-            throw new  NoSuchElementException("Request with Token " + token + " not found");
-        }
+        transition(token, RequestStatus.IN_PROGRESS);
     }
 
     @Override
     public void completeRequest(String token) {
-        Optional<Request> requestOptional = requestRepository.findRequestByTokenEquals(token);
+        transition(token, RequestStatus.COMPLETED);
+    }
 
-        if (requestOptional.isPresent()) {
-            Request request = requestOptional.get();
-            requestRepository.save(request.complete());
-        } else {
-            throw new  NoSuchElementException("Request with Token " + token + " not found");
+    // One conditional UPDATE guarded by the transition table plus one Status insert, without loading the request.
+    // The municipality id is read by primary key in the same transaction, so the event carries it and no listener
+    // reads the request after commit.
+    private void transition(String token, RequestStatus target) {
+        Optional<UUID> id = Request.parseToken(token);
+        if (id.isEmpty()) {
+            throw new NoSuchElementException("Request with Token " + token + " not found");
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            int updated = requestRepository.updateRequestStatusIfIn(id.get(), RequestTransitions.allowedSources(target), target);
+
+            if (updated == 0) {
+                if (requestRepository.findRequestStatusByToken(id.get()).isPresent()) {
+                    transitionMetrics.rejected(target, 1);
+                    throw new IllegalStateException("Illegal state transition.");
+                }
+                throw new NoSuchElementException("Request with Token " + token + " not found");
+            }
+            Request request = requestRepository.getReferenceById(id.get());
+            LocalDateTime now = LocalDateTime.now();
+            statusRepository.save(new Status(target, now, request));
+            if (target == RequestStatus.CANCELED) {
+                slotScheduler.release(request);
+            }
+            String municipality = requestRepository.findMunicipalityIdByToken(id.get())
+                    .flatMap(municipalityService::findById)
+                    .map(Municipality::getName)
+                    .orElse(null);
+            eventPublisher.publishEvent(new RequestStatusChangedEvent(id.get(), target, now, municipality));
+        });
+    }
+
+    // Assigns every request of one truck load in a single transaction, or none if any of them has moved on.
+    // A truck of light requests can hold many thousands, so the UPDATE runs in chunks of ASSIGN_CHUNK_SIZE tokens.
+    // The loads come from the planner, so their municipalities go on the events as they are.
+    @Override
+    public boolean assignAll(List<RequestLoad> loads) {
+        if (loads.isEmpty()) {
+            return true;
         }
+        List<UUID> tokens = loads.stream().map(RequestLoad::token).toList();
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            for (int from = 0; from < tokens.size(); from += ASSIGN_CHUNK_SIZE) {
+                List<UUID> chunk = tokens.subList(from, Math.min(from + ASSIGN_CHUNK_SIZE, tokens.size()));
+                int updated = requestRepository.updateRequestStatusesIfIn(chunk, RequestTransitions.allowedSources(RequestStatus.ASSIGNED), RequestStatus.ASSIGNED);
+
+                if (updated != chunk.size()) {
+                    transitionMetrics.rejected(RequestStatus.ASSIGNED, chunk.size() - updated);
+                    status.setRollbackOnly();
+                    return false;
+                }
+            }
+            LocalDateTime now = LocalDateTime.now();
+            statusRepository.saveAll(tokens.stream()
+                    .map(token -> new Status(RequestStatus.ASSIGNED, now, requestRepository.getReferenceById(token)))
+                    .toList());
+            loads.forEach(load -> eventPublisher.publishEvent(
+                    new RequestStatusChangedEvent(load.token(), RequestStatus.ASSIGNED, now, load.municipality())));
+            return true;
+        }));
     }
 
     @Override
+    public Optional<String> getMunicipality(String token) {
+        return Request.parseToken(token).flatMap(requestRepository::findMunicipalityByToken);
+    }
+
+    @Override
+    @Transactional
     public List<Request> getAllRequests() {
-        return requestRepository.findAll();
+        List<Request> requests = requestRepository.findAllWithResidues();
+        if (!requests.isEmpty()) {
+            requestRepository.fetchAllStatuses();
+        }
+        return requests;
     }
 
     @Override
+    @Transactional
     public List<Request> getAllRequestsByMunicipality(String municipality) {
-        return requestRepository.findAllByMunicipalityEqualsIgnoreCase(municipality);
+        return municipalityService.find(municipality)
+                .map(found -> {
+                    List<Request> requests = requestRepository.findAllWithResiduesByMunicipalityOrderByDatetime(found);
+                    if (!requests.isEmpty()) {
+                        requestRepository.fetchStatusesByMunicipality(found);
+                    }
+                    return requests;
+                })
+                .orElseGet(List::of);
+    }
+
+    @Override
+    public List<RequestSummary> getAllRequestSummaries() {
+        return requestRepository.findAllSummaries();
+    }
+
+    @Override
+    public List<RequestSummary> getRequestSummariesByMunicipality(String municipality) {
+        return municipalityService.find(municipality)
+                .map(requestRepository::findSummariesByMunicipality)
+                .orElseGet(List::of);
+    }
+
+    // Residues and statuses are loaded here, 64 requests per query, so the caller can map the page outside the transaction
+    @Override
+    @Transactional
+    public List<Request> getRequestsPage(RequestCursor after, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        List<Request> requests = after == null
+                ? requestRepository.findAllByOrderByDatetimeAscTokenAsc(Limit.of(size))
+                : requestRepository.findAllAfterCursor(after.datetime(), after.token(), Limit.of(size));
+        for (Request request : requests) {
+            Hibernate.initialize(request.getResidues());
+            Hibernate.initialize(request.getStatuses());
+        }
+        return requests;
+    }
+
+    @Override
+    @Transactional
+    public void streamAllRequests(Consumer<Request> consumer) {
+        try (Stream<Request> requests = requestRepository.streamAllOrderedByCursor()) {
+            requests.forEach(request -> {
+                consumer.accept(request);
+                // Detach once consumed so the persistence context does not grow with the table
+                entityManager.detach(request);
+            });
+        }
     }
 }
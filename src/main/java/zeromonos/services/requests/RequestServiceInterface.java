@@ -1,13 +1,24 @@
 package zeromonos.services.requests;
 
+import zeromonos.data.municipalities.MunicipalityLookup;
 import zeromonos.data.requests.Request;
+import zeromonos.data.requests.RequestBatchResultDTO;
+import zeromonos.data.requests.RequestCursor;
+import zeromonos.data.requests.RequestLoad;
+import zeromonos.data.requests.RequestSummary;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface RequestServiceInterface {
 
     String createRequest(Request request, List<Long> residueIds);
 
+    // An item whose municipality the lookup does not know is rejected on its own
+    List<RequestBatchResultDTO> createRequests(List<Request> requests, List<List<Long>> residueIds,
+                                               MunicipalityLookup municipalities);
+
     void deleteRequest(String token);
 
     Request getRequest(String token);
@@ -20,7 +31,19 @@ public interface RequestServiceInterface {
 
     void completeRequest(String token);
 
+    boolean assignAll(List<RequestLoad> loads);
+
+    Optional<String> getMunicipality(String token);
+
     List<Request> getAllRequests();
 
     List<Request> getAllRequestsByMunicipality(String municipality);
+
+    List<RequestSummary> getAllRequestSummaries();
+
+    List<RequestSummary> getRequestSummariesByMunicipality(String municipality);
+
+    List<Request> getRequestsPage(RequestCursor after, int size);
+
+    void streamAllRequests(Consumer<Request> consumer);
 }
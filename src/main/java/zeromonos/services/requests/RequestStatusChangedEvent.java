@@ -0,0 +1,10 @@
+package zeromonos.services.requests;
+
+import zeromonos.data.requests.RequestStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Published whenever a Status is appended to a request, with the municipality the writer already had at hand
+public record RequestStatusChangedEvent(UUID token, RequestStatus requestStatus, LocalDateTime datetime, String municipality) {
+}
@@ -0,0 +1,44 @@
+package zeromonos.services.requests;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import zeromonos.data.requests.RequestStatus;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+// Committed transitions per target status and transitions refused by the transition table.
+// Counters are registered once per status up front, so counting is an array lookup and an add.
+@Component
+public class RequestTransitionMetrics {
+
+    public static final String TRANSITIONS = "zeromonos.requests.transitions";
+    public static final String REJECTED = "zeromonos.requests.transitions.rejected";
+
+    private final Map<RequestStatus, Counter> transitions = new EnumMap<>(RequestStatus.class);
+    private final Map<RequestStatus, Counter> rejected = new EnumMap<>(RequestStatus.class);
+
+    public RequestTransitionMetrics(MeterRegistry meterRegistry) {
+        for (RequestStatus status : RequestStatus.values()) {
+            transitions.put(status, Counter.builder(TRANSITIONS)
+                    .description("Requests that moved into a status, counted after commit")
+                    .tag("status", status.name())
+                    .register(meterRegistry));
+            rejected.put(status, Counter.builder(REJECTED)
+                    .description("Requests that could not move into a status from the one they were in")
+                    .tag("status", status.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRequestStatusChanged(RequestStatusChangedEvent event) {
+        transitions.get(event.requestStatus()).increment();
+    }
+
+    public void rejected(RequestStatus target, int requests) {
+        rejected.get(target).increment(requests);
+    }
+}
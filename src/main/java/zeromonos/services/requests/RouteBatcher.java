@@ -0,0 +1,105 @@
+package zeromonos.services.requests;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import zeromonos.data.requests.RequestLoad;
+import zeromonos.data.requests.RequestRepository;
+import zeromonos.data.requests.RequestStatus;
+import zeromonos.data.requests.RouteBatchDTO;
+import zeromonos.data.requests.RoutePlanDTO;
+import zeromonos.services.municipalities.MunicipalityService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Packs the RECEIVED requests of a municipality and time window into truck loads and assigns each load.
+// Loads are read as one projection row per request and packed on primitive arrays, no entity is loaded.
+@Service
+public class RouteBatcher {
+
+    private final RequestRepository requestRepository;
+    private final MunicipalityService municipalityService;
+    private final RequestService requestService;
+    private final double maxWeight;
+    private final double maxVolume;
+
+    public RouteBatcher(RequestRepository requestRepository, MunicipalityService municipalityService, RequestService requestService,
+                        @Value("${zeromonos.trucks.max-weight:1000}") double maxWeight,
+                        @Value("${zeromonos.trucks.max-volume:20}") double maxVolume) {
+        this.requestRepository = requestRepository;
+        this.municipalityService = municipalityService;
+        this.requestService = requestService;
+        this.maxWeight = maxWeight;
+        this.maxVolume = maxVolume;
+    }
+
+    // Capacities default to the configured truck when null
+    public RoutePlanDTO batchReceivedRequests(String municipality, LocalDateTime from, LocalDateTime to,
+                                              Double truckWeight, Double truckVolume) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("Window must start before it ends");
+        }
+        double weightLimit = truckWeight == null ? maxWeight : truckWeight;
+        double volumeLimit = truckVolume == null ? maxVolume : truckVolume;
+        if (!(weightLimit > 0) || !(volumeLimit > 0)) {
+            throw new IllegalArgumentException("Truck capacity must be positive");
+        }
+
+        List<RequestLoad> loads = municipalityService.find(municipality)
+                .map(found -> requestRepository.findLoadsByMunicipalityAndStatusBetween(found, RequestStatus.RECEIVED, from, to))
+                .orElseGet(List::of);
+
+        int n = loads.size();
+        UUID[] tokens = new UUID[n];
+        double[] weights = new double[n];
+        double[] volumes = new double[n];
+        for (int i = 0; i < n; i++) {
+            RequestLoad load = loads.get(i);
+            tokens[i] = load.token();
+            weights[i] = load.weight();
+            volumes[i] = load.volume();
+        }
+
+        int[] trucks = TruckPacker.pack(weights, volumes, weightLimit, volumeLimit);
+        int count = TruckPacker.countTrucks(trucks);
+
+        // Counting sort of the requests by truck, keeping the window order inside each truck
+        int[] starts = new int[count + 1];
+        List<String> oversized = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (trucks[i] == TruckPacker.OVERSIZED) {
+                oversized.add(tokens[i].toString());
+            } else {
+                starts[trucks[i] + 1]++;
+            }
+        }
+        for (int t = 0; t < count; t++) {
+            starts[t + 1] += starts[t];
+        }
+        int[] next = starts.clone();
+        int[] byTruck = new int[starts[count]];
+        for (int i = 0; i < n; i++) {
+            if (trucks[i] != TruckPacker.OVERSIZED) {
+                byTruck[next[trucks[i]]++] = i;
+            }
+        }
+
+        List<RouteBatchDTO> batches = new ArrayList<>(count);
+        for (int t = 0; t < count; t++) {
+            List<RequestLoad> batch = new ArrayList<>(starts[t + 1] - starts[t]);
+            double weight = 0;
+            double volume = 0;
+            for (int k = starts[t]; k < starts[t + 1]; k++) {
+                batch.add(loads.get(byTruck[k]));
+                weight += weights[byTruck[k]];
+                volume += volumes[byTruck[k]];
+            }
+            // A load with a request someone else assigned or canceled meanwhile is left for the next run
+            boolean assigned = requestService.assignAll(batch);
+            batches.add(new RouteBatchDTO(t, batch.stream().map(load -> load.token().toString()).toList(), weight, volume, assigned));
+        }
+        return new RoutePlanDTO(municipality, batches, oversized);
+    }
+}
@@ -0,0 +1,220 @@
+package zeromonos.services.requests;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import zeromonos.data.municipalities.Municipality;
+import zeromonos.data.requests.Request;
+import zeromonos.data.requests.RequestRepository;
+import zeromonos.data.requests.SlotDTO;
+import zeromonos.services.municipalities.MunicipalityService;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Admits pickups against a capacity per (municipality, day, slot), slots tile the day.
+// A (municipality, day) is counted from the DB once, on first use, and then kept as one counter per slot,
+// guarded by a lock stripe, so admitting a request does not run a COUNT(*).
+@Service
+public class SlotScheduler {
+
+    public static final int MAX_FREE_SLOTS = 100;
+    private static final int STRIPES = 64;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final RequestRepository requestRepository;
+    private final MunicipalityService municipalityService;
+    private final int capacity;
+    private final int slotMinutes;
+    private final int horizonDays;
+    private final Map<DayKey, int[]> days = new ConcurrentHashMap<>();
+    private final Lock[] stripes = new Lock[STRIPES];
+
+    public SlotScheduler(RequestRepository requestRepository, MunicipalityService municipalityService,
+                         @Value("${zeromonos.slots.capacity:10}") int capacity,
+                         @Value("${zeromonos.slots.length:PT1H}") Duration slotLength,
+                         @Value("${zeromonos.slots.horizon-days:30}") int horizonDays) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Slot capacity must be positive");
+        }
+        if (slotLength.toMinutes() < 1 || MINUTES_PER_DAY % slotLength.toMinutes() != 0) {
+            throw new IllegalArgumentException("Slot length must be a whole number of minutes that divides a day");
+        }
+        this.requestRepository = requestRepository;
+        this.municipalityService = municipalityService;
+        this.capacity = capacity;
+        this.slotMinutes = (int) slotLength.toMinutes();
+        this.horizonDays = horizonDays;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    // The request must already reference its municipality row
+    public boolean tryReserve(Request request) {
+        if (request.getDatetime() == null) {
+            throw new IllegalArgumentException("Datetime cannot be empty");
+        }
+        if (request.getDatetime().toLocalDate().isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Pickups cannot be booked for a past day");
+        }
+        DayKey key = DayKey.of(request.getMunicipality(), request.getDatetime());
+        int slot = slotOf(request.getDatetime());
+        int[] counts;
+
+        Lock lock = stripe(key);
+        lock.lock();
+        try {
+            counts = load(key, request.getMunicipality());
+            if (counts[slot] >= capacity) {
+                return false;
+            }
+            counts[slot]++;
+        } finally {
+            lock.unlock();
+        }
+
+        // A rolled back insert gives its place back
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        decrement(key, counts, slot);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    // Frees the slot of a request that is being canceled or deleted, once that is committed
+    public void release(Request request) {
+        DayKey key = DayKey.of(request.getMunicipality(), request.getDatetime());
+        int slot = slotOf(request.getDatetime());
+        // Not loaded yet: the DB count will already leave the request out
+        int[] counts = days.get(key);
+        if (counts == null) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    decrement(key, counts, slot);
+                }
+            });
+        } else {
+            decrement(key, counts, slot);
+        }
+    }
+
+    public List<SlotDTO> findFreeSlots(String municipalityName, LocalDateTime from, int count) {
+        if (count < 1 || count > MAX_FREE_SLOTS) {
+            throw new IllegalArgumentException("Count must be between 1 and " + MAX_FREE_SLOTS);
+        }
+        // A municipality without a row has no bookings yet
+        Optional<Municipality> municipality = municipalityService.find(municipalityName);
+        List<SlotDTO> free = new ArrayList<>(count);
+        int firstSlot = Math.ceilDiv(from.toLocalTime().toSecondOfDay(), slotMinutes * 60);
+
+        for (int d = 0; d <= horizonDays && free.size() < count; d++) {
+            LocalDate day = from.toLocalDate().plusDays(d);
+            int[] remaining = remaining(municipality, day);
+            for (int slot = d == 0 ? firstSlot : 0; slot < remaining.length && free.size() < count; slot++) {
+                if (remaining[slot] > 0) {
+                    LocalDateTime start = day.atStartOfDay().plusMinutes((long) slot * slotMinutes);
+                    free.add(new SlotDTO(start, start.plusMinutes(slotMinutes), remaining[slot]));
+                }
+            }
+        }
+        return free;
+    }
+
+    private int[] remaining(Optional<Municipality> municipality, LocalDate day) {
+        int[] remaining = new int[slotsPerDay()];
+        if (municipality.isEmpty()) {
+            Arrays.fill(remaining, capacity);
+            return remaining;
+        }
+
+        DayKey key = new DayKey(municipality.get().getId(), day);
+        Lock lock = stripe(key);
+        lock.lock();
+        try {
+            int[] counts = load(key, municipality.get());
+            for (int slot = 0; slot < remaining.length; slot++) {
+                remaining[slot] = Math.max(0, capacity - counts[slot]);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return remaining;
+    }
+
+    // Days before today can no longer be booked through the scheduler, so their counters are dropped
+    @Scheduled(cron = "0 5 0 * * *")
+    public void evictPastDays() {
+        LocalDate today = LocalDate.now();
+        days.keySet().removeIf(key -> key.day().isBefore(today));
+    }
+
+    // Called with the stripe held
+    private int[] load(DayKey key, Municipality municipality) {
+        int[] counts = days.get(key);
+        if (counts == null) {
+            counts = new int[slotsPerDay()];
+            LocalDateTime start = key.day().atStartOfDay();
+            for (LocalDateTime datetime : requestRepository.findActiveDatetimesByMunicipalityBetween(municipality, start, start.plusDays(1))) {
+                counts[slotOf(datetime)]++;
+            }
+            days.put(key, counts);
+        }
+        return counts;
+    }
+
+    private void decrement(DayKey key, int[] counts, int slot) {
+        Lock lock = stripe(key);
+        lock.lock();
+        try {
+            if (counts[slot] > 0) {
+                counts[slot]--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Lock stripe(DayKey key) {
+        return stripes[Math.floorMod(key.hashCode(), STRIPES)];
+    }
+
+    private int slotOf(LocalDateTime datetime) {
+        LocalTime time = datetime.toLocalTime();
+        return (time.getHour() * 60 + time.getMinute()) / slotMinutes;
+    }
+
+    private int slotsPerDay() {
+        return MINUTES_PER_DAY / slotMinutes;
+    }
+
+    private record DayKey(Integer municipalityId, LocalDate day) {
+
+        static DayKey of(Municipality municipality, LocalDateTime datetime) {
+            return new DayKey(municipality.getId(), datetime.toLocalDate());
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package zeromonos.services.requests;
+
+import java.util.Arrays;
+
+// First-fit decreasing packing of (weight, volume) loads into identical trucks, on primitive arrays.
+// Loads are taken largest first by their dominant share of a truck. A segment tree over the trucks' spare
+// weight and volume skips every subtree without room in either dimension; trucks not opened yet are simply
+// leaves with full capacity. The two maxima of a subtree can come from different trucks, so a search can still
+// descend into subtrees with no fitting truck and costs O(trucks) in the worst case, O(log trucks) when one
+// dimension decides.
+public final class TruckPacker {
+
+    public static final int OVERSIZED = -1;
+
+    private static final int SHARE_BITS = 30;
+    private static final long MAX_SHARE = 1L << SHARE_BITS;
+    // Loads that fill a truck exactly should not be refused over rounding
+    private static final double EPSILON = 1e-9;
+
+    private final double[] spareWeight;
+    private final double[] spareVolume;
+    private final int leaves;
+
+    private TruckPacker(int trucks, double maxWeight, double maxVolume) {
+        int size = 1;
+        while (size < trucks) {
+            size <<= 1;
+        }
+        this.leaves = size;
+        this.spareWeight = new double[2 * size];
+        this.spareVolume = new double[2 * size];
+        Arrays.fill(spareWeight, maxWeight);
+        Arrays.fill(spareVolume, maxVolume);
+    }
+
+    // The truck of every load, numbered from 0 in the order they were opened, or OVERSIZED
+    public static int[] pack(double[] weights, double[] volumes, double maxWeight, double maxVolume) {
+        if (weights.length != volumes.length) {
+            throw new IllegalArgumentException("Every load needs a weight and a volume");
+        }
+        if (!(maxWeight > 0) || !(maxVolume > 0)) {
+            throw new IllegalArgumentException("Truck capacity must be positive");
+        }
+
+        int n = weights.length;
+        int[] trucks = new int[n];
+        // Ascending sort of (MAX_SHARE - share, index) gives largest share first, ties in input order
+        long[] order = new long[n];
+        int fitting = 0;
+        for (int i = 0; i < n; i++) {
+            double share = Math.max(weights[i] / maxWeight, volumes[i] / maxVolume);
+            if (share > 1 + EPSILON || weights[i] < 0 || volumes[i] < 0) {
+                trucks[i] = OVERSIZED;
+                continue;
+            }
+            long key = MAX_SHARE - (long) (Math.min(share, 1) * MAX_SHARE);
+            order[fitting++] = key << 32 | i;
+        }
+        Arrays.sort(order, 0, fitting);
+
+        TruckPacker packer = new TruckPacker(Math.max(1, fitting), maxWeight, maxVolume);
+        for (int k = 0; k < fitting; k++) {
+            int i = (int) order[k];
+            trucks[i] = packer.place(weights[i], volumes[i]);
+        }
+        return trucks;
+    }
+
+    public static int countTrucks(int[] trucks) {
+        int count = 0;
+        for (int truck : trucks) {
+            count = Math.max(count, truck + 1);
+        }
+        return count;
+    }
+
+    private int place(double weight, double volume) {
+        int node = firstFit(1, weight - EPSILON, volume - EPSILON);
+        spareWeight[node] -= weight;
+        spareVolume[node] -= volume;
+        for (int parent = node >> 1; parent >= 1; parent >>= 1) {
+            spareWeight[parent] = Math.max(spareWeight[2 * parent], spareWeight[2 * parent + 1]);
+            spareVolume[parent] = Math.max(spareVolume[2 * parent], spareVolume[2 * parent + 1]);
+        }
+        return node - leaves;
+    }
+
+    // Leftmost leaf under node with room for both; a subtree that passes the check on both maxima can still come
+    // back empty, which is what makes the worst case linear
+    private int firstFit(int node, double weight, double volume) {
+        if (spareWeight[node] < weight || spareVolume[node] < volume) {
+            return -1;
+        }
+        if (node >= leaves) {
+            return node;
+        }
+        int left = firstFit(2 * node, weight, volume);
+        return left >= 0 ? left : firstFit(2 * node + 1, weight, volume);
+    }
+}
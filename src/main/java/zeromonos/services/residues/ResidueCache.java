@@ -0,0 +1,95 @@
+package zeromonos.services.residues;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import zeromonos.data.residues.Residue;
+import zeromonos.data.residues.ResidueCacheStatsDTO;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+@Component
+public class ResidueCache {
+
+    private static final String CATALOGUE_KEY = "all";
+
+    private final Cache<Long, Residue> residues;
+    private final Cache<SearchKey, List<Residue>> searches;
+    private final Cache<String, List<Residue>> catalogue;
+
+    public ResidueCache(@Value("${zeromonos.residues.cache.maximum-size:1024}") long maximumSize,
+                        @Value("${zeromonos.residues.cache.ttl:10m}") Duration ttl) {
+        this.residues = build(maximumSize, ttl);
+        this.searches = build(maximumSize, ttl);
+        this.catalogue = build(1, ttl);
+    }
+
+    private static <K, V> Cache<K, V> build(long maximumSize, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<Residue> getResidue(Long id, Function<Long, Optional<Residue>> loader) {
+        if (id == null) {
+            return loader.apply(null);
+        }
+        // Misses are not cached, so a residue created afterwards is visible straight away
+        return Optional.ofNullable(residues.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    public List<Residue> getSearch(String query, int limit, BiFunction<String, Integer, List<Residue>> loader) {
+        return searches.get(new SearchKey(query, limit), key -> List.copyOf(loader.apply(key.query(), key.limit())));
+    }
+
+    public List<Residue> getAll(Supplier<List<Residue>> loader) {
+        return catalogue.get(CATALOGUE_KEY, key -> List.copyOf(loader.get()));
+    }
+
+    // Runs after commit so a concurrent read cannot repopulate an entry with the rolled-back state
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onResiduesChanged(ResiduesChangedEvent event) {
+        if (event.residues().isEmpty()) {
+            return;
+        }
+        Set<Long> ids = event.residues().stream().map(Residue::getId).collect(Collectors.toSet());
+
+        residues.invalidateAll(ids);
+        catalogue.invalidateAll();
+        searches.asMap().entrySet().removeIf(entry ->
+                entry.getValue().stream().anyMatch(residue -> ids.contains(residue.getId()))
+                        || (event.change() == ResiduesChangedEvent.Change.CREATED
+                        && event.residues().stream().anyMatch(residue -> ResidueSearchIndex.mayMatch(residue, entry.getKey().query())))
+        );
+    }
+
+    public List<ResidueCacheStatsDTO> getStats() {
+        return List.of(
+                stats("residues", residues),
+                stats("searches", searches),
+                stats("catalogue", catalogue)
+        );
+    }
+
+    private record SearchKey(String query, int limit) {}
+
+    private static ResidueCacheStatsDTO stats(String name, Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        return new ResidueCacheStatsDTO(name, cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.evictionCount(), stats.hitRate());
+    }
+}
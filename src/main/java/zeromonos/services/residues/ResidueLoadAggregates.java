@@ -0,0 +1,242 @@
+package zeromonos.services.residues;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import zeromonos.data.requests.RequestLoad;
+import zeromonos.data.requests.RequestLoadTotals;
+import zeromonos.data.requests.RequestRepository;
+import zeromonos.data.requests.RequestStatus;
+import zeromonos.data.requests.RequestTransitions;
+import zeromonos.data.residues.ResidueLoadCheckDTO;
+import zeromonos.data.residues.ResidueLoadDTO;
+import zeromonos.services.metrics.LogHistogram;
+import zeromonos.services.requests.RequestLoadsChangedEvent;
+import zeromonos.services.requests.RequestStatusChangedEvent;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+// Residue weight and volume per municipality, request status and pickup day, kept up to date from request
+// events so dashboards never run a GROUP BY over the request table
+@Component
+public class ResidueLoadAggregates {
+
+    public enum Dimension {
+        MUNICIPALITY,
+        STATUS,
+        DAY
+    }
+
+    private static final double TOLERANCE = 1e-3;
+
+    private final RequestRepository requestRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Every request is tracked so a transition or delete knows which groups its load leaves
+    private final Map<UUID, Entry> requests = new HashMap<>();
+    private final Map<String, Aggregate> byMunicipality = new TreeMap<>();
+    private final Map<RequestStatus, Aggregate> byStatus = new EnumMap<>(RequestStatus.class);
+    private final Map<LocalDate, Aggregate> byDay = new TreeMap<>();
+
+    public ResidueLoadAggregates(RequestRepository requestRepository) {
+        this.requestRepository = requestRepository;
+    }
+
+    // Events held back by the lock are applied on top of the snapshot afterwards
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            requests.clear();
+            byMunicipality.clear();
+            byStatus.clear();
+            byDay.clear();
+            requestRepository.findAllLoads().forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Events are idempotent, so one that raced with a rebuild is applied at most once
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRequestLoadsChanged(RequestLoadsChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (RequestLoad load : event.loads()) {
+                if (event.change() == RequestLoadsChangedEvent.Change.CREATED) {
+                    add(load);
+                } else {
+                    remove(load.token());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRequestStatusChanged(RequestStatusChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            Entry entry = requests.get(event.token());
+            // Unknown, or older than what a rebuild or a later event already applied. After-commit events of
+            // concurrent transitions can arrive out of order, so a status further along the path is applied directly.
+            if (entry == null || !RequestTransitions.canReach(entry.status(), event.requestStatus())) {
+                return;
+            }
+            update(byStatus, entry.status(), entry, -1);
+            Entry moved = new Entry(entry.municipality(), entry.day(), event.requestStatus(), entry.weight(), entry.volume());
+            update(byStatus, moved.status(), moved, 1);
+            requests.put(event.token(), moved);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ResidueLoadDTO> getLoads(Dimension dimension) {
+        lock.readLock().lock();
+        try {
+            return groups(dimension).entrySet().stream()
+                    .map(group -> group.getValue().toDTO(group.getKey().toString()))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Compares every group with a GROUP BY over the request table; a check that races with writes
+    // may report a mismatch that is gone on the next run
+    public ResidueLoadCheckDTO check() {
+        List<RequestLoadTotals> totals = requestRepository.sumLoadsByMunicipalityStatusAndDay();
+        List<String> mismatches = new ArrayList<>();
+        int groups = 0;
+
+        lock.readLock().lock();
+        try {
+            groups += compare(Dimension.MUNICIPALITY, rollUp(totals, RequestLoadTotals::municipality), mismatches);
+            groups += compare(Dimension.STATUS, rollUp(totals, RequestLoadTotals::requestStatus), mismatches);
+            groups += compare(Dimension.DAY, rollUp(totals, RequestLoadTotals::day), mismatches);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new ResidueLoadCheckDTO(mismatches.isEmpty(), groups, mismatches);
+    }
+
+    private static Map<Object, double[]> rollUp(List<RequestLoadTotals> totals, Function<RequestLoadTotals, Object> key) {
+        Map<Object, double[]> rolled = new HashMap<>();
+        for (RequestLoadTotals total : totals) {
+            double[] sums = rolled.computeIfAbsent(key.apply(total), k -> new double[3]);
+            sums[0] += total.requests();
+            sums[1] += total.weight();
+            sums[2] += total.volume();
+        }
+        return rolled;
+    }
+
+    private int compare(Dimension dimension, Map<Object, double[]> expected, List<String> mismatches) {
+        Map<?, Aggregate> actual = groups(dimension);
+        for (Map.Entry<Object, double[]> group : expected.entrySet()) {
+            Aggregate aggregate = actual.get(group.getKey());
+            double[] sums = group.getValue();
+            if (aggregate == null || aggregate.requests != sums[0]
+                    || !close(aggregate.weight, sums[1]) || !close(aggregate.volume, sums[2])) {
+                mismatches.add(String.format(Locale.ROOT, "%s %s: expected %.0f requests, %.3f weight, %.3f volume but aggregated %s",
+                        dimension.name().toLowerCase(Locale.ROOT), group.getKey(), sums[0], sums[1], sums[2],
+                        aggregate == null ? "nothing" : aggregate.describe()));
+            }
+        }
+        for (Map.Entry<?, Aggregate> group : actual.entrySet()) {
+            if (!expected.containsKey(group.getKey())) {
+                mismatches.add(String.format(Locale.ROOT, "%s %s: expected nothing but aggregated %s",
+                        dimension.name().toLowerCase(Locale.ROOT), group.getKey(), group.getValue().describe()));
+            }
+        }
+        return expected.size();
+    }
+
+    private static boolean close(double actual, double expected) {
+        return Math.abs(actual - expected) <= TOLERANCE * Math.max(1, Math.abs(expected));
+    }
+
+    private Map<?, Aggregate> groups(Dimension dimension) {
+        return switch (dimension) {
+            case MUNICIPALITY -> byMunicipality;
+            case STATUS -> byStatus;
+            case DAY -> byDay;
+        };
+    }
+
+    // Called with the write lock held
+
+    private void add(RequestLoad load) {
+        if (requests.containsKey(load.token())) {
+            return;
+        }
+        Entry entry = new Entry(load.municipality(), load.datetime().toLocalDate(), load.requestStatus(), load.weight(), load.volume());
+        requests.put(load.token(), entry);
+        update(byMunicipality, entry.municipality(), entry, 1);
+        update(byStatus, entry.status(), entry, 1);
+        update(byDay, entry.day(), entry, 1);
+    }
+
+    private void remove(UUID token) {
+        Entry entry = requests.remove(token);
+        if (entry == null) {
+            return;
+        }
+        update(byMunicipality, entry.municipality(), entry, -1);
+        update(byStatus, entry.status(), entry, -1);
+        update(byDay, entry.day(), entry, -1);
+    }
+
+    private static <K> void update(Map<K, Aggregate> groups, K key, Entry entry, int sign) {
+        Aggregate aggregate = groups.computeIfAbsent(key, k -> new Aggregate());
+        aggregate.add(entry, sign);
+        // Dropping empty groups also resets the rounding drift of their sums
+        if (aggregate.requests == 0) {
+            groups.remove(key);
+        }
+    }
+
+    private record Entry(String municipality, LocalDate day, RequestStatus status, double weight, double volume) {}
+
+    private static final class Aggregate {
+
+        // Load of one request per observation, percentiles within about 2.5%
+        private final LogHistogram weights = new LogHistogram(0.01, 1.05, 400);
+        private final LogHistogram volumes = new LogHistogram(0.01, 1.05, 400);
+        private long requests;
+        private double weight;
+        private double volume;
+
+        void add(Entry entry, int sign) {
+            requests += sign;
+            weight += sign * entry.weight();
+            volume += sign * entry.volume();
+            weights.add(entry.weight(), sign);
+            volumes.add(entry.volume(), sign);
+        }
+
+        String describe() {
+            return String.format(Locale.ROOT, "%d requests, %.3f weight, %.3f volume", requests, weight, volume);
+        }
+
+        ResidueLoadDTO toDTO(String group) {
+            return new ResidueLoadDTO(group, requests, weight, volume,
+                    weights.percentile(0.50), weights.percentile(0.95), weights.percentile(0.99),
+                    volumes.percentile(0.50), volumes.percentile(0.95), volumes.percentile(0.99));
+        }
+    }
+}
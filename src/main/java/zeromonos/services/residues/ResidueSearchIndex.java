@@ -0,0 +1,358 @@
+package zeromonos.services.residues;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import zeromonos.data.residues.Residue;
+import zeromonos.data.residues.ResidueRepository;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// In-memory trigram inverted index over Residue name and desc
+@Component
+public class ResidueSearchIndex {
+
+    static final double SIMILARITY_THRESHOLD = 0.5;
+    private static final double MAX_SCORE = 2;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ResidueRepository residueRepository;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Documents are addressed by ordinal; postings hold ascending ordinals
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final BitSet removed = new BitSet();
+    private long[] ids = new long[1024];
+    private String[] names = new String[1024];
+    private String[] texts = new String[1024];
+    private int size;
+    private volatile boolean ready;
+
+    // Not needed when searches are served by pg_trgm
+    public ResidueSearchIndex(ResidueRepository residueRepository,
+                              @Value("${zeromonos.residues.search.pg-trgm:false}") boolean pgTrgmSearch) {
+        this.residueRepository = residueRepository;
+        this.enabled = !pgTrgmSearch;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            clear();
+            residueRepository.findAll().forEach(this::add);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Runs before ResidueCache so an evicted search is never recomputed against a stale index
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onResiduesChanged(ResiduesChangedEvent event) {
+        if (!enabled || event.change() == ResiduesChangedEvent.Change.UPDATED) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Residue residue : event.residues()) {
+                if (event.change() == ResiduesChangedEvent.Change.CREATED) {
+                    add(residue);
+                } else {
+                    remove(residue.getId());
+                }
+            }
+            if (removed.cardinality() > ordinals.size()) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Ids of the best matches, most relevant first
+    public List<Long> search(String query, int limit) {
+        String normalized = normalize(query);
+        List<String> grams = List.copyOf(trigrams(normalized, true));
+        if (grams.isEmpty() || limit < 1) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Postings[] lists = grams.stream()
+                    .map(gram -> postings.getOrDefault(gram, Postings.EMPTY))
+                    .sorted(Comparator.comparingInt(Postings::size))
+                    .toArray(Postings[]::new);
+
+            // A document sharing at least `required` trigrams must appear in one of the rarest `probe` lists
+            int required = Math.max(1, (int) Math.ceil(lists.length * SIMILARITY_THRESHOLD));
+            int probe = lists.length - required + 1;
+            int[] cursors = new int[lists.length];
+
+            PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, Match.WORST_FIRST);
+            // Exact substring hits count whatever their similarity, "ast" shares one trigram of three with "plastic"
+            BitSet substringHits = substringHits(normalized);
+            for (int hit = substringHits.nextSetBit(0); hit >= 0; hit = substringHits.nextSetBit(hit + 1)) {
+                int shared = 0;
+                for (Postings list : lists) {
+                    if (Arrays.binarySearch(list.values, 0, list.size(), hit) >= 0) {
+                        shared++;
+                    }
+                }
+                offer(best, limit, new Match(hit, score(hit, normalized, (double) shared / lists.length)));
+            }
+
+            int candidate;
+            while ((candidate = nextCandidate(lists, cursors, probe)) >= 0) {
+                int shared = 0;
+                for (int i = 0; i < probe; i++) {
+                    if (cursors[i] < lists[i].size() && lists[i].values[cursors[i]] == candidate) {
+                        cursors[i]++;
+                        shared++;
+                    }
+                }
+                if (removed.get(candidate) || substringHits.get(candidate)) {
+                    continue;
+                }
+                // Candidates arrive in ascending order, so the remaining cursors only move forward
+                for (int i = probe; i < lists.length; i++) {
+                    int found = Arrays.binarySearch(lists[i].values, cursors[i], lists[i].size(), candidate);
+                    cursors[i] = found >= 0 ? found + 1 : -found - 1;
+                    if (found >= 0) {
+                        shared++;
+                    }
+                }
+                if (shared < required) {
+                    continue;
+                }
+
+                offer(best, limit, new Match(candidate, score(candidate, normalized, (double) shared / lists.length)));
+                // Perfect matches are name prefixes, already offered as substring hits, so nothing left can beat them
+                if (best.size() == limit && best.peek().score() >= MAX_SCORE) {
+                    break;
+                }
+            }
+
+            List<Long> result = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                result.add(ids[best.poll().ordinal()]);
+            }
+            return result.reversed();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void offer(PriorityQueue<Match> best, int limit, Match match) {
+        if (best.size() < limit) {
+            best.add(match);
+        } else if (Match.WORST_FIRST.compare(match, best.peek()) > 0) {
+            best.poll();
+            best.add(match);
+        }
+    }
+
+    // Live documents containing the query. Such a document holds every unpadded trigram of the query's words, so only
+    // the rarest of those postings is checked. Queries without a three letter word, typed on the first keystrokes,
+    // are looked up by their padded prefix trigrams instead, so they only find words that start with them.
+    private BitSet substringHits(String query) {
+        BitSet hits = new BitSet();
+        List<Postings> lists = new ArrayList<>();
+        for (String word : query.split(" ")) {
+            for (int j = 0; j + 3 <= word.length(); j++) {
+                lists.add(postings.getOrDefault(word.substring(j, j + 3), Postings.EMPTY));
+            }
+        }
+        if (lists.isEmpty()) {
+            for (String gram : trigrams(query, true)) {
+                lists.add(postings.getOrDefault(gram, Postings.EMPTY));
+            }
+        }
+
+        lists.sort(Comparator.comparingInt(Postings::size));
+        Postings rarest = lists.getFirst();
+        for (int k = 0; k < rarest.size(); k++) {
+            int ordinal = rarest.values[k];
+            if (!removed.get(ordinal) && texts[ordinal].contains(query)) {
+                hits.set(ordinal);
+            }
+        }
+        return hits;
+    }
+
+    private static int nextCandidate(Postings[] lists, int[] cursors, int probe) {
+        int next = -1;
+        for (int i = 0; i < probe; i++) {
+            if (cursors[i] < lists[i].size()) {
+                int value = lists[i].values[cursors[i]];
+                if (next < 0 || value < next) {
+                    next = value;
+                }
+            }
+        }
+        return next;
+    }
+
+    // True when the residue shares any trigram with the query or contains it, i.e. it may appear in its results
+    static boolean mayMatch(Residue residue, String query) {
+        String text = normalize(residue.getName()) + " " + normalize(residue.getDesc());
+        Set<String> grams = trigrams(text, false);
+        String normalized = normalize(query);
+        return (!normalized.isEmpty() && text.contains(normalized)) || trigrams(normalized, true).stream().anyMatch(grams::contains);
+    }
+
+    // Similarity in [0, 1] plus a bonus for name prefixes and plain substring hits
+    private double score(int ordinal, String query, double similarity) {
+        if (names[ordinal].startsWith(query)) {
+            return similarity + 1;
+        }
+        if (texts[ordinal].contains(query)) {
+            return similarity + 0.5;
+        }
+        return similarity;
+    }
+
+    private void add(Residue residue) {
+        remove(residue.getId());
+
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            names = Arrays.copyOf(names, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+        }
+
+        int ordinal = size++;
+        ids[ordinal] = residue.getId();
+        names[ordinal] = normalize(residue.getName());
+        texts[ordinal] = names[ordinal] + " " + normalize(residue.getDesc());
+        ordinals.put(residue.getId(), ordinal);
+
+        for (String gram : trigrams(texts[ordinal], false)) {
+            postings.computeIfAbsent(gram, key -> new Postings()).add(ordinal);
+        }
+    }
+
+    private void remove(Long id) {
+        Integer ordinal = ordinals.remove(id);
+        if (ordinal != null) {
+            removed.set(ordinal);
+        }
+    }
+
+    private void compact() {
+        long[] liveIds = Arrays.copyOf(ids, size);
+        String[] liveNames = Arrays.copyOf(names, size);
+        String[] liveTexts = Arrays.copyOf(texts, size);
+        BitSet dead = (BitSet) removed.clone();
+        int previousSize = size;
+
+        clear();
+        for (int ordinal = 0; ordinal < previousSize; ordinal++) {
+            if (dead.get(ordinal)) {
+                continue;
+            }
+            int compacted = size++;
+            ids[compacted] = liveIds[ordinal];
+            names[compacted] = liveNames[ordinal];
+            texts[compacted] = liveTexts[ordinal];
+            ordinals.put(liveIds[ordinal], compacted);
+            for (String gram : trigrams(liveTexts[ordinal], false)) {
+                postings.computeIfAbsent(gram, key -> new Postings()).add(compacted);
+            }
+        }
+    }
+
+    private void clear() {
+        postings.clear();
+        ordinals.clear();
+        removed.clear();
+        ids = new long[Math.max(1024, size)];
+        names = new String[ids.length];
+        texts = new String[ids.length];
+        size = 0;
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String stripped = DIACRITICS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return NON_ALPHANUMERIC.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    // Words are padded like pg_trgm; with prefix set the last word is left open so "pla" matches "plastic"
+    static Set<String> trigrams(String normalized, boolean prefix) {
+        Set<String> result = new LinkedHashSet<>();
+        String[] words = normalized.split(" ");
+
+        for (int i = 0; i < words.length; i++) {
+            if (words[i].isEmpty()) {
+                continue;
+            }
+            boolean open = prefix && i == words.length - 1;
+            String padded = "  " + words[i] + (open ? "" : " ");
+            for (int j = 0; j + 3 <= padded.length(); j++) {
+                result.add(padded.substring(j, j + 3));
+            }
+        }
+        return result;
+    }
+
+    private record Match(int ordinal, double score) {
+
+        // Lowest score first and, among equal scores, the later document first
+        static final Comparator<Match> WORST_FIRST = Comparator.comparingDouble(Match::score)
+                .thenComparing(Comparator.comparingInt(Match::ordinal).reversed());
+    }
+
+    private static final class Postings {
+
+        static final Postings EMPTY = new Postings();
+
+        private int[] values = new int[4];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        void add(int ordinal) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = ordinal;
+        }
+    }
+}
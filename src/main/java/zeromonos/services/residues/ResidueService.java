@@ -1,31 +1,52 @@
 package zeromonos.services.residues;
 
 import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import zeromonos.data.residues.Residue;
+import zeromonos.data.residues.ResidueCacheStatsDTO;
 import zeromonos.data.residues.ResidueRepository;
 
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class ResidueService implements ResidueServiceInterface {
 
+    public static final int MAX_SEARCH_LIMIT = 100;
+
     private final ResidueRepository residueRepository;
+    private final ResidueCache residueCache;
+    private final ResidueSearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean pgTrgmSearch;
 
-    public ResidueService(ResidueRepository residueRepository) {
+    public ResidueService(ResidueRepository residueRepository, ResidueCache residueCache, ResidueSearchIndex searchIndex,
+                          ApplicationEventPublisher eventPublisher,
+                          @Value("${zeromonos.residues.search.pg-trgm:false}") boolean pgTrgmSearch) {
         this.residueRepository = residueRepository;
+        this.residueCache = residueCache;
+        this.searchIndex = searchIndex;
+        this.eventPublisher = eventPublisher;
+        this.pgTrgmSearch = pgTrgmSearch;
     }
 
     @Override
     public Long createResidue(Residue residue) {
-        return residueRepository.save(residue).getId();
+        Residue saved = residueRepository.save(residue);
+        eventPublisher.publishEvent(new ResiduesChangedEvent(ResiduesChangedEvent.Change.CREATED, List.of(saved)));
+        return saved.getId();
     }
 
     @Override
     public Optional<Residue> getResidue(Long id) {
-        return residueRepository.findById(id);
+        return residueCache.getResidue(id, residueRepository::findById);
     }
 
     @Override
@@ -38,6 +59,7 @@ public class ResidueService implements ResidueServiceInterface {
 
             if (residue.getRequest() == null) {
                 residueRepository.delete(residue);
+                eventPublisher.publishEvent(new ResiduesChangedEvent(ResiduesChangedEvent.Change.DELETED, List.of(residue)));
             } else {
                 throw new NoSuchElementException("Residue already belongs to a Request ");
             }
@@ -48,12 +70,39 @@ public class ResidueService implements ResidueServiceInterface {
     }
 
     @Override
-    public List<Residue> getResiduesBySimilarNameOrDesc(String query) {
-        return residueRepository.findAllBySimilarNameOrDesc(query);
+    public List<Residue> getResiduesBySimilarNameOrDesc(String query, int limit) {
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException("Search limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        // The index is filled once the application is ready; until then fall back to the LIKE scan, whose ranking
+        // differs, so its results are not cached
+        if (!pgTrgmSearch && !searchIndex.isReady()) {
+            return residueRepository.findAllBySimilarNameOrDesc(query).stream().limit(limit).toList();
+        }
+        return residueCache.getSearch(query, limit, this::search);
+    }
+
+    private List<Residue> search(String query, int limit) {
+        if (pgTrgmSearch) {
+            return residueRepository.findAllByTrigramSimilarity(query, limit);
+        }
+
+        List<Long> ids = searchIndex.search(query, limit);
+        Map<Long, Residue> residues = residueRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Residue::getId, Function.identity()));
+        return ids.stream().map(residues::get).filter(Objects::nonNull).toList();
     }
 
     @Override
     public List<Residue> getAllResidues() {
-        return residueRepository.findAll();
+        return residueCache.getAll(residueRepository::findAll);
+    }
+
+    @Override
+    public List<ResidueCacheStatsDTO> getCacheStats() {
+        return residueCache.getStats();
     }
 }
@@ -1,6 +1,7 @@
 package zeromonos.services.residues;
 
 import zeromonos.data.residues.Residue;
+import zeromonos.data.residues.ResidueCacheStatsDTO;
 
 import java.util.List;
 import java.util.Optional;
@@ -13,7 +14,9 @@ public interface ResidueServiceInterface {
 
     void deleteResidue(Long id);
 
-    List<Residue> getResiduesBySimilarNameOrDesc(String query);
+    List<Residue> getResiduesBySimilarNameOrDesc(String query, int limit);
 
     List<Residue> getAllResidues();
+
+    List<ResidueCacheStatsDTO> getCacheStats();
 }
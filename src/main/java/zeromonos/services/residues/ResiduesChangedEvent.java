@@ -0,0 +1,19 @@
+package zeromonos.services.residues;
+
+import zeromonos.data.residues.Residue;
+
+import java.util.List;
+
+public record ResiduesChangedEvent(Change change, List<Residue> residues) {
+
+    public enum Change {
+        CREATED,
+        // Linked to or unlinked from a request; name and description are unchanged
+        UPDATED,
+        DELETED
+    }
+
+    public ResiduesChangedEvent {
+        residues = List.copyOf(residues);
+    }
+}
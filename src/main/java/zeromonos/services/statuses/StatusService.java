@@ -1,15 +1,27 @@
 package zeromonos.services.statuses;
 
 import org.springframework.stereotype.Service;
+import zeromonos.data.requests.Request;
 import zeromonos.data.requests.RequestStatus;
 import zeromonos.data.statuses.Status;
+import zeromonos.data.statuses.StatusDTO;
 import zeromonos.data.statuses.StatusRepository;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 public class StatusService implements StatusServiceInterface {
 
+    public static final int MAX_BATCH_TOKENS = 5000;
+    public static final Duration MAX_WINDOW = Duration.ofDays(31);
+
     private final StatusRepository statusRepository;
 
     public StatusService(StatusRepository statusRepository) {
@@ -18,11 +30,43 @@ public class StatusService implements StatusServiceInterface {
 
     @Override
     public List<Status> getStatus(String requestToken, RequestStatus requestStatus) {
-        return statusRepository.findAllByRequest_TokenAndRequestStatusEquals(requestToken, requestStatus);
+        return Request.parseToken(requestToken)
+                .map(token -> statusRepository.findAllByRequest_TokenAndRequestStatusEquals(token, requestStatus))
+                .orElse(List.of());
     }
 
     @Override
     public List<Status> getAllStatuses(String requestToken) {
-        return statusRepository.findAllByRequest_Token(requestToken);
+        return Request.parseToken(requestToken)
+                .map(statusRepository::findAllByRequest_Token)
+                .orElse(List.of());
+    }
+
+    // One query for all the tokens, ordered by request token and then datetime; malformed tokens have no history
+    @Override
+    public List<StatusDTO> getStatusesByTokens(Collection<String> requestTokens) {
+        if (requestTokens.size() > MAX_BATCH_TOKENS) {
+            throw new IllegalArgumentException("Batch cannot contain more than " + MAX_BATCH_TOKENS + " tokens");
+        }
+        Set<UUID> tokens = requestTokens.stream()
+                .map(Request::parseToken)
+                .flatMap(Optional::stream)
+                .collect(Collectors.toSet());
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        return statusRepository.findAllByRequestTokenIn(tokens);
+    }
+
+    @Override
+    public List<StatusDTO> getStatusesBetween(RequestStatus requestStatus, LocalDateTime from, LocalDateTime to) {
+        if (requestStatus == null || from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("Window must start before it ends");
+        }
+        // Keeps a query within about two monthly partitions
+        if (Duration.between(from, to).compareTo(MAX_WINDOW) > 0) {
+            throw new IllegalArgumentException("Window cannot be longer than " + MAX_WINDOW.toDays() + " days");
+        }
+        return statusRepository.findAllByRequestStatusBetween(requestStatus, from, to);
     }
 }
@@ -2,7 +2,10 @@ package zeromonos.services.statuses;
 
 import zeromonos.data.requests.RequestStatus;
 import zeromonos.data.statuses.Status;
+import zeromonos.data.statuses.StatusDTO;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface StatusServiceInterface {
@@ -11,4 +14,8 @@ public interface StatusServiceInterface {
 
     public List<Status> getAllStatuses(String requestToken);
 
+    public List<StatusDTO> getStatusesByTokens(Collection<String> requestTokens);
+
+    public List<StatusDTO> getStatusesBetween(RequestStatus requestStatus, LocalDateTime from, LocalDateTime to);
+
 }
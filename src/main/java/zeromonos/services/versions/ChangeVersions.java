@@ -0,0 +1,75 @@
+package zeromonos.services.versions;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import zeromonos.data.municipalities.Municipality;
+import zeromonos.data.requests.RequestLoad;
+import zeromonos.services.requests.RequestLoadsChangedEvent;
+import zeromonos.services.requests.RequestStatusChangedEvent;
+import zeromonos.services.residues.ResiduesChangedEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Change counters behind the ETags of the collection endpoints: one for every request, one per municipality and
+// one for residues. They are bumped after commit, so a tag read before a query is never newer than its result,
+// and the start time of this instance keeps tags from a previous run from matching.
+@Component
+public class ChangeVersions {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong residues = new AtomicLong();
+    // Bumped when a changed request comes without its municipality, which moves every municipality tag
+    private final AtomicLong unattributed = new AtomicLong();
+    private final Map<String, AtomicLong> byMunicipality = new ConcurrentHashMap<>();
+
+    public String requestsTag() {
+        return tag("r", requests.get());
+    }
+
+    public String municipalityTag(String municipality) {
+        AtomicLong version = byMunicipality.get(Municipality.normalize(municipality));
+        return tag("m" + unattributed.get() + ".", version == null ? 0 : version.get());
+    }
+
+    public String residuesTag() {
+        return tag("s", residues.get());
+    }
+
+    // Weak: a read racing a commit can pair the new rows with the old version until the counter moves
+    private String tag(String prefix, long version) {
+        return "W/\"" + prefix + version + "-" + epoch + "\"";
+    }
+
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRequestStatusChanged(RequestStatusChangedEvent event) {
+        requests.incrementAndGet();
+        bump(event.municipality());
+    }
+
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRequestLoadsChanged(RequestLoadsChangedEvent event) {
+        requests.incrementAndGet();
+        event.loads().stream().map(RequestLoad::municipality).distinct().forEach(this::bump);
+    }
+
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onResiduesChanged(ResiduesChangedEvent event) {
+        residues.incrementAndGet();
+    }
+
+    private void bump(String municipality) {
+        if (municipality == null) {
+            unattributed.incrementAndGet();
+            return;
+        }
+        byMunicipality.computeIfAbsent(Municipality.normalize(municipality), k -> new AtomicLong()).incrementAndGet();
+    }
+}
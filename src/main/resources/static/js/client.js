@@ -176,8 +176,13 @@ async function createRequest(event) {
             const token = await response.text();
             await customAlert(`Request created successfully!<br><strong>Token:</strong> ${token}`, "Success", "success");
             await loadResidues();
-            await loadRequests();
+            // The status feed delivers the new request; only refetch when it is unavailable
+            if (!requestEventsOpen()) await loadRequests();
             form.reset();
+        } else if (response.status === 409) {
+            const slots = await loadFreeSlots(data.municipality);
+            const suggestions = slots.map(s => `${s.start.replace('T', ' ')} (${s.remaining} left)`).join('<br>');
+            customAlert(`That pickup slot is fully booked.${suggestions ? `<br><strong>Next free slots:</strong><br>${suggestions}` : ''}`, "Error", "error");
         } else {
             const error = await response.text();
             customAlert(`Failed to create request: ${error || response.statusText}`, "Error", "error");
@@ -188,19 +193,29 @@ async function createRequest(event) {
     }
 }
 
+async function loadFreeSlots(municipality) {
+    try {
+        const response = await fetch(`/api/municipalities/${encodeURIComponent(municipality)}/slots?count=3`);
+        return response.ok ? await response.json() : [];
+    } catch (error) {
+        console.error('Error fetching free slots:', error);
+        return [];
+    }
+}
+
 // === Load Municipalities ===
 async function loadMunicipalities() {
     const select = document.getElementById('municipality-select');
     select.innerHTML = '<option>Loading...</option>';
 
     try {
-        const response = await fetch('https://json.geoapi.pt/municipios');
+        const response = await fetch('/api/municipalities');
         if (!response.ok) throw new Error('Failed to fetch municipalities');
 
-        const data = await response.json();
+        const municipalities = await response.json();
         select.innerHTML = '<option value="">Select municipality</option>';
 
-        Object.values(data).flat().forEach(municipality => {
+        municipalities.forEach(municipality => {
             const option = document.createElement('option');
             option.value = municipality;
             option.textContent = municipality;
@@ -214,37 +229,18 @@ async function loadMunicipalities() {
 }
 
 // === Load Requests ===
+let clientRequests = [];
+
 async function loadRequests() {
     const tbody = document.getElementById('requests-table-body');
     tbody.innerHTML = '<tr><td colspan="6" class="text-center text-muted">Loading...</td></tr>';
 
     try {
-        const response = await fetch('/api/requests');
+        const response = await fetch('/api/requests?view=summary');
         if (!response.ok) throw new Error('Failed to fetch requests');
-        const requests = await response.json();
+        clientRequests = await response.json();
 
-        if (requests.length === 0) {
-            tbody.innerHTML = '<tr><td colspan="6" class="text-center text-muted">No requests found.</td></tr>';
-            return;
-        }
-
-        tbody.innerHTML = '';
-        requests.forEach(req => {
-            const residuesList = (req.residues || []).map(r => r.name || `#${r.id}`).join(', ') || '<em>None</em>';
-            const row = document.createElement('tr');
-
-            row.innerHTML = `
-                <td><span class="text-monospace">${req.token}</span></td>
-                <td>${req.municipality}</td>
-                <td>${new Date(req.datetime).toLocaleString()}</td>
-                <td><span class="badge bg-info text-dark">${req.requestStatus}</span></td>
-                <td>${residuesList}</td>
-                <td class="text-end">
-                    ${getRequestActions(req)}
-                </td>
-            `;
-            tbody.appendChild(row);
-        });
+        renderClientRequests();
     } catch (error) {
         console.error('Error loading requests:', error);
         tbody.innerHTML = `<tr><td colspan="6" class="text-center text-danger">Error loading requests</td></tr>`;
@@ -252,6 +248,58 @@ async function loadRequests() {
     }
 }
 
+function renderClientRequests() {
+    const tbody = document.getElementById('requests-table-body');
+
+    if (clientRequests.length === 0) {
+        tbody.innerHTML = '<tr><td colspan="6" class="text-center text-muted">No requests found.</td></tr>';
+        return;
+    }
+
+    tbody.innerHTML = '';
+    clientRequests.forEach(req => {
+        // Summaries carry the joined names; requests fetched whole after a status event carry their residues
+        const residuesList = req.residueNames
+            ?? (req.residues || []).map(r => r.name || `#${r.id}`).join(', ');
+        const row = document.createElement('tr');
+
+        row.innerHTML = `
+            <td><span class="text-monospace">${req.token}</span></td>
+            <td>${req.municipality}</td>
+            <td>${new Date(req.datetime).toLocaleString()}</td>
+            <td><span class="badge bg-info text-dark">${req.requestStatus}</span></td>
+            <td>${residuesList || '<em>None</em>'}</td>
+            <td class="text-end">
+                ${getRequestActions(req)}
+            </td>
+        `;
+        tbody.appendChild(row);
+    });
+}
+
+// === Apply Status Feed Event ===
+async function applyRequestEvent(event, deleted = false) {
+    const existing = clientRequests.find(r => r.token === event.token);
+
+    if (deleted) {
+        clientRequests = clientRequests.filter(r => r.token !== event.token);
+    } else if (existing) {
+        existing.requestStatus = event.requestStatus;
+    } else {
+        try {
+            const response = await fetch(`/api/requests/${event.token}`);
+            if (!response.ok) return;
+            const request = await response.json();
+            // The list may have been reloaded with this request while it was fetched
+            if (!clientRequests.some(r => r.token === event.token)) clientRequests.push(request);
+        } catch (error) {
+            console.error('Error loading request:', error);
+            return;
+        }
+    }
+    renderClientRequests();
+}
+
 
 // === Delete Request ===
 async function deleteRequest(token) {
@@ -260,7 +308,8 @@ async function deleteRequest(token) {
     try {
         const response = await fetch(`/api/requests/${token}`, { method: 'DELETE' });
         if (response.ok) {
-            await loadRequests();
+            // The status feed delivers the deletion; only refetch when it is unavailable
+            if (!requestEventsOpen()) await loadRequests();
             customAlert("Request deleted successfully!", "Deleted", "success");
         } else {
             customAlert("Failed to delete request", "Error", "error");
@@ -323,4 +372,5 @@ document.addEventListener("DOMContentLoaded", () => {
     loadResidues();
     loadMunicipalities();
     loadRequests();
+    subscribeRequestEvents(applyRequestEvent);
 });
@@ -2,31 +2,61 @@ let allRequests = [];
 
 async function loadRequests() {
     const tbody = document.getElementById('employee-requests-body');
-    const filterSelect = document.getElementById('filter-municipality');
 
     tbody.innerHTML = `<tr><td colspan="4" class="text-center text-muted">Loading...</td></tr>`;
 
     try {
-        const res = await fetch('/api/requests');
+        const res = await fetch('/api/requests?view=summary');
         if (!res.ok) throw new Error('Failed to fetch requests');
         allRequests = await res.json();
 
-        // Populate filter dropdown (unique municipalities)
-        const municipalities = [...new Set(allRequests.map(r => r.municipality))].sort();
-        filterSelect.innerHTML = `<option value="">All Municipalities</option>`;
-        municipalities.forEach(m => {
-            const opt = document.createElement('option');
-            opt.value = m;
-            opt.textContent = m;
-            filterSelect.appendChild(opt);
-        });
-
+        populateMunicipalityFilter();
         renderRequests(allRequests);
     } catch {
         tbody.innerHTML = `<tr><td colspan="4" class="text-center text-danger">Error loading requests</td></tr>`;
     }
 }
 
+// Populate filter dropdown (unique municipalities), keeping the current selection
+function populateMunicipalityFilter() {
+    const filterSelect = document.getElementById('filter-municipality');
+    const selected = filterSelect.value;
+    const municipalities = [...new Set(allRequests.map(r => r.municipality))].sort();
+
+    filterSelect.innerHTML = `<option value="">All Municipalities</option>`;
+    municipalities.forEach(m => {
+        const opt = document.createElement('option');
+        opt.value = m;
+        opt.textContent = m;
+        filterSelect.appendChild(opt);
+    });
+    filterSelect.value = municipalities.includes(selected) ? selected : '';
+}
+
+// Apply a single status change or deletion instead of reloading every request
+async function applyRequestEvent(event, deleted = false) {
+    const existing = allRequests.find(r => r.token === event.token);
+
+    if (deleted) {
+        allRequests = allRequests.filter(r => r.token !== event.token);
+        populateMunicipalityFilter();
+    } else if (existing) {
+        existing.requestStatus = event.requestStatus;
+    } else {
+        try {
+            const res = await fetch(`/api/requests/${event.token}`);
+            if (!res.ok) return;
+            const request = await res.json();
+            // The list may have been reloaded with this request while it was fetched
+            if (!allRequests.some(r => r.token === event.token)) allRequests.push(request);
+            populateMunicipalityFilter();
+        } catch {
+            return;
+        }
+    }
+    filterRequests();
+}
+
 function renderRequests(list) {
     const tbody = document.getElementById('employee-requests-body');
     tbody.innerHTML = list.length
@@ -47,49 +77,51 @@ function filterRequests() {
     renderRequests(filtered);
 }
 
-// Load all statuses for a specific request token
+// Load the statuses of one or more request tokens in a single call
 async function loadRequestStatuses(event) {
     event.preventDefault();
 
-    const token = document.getElementById("status-token").value.trim();
+    const tokens = document.getElementById("status-token").value.split(/[\s,]+/).filter(t => t);
     const tbody = document.getElementById("status-table-body");
 
-    if (!token) {
+    if (tokens.length === 0) {
         alert("Please enter a request token.");
         return;
     }
 
-    tbody.innerHTML = `<tr><td colspan="3" class="text-center text-muted">Loading...</td></tr>`;
+    tbody.innerHTML = `<tr><td colspan="4" class="text-center text-muted">Loading...</td></tr>`;
 
     try {
-        const response = await fetch(`/api/statuses/request/${token}`);
+        const response = await fetch('/api/statuses/batch', {
+            method: 'POST',
+            headers: { 'Content-Type': 'application/json' },
+            body: JSON.stringify(tokens)
+        });
         if (!response.ok) {
-            throw new Error(`Request ${token} not found`);
+            throw new Error('Failed to load statuses');
         }
 
-        const statuses = await response.json();
-        if (!statuses || statuses.length === 0) {
-            tbody.innerHTML = `<tr><td colspan="3" class="text-center text-muted">No statuses found</td></tr>`;
-            return;
-        }
-
-        // Sort chronologically by datetime
-        statuses.sort((a, b) => new Date(a.datetime) - new Date(b.datetime));
-
-        // Render table rows
-        tbody.innerHTML = statuses.map(s => `
+        // Histories come back chronological, keyed by token
+        const histories = await response.json();
+        const rows = Object.entries(histories).flatMap(([token, statuses]) => statuses.map(s => `
             <tr>
+                <td><span class="text-monospace">${token}</span></td>
                 <td>${s.id}</td>
                 <td>${s.requestStatus}</td>
                 <td>${new Date(s.datetime).toLocaleString()}</td>
             </tr>
-        `).join('');
+        `));
+
+        tbody.innerHTML = rows.length > 0
+            ? rows.join('')
+            : `<tr><td colspan="4" class="text-center text-muted">No statuses found</td></tr>`;
     } catch (error) {
         console.error(error);
-        tbody.innerHTML = `<tr><td colspan="3" class="text-center text-danger">Error loading statuses</td></tr>`;
+        tbody.innerHTML = `<tr><td colspan="4" class="text-center text-danger">Error loading statuses</td></tr>`;
     }
 }
 
 document.addEventListener('DOMContentLoaded', () => {
     loadRequests();
+    subscribeRequestEvents(applyRequestEvent);
 });
@@ -51,6 +51,24 @@ function customConfirm(message) {
 }
 
 
+// === Request status feed (Server-Sent Events) ===
+let requestEvents = null;
+
+// The browser resends the last event id on reconnect and missed events are replayed; when the server
+// cannot do that it sends 'resync' instead and the page reloads its data
+function subscribeRequestEvents(onEvent, onResync = loadRequests) {
+    if (!window.EventSource) return;
+
+    requestEvents = new EventSource('/api/requests/events');
+    requestEvents.addEventListener('status', e => onEvent(JSON.parse(e.data)));
+    requestEvents.addEventListener('deleted', e => onEvent(JSON.parse(e.data), true));
+    requestEvents.addEventListener('resync', () => onResync());
+}
+
+function requestEventsOpen() {
+    return requestEvents !== null && requestEvents.readyState === EventSource.OPEN;
+}
+
 async function changeState(token, action) {
     try {
         const res = await fetch(`/api/requests/${token}/${action}`, { method: 'PUT' });
@@ -59,7 +77,8 @@ async function changeState(token, action) {
     } catch {
         customAlert('danger', 'Network error');
     }
-    await loadRequests();
+    // The status feed delivers the change; only refetch when it is unavailable
+    if (!requestEventsOpen()) await loadRequests();
 }
 
 // === Action button functionality ===
@@ -0,0 +1,74 @@
+package zeromonos;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import zeromonos.data.requests.Request;
+import zeromonos.data.requests.RequestRepository;
+import zeromonos.services.municipalities.MunicipalityService;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Metrics export is off in tests unless observability is auto-configured explicitly
+@SpringBootTest(classes = ZeroMonosApplication.class)
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@AutoConfigureObservability(tracing = false)
+class MetricsEndpointIT {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private RequestRepository requestRepository;
+
+    @Autowired
+    private MunicipalityService municipalityService;
+
+    @AfterEach
+    void tearDown() {
+        requestRepository.deleteAll();
+    }
+
+    @Test
+    void prometheus_shouldExposeEndpointRepositoryAndTransitionMetrics() throws Exception {
+        Request request = new Request(municipalityService.getOrCreate("Aveiro"), LocalDateTime.now());
+        String token = requestRepository.saveAndFlush(request).getToken();
+
+        mvc.perform(put("/api/requests/{token}/assign", token)).andExpect(status().isOk());
+        mvc.perform(put("/api/requests/{token}/assign", token)).andExpect(status().is4xxClientError());
+        mvc.perform(get("/api/residues")).andExpect(status().isOk());
+        mvc.perform(get("/api/statuses/request/{token}", token)).andExpect(status().isOk());
+
+        mvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(
+                        containsString("http_server_requests_seconds_bucket{"),
+                        containsString("uri=\"/api/requests/{token}/assign\""),
+                        containsString("uri=\"/api/residues\""),
+                        containsString("uri=\"/api/statuses/request/{token}\""),
+                        containsString("spring_data_repository_invocations_seconds_count{"),
+                        containsString("repository=\"RequestRepository\""),
+                        containsString("zeromonos_requests_transitions_total{application=\"zeromonos\",status=\"ASSIGNED\"} 1.0"),
+                        containsString("zeromonos_requests_transitions_rejected_total{application=\"zeromonos\",status=\"ASSIGNED\"} 1.0")
+                )));
+    }
+
+    @Test
+    void actuator_shouldOnlyExposeHealthAndPrometheus() throws Exception {
+        mvc.perform(get("/actuator/health")).andExpect(status().isOk());
+        mvc.perform(get("/actuator/env")).andExpect(status().isNotFound());
+    }
+}
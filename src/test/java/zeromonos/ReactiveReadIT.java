@@ -0,0 +1,129 @@
+package zeromonos;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.test.StepVerifier;
+import zeromonos.data.requests.Request;
+import zeromonos.data.requests.RequestRepository;
+import zeromonos.data.requests.RequestStatus;
+import zeromonos.data.residues.Residue;
+import zeromonos.data.residues.ResidueRepository;
+import zeromonos.services.municipalities.MunicipalityService;
+import zeromonos.services.requests.ReactiveRequestReader;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// JPA writes and R2DBC reads against one in-memory H2, through the r2dbc-h2 driver
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, classes = ZeroMonosApplication.class)
+@ActiveProfiles("r2dbc")
+class ReactiveReadIT {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ReactiveRequestReader reactiveRequestReader;
+
+    @Autowired
+    private RequestRepository requestRepository;
+
+    @Autowired
+    private ResidueRepository residueRepository;
+
+    @Autowired
+    private MunicipalityService municipalityService;
+
+    private final List<String> tokens = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 3; i++) {
+            // Saved before its residue is attached, persisting it would cascade to the already saved residue
+            Request request = requestRepository.saveAndFlush(
+                    new Request(municipalityService.getOrCreate(i < 2 ? "Aveiro" : "Porto"), now.plusMinutes(i)));
+            request.addResidue(residueRepository.save(new Residue("Residue " + i, "Desc " + i, 1f, 2f)));
+            if (i == 0) {
+                request.assign();
+            }
+            tokens.add(requestRepository.saveAndFlush(request).getToken());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        requestRepository.deleteAll();
+    }
+
+    @Test
+    void whenStreamingAllRequests_thenRowsWrittenByJpaAreRead() {
+        StepVerifier.create(reactiveRequestReader.streamAllRequests(), 1)
+                .assertNext(request -> {
+                    assertThat(request.getToken()).isEqualTo(tokens.get(0));
+                    assertThat(request.getRequestStatus()).isEqualTo(RequestStatus.ASSIGNED);
+                    assertThat(request.getMunicipality()).isEqualTo("Aveiro");
+                    assertThat(request.getResidues()).extracting("name").containsExactly("Residue 0");
+                    assertThat(request.getStatuses()).extracting("requestStatus")
+                            .containsExactly(RequestStatus.RECEIVED, RequestStatus.ASSIGNED);
+                })
+                .thenRequest(2)
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    void whenAskingForNdjson_thenMunicipalityRequestsAreStreamed() throws Exception {
+        List<JsonNode> lines = ndjson("/api/requests/municipality/AVEIRO");
+
+        assertThat(lines).extracting(line -> line.get("token").asText()).containsExactly(tokens.get(0), tokens.get(1));
+    }
+
+    @Test
+    void whenAskingForNdjson_thenStatusHistoryIsStreamed() throws Exception {
+        List<JsonNode> lines = ndjson("/api/statuses/request/" + tokens.get(0));
+
+        assertThat(lines).extracting(line -> line.get("requestStatus").asText()).containsExactly("RECEIVED", "ASSIGNED");
+    }
+
+    @Test
+    void whenAskingForJson_thenJpaHandlerStillAnswers() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/requests", String.class);
+
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(response.getBody()).startsWith("[");
+    }
+
+    private List<JsonNode> ndjson(String path) throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+        ResponseEntity<String> response = restTemplate.exchange(path, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : response.getBody().split("\n")) {
+            if (!line.isBlank()) {
+                lines.add(objectMapper.readTree(line));
+            }
+        }
+        return lines;
+    }
+}
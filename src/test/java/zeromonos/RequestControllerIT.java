@@ -20,6 +20,7 @@ import zeromonos.data.requests.Request;
 import zeromonos.data.requests.RequestRepository;
 import zeromonos.data.residues.Residue;
 import zeromonos.data.residues.ResidueRepository;
+import zeromonos.services.municipalities.MunicipalityService;
 
 import java.time.LocalDateTime;
 
@@ -46,13 +47,18 @@ class RequestControllerIT {
     @Autowired
     private ResidueRepository residueRepository;
 
+    @Autowired
+    private MunicipalityService municipalityService;
+
     private final LocalDateTime now = LocalDateTime.now();
     private String existingToken = "";
     private Long res0id = null;
 
     @BeforeEach
     void setup() {
-        Request r0 = new Request("Aveiro", now);
+        Request r0 = new Request(municipalityService.getOrCreate("Aveiro"), now);
+        // Tests load no municipality list, so only stored municipalities are accepted
+        municipalityService.getOrCreate("Porto");
 
         existingToken = requestRepository.saveAndFlush(r0).getToken();
 
@@ -112,7 +118,7 @@ class RequestControllerIT {
                         .content(jsonString))
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$", matchesPattern(
-                        "^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[1-5][0-9a-fA-F]{3}-[89abAB][0-9a-fA-F]{3}-[0-9a-fA-F]{12}$"
+                        "^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-7[0-9a-fA-F]{3}-[89abAB][0-9a-fA-F]{3}-[0-9a-fA-F]{12}$"
                 )));
     }
 
@@ -150,6 +156,27 @@ class RequestControllerIT {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void createRequests_shouldCreateItemsOnDifferentDays() throws Exception {
+        Long first = residueRepository.saveAndFlush(new Residue("Glass", "Bottles", 1f, 1f)).getId();
+        Long second = residueRepository.saveAndFlush(new Residue("Paper", "Boxes", 1f, 1f)).getId();
+        LocalDateTime day = now.plusDays(1);
+        String jsonString = """
+        [
+          {"municipality": "Aveiro", "datetime": "%s", "residues": [{"id":%d}]},
+          {"municipality": "Porto", "datetime": "%s", "residues": [{"id":%d}]}
+        ]
+        """.formatted(day.format(java.time.format.DateTimeFormatter.ISO_LOCAL_DATE_TIME), first,
+                day.plusDays(1).format(java.time.format.DateTimeFormatter.ISO_LOCAL_DATE_TIME), second);
+
+        mvc.perform(post("/api/requests/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonString))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$[0].token").isString())
+                .andExpect(jsonPath("$[1].token").isString());
+    }
+
     @Test
     void getRequest_shouldReturn404WhenRequestDoesntExists() throws Exception {
         mvc.perform(get("/api/requests/token456"))
@@ -0,0 +1,94 @@
+package zeromonos;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import zeromonos.data.BoundedDataSource;
+import zeromonos.data.municipalities.Municipality;
+import zeromonos.data.requests.Request;
+import zeromonos.data.residues.Residue;
+import zeromonos.data.residues.ResidueRepository;
+import zeromonos.services.requests.RequestServiceInterface;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, classes = ZeroMonosApplication.class,
+        properties = {"spring.threads.virtual.enabled=true", "zeromonos.db.max-concurrency=4", "zeromonos.db.max-wait=2s"})
+@AutoConfigureTestDatabase
+class VirtualThreadModeIT {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private RequestServiceInterface requestService;
+
+    @Autowired
+    private ResidueRepository residueRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void whenVirtualThreadsAreOn_thenDatabaseAccessIsBounded() {
+        assertThat(dataSource).isInstanceOf(BoundedDataSource.class);
+        assertThat(((BoundedDataSource) dataSource).getMaxConcurrency()).isEqualTo(4);
+
+        assertThat(restTemplate.getForEntity("/api/residues", String.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(((BoundedDataSource) dataSource).getActive()).isZero();
+    }
+
+    // Every caller holds its permit in an open transaction when the first request of a new municipality inserts
+    // the municipality in a transaction of its own, so as many callers as the cap must not wait on each other
+    @Test
+    void whenAsManyCallersAsTheCapCreateRequestsForNewMunicipalities_thenNoneWaitsForAPermit() throws Exception {
+        BoundedDataSource bounded = (BoundedDataSource) dataSource;
+        int callers = bounded.getMaxConcurrency();
+        List<Long> residueIds = IntStream.range(0, callers)
+                .mapToObj(i -> residueRepository.save(new Residue("Concurrent " + i, 1f, 1f)).getId())
+                .toList();
+        CyclicBarrier allHoldAPermit = new CyclicBarrier(callers);
+        TransactionTemplate outer = new TransactionTemplate(transactionManager);
+
+        List<Future<String>> tokens;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            tokens = IntStream.range(0, callers).mapToObj(i -> executor.submit(() -> outer.execute(status -> {
+                residueRepository.count();
+                awaitQuietly(allHoldAPermit);
+                Request request = new Request(new Municipality("Concurrent " + i), LocalDateTime.now().plusDays(1));
+                return requestService.createRequest(request, List.of(residueIds.get(i)));
+            }))).toList();
+        }
+
+        for (Future<String> token : tokens) {
+            assertThat(token.get()).isNotNull();
+        }
+        assertThat(bounded.getActive()).isZero();
+    }
+
+    private static void awaitQuietly(CyclicBarrier barrier) {
+        try {
+            barrier.await(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
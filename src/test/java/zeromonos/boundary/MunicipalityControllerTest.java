@@ -0,0 +1,104 @@
+package zeromonos.boundary;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import zeromonos.data.requests.SlotDTO;
+import zeromonos.services.municipalities.MunicipalityDirectory;
+import zeromonos.services.municipalities.MunicipalityListing;
+import zeromonos.services.requests.SlotScheduler;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = MunicipalityController.class)
+class MunicipalityControllerTest {
+
+    private static final String ETAG = "\"abc123\"";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockitoBean
+    private MunicipalityDirectory municipalityDirectory;
+
+    @MockitoBean
+    private SlotScheduler slotScheduler;
+
+    @BeforeEach
+    void setup() {
+        when(municipalityDirectory.getListing()).thenReturn(new MunicipalityListing(List.of("Aveiro", "Porto"), ETAG));
+    }
+
+    @Test
+    void getMunicipalities_shouldReturnListWithCacheHeaders() throws Exception {
+        mvc.perform(get("/api/municipalities"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("max-age=3600")))
+                .andExpect(jsonPath("$[0]", is("Aveiro")))
+                .andExpect(jsonPath("$[1]", is("Porto")));
+    }
+
+    @Test
+    void getMunicipalities_shouldReturn304WhenETagMatches() throws Exception {
+        mvc.perform(get("/api/municipalities").header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getMunicipalities_shouldReturnListWhenETagIsStale() throws Exception {
+        mvc.perform(get("/api/municipalities").header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG));
+    }
+
+    @Test
+    void getFreeSlots_shouldReturnSlotsOfCanonicalMunicipality() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 7, 10, 0);
+        when(municipalityDirectory.resolve("aveiro")).thenReturn(Optional.of("Aveiro"));
+        when(slotScheduler.findFreeSlots(eq("Aveiro"), any(), eq(2)))
+                .thenReturn(List.of(new SlotDTO(start, start.plusHours(1), 3), new SlotDTO(start.plusHours(1), start.plusHours(2), 10)));
+
+        mvc.perform(get("/api/municipalities/aveiro/slots").param("count", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].start", is("2030-01-07T10:00:00")))
+                .andExpect(jsonPath("$[0].remaining", is(3)))
+                .andExpect(jsonPath("$[1].end", is("2030-01-07T12:00:00")));
+    }
+
+    @Test
+    void getFreeSlots_shouldReturn400WhenMunicipalityUnknown() throws Exception {
+        when(municipalityDirectory.resolve("Atlantis")).thenReturn(Optional.empty());
+
+        mvc.perform(get("/api/municipalities/Atlantis/slots"))
+                .andExpect(status().isBadRequest());
+        verify(slotScheduler, never()).findFreeSlots(any(), any(), anyInt());
+    }
+
+    @Test
+    void getFreeSlots_shouldReturn400WhenCountIsOutOfBounds() throws Exception {
+        when(municipalityDirectory.resolve("Aveiro")).thenReturn(Optional.of("Aveiro"));
+        when(slotScheduler.findFreeSlots(eq("Aveiro"), any(), eq(0))).thenThrow(new IllegalArgumentException("Count must be between 1 and 100"));
+
+        mvc.perform(get("/api/municipalities/Aveiro/slots").param("count", "0"))
+                .andExpect(status().isBadRequest());
+    }
+}
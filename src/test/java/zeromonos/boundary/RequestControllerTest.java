@@ -1,23 +1,42 @@
 package zeromonos.boundary;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import zeromonos.data.municipalities.Municipality;
 import zeromonos.data.requests.Request;
+import zeromonos.data.requests.RequestBatchResultDTO;
+import zeromonos.data.requests.RequestCursor;
+import zeromonos.data.requests.RequestDTO;
+import zeromonos.data.requests.RequestStatus;
+import zeromonos.data.requests.RequestSummary;
 import zeromonos.data.residues.Residue;
+import zeromonos.services.municipalities.MunicipalityDirectory;
+import zeromonos.services.requests.RequestDetailCache;
 import zeromonos.services.requests.RequestService;
+import zeromonos.services.versions.ChangeVersions;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -31,17 +50,39 @@ class RequestControllerTest {
     @MockitoBean
     private RequestService requestService;
 
+    @MockitoBean
+    private RequestEventBroadcaster requestEventBroadcaster;
+
+    @MockitoBean
+    private MunicipalityDirectory municipalityDirectory;
+
+    @MockitoBean
+    private RequestDetailCache requestDetailCache;
+
+    @MockitoBean
+    private ChangeVersions changeVersions;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setup() {
+        when(municipalityDirectory.resolve(anyString())).thenAnswer(inv -> Optional.of(inv.getArgument(0)));
+        when(changeVersions.requestsTag()).thenReturn("W/\"r1-e\"");
+        when(changeVersions.municipalityTag(anyString())).thenReturn("W/\"m0.1-e\"");
+    }
+
     @Test
     void getAllRequests_shouldReturnList() throws Exception {
         Request request = new Request();
-        request.setToken("token123");
+        request.setToken("0190a6f4-6a8b-7cde-8f01-23456789abcd");
 
         when(requestService.getAllRequests())
                 .thenReturn(List.of(request));
 
         mvc.perform(get("/api/requests"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].token", is("token123")));
+                .andExpect(jsonPath("$[0].token", is("0190a6f4-6a8b-7cde-8f01-23456789abcd")));
     }
 
     @Test
@@ -54,17 +95,170 @@ class RequestControllerTest {
                 .andExpect(content().json("[]"));
     }
 
+    @Test
+    void getAllRequests_shouldReturnSummariesWhenAsked() throws Exception {
+        UUID token = UUID.fromString("0190a6f4-6a8b-7cde-8f01-23456789abcd");
+        when(requestService.getAllRequestSummaries()).thenReturn(List.of(
+                new RequestSummary(token, "Aveiro", LocalDateTime.of(2025, 1, 1, 10, 0), RequestStatus.RECEIVED, 3L, "Plastic, Glass, Paper")
+        ));
+
+        mvc.perform(get("/api/requests").param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].token", is(token.toString())))
+                .andExpect(jsonPath("$[0].municipality", is("Aveiro")))
+                .andExpect(jsonPath("$[0].requestStatus", is("RECEIVED")))
+                .andExpect(jsonPath("$[0].residueCount", is(3)))
+                .andExpect(jsonPath("$[0].residueNames", is("Plastic, Glass, Paper")))
+                .andExpect(jsonPath("$[0].residues").doesNotExist());
+        verify(requestService, never()).getAllRequests();
+    }
+
+    @Test
+    void getAllRequests_shouldReturn304WithoutQueryingWhenETagMatches() throws Exception {
+        mvc.perform(get("/api/requests").header("If-None-Match", "W/\"r1-e\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"r1-e\""));
+        mvc.perform(get("/api/requests").param("view", "summary").header("If-None-Match", "W/\"r1-e\""))
+                .andExpect(status().isNotModified());
+
+        verify(requestService, never()).getAllRequests();
+        verify(requestService, never()).getAllRequestSummaries();
+    }
+
+    @Test
+    void getAllRequests_shouldReturnListWithNewETagWhenVersionMoved() throws Exception {
+        when(changeVersions.requestsTag()).thenReturn("W/\"r2-e\"");
+        when(requestService.getAllRequests()).thenReturn(List.of());
+
+        mvc.perform(get("/api/requests").header("If-None-Match", "W/\"r1-e\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"r2-e\""))
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andExpect(content().json("[]"));
+    }
+
+    @Test
+    void getAllRequestsByMunicipality_shouldReturn304WithoutQueryingWhenETagMatches() throws Exception {
+        mvc.perform(get("/api/requests/municipality/Aveiro").header("If-None-Match", "W/\"m0.1-e\""))
+                .andExpect(status().isNotModified());
+        mvc.perform(get("/api/requests/municipality/Aveiro").param("view", "summary").header("If-None-Match", "W/\"m0.1-e\""))
+                .andExpect(status().isNotModified());
+
+        verify(changeVersions, times(2)).municipalityTag("Aveiro");
+        verify(requestService, never()).getAllRequestsByMunicipality(anyString());
+        verify(requestService, never()).getRequestSummariesByMunicipality(anyString());
+    }
+
+    @Test
+    void getRequestsPage_shouldIgnoreSummaryView() throws Exception {
+        when(requestService.getRequestsPage(null, 2)).thenReturn(List.of());
+
+        mvc.perform(get("/api/requests").param("size", "2").param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requests").isArray());
+        verify(requestService, never()).getAllRequestSummaries();
+    }
+
+    @Test
+    void getRequestsPage_shouldReturnNextCursorWhenPageIsFull() throws Exception {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 10, 0);
+        Request request0 = new Request(new Municipality("Aveiro"), now);
+        request0.setToken("0190a6f4-6a8b-7cde-8f01-23456789abc0");
+        Request request1 = new Request(new Municipality("Porto"), now);
+        request1.setToken("0190a6f4-6a8b-7cde-8f01-23456789abc1");
+
+        when(requestService.getRequestsPage(null, 2))
+                .thenReturn(List.of(request0, request1));
+
+        mvc.perform(get("/api/requests").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requests[0].token", is("0190a6f4-6a8b-7cde-8f01-23456789abc0")))
+                .andExpect(jsonPath("$.requests[1].token", is("0190a6f4-6a8b-7cde-8f01-23456789abc1")))
+                .andExpect(jsonPath("$.nextCursor", is(new RequestCursor(now, UUID.fromString("0190a6f4-6a8b-7cde-8f01-23456789abc1")).encode())));
+    }
+
+    @Test
+    void getRequestsPage_shouldNotReturnNextCursorOnLastPage() throws Exception {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 10, 0);
+        RequestCursor cursor = new RequestCursor(now, UUID.fromString("0190a6f4-6a8b-7cde-8f01-23456789abc1"));
+
+        when(requestService.getRequestsPage(cursor, 2))
+                .thenReturn(List.of());
+
+        mvc.perform(get("/api/requests").param("size", "2").param("after", cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requests", is(List.of())))
+                .andExpect(jsonPath("$.nextCursor", nullValue()));
+    }
+
+    @Test
+    void getRequestsPage_shouldReturn400WhenCursorIsMalformed() throws Exception {
+        mvc.perform(get("/api/requests").param("size", "2").param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+
+        verify(requestService, never()).getRequestsPage(any(), anyInt());
+    }
+
+    @Test
+    void getRequestsPage_shouldReturn400WhenSizeIsInvalid() throws Exception {
+        when(requestService.getRequestsPage(null, 0))
+                .thenThrow(IllegalArgumentException.class);
+
+        mvc.perform(get("/api/requests").param("size", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamAllRequests_shouldWriteOneJsonObjectPerLine() throws Exception {
+        Request request0 = new Request(new Municipality("Aveiro"), LocalDateTime.now());
+        request0.setToken("0190a6f4-6a8b-7cde-8f01-23456789abc0");
+        Request request1 = new Request(new Municipality("Porto"), LocalDateTime.now());
+        request1.setToken("0190a6f4-6a8b-7cde-8f01-23456789abc1");
+
+        doAnswer(inv -> {
+            Consumer<Request> consumer = inv.getArgument(0);
+            consumer.accept(request0);
+            consumer.accept(request1);
+            return null;
+        }).when(requestService).streamAllRequests(any());
+
+        MvcResult result = mvc.perform(get("/api/requests/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"token\":\"0190a6f4-6a8b-7cde-8f01-23456789abc0\"");
+        assertThat(lines[1]).contains("\"token\":\"0190a6f4-6a8b-7cde-8f01-23456789abc1\"");
+    }
+
+    @Test
+    void streamRequestEvents_shouldSubscribeWithFilters() throws Exception {
+        when(requestEventBroadcaster.subscribe("Aveiro", null, null))
+                .thenReturn(new SseEmitter());
+
+        mvc.perform(get("/api/requests/events").param("municipality", "Aveiro"))
+                .andExpect(request().asyncStarted());
+
+        verify(requestEventBroadcaster, times(1)).subscribe("Aveiro", null, null);
+    }
+
     @Test
     void getAllRequestsByMunicipality_shouldReturnList() throws Exception {
-        Request request0 = new Request("Aveiro", LocalDateTime.now());
-        request0.setToken("token123");
+        Request request0 = new Request(new Municipality("Aveiro"), LocalDateTime.now());
+        request0.setToken("0190a6f4-6a8b-7cde-8f01-23456789abcd");
 
         when(requestService.getAllRequestsByMunicipality("Aveiro"))
                 .thenReturn(List.of(request0));
 
         mvc.perform(get("/api/requests/municipality/Aveiro"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].token", is("token123")));
+                .andExpect(jsonPath("$[0].token", is("0190a6f4-6a8b-7cde-8f01-23456789abcd")));
     }
 
     @Test
@@ -77,16 +271,30 @@ class RequestControllerTest {
                 .andExpect(content().json("[]"));
     }
 
+    @Test
+    void getAllRequestsByMunicipality_shouldReturnSummariesWhenAsked() throws Exception {
+        UUID token = UUID.fromString("0190a6f4-6a8b-7cde-8f01-23456789abcd");
+        when(requestService.getRequestSummariesByMunicipality("Aveiro")).thenReturn(List.of(
+                new RequestSummary(token, "Aveiro", LocalDateTime.of(2025, 1, 1, 10, 0), RequestStatus.ASSIGNED, 1L, "Plastic")
+        ));
+
+        mvc.perform(get("/api/requests/municipality/Aveiro").param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].token", is(token.toString())))
+                .andExpect(jsonPath("$[0].residueCount", is(1)));
+        verify(requestService, never()).getAllRequestsByMunicipality(any());
+    }
+
     @Test
     void createRequest_shouldReturnTokenOnSuccess() throws Exception {
         LocalDateTime now = LocalDateTime.now();
 
         when(requestService.createRequest(Mockito.any(), Mockito.any()))
-                .thenReturn("token123");
+                .thenReturn("0190a6f4-6a8b-7cde-8f01-23456789abcd");
 
         String jsonString = """
         {
-          "token": "token123",
+          "token": "0190a6f4-6a8b-7cde-8f01-23456789abcd",
           "requestStatus": "RECEIVED",
           "municipality": "Aveiro",
           "datetime": "%s",
@@ -98,11 +306,50 @@ class RequestControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(jsonString))
                 .andExpect(status().isCreated())
-                .andExpect(jsonPath("$", is("token123")));
+                .andExpect(jsonPath("$", is("0190a6f4-6a8b-7cde-8f01-23456789abcd")));
 
         verify(requestService, times(1)).createRequest(Mockito.any(), Mockito.any());
     }
 
+    @Test
+    void createRequest_shouldReturn400WhenMunicipalityUnknown() throws Exception {
+        when(municipalityDirectory.resolve("Atlantis")).thenReturn(Optional.empty());
+
+        String jsonString = """
+        {
+          "municipality": "Atlantis",
+          "datetime": "2025-01-01T10:00:00",
+          "residues": [{"id":1}]
+        }
+        """;
+
+        mvc.perform(post("/api/requests")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonString))
+                .andExpect(status().isBadRequest());
+
+        verify(requestService, never()).createRequest(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void createRequest_shouldReturn409WhenSlotIsFull() throws Exception {
+        when(requestService.createRequest(Mockito.any(), Mockito.any()))
+                .thenThrow(new IllegalStateException("Pickup slot at 2025-01-01T10:00 in Aveiro is fully booked"));
+
+        String jsonString = """
+        {
+          "municipality": "Aveiro",
+          "datetime": "2025-01-01T10:00:00",
+          "residues": [{"id":1}]
+        }
+        """;
+
+        mvc.perform(post("/api/requests")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonString))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void createRequest_shouldNotReturnTokenOnFailure() throws Exception {
         LocalDateTime now = LocalDateTime.now();
@@ -112,7 +359,7 @@ class RequestControllerTest {
 
         String jsonString = """
         {
-          "token": "token123",
+          "token": "0190a6f4-6a8b-7cde-8f01-23456789abcd",
           "requestStatus": "RECEIVED",
           "municipality": "Aveiro",
           "datetime": "%s",
@@ -137,7 +384,7 @@ class RequestControllerTest {
 
         String jsonString = """
         {
-          "token": "token123",
+          "token": "0190a6f4-6a8b-7cde-8f01-23456789abcd",
           "requestStatus": "RECEIVED",
           "municipality": "Aveiro",
           "datetime": "%s",
@@ -153,77 +400,146 @@ class RequestControllerTest {
         verify(requestService, times(1)).createRequest(Mockito.any(), Mockito.any());
     }
 
+    @Test
+    void createRequests_shouldReturnResultPerItem() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+
+        when(requestService.createRequests(Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenReturn(List.of(
+                        RequestBatchResultDTO.created(0, "0190a6f4-6a8b-7cde-8f01-23456789abcd"),
+                        RequestBatchResultDTO.rejected(1, "Residue with id -1 not found")
+                ));
+
+        String jsonString = """
+        [
+          {"municipality": "Aveiro", "datetime": "%1$s", "residues": [{"id":1}]},
+          {"municipality": "Porto", "datetime": "%1$s", "residues": [{"id":-1}]}
+        ]
+        """.formatted(now.format(java.time.format.DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+
+        mvc.perform(post("/api/requests/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonString))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$[0].token", is("0190a6f4-6a8b-7cde-8f01-23456789abcd")))
+                .andExpect(jsonPath("$[1].index", is(1)))
+                .andExpect(jsonPath("$[1].error", is("Residue with id -1 not found")));
+
+        verify(requestService, times(1)).createRequests(Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void createRequests_shouldReturn400WhenBatchIsTooLarge() throws Exception {
+        when(requestService.createRequests(Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenThrow(IllegalArgumentException.class);
+
+        mvc.perform(post("/api/requests/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getRequest_shouldReturn404WhenRequestDoesntExists() throws Exception {
-        when(requestService.getRequest("token123"))
+        when(requestDetailCache.get("0190a6f4-6a8b-7cde-8f01-23456789abcd"))
                 .thenThrow(NoSuchElementException.class);
 
-        mvc.perform(get("/api/requests/token123"))
+        mvc.perform(get("/api/requests/0190a6f4-6a8b-7cde-8f01-23456789abcd"))
                 .andExpect(status().isNotFound());
 
-        verify(requestService, times(1)).getRequest("token123");
+        verify(requestDetailCache, times(1)).get("0190a6f4-6a8b-7cde-8f01-23456789abcd");
     }
 
     @Test
     void getRequest_shouldReturnRequest() throws Exception {
         LocalDateTime now = LocalDateTime.now();
-        Request request = new Request("Aveiro", now);
-        request.setToken("token123");
+        Request request = new Request(new Municipality("Aveiro"), now);
+        request.setToken("0190a6f4-6a8b-7cde-8f01-23456789abcd");
 
         Residue residue = new Residue("Plastic", "A ton of microplastics", 1f, 1f);
         residue.setId(0L);
         request.addResidue(residue);
 
-        when(requestService.getRequest("token123"))
-                .thenReturn(request);
+        when(requestDetailCache.get("0190a6f4-6a8b-7cde-8f01-23456789abcd"))
+                .thenReturn(detail(request, "\"7\""));
 
-        mvc.perform(get("/api/requests/token123"))
+        mvc.perform(get("/api/requests/0190a6f4-6a8b-7cde-8f01-23456789abcd"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.token", is("token123")))
+                .andExpect(header().string("ETag", "\"7\""))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.token", is("0190a6f4-6a8b-7cde-8f01-23456789abcd")))
                 .andExpect(jsonPath("$.requestStatus", is("RECEIVED")))
                 .andExpect(jsonPath("$.municipality", is("Aveiro")))
                 .andExpect(jsonPath("$.datetime", is(now.format(java.time.format.DateTimeFormatter.ISO_LOCAL_DATE_TIME))))
                 .andExpect(jsonPath("$.residues[0].id", is(0)));
 
-        verify(requestService, times(1)).getRequest("token123");
+        verify(requestDetailCache, times(1)).get("0190a6f4-6a8b-7cde-8f01-23456789abcd");
+        verify(requestService, never()).getRequest(anyString());
+    }
+
+    @Test
+    void getRequest_shouldReturn304WhenETagMatches() throws Exception {
+        Request request = new Request(new Municipality("Aveiro"), LocalDateTime.now());
+        request.setToken("0190a6f4-6a8b-7cde-8f01-23456789abcd");
+
+        when(requestDetailCache.get("0190a6f4-6a8b-7cde-8f01-23456789abcd"))
+                .thenReturn(detail(request, "\"7\""));
+
+        mvc.perform(get("/api/requests/0190a6f4-6a8b-7cde-8f01-23456789abcd").header("If-None-Match", "\"7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"7\""))
+                .andExpect(content().string(""));
+
+        mvc.perform(get("/api/requests/0190a6f4-6a8b-7cde-8f01-23456789abcd").header("If-None-Match", "\"6\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token", is("0190a6f4-6a8b-7cde-8f01-23456789abcd")));
     }
 
     @Test
     void deleteRequest_shouldReturn404WhenRequestDoesntExists() throws Exception {
-        doThrow(NoSuchElementException.class).when(requestService).deleteRequest("token123");
+        doThrow(NoSuchElementException.class).when(requestService).deleteRequest("0190a6f4-6a8b-7cde-8f01-23456789abcd");
 
-        mvc.perform(delete("/api/requests/token123"))
+        mvc.perform(delete("/api/requests/0190a6f4-6a8b-7cde-8f01-23456789abcd"))
                 .andExpect(status().isNotFound());
 
-        verify(requestService, times(1)).deleteRequest("token123");
+        verify(requestService, times(1)).deleteRequest("0190a6f4-6a8b-7cde-8f01-23456789abcd");
+    }
+
+    @Test
+    void deleteRequest_shouldReturn409WhenATransitionWinsTheRace() throws Exception {
+        doThrow(new ObjectOptimisticLockingFailureException(Request.class, "0190a6f4-6a8b-7cde-8f01-23456789abcd"))
+                .when(requestService).deleteRequest("0190a6f4-6a8b-7cde-8f01-23456789abcd");
+
+        mvc.perform(delete("/api/requests/0190a6f4-6a8b-7cde-8f01-23456789abcd"))
+                .andExpect(status().isConflict());
     }
 
     @Test
     void deleteRequest_shouldCallDeleteRequest() throws Exception {
-        mvc.perform(delete("/api/requests/token123"))
+        mvc.perform(delete("/api/requests/0190a6f4-6a8b-7cde-8f01-23456789abcd"))
                 .andExpect(status().isNoContent());
 
-        verify(requestService, times(1)).deleteRequest("token123");
+        verify(requestService, times(1)).deleteRequest("0190a6f4-6a8b-7cde-8f01-23456789abcd");
     }
 
     @Test
     void assignRequest_shouldReturn404WhenRequestDoesntExists() throws Exception {
-        doThrow(NoSuchElementException.class).when(requestService).assignRequest("token123");
+        doThrow(NoSuchElementException.class).when(requestService).assignRequest("0190a6f4-6a8b-7cde-8f01-23456789abcd");
 
-        mvc.perform(put("/api/requests/token123/assign"))
+        mvc.perform(put("/api/requests/0190a6f4-6a8b-7cde-8f01-23456789abcd/assign"))
                 .andExpect(status().isNotFound());
 
-        verify(requestService, times(1)).assignRequest("token123");
+        verify(requestService, times(1)).assignRequest("0190a6f4-6a8b-7cde-8f01-23456789abcd");
     }
 
     @Test
     void assignRequest_shouldReturn405WhenIllegalTransition() throws Exception {
-        doThrow(IllegalStateException.class).when(requestService).assignRequest("token123");
+        doThrow(IllegalStateException.class).when(requestService).assignRequest("0190a6f4-6a8b-7cde-8f01-23456789abcd");
 
-        mvc.perform(put("/api/requests/token123/assign"))
+        mvc.perform(put("/api/requests/0190a6f4-6a8b-7cde-8f01-23456789abcd/assign"))
                 .andExpect(status().isMethodNotAllowed());
 
-        verify(requestService, times(1)).assignRequest("token123");
+        verify(requestService, times(1)).assignRequest("0190a6f4-6a8b-7cde-8f01-23456789abcd");
     }
 
     @Test
@@ -236,22 +552,22 @@ class RequestControllerTest {
 
     @Test
     void startRequest_shouldReturn404WhenRequestDoesntExists() throws Exception {
-        doThrow(NoSuchElementException.class).when(requestService).startRequest("token123");
+        doThrow(NoSuchElementException.class).when(requestService).startRequest("0190a6f4-6a8b-7cde-8f01-23456789abcd");
 
-        mvc.perform(put("/api/requests/token123/start"))
+        mvc.perform(put("/api/requests/0190a6f4-6a8b-7cde-8f01-23456789abcd/start"))
                 .andExpect(status().isNotFound());
 
-        verify(requestService, times(1)).startRequest("token123");
+        verify(requestService, times(1)).startRequest("0190a6f4-6a8b-7cde-8f01-23456789abcd");
     }
 
     @Test
     void startRequest_shouldReturn405WhenIllegalTransition() throws Exception {
-        doThrow(IllegalStateException.class).when(requestService).startRequest("token123");
+        doThrow(IllegalStateException.class).when(requestService).startRequest("0190a6f4-6a8b-7cde-8f01-23456789abcd");
 
-        mvc.perform(put("/api/requests/token123/start"))
+        mvc.perform(put("/api/requests/0190a6f4-6a8b-7cde-8f01-23456789abcd/start"))
                 .andExpect(status().isMethodNotAllowed());
 
-        verify(requestService, times(1)).startRequest("token123");
+        verify(requestService, times(1)).startRequest("0190a6f4-6a8b-7cde-8f01-23456789abcd");
     }
 
     @Test
@@ -264,22 +580,22 @@ class RequestControllerTest {
 
     @Test
     void completeRequest_shouldReturn404WhenRequestDoesntExists() throws Exception {
-        doThrow(NoSuchElementException.class).when(requestService).completeRequest("token123");
+        doThrow(NoSuchElementException.class).when(requestService).completeRequest("0190a6f4-6a8b-7cde-8f01-23456789abcd");
 
-        mvc.perform(put("/api/requests/token123/complete"))
+        mvc.perform(put("/api/requests/0190a6f4-6a8b-7cde-8f01-23456789abcd/complete"))
                 .andExpect(status().isNotFound());
 
-        verify(requestService, times(1)).completeRequest("token123");
+        verify(requestService, times(1)).completeRequest("0190a6f4-6a8b-7cde-8f01-23456789abcd");
     }
 
     @Test
     void completeRequest_shouldReturn405WhenIllegalTransition() throws Exception {
-        doThrow(IllegalStateException.class).when(requestService).completeRequest("token123");
+        doThrow(IllegalStateException.class).when(requestService).completeRequest("0190a6f4-6a8b-7cde-8f01-23456789abcd");
 
-        mvc.perform(put("/api/requests/token123/complete"))
+        mvc.perform(put("/api/requests/0190a6f4-6a8b-7cde-8f01-23456789abcd/complete"))
                 .andExpect(status().isMethodNotAllowed());
 
-        verify(requestService, times(1)).completeRequest("token123");
+        verify(requestService, times(1)).completeRequest("0190a6f4-6a8b-7cde-8f01-23456789abcd");
     }
 
     @Test
@@ -292,22 +608,22 @@ class RequestControllerTest {
 
     @Test
     void cancelRequest_shouldReturn404WhenRequestDoesntExists() throws Exception {
-        doThrow(NoSuchElementException.class).when(requestService).cancelRequest("token123");
+        doThrow(NoSuchElementException.class).when(requestService).cancelRequest("0190a6f4-6a8b-7cde-8f01-23456789abcd");
 
-        mvc.perform(put("/api/requests/token123/cancel"))
+        mvc.perform(put("/api/requests/0190a6f4-6a8b-7cde-8f01-23456789abcd/cancel"))
                 .andExpect(status().isNotFound());
 
-        verify(requestService, times(1)).cancelRequest("token123");
+        verify(requestService, times(1)).cancelRequest("0190a6f4-6a8b-7cde-8f01-23456789abcd");
     }
 
     @Test
     void cancelRequest_shouldReturn405WhenIllegalTransition() throws Exception {
-        doThrow(IllegalStateException.class).when(requestService).cancelRequest("token123");
+        doThrow(IllegalStateException.class).when(requestService).cancelRequest("0190a6f4-6a8b-7cde-8f01-23456789abcd");
 
-        mvc.perform(put("/api/requests/token123/cancel"))
+        mvc.perform(put("/api/requests/0190a6f4-6a8b-7cde-8f01-23456789abcd/cancel"))
                 .andExpect(status().isMethodNotAllowed());
 
-        verify(requestService, times(1)).cancelRequest("token123");
+        verify(requestService, times(1)).cancelRequest("0190a6f4-6a8b-7cde-8f01-23456789abcd");
     }
 
     @Test
@@ -317,4 +633,8 @@ class RequestControllerTest {
 
         verify(requestService, times(1)).cancelRequest("token456");
     }
+
+    private RequestDetailCache.RequestDetail detail(Request request, String etag) throws Exception {
+        return new RequestDetailCache.RequestDetail(objectMapper.writeValueAsBytes(RequestDTO.fromRequestEntity(request)), etag);
+    }
 }
@@ -0,0 +1,211 @@
+package zeromonos.boundary;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import zeromonos.data.requests.RequestEventDTO;
+import zeromonos.data.requests.RequestLoad;
+import zeromonos.data.requests.RequestStatus;
+import zeromonos.services.requests.RequestLoadsChangedEvent;
+import zeromonos.services.requests.RequestService;
+import zeromonos.services.requests.RequestStatusChangedEvent;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RequestEventBroadcasterTest {
+
+    private static final String TOKEN = "0190a6f4-6a8b-7cde-8f01-23456789abcd";
+
+    @Mock
+    private RequestService requestService;
+
+    private RequestEventBroadcaster broadcaster;
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        broadcaster = new RequestEventBroadcaster(requestService) {
+            @Override
+            SseEmitter newEmitter() {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        when(requestService.getMunicipality(TOKEN)).thenReturn(Optional.of("Aveiro"));
+    }
+
+    @Test
+    void subscribe_shouldRegisterSubscriber() {
+        assertThat(broadcaster.subscribe(null, null)).isNotNull();
+        assertThat(broadcaster.subscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void onStatusChanged_shouldNotLookUpMunicipalityWithoutSubscribers() {
+        broadcaster.onStatusChanged(event(null));
+
+        verify(requestService, never()).getMunicipality(any());
+    }
+
+    @Test
+    void onStatusChanged_shouldNotLookUpMunicipalityForTokenSubscribers() {
+        broadcaster.subscribe(null, TOKEN);
+        broadcaster.onStatusChanged(event(null));
+
+        verify(requestService, never()).getMunicipality(any());
+    }
+
+    @Test
+    void onStatusChanged_shouldLookUpMunicipalityOnceForMunicipalitySubscribers() {
+        broadcaster.subscribe("Aveiro", null);
+        broadcaster.subscribe("Porto", null);
+        broadcaster.onStatusChanged(event(null));
+
+        verify(requestService, times(1)).getMunicipality(TOKEN);
+    }
+
+    @Test
+    void onStatusChanged_shouldReuseMunicipalityCarriedByEvent() {
+        broadcaster.subscribe("Aveiro", null);
+        broadcaster.onStatusChanged(event("Aveiro"));
+
+        verify(requestService, never()).getMunicipality(any());
+    }
+
+    @Test
+    void onStatusChanged_shouldSendEventsWithIds() throws Exception {
+        broadcaster.subscribe(null, null);
+        broadcaster.onStatusChanged(event("Aveiro"));
+        broadcaster.awaitSent();
+
+        assertThat(emitters.get(0).events).singleElement().asString()
+                .contains("event:status").containsPattern("id:\\w+-1\n").contains(TOKEN);
+    }
+
+    @Test
+    void subscribe_shouldReplayEventsMissedSinceLastEventId() throws Exception {
+        broadcaster.subscribe(null, null);
+        broadcaster.onStatusChanged(event("Aveiro"));
+        broadcaster.awaitSent();
+        String firstId = lastEventId(emitters.get(0));
+
+        broadcaster.onStatusChanged(event("Aveiro"));
+        broadcaster.onStatusChanged(event("Porto"));
+        broadcaster.subscribe("Aveiro", null, firstId);
+        broadcaster.awaitSent();
+
+        assertThat(emitters.get(1).events).singleElement().asString()
+                .contains("event:status").contains("id:" + firstId.replace("-1", "-2"));
+        assertThat(broadcaster.subscriberCount()).isEqualTo(2);
+    }
+
+    @Test
+    void subscribe_shouldAskForResyncWhenLastEventIdIsUnknown() throws Exception {
+        broadcaster.onStatusChanged(event("Aveiro"));
+        broadcaster.subscribe(null, null, "previous-instance-7");
+        broadcaster.awaitSent();
+
+        assertThat(emitters.get(0).events).singleElement().asString()
+                .contains("event:resync").containsPattern("id:\\w+-1\n");
+    }
+
+    @Test
+    void subscribe_shouldAskForResyncWhenEventsWereEvicted() throws Exception {
+        broadcaster.subscribe(null, null);
+        broadcaster.onStatusChanged(event("Aveiro"));
+        broadcaster.awaitSent();
+        String firstId = lastEventId(emitters.get(0));
+        for (int i = 0; i <= RequestEventBroadcaster.REPLAY_SIZE; i++) {
+            broadcaster.onStatusChanged(event("Aveiro"));
+        }
+
+        broadcaster.subscribe(null, null, firstId);
+        broadcaster.awaitSent();
+
+        assertThat(emitters.get(1).events).singleElement().asString().contains("event:resync");
+    }
+
+    @Test
+    void heartbeat_shouldSendCommentToSubscribers() throws Exception {
+        broadcaster.subscribe(null, TOKEN);
+        broadcaster.heartbeat();
+        broadcaster.awaitSent();
+
+        assertThat(emitters.get(0).events).containsExactly(":heartbeat\n\n");
+    }
+
+    @Test
+    void onRequestLoadsChanged_shouldSendDeletedEventsToMatchingSubscribers() throws Exception {
+        broadcaster.subscribe("Aveiro", null);
+        broadcaster.subscribe("Porto", null);
+        broadcaster.onRequestLoadsChanged(new RequestLoadsChangedEvent(RequestLoadsChangedEvent.Change.DELETED, List.of(
+                new RequestLoad(UUID.fromString(TOKEN), "Aveiro", LocalDateTime.now(), RequestStatus.RECEIVED, 1.0, 1.0))));
+        broadcaster.onRequestLoadsChanged(new RequestLoadsChangedEvent(RequestLoadsChangedEvent.Change.CREATED, List.of(
+                new RequestLoad(UUID.fromString(TOKEN), "Aveiro", LocalDateTime.now(), RequestStatus.RECEIVED, 1.0, 1.0))));
+        broadcaster.awaitSent();
+
+        assertThat(emitters.get(0).events).singleElement().asString().contains("event:deleted").contains(TOKEN);
+        assertThat(emitters.get(1).events).isEmpty();
+    }
+
+    @Test
+    void subscription_shouldMatchFilters() {
+        RequestEventDTO dto = new RequestEventDTO(TOKEN, RequestStatus.ASSIGNED, LocalDateTime.now(), "Aveiro");
+        SseEmitter emitter = new SseEmitter();
+
+        assertThat(new RequestEventBroadcaster.Subscription(emitter, null, null).matches(dto)).isTrue();
+        assertThat(new RequestEventBroadcaster.Subscription(emitter, "aveiro", null).matches(dto)).isTrue();
+        assertThat(new RequestEventBroadcaster.Subscription(emitter, "Porto", null).matches(dto)).isFalse();
+        assertThat(new RequestEventBroadcaster.Subscription(emitter, null, TOKEN).matches(dto)).isTrue();
+        assertThat(new RequestEventBroadcaster.Subscription(emitter, "Aveiro", "other").matches(dto)).isFalse();
+    }
+
+    @Test
+    void subscription_shouldMatchMunicipalityWithoutAccents() {
+        RequestEventDTO dto = new RequestEventDTO(TOKEN, RequestStatus.ASSIGNED, LocalDateTime.now(), "Évora");
+        SseEmitter emitter = new SseEmitter();
+
+        assertThat(new RequestEventBroadcaster.Subscription(emitter, " evora ", null).matches(dto)).isTrue();
+    }
+
+    private RequestStatusChangedEvent event(String municipality) {
+        return new RequestStatusChangedEvent(UUID.fromString(TOKEN), RequestStatus.ASSIGNED, LocalDateTime.now(), municipality);
+    }
+
+    private static String lastEventId(RecordingEmitter emitter) {
+        String event = emitter.events.get(emitter.events.size() - 1);
+        int start = event.indexOf("id:") + 3;
+        return event.substring(start, event.indexOf('\n', start));
+    }
+
+    // Keeps what would have been written; data objects are reduced to their token
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            StringBuilder event = new StringBuilder();
+            for (var part : builder.build()) {
+                event.append(part.getData() instanceof RequestEventDTO dto ? dto.getToken() : part.getData());
+            }
+            events.add(event.toString());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package zeromonos.boundary;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import zeromonos.data.municipalities.Municipality;
+import zeromonos.data.requests.LifecycleTimingDTO;
+import zeromonos.data.requests.RequestStatus;
+import zeromonos.services.municipalities.MunicipalityService;
+import zeromonos.services.requests.RequestLifecycleMetrics;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = RequestLifecycleController.class)
+class RequestLifecycleControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockitoBean
+    private RequestLifecycleMetrics requestLifecycleMetrics;
+
+    @MockitoBean
+    private MunicipalityService municipalityService;
+
+    @Test
+    void getTimings_shouldResolveMunicipalityAndWindow() throws Exception {
+        LocalDate day = LocalDate.of(2025, 1, 1);
+        when(municipalityService.find("aveiro")).thenReturn(Optional.of(new Municipality("Aveiro")));
+        when(requestLifecycleMetrics.getTimings("Aveiro", day, day.plusDays(1)))
+                .thenReturn(List.of(new LifecycleTimingDTO(RequestStatus.RECEIVED, 4, 60, 120, 180)));
+
+        mvc.perform(get("/api/requests/lifecycle")
+                        .param("municipality", "aveiro")
+                        .param("from", "2025-01-01")
+                        .param("to", "2025-01-02"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].phase", is("RECEIVED")))
+                .andExpect(jsonPath("$[0].transitions", is(4)))
+                .andExpect(jsonPath("$[0].p95", is(120.0)));
+    }
+
+    @Test
+    void getTimings_shouldDefaultToLastWeekOfAllMunicipalities() throws Exception {
+        LocalDate today = LocalDate.now();
+        when(requestLifecycleMetrics.getTimings(null, today.minusDays(6), today)).thenReturn(List.of());
+
+        mvc.perform(get("/api/requests/lifecycle"))
+                .andExpect(status().isOk());
+        verify(requestLifecycleMetrics).getTimings(null, today.minusDays(6), today);
+    }
+
+    @Test
+    void getTimings_shouldReturn404ForUnknownMunicipality() throws Exception {
+        when(municipalityService.find("Atlantis")).thenReturn(Optional.empty());
+
+        mvc.perform(get("/api/requests/lifecycle").param("municipality", "Atlantis"))
+                .andExpect(status().isNotFound());
+        // Scheduling is on in the slice, so the mock may see publish(); only the lookup must not happen
+        verify(requestLifecycleMetrics, never()).getTimings(any(), any(), any());
+    }
+
+    @Test
+    void getTimings_shouldReturn400WhenWindowIsInverted() throws Exception {
+        when(requestLifecycleMetrics.getTimings(any(), any(), any()))
+                .thenThrow(new IllegalArgumentException("Window must start before it ends"));
+
+        mvc.perform(get("/api/requests/lifecycle").param("from", "2025-01-02").param("to", "2025-01-01"))
+                .andExpect(status().isBadRequest());
+    }
+}
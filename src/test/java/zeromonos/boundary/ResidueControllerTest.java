@@ -1,5 +1,6 @@
 package zeromonos.boundary;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -7,7 +8,9 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import zeromonos.data.residues.Residue;
+import zeromonos.data.residues.ResidueCacheStatsDTO;
 import zeromonos.services.residues.ResidueService;
+import zeromonos.services.versions.ChangeVersions;
 
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -27,6 +30,14 @@ class ResidueControllerTest {
     @MockitoBean
     private ResidueService residueService;
 
+    @MockitoBean
+    private ChangeVersions changeVersions;
+
+    @BeforeEach
+    void setup() {
+        when(changeVersions.residuesTag()).thenReturn("W/\"s1-e\"");
+    }
+
     @Test
     void getAllResidues_shouldReturnList() throws Exception {
         Residue residue = new Residue("Plastic", "A ton of microplastics", 1f, 1f);
@@ -55,6 +66,23 @@ class ResidueControllerTest {
         verify(residueService, times(1)).getAllResidues();
     }
 
+    @Test
+    void getAllResidues_shouldReturn304WithoutReadingWhenETagMatches() throws Exception {
+        mvc.perform(get("/api/residues").header("If-None-Match", "W/\"s1-e\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"s1-e\""));
+
+        verify(residueService, never()).getAllResidues();
+
+        when(changeVersions.residuesTag()).thenReturn("W/\"s2-e\"");
+        when(residueService.getAllResidues()).thenReturn(List.of());
+
+        mvc.perform(get("/api/residues").header("If-None-Match", "W/\"s1-e\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"s2-e\""))
+                .andExpect(header().string("Cache-Control", "no-cache"));
+    }
+
     @Test
     void getResidue_shouldReturn404WhenResidueDoesntExists() throws Exception {
         when(residueService.getResidue(0L))
@@ -130,7 +158,7 @@ class ResidueControllerTest {
         Residue residue = new Residue("Metal", "Steel cans", 2f, 1f);
         residue.setId(10L);
 
-        when(residueService.getResiduesBySimilarNameOrDesc("metal"))
+        when(residueService.getResiduesBySimilarNameOrDesc("metal", 20))
                 .thenReturn(List.of(residue));
 
         mvc.perform(get("/api/residues/search/metal"))
@@ -139,18 +167,52 @@ class ResidueControllerTest {
                 .andExpect(jsonPath("$[0].name", is("Metal")))
                 .andExpect(jsonPath("$[0].desc", is("Steel cans")));
 
-        verify(residueService, times(1)).getResiduesBySimilarNameOrDesc("metal");
+        verify(residueService, times(1)).getResiduesBySimilarNameOrDesc("metal", 20);
     }
 
     @Test
     void searchResidues_shouldReturnEmptyListWhenNoMatches() throws Exception {
-        when(residueService.getResiduesBySimilarNameOrDesc("unknown"))
+        when(residueService.getResiduesBySimilarNameOrDesc("unknown", 20))
                 .thenReturn(List.of());
 
         mvc.perform(get("/api/residues/search/unknown"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", is(List.of())));
 
-        verify(residueService, times(1)).getResiduesBySimilarNameOrDesc("unknown");
+        verify(residueService, times(1)).getResiduesBySimilarNameOrDesc("unknown", 20);
+    }
+
+    @Test
+    void searchResidues_shouldPassLimit() throws Exception {
+        when(residueService.getResiduesBySimilarNameOrDesc("metal", 5))
+                .thenReturn(List.of());
+
+        mvc.perform(get("/api/residues/search/metal").param("limit", "5"))
+                .andExpect(status().isOk());
+
+        verify(residueService, times(1)).getResiduesBySimilarNameOrDesc("metal", 5);
+    }
+
+    @Test
+    void searchResidues_shouldReturn400WhenLimitInvalid() throws Exception {
+        when(residueService.getResiduesBySimilarNameOrDesc("metal", 0))
+                .thenThrow(new IllegalArgumentException("Search limit must be between 1 and 100"));
+
+        mvc.perform(get("/api/residues/search/metal").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getCacheStats_shouldReturnStats() throws Exception {
+        when(residueService.getCacheStats())
+                .thenReturn(List.of(new ResidueCacheStatsDTO("catalogue", 1, 3, 1, 0, 0.75)));
+
+        mvc.perform(get("/api/residues/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].cache", is("catalogue")))
+                .andExpect(jsonPath("$[0].hitCount", is(3)))
+                .andExpect(jsonPath("$[0].hitRate", is(0.75)));
+
+        verify(residueService, times(1)).getCacheStats();
     }
 }
@@ -0,0 +1,77 @@
+package zeromonos.boundary;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import zeromonos.data.residues.ResidueLoadCheckDTO;
+import zeromonos.data.residues.ResidueLoadDTO;
+import zeromonos.services.residues.ResidueLoadAggregates;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = ResidueLoadController.class)
+class ResidueLoadControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockitoBean
+    private ResidueLoadAggregates residueLoadAggregates;
+
+    @Test
+    void getLoads_shouldGroupByRequestedDimension() throws Exception {
+        when(residueLoadAggregates.getLoads(ResidueLoadAggregates.Dimension.STATUS))
+                .thenReturn(List.of(new ResidueLoadDTO("RECEIVED", 2, 3.5, 1.5, 1.5, 2.0, 2.0, 0.5, 1.0, 1.0)));
+
+        mvc.perform(get("/api/residues/load").param("by", "status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].group", is("RECEIVED")))
+                .andExpect(jsonPath("$[0].requests", is(2)))
+                .andExpect(jsonPath("$[0].totalWeight", is(3.5)))
+                .andExpect(jsonPath("$[0].weightP95", is(2.0)));
+    }
+
+    @Test
+    void getLoads_shouldDefaultToMunicipality() throws Exception {
+        when(residueLoadAggregates.getLoads(ResidueLoadAggregates.Dimension.MUNICIPALITY)).thenReturn(List.of());
+
+        mvc.perform(get("/api/residues/load"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", is(List.of())));
+        verify(residueLoadAggregates).getLoads(ResidueLoadAggregates.Dimension.MUNICIPALITY);
+    }
+
+    @Test
+    void getLoads_shouldReturn400ForUnknownDimension() throws Exception {
+        mvc.perform(get("/api/residues/load").param("by", "week"))
+                .andExpect(status().isBadRequest());
+        verify(residueLoadAggregates, never()).getLoads(any());
+    }
+
+    @Test
+    void rebuild_shouldRebuildAggregates() throws Exception {
+        mvc.perform(post("/api/residues/load/rebuild"))
+                .andExpect(status().isNoContent());
+        verify(residueLoadAggregates).rebuild();
+    }
+
+    @Test
+    void check_shouldReturnMismatches() throws Exception {
+        when(residueLoadAggregates.check())
+                .thenReturn(new ResidueLoadCheckDTO(false, 3, List.of("status RECEIVED: expected 2 requests")));
+
+        mvc.perform(get("/api/residues/load/check"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.consistent", is(false)))
+                .andExpect(jsonPath("$.groups", is(3)))
+                .andExpect(jsonPath("$.mismatches[0]", is("status RECEIVED: expected 2 requests")));
+    }
+}
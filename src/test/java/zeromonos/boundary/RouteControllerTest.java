@@ -0,0 +1,70 @@
+package zeromonos.boundary;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import zeromonos.data.requests.RouteBatchDTO;
+import zeromonos.data.requests.RoutePlanDTO;
+import zeromonos.services.requests.RouteBatcher;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = RouteController.class)
+class RouteControllerTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2025, 1, 2, 0, 0);
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockitoBean
+    private RouteBatcher routeBatcher;
+
+    @Test
+    void batchReceivedRequests_shouldReturnPlan() throws Exception {
+        when(routeBatcher.batchReceivedRequests("Aveiro", FROM, TO, 500.0, null)).thenReturn(new RoutePlanDTO(
+                "Aveiro",
+                List.of(new RouteBatchDTO(0, List.of("0190a6f4-6a8b-7cde-8f01-23456789abcd"), 12.5, 1.0, true)),
+                List.of()
+        ));
+
+        mvc.perform(post("/api/requests/routes")
+                        .param("municipality", "Aveiro")
+                        .param("from", "2025-01-01T00:00:00")
+                        .param("to", "2025-01-02T00:00:00")
+                        .param("maxWeight", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.municipality", is("Aveiro")))
+                .andExpect(jsonPath("$.batches[0].tokens[0]", is("0190a6f4-6a8b-7cde-8f01-23456789abcd")))
+                .andExpect(jsonPath("$.batches[0].weight", is(12.5)))
+                .andExpect(jsonPath("$.batches[0].assigned", is(true)));
+    }
+
+    @Test
+    void batchReceivedRequests_shouldReturn400WhenRejected() throws Exception {
+        when(routeBatcher.batchReceivedRequests(any(), any(), any(), any(), any()))
+                .thenThrow(new IllegalArgumentException("Window must start before it ends"));
+
+        mvc.perform(post("/api/requests/routes")
+                        .param("municipality", "Aveiro")
+                        .param("from", "2025-01-02T00:00:00")
+                        .param("to", "2025-01-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void batchReceivedRequests_shouldReturn400WithoutWindow() throws Exception {
+        mvc.perform(post("/api/requests/routes").param("municipality", "Aveiro"))
+                .andExpect(status().isBadRequest());
+        verify(routeBatcher, never()).batchReceivedRequests(any(), any(), any(), any(), any());
+    }
+}
@@ -3,18 +3,25 @@ package zeromonos.boundary;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import zeromonos.data.municipalities.Municipality;
 import zeromonos.data.requests.Request;
 import zeromonos.data.requests.RequestStatus;
 import zeromonos.data.statuses.Status;
+import zeromonos.data.statuses.StatusDTO;
 import zeromonos.services.statuses.StatusService;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.hasSize;
@@ -31,67 +38,147 @@ class StatusControllerTest {
     @Test
     void getAllStatuses_shouldReturnListOfStatuses() throws Exception {
         LocalDateTime now = LocalDateTime.now();
-        Request request = new Request("Aveiro", now);
-        request.setToken("token123");
+        Request request = new Request(new Municipality("Aveiro"), now);
+        request.setToken("0190a6f4-6a8b-7cde-8f01-23456789abcd");
 
         Status status = new Status(RequestStatus.RECEIVED, now, request);
         status.setId(1L);
 
-        when(statusService.getAllStatuses("token123")).thenReturn(List.of(status));
+        when(statusService.getAllStatuses("0190a6f4-6a8b-7cde-8f01-23456789abcd")).thenReturn(List.of(status));
 
-        mvc.perform(get("/api/statuses/request/token123"))
+        mvc.perform(get("/api/statuses/request/0190a6f4-6a8b-7cde-8f01-23456789abcd"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType("application/json"))
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id", is(1)))
                 .andExpect(jsonPath("$[0].requestStatus", is("RECEIVED")))
-                .andExpect(jsonPath("$[0].requestToken", is("token123")));
+                .andExpect(jsonPath("$[0].requestToken", is("0190a6f4-6a8b-7cde-8f01-23456789abcd")));
 
-        verify(statusService, times(1)).getAllStatuses("token123");
+        verify(statusService, times(1)).getAllStatuses("0190a6f4-6a8b-7cde-8f01-23456789abcd");
     }
 
     @Test
     void getAllStatuses_shouldReturnEmptyList() throws Exception {
-        when(statusService.getAllStatuses("token123")).thenReturn(List.of());
+        when(statusService.getAllStatuses("0190a6f4-6a8b-7cde-8f01-23456789abcd")).thenReturn(List.of());
 
-        mvc.perform(get("/api/statuses/request/token123"))
+        mvc.perform(get("/api/statuses/request/0190a6f4-6a8b-7cde-8f01-23456789abcd"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", is(List.of())));
 
-        verify(statusService, times(1)).getAllStatuses("token123");
+        verify(statusService, times(1)).getAllStatuses("0190a6f4-6a8b-7cde-8f01-23456789abcd");
     }
 
     @Test
     void getStatusesByType_shouldReturnFilteredStatuses() throws Exception {
         LocalDateTime now = LocalDateTime.now();
-        Request request = new Request("Aveiro", now);
-        request.setToken("token123");
+        Request request = new Request(new Municipality("Aveiro"), now);
+        request.setToken("0190a6f4-6a8b-7cde-8f01-23456789abcd");
 
         Status status = new Status(RequestStatus.RECEIVED, now, request);
         status.setId(5L);
 
-        when(statusService.getStatus("token123", RequestStatus.RECEIVED))
+        when(statusService.getStatus("0190a6f4-6a8b-7cde-8f01-23456789abcd", RequestStatus.RECEIVED))
                 .thenReturn(List.of(status));
 
-        mvc.perform(get("/api/statuses/request/token123/filter/RECEIVED"))
+        mvc.perform(get("/api/statuses/request/0190a6f4-6a8b-7cde-8f01-23456789abcd/filter/RECEIVED"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType("application/json"))
                 .andExpect(jsonPath("$[0].id", is(5)))
                 .andExpect(jsonPath("$[0].requestStatus", is("RECEIVED")))
-                .andExpect(jsonPath("$[0].requestToken", is("token123")));
+                .andExpect(jsonPath("$[0].requestToken", is("0190a6f4-6a8b-7cde-8f01-23456789abcd")));
 
-        verify(statusService, times(1)).getStatus("token123", RequestStatus.RECEIVED);
+        verify(statusService, times(1)).getStatus("0190a6f4-6a8b-7cde-8f01-23456789abcd", RequestStatus.RECEIVED);
     }
 
     @Test
     void getStatusesByType_shouldReturnEmptyList() throws Exception {
-        when(statusService.getStatus("token123", RequestStatus.CANCELED))
+        when(statusService.getStatus("0190a6f4-6a8b-7cde-8f01-23456789abcd", RequestStatus.CANCELED))
                 .thenReturn(List.of());
 
-        mvc.perform(get("/api/statuses/request/token123/filter/CANCELED"))
+        mvc.perform(get("/api/statuses/request/0190a6f4-6a8b-7cde-8f01-23456789abcd/filter/CANCELED"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", is(List.of())));
 
-        verify(statusService, times(1)).getStatus("token123", RequestStatus.CANCELED);
+        verify(statusService, times(1)).getStatus("0190a6f4-6a8b-7cde-8f01-23456789abcd", RequestStatus.CANCELED);
+    }
+
+    @Test
+    void getStatusesBetween_shouldReturnStatusesInWindow() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0);
+        when(statusService.getStatusesBetween(RequestStatus.COMPLETED, from, from.plusDays(1))).thenReturn(List.of(
+                new StatusDTO(7L, RequestStatus.COMPLETED, from.plusHours(9), UUID.fromString("0190a6f4-6a8b-7cde-8f01-23456789abcd"))
+        ));
+
+        mvc.perform(get("/api/statuses")
+                        .param("status", "COMPLETED")
+                        .param("from", "2025-01-01T00:00:00")
+                        .param("to", "2025-01-02T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(7)))
+                .andExpect(jsonPath("$[0].requestToken", is("0190a6f4-6a8b-7cde-8f01-23456789abcd")));
+    }
+
+    @Test
+    void getStatusesBetween_shouldReturn400WhenWindowIsInvalid() throws Exception {
+        when(statusService.getStatusesBetween(any(), any(), any()))
+                .thenThrow(new IllegalArgumentException("Window must start before it ends"));
+
+        mvc.perform(get("/api/statuses")
+                        .param("status", "COMPLETED")
+                        .param("from", "2025-01-02T00:00:00")
+                        .param("to", "2025-01-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getStatusesByTokens_shouldWriteOneEntryPerToken() throws Exception {
+        String token0 = "0190a6f4-6a8b-7cde-8f01-23456789abc0";
+        String token1 = "0190a6f4-6a8b-7cde-8f01-23456789abc1";
+        String unknown = "0190a6f4-6a8b-7cde-8f01-000000000000";
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 10, 0);
+        when(statusService.getStatusesByTokens(List.of(token0, token1, unknown))).thenReturn(List.of(
+                new StatusDTO(1L, RequestStatus.RECEIVED, now, UUID.fromString(token0)),
+                new StatusDTO(2L, RequestStatus.ASSIGNED, now.plusHours(1), UUID.fromString(token0)),
+                new StatusDTO(3L, RequestStatus.RECEIVED, now, UUID.fromString(token1))
+        ));
+
+        MvcResult result = mvc.perform(post("/api/statuses/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"" + token0 + "\",\"" + token1 + "\",\"" + unknown + "\"]"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['" + token0 + "']", hasSize(2)))
+                .andExpect(jsonPath("$['" + token0 + "'][1].requestStatus", is("ASSIGNED")))
+                .andExpect(jsonPath("$['" + token1 + "'][0].id", is(3)))
+                .andExpect(jsonPath("$['" + unknown + "']", hasSize(0)));
+    }
+
+    @Test
+    void getStatusesByTokens_shouldReturn400WhenBatchIsTooLarge() throws Exception {
+        when(statusService.getStatusesByTokens(anyList()))
+                .thenThrow(new IllegalArgumentException("Batch cannot contain more than 5000 tokens"));
+
+        mvc.perform(post("/api/statuses/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getStatusesByTokens_shouldReturn400ForNullTokensOrBody() throws Exception {
+        mvc.perform(post("/api/statuses/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"" + UUID.randomUUID() + "\", null]"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(post("/api/statuses/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("null"))
+                .andExpect(status().isBadRequest());
+
+        verify(statusService, never()).getStatusesByTokens(any());
     }
 }
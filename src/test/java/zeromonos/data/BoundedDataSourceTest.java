@@ -0,0 +1,122 @@
+package zeromonos.data;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class BoundedDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    private BoundedDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        dataSource = new BoundedDataSource(target, 2, Duration.ofMillis(50));
+    }
+
+    @Test
+    void whenCapIsReached_thenNextCallerTimesOut() throws Exception {
+        onOtherThread(() -> dataSource.getConnection());
+        onOtherThread(() -> dataSource.getConnection());
+
+        assertThat(dataSource.getActive()).isEqualTo(2);
+        assertThatThrownBy(() -> dataSource.getConnection())
+                .isInstanceOf(SQLTransientConnectionException.class);
+        verify(target, times(2)).getConnection();
+    }
+
+    @Test
+    void whenConnectionIsClosed_thenPermitIsReleasedOnce() throws Exception {
+        Connection first = dataSource.getConnection();
+        first.close();
+        first.close();
+
+        assertThat(dataSource.getActive()).isZero();
+        verify(connection, times(2)).close();
+        onOtherThread(() -> dataSource.getConnection());
+        onOtherThread(() -> dataSource.getConnection());
+        assertThat(dataSource.getActive()).isEqualTo(2);
+    }
+
+    @Test
+    void whenThreadAlreadyHoldsAPermit_thenNestedConnectionsDoNotTakeAnother() throws Exception {
+        onOtherThread(() -> dataSource.getConnection());
+        Connection outer = dataSource.getConnection();
+        Connection inner = dataSource.getConnection();
+
+        assertThat(dataSource.getActive()).isEqualTo(2);
+        inner.close();
+        assertThat(dataSource.getActive()).isEqualTo(2);
+        outer.close();
+        assertThat(dataSource.getActive()).isEqualTo(1);
+    }
+
+    @Test
+    void whenNestedConnectionOutlivesTheFirst_thenPermitIsHeldUntilItCloses() throws Exception {
+        Connection outer = dataSource.getConnection();
+        Connection inner = dataSource.getConnection();
+
+        outer.close();
+        assertThat(dataSource.getActive()).isEqualTo(1);
+        inner.close();
+        assertThat(dataSource.getActive()).isZero();
+    }
+
+    @Test
+    void whenTargetFails_thenPermitIsReleased() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("down"));
+
+        assertThatThrownBy(() -> dataSource.getConnection()).isInstanceOf(SQLException.class);
+        assertThat(dataSource.getActive()).isZero();
+    }
+
+    @Test
+    void whenConnectionIsUsed_thenCallsReachTarget() throws SQLException {
+        Connection bounded = dataSource.getConnection();
+        bounded.setAutoCommit(false);
+
+        verify(connection).setAutoCommit(false);
+        assertThat(bounded).isEqualTo(bounded).isNotEqualTo(connection);
+    }
+
+    @Test
+    void whenCapIsNotPositive_thenThrows() {
+        assertThatThrownBy(() -> new BoundedDataSource(target, 0, Duration.ofSeconds(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Permits are per thread, so holding one for someone else takes another thread
+    private static <T> T onOtherThread(Callable<T> action) throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            return executor.submit(action).get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package zeromonos.data;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import zeromonos.data.requests.Request;
+import zeromonos.data.requests.RequestBatchResultDTO;
+import zeromonos.data.residues.Residue;
+import zeromonos.services.municipalities.MunicipalityService;
+import zeromonos.services.requests.RequestService;
+import zeromonos.services.requests.RequestTransitionMetrics;
+import zeromonos.services.requests.SlotScheduler;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({RequestService.class, MunicipalityService.class, SlotScheduler.class, RequestTransitionMetrics.class, SimpleMeterRegistry.class})
+class RequestBatchStatisticsTest {
+
+    private static final int REQUESTS = 100;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private RequestService requestService;
+
+    @Autowired
+    private MunicipalityService municipalityService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        statistics = em.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+    }
+
+    @Test
+    void whenCreatingInBatch_thenIssueFewerStatementsThanOneByOne() {
+        List<List<Long>> oneByOneIds = persistResidues();
+        List<List<Long>> batchIds = persistResidues();
+
+        statistics.clear();
+        for (List<Long> ids : oneByOneIds) {
+            requestService.createRequest(new Request(municipalityService.getOrCreate("Aveiro"), LocalDateTime.now()), ids);
+        }
+        long oneByOneStatements = statistics.getPrepareStatementCount();
+
+        em.clear();
+        statistics.clear();
+        List<Request> requests = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            requests.add(new Request(municipalityService.getOrCreate("Aveiro"), LocalDateTime.now()));
+        }
+        List<RequestBatchResultDTO> results = requestService.createRequests(requests, batchIds, Optional::of);
+        long batchStatements = statistics.getPrepareStatementCount();
+
+        assertThat(results)
+                .hasSize(REQUESTS)
+                .allSatisfy(r -> assertThat(r.getToken()).isNotNull());
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(REQUESTS * 2L);
+        assertThat(batchStatements).isLessThan(oneByOneStatements);
+    }
+
+    private List<List<Long>> persistResidues() {
+        List<List<Long>> ids = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            Residue plastic = em.persist(new Residue("Plastic", 1f, 1f));
+            Residue glass = em.persist(new Residue("Glass", 1f, 1f));
+            ids.add(List.of(plastic.getId(), glass.getId()));
+        }
+        em.flush();
+        em.clear();
+        return ids;
+    }
+}
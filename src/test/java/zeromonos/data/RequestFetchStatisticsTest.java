@@ -0,0 +1,96 @@
+package zeromonos.data;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import zeromonos.data.requests.Request;
+import zeromonos.data.requests.RequestDTO;
+import zeromonos.data.residues.Residue;
+import zeromonos.services.municipalities.MunicipalityService;
+import zeromonos.services.requests.RequestService;
+import zeromonos.services.requests.RequestTransitionMetrics;
+import zeromonos.services.requests.SlotScheduler;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({RequestService.class, MunicipalityService.class, SlotScheduler.class, RequestTransitionMetrics.class, SimpleMeterRegistry.class})
+class RequestFetchStatisticsTest {
+
+    private static final int REQUESTS = 200;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private RequestService requestService;
+
+    @Autowired
+    private MunicipalityService municipalityService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        for (int i = 0; i < REQUESTS; i++) {
+            Request request = new Request(municipalityService.getOrCreate(i % 2 == 0 ? "Aveiro" : "Porto"), LocalDateTime.now());
+            request.addResidue(new Residue("Plastic", "Residue " + i, 1f, 1f));
+            request.addResidue(new Residue("Glass", "Residue " + i, 1f, 1f));
+            if (i % 3 == 0) {
+                request.assign();
+            }
+            em.persist(request);
+        }
+        em.flush();
+        em.clear();
+
+        statistics = em.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void whenListingAllRequests_thenStatementCountIsConstant() {
+        List<RequestDTO> requests = requestService.getAllRequests().stream()
+                .map(RequestDTO::fromRequestEntity)
+                .toList();
+
+        assertThat(requests).hasSize(REQUESTS);
+        assertThat(requests).allSatisfy(r -> assertThat(r.getResidues()).hasSize(2));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void whenListingRequestsByMunicipality_thenStatementCountIsConstant() {
+        List<RequestDTO> requests = requestService.getAllRequestsByMunicipality("aveiro").stream()
+                .map(RequestDTO::fromRequestEntity)
+                .toList();
+
+        assertThat(requests).hasSize(REQUESTS / 2);
+        assertThat(requests).allSatisfy(r -> assertThat(r.getStatuses()).isNotEmpty());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void whenReadingAPage_thenItsCollectionsAreLoadedInBatches() {
+        List<Request> page = requestService.getRequestsPage(null, 100);
+
+        assertThat(page).hasSize(100).allSatisfy(r -> {
+            assertThat(Hibernate.isInitialized(r.getResidues())).isTrue();
+            assertThat(Hibernate.isInitialized(r.getStatuses())).isTrue();
+        });
+        // The page, then residues and statuses 64 requests at a time
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(5);
+    }
+}
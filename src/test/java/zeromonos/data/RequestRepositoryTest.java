@@ -5,17 +5,28 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 
+import zeromonos.data.municipalities.Municipality;
+import zeromonos.data.municipalities.MunicipalityRepository;
 import zeromonos.data.requests.Request;
+import zeromonos.data.requests.RequestLoad;
+import zeromonos.data.requests.RequestLoadTotals;
 import zeromonos.data.requests.RequestRepository;
 import zeromonos.data.requests.RequestStatus;
+import zeromonos.data.requests.RequestSummary;
 import zeromonos.data.residues.Residue;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @DataJpaTest
 class RequestRepositoryTest {
@@ -26,6 +37,9 @@ class RequestRepositoryTest {
     @Autowired
     private RequestRepository requestRepository;
 
+    @Autowired
+    private MunicipalityRepository municipalityRepository;
+
     @BeforeEach
     void setup() {
         em.clear();
@@ -33,43 +47,51 @@ class RequestRepositoryTest {
 
     @Test
     void whenFindByValidToken_thenFindValidRequest() {
-        Request r0 = em.persistFlushFind(new Request("Aveiro", LocalDateTime.now()));
+        Request r0 = em.persistFlushFind(new Request(municipality("Aveiro"), LocalDateTime.now()));
 
-        Optional<Request> persistedRequest = requestRepository.findRequestByTokenEquals(r0.getToken());
+        Optional<Request> persistedRequest = requestRepository.findRequestByTokenEquals(r0.getId());
         assertThat(persistedRequest).isNotEmpty().contains(r0);
     }
 
     @Test
     void whenFindByInvalidToken_thenFindInvalidRequest() {
-        em.persistFlushFind(new Request("Aveiro", LocalDateTime.now()));
+        em.persistFlushFind(new Request(municipality("Aveiro"), LocalDateTime.now()));
 
-        Optional<Request> persistedRequest = requestRepository.findRequestByTokenEquals("invalid uuid");
+        Optional<Request> persistedRequest = requestRepository.findRequestByTokenEquals(UUID.randomUUID());
         assertThat(persistedRequest).isEmpty();
     }
 
     @Test
-    void whenFindAllByMunicipalityIgnoreCase_thenReturnMatchingRequests() {
-        Request r1 = em.persistFlushFind(new Request("Lisbon", LocalDateTime.now()));
-        Request r2 = em.persistFlushFind(new Request("lisbon", LocalDateTime.now()));
-        Request r3 = em.persistFlushFind(new Request("Porto", LocalDateTime.now()));
+    void whenFindAllByMunicipality_thenMatchIgnoringCaseAndAccents() {
+        Request r1 = em.persistFlushFind(new Request(municipality("Lisbon"), LocalDateTime.now()));
+        Request r2 = em.persistFlushFind(new Request(municipality("lisbon"), LocalDateTime.now().plusMinutes(1)));
+        Request r3 = em.persistFlushFind(new Request(municipality("Porto"), LocalDateTime.now()));
 
-        List<Request> lisbonRequests = requestRepository.findAllByMunicipalityEqualsIgnoreCase("LISBON");
+        List<Request> lisbonRequests = requestRepository.findAllWithResiduesByMunicipalityOrderByDatetime(municipality("LISBON"));
 
         assertThat(lisbonRequests)
                 .hasSize(2)
-                .containsExactlyInAnyOrder(r1, r2)
+                .containsExactly(r1, r2)
                 .doesNotContain(r3);
+        assertThat(municipality("Águeda")).isEqualTo(municipality("agueda"));
     }
 
     @Test
-    void whenFindAllByMunicipalityIgnoreCase_thenReturnEmptyListIfNoMatch() {
-        em.persistFlushFind(new Request("Braga", LocalDateTime.now()));
+    void whenFindAllByMunicipality_thenReturnEmptyListIfNoMatch() {
+        em.persistFlushFind(new Request(municipality("Braga"), LocalDateTime.now()));
 
-        List<Request> requests = requestRepository.findAllByMunicipalityEqualsIgnoreCase("Aveiro");
+        List<Request> requests = requestRepository.findAllWithResiduesByMunicipalityOrderByDatetime(municipality("Aveiro"));
 
         assertThat(requests).isEmpty();
     }
 
+    @Test
+    void whenFindMunicipalityByToken_thenReturnItsName() {
+        Request r0 = em.persistFlushFind(new Request(municipality("Aveiro"), LocalDateTime.now()));
+
+        assertThat(requestRepository.findMunicipalityByToken(r0.getId())).contains("Aveiro");
+    }
+
     @Test
     void whenFindAllByRequestStatus_thenReturnMatchingRequests() {
         Request r0 = em.persistFlushFind(createRequestWithSimpleResidue("Aveiro"));
@@ -116,7 +138,7 @@ class RequestRepositoryTest {
         Residue residue1 = new Residue("Plastic", "The planets doom", 1f, 2f);
         Residue residue2 = new Residue("Glass", "The planets saviour", 2f, 3f);
 
-        Request r1 = new Request("Aveiro", LocalDateTime.now());
+        Request r1 = new Request(municipality("Aveiro"), LocalDateTime.now());
         r1.addResidue(residue1);
         r1.addResidue(residue2);
 
@@ -125,7 +147,7 @@ class RequestRepositoryTest {
         em.persist(r1);
         em.flush();
 
-        List<Residue> residues = requestRepository.findAllResiduesByRequestId(r1.getToken());
+        List<Residue> residues = requestRepository.findAllResiduesByRequestId(r1.getId());
 
         assertThat(residues)
                 .hasSize(2)
@@ -134,15 +156,187 @@ class RequestRepositoryTest {
 
     @Test
     void whenFindAllResiduesByRequestId_thenReturnEmptyIfRequestNotFound() {
-        List<Residue> residues = requestRepository.findAllResiduesByRequestId("nonexistent-token");
+        List<Residue> residues = requestRepository.findAllResiduesByRequestId(UUID.randomUUID());
         assertThat(residues).isEmpty();
     }
 
-    private Request createRequestWithSimpleResidue(String municipality) {
+    @Test
+    void whenPagingWithCursor_thenReturnEveryRequestOnceInOrder() {
+        LocalDateTime datetime = LocalDateTime.of(2025, 1, 1, 10, 0);
+        for (int i = 0; i < 5; i++) {
+            em.persist(new Request(municipality("Aveiro"), datetime.plusHours(i % 2)));
+        }
+        em.flush();
+
+        List<Request> page0 = requestRepository.findAllByOrderByDatetimeAscTokenAsc(Limit.of(2));
+        Request last0 = page0.get(1);
+        List<Request> page1 = requestRepository.findAllAfterCursor(last0.getDatetime(), last0.getId(), Limit.of(2));
+        Request last1 = page1.get(1);
+        List<Request> page2 = requestRepository.findAllAfterCursor(last1.getDatetime(), last1.getId(), Limit.of(2));
+
+        assertThat(page0).hasSize(2);
+        assertThat(page1).hasSize(2);
+        assertThat(page2).hasSize(1);
+
+        List<Request> all = new ArrayList<>(page0);
+        all.addAll(page1);
+        all.addAll(page2);
+        assertThat(all)
+                .doesNotHaveDuplicates()
+                .isSortedAccordingTo(Comparator.comparing(Request::getDatetime).thenComparing(Request::getToken));
+    }
+
+    @Test
+    void whenPersistingRequests_thenTokensAreTimeOrdered() {
+        Request r0 = em.persist(new Request(municipality("Aveiro"), LocalDateTime.now()));
+        Request r1 = em.persist(new Request(municipality("Aveiro"), LocalDateTime.now()));
+        em.flush();
+
+        assertThat(r0.getId().version()).isEqualTo(7);
+        assertThat(r0.getToken()).isLessThan(r1.getToken());
+    }
+
+    @Test
+    void whenFindActiveDatetimes_thenSkipCanceledAndOtherDays() {
+        LocalDateTime datetime = LocalDateTime.of(2025, 1, 1, 10, 0);
+        em.persist(new Request(municipality("Aveiro"), datetime));
+        em.persist(new Request(municipality("Aveiro"), datetime.plusHours(1)).cancel());
+        em.persist(new Request(municipality("Aveiro"), datetime.plusDays(1)));
+        em.persist(new Request(municipality("Porto"), datetime));
+        em.flush();
+
+        List<LocalDateTime> datetimes = requestRepository.findActiveDatetimesByMunicipalityBetween(
+                municipality("Aveiro"), datetime.toLocalDate().atStartOfDay(), datetime.toLocalDate().plusDays(1).atStartOfDay()
+        );
+
+        assertThat(datetimes).containsExactly(datetime);
+    }
+
+    @Test
+    void whenFindAllLoads_thenSumResiduesPerRequest() {
+        Request r0 = createRequestWithSimpleResidue("Aveiro");
+        r0.addResidue(new Residue("Glass", 2f, 3f));
+        em.persist(r0);
+        Request r1 = em.persist(new Request(municipality("Porto"), LocalDateTime.now()));
+        em.flush();
+
+        assertThat(requestRepository.findAllLoads())
+                .extracting(RequestLoad::token, RequestLoad::municipality, RequestLoad::weight, RequestLoad::volume)
+                .containsExactlyInAnyOrder(
+                        tuple(r0.getId(), "Aveiro", 3.0, 4.0),
+                        tuple(r1.getId(), "Porto", 0.0, 0.0)
+                );
+    }
+
+    @Test
+    void whenSumLoads_thenGroupByMunicipalityStatusAndDay() {
+        LocalDateTime datetime = LocalDateTime.of(2025, 1, 1, 10, 0);
+        for (int i = 0; i < 3; i++) {
+            Request request = new Request(municipality("Aveiro"), datetime.plusHours(i));
+            request.addResidue(new Residue("Plastic", 1f, 2f));
+            request.addResidue(new Residue("Glass", 1f, 2f));
+            em.persist(i == 2 ? request.cancel() : request);
+        }
+        em.flush();
+
+        assertThat(requestRepository.sumLoadsByMunicipalityStatusAndDay())
+                .containsExactlyInAnyOrder(
+                        new RequestLoadTotals("Aveiro", RequestStatus.RECEIVED, LocalDate.of(2025, 1, 1), 2L, 4.0, 8.0),
+                        new RequestLoadTotals("Aveiro", RequestStatus.CANCELED, LocalDate.of(2025, 1, 1), 1L, 2.0, 4.0)
+                );
+    }
+
+    @Test
+    void whenFindLoadsForBatching_thenOnlyReceivedInWindowInOrder() {
+        LocalDateTime datetime = LocalDateTime.of(2025, 1, 1, 10, 0);
+        Request later = new Request(municipality("Aveiro"), datetime.plusHours(2));
+        later.addResidue(new Residue("Glass", 2f, 3f));
+        em.persist(later);
+        Request earlier = em.persist(new Request(municipality("Aveiro"), datetime));
+        em.persist(new Request(municipality("Aveiro"), datetime.plusHours(1)).assign());
+        em.persist(new Request(municipality("Aveiro"), datetime.plusDays(1)));
+        em.persist(new Request(municipality("Porto"), datetime));
+        em.flush();
+
+        List<RequestLoad> loads = requestRepository.findLoadsByMunicipalityAndStatusBetween(
+                municipality("Aveiro"), RequestStatus.RECEIVED, datetime.toLocalDate().atStartOfDay(), datetime.toLocalDate().plusDays(1).atStartOfDay()
+        );
+
+        assertThat(loads)
+                .extracting(RequestLoad::token, RequestLoad::weight, RequestLoad::volume)
+                .containsExactly(tuple(earlier.getId(), 0.0, 0.0), tuple(later.getId(), 2.0, 3.0));
+    }
+
+    @Test
+    void whenUpdatingStatusesOfALoad_thenOnlyAllowedSourcesMove() {
+        Request received = em.persist(new Request(municipality("Aveiro"), LocalDateTime.now()));
+        Request canceled = em.persist(new Request(municipality("Aveiro"), LocalDateTime.now()).cancel());
+        em.flush();
+
+        int updated = requestRepository.updateRequestStatusesIfIn(
+                List.of(received.getId(), canceled.getId()), List.of(RequestStatus.RECEIVED), RequestStatus.ASSIGNED
+        );
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(requestRepository.findRequestStatusByToken(received.getId())).contains(RequestStatus.ASSIGNED);
+        assertThat(requestRepository.findRequestStatusByToken(canceled.getId())).contains(RequestStatus.CANCELED);
+    }
+
+    @Test
+    void whenUpdatingStatus_thenUpdateOnlyIfSourceAllowed() {
+        Municipality aveiro = municipality("Aveiro");
+        Request received = em.persist(new Request(aveiro, LocalDateTime.now()));
+        Request canceled = em.persist(new Request(aveiro, LocalDateTime.now()).cancel());
+        em.flush();
+
+        assertThat(requestRepository.updateRequestStatusIfIn(
+                received.getId(), List.of(RequestStatus.RECEIVED), RequestStatus.ASSIGNED)).isEqualTo(1);
+        assertThat(requestRepository.updateRequestStatusIfIn(
+                canceled.getId(), List.of(RequestStatus.RECEIVED), RequestStatus.ASSIGNED)).isZero();
+        assertThat(requestRepository.updateRequestStatusIfIn(
+                UUID.randomUUID(), List.of(RequestStatus.RECEIVED), RequestStatus.ASSIGNED)).isZero();
+        assertThat(requestRepository.findMunicipalityIdByToken(received.getId())).contains(aveiro.getId());
+
+        assertThat(requestRepository.findRequestStatusByToken(received.getId())).contains(RequestStatus.ASSIGNED);
+        assertThat(requestRepository.findById(received.getId())).get().extracting(Request::getVersion).isEqualTo(1L);
+        assertThat(requestRepository.findRequestStatusByToken(canceled.getId())).contains(RequestStatus.CANCELED);
+    }
+
+    @Test
+    void whenFindSummaries_thenCountAndNameResiduesWithoutLoadingThem() {
+        LocalDateTime datetime = LocalDateTime.of(2025, 1, 1, 10, 0);
+        Request later = new Request(municipality("Aveiro"), datetime.plusHours(1));
+        later.addResidue(new Residue("Plastic", 1f, 2f));
+        later.addResidue(new Residue("Glass", 1f, 2f));
+        em.persist(later.assign());
+        Request earlier = em.persist(new Request(municipality("Aveiro"), datetime));
+        Request porto = em.persist(new Request(municipality("Porto"), datetime));
+        em.flush();
+        em.clear();
+
+        assertThat(requestRepository.findAllSummaries())
+                .extracting(RequestSummary::token, RequestSummary::municipality, RequestSummary::requestStatus,
+                        RequestSummary::residueCount, RequestSummary::residueNames)
+                .containsExactlyInAnyOrder(
+                        tuple(earlier.getId(), "Aveiro", RequestStatus.RECEIVED, 0L, null),
+                        tuple(porto.getId(), "Porto", RequestStatus.RECEIVED, 0L, null),
+                        tuple(later.getId(), "Aveiro", RequestStatus.ASSIGNED, 2L, "Plastic, Glass")
+                );
+        assertThat(requestRepository.findSummariesByMunicipality(municipality("aveiro")))
+                .extracting(RequestSummary::token, RequestSummary::datetime)
+                .containsExactly(tuple(earlier.getId(), datetime), tuple(later.getId(), datetime.plusHours(1)));
+    }
+
+    private Request createRequestWithSimpleResidue(String name) {
         Residue residue = new Residue("Residue", "Simple Residue", 1f, 1f);
-        Request request = new Request(municipality, LocalDateTime.now());
+        Request request = new Request(municipality(name), LocalDateTime.now());
         request.addResidue(residue);
 
         return request;
     }
+
+    private Municipality municipality(String name) {
+        return municipalityRepository.findByNormalizedName(Municipality.normalize(name))
+                .orElseGet(() -> em.persist(new Municipality(name)));
+    }
 }
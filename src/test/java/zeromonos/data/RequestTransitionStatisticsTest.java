@@ -0,0 +1,106 @@
+package zeromonos.data;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import zeromonos.data.requests.Request;
+import zeromonos.data.requests.RequestStatus;
+import zeromonos.data.residues.Residue;
+import zeromonos.data.statuses.Status;
+import zeromonos.services.municipalities.MunicipalityService;
+import zeromonos.services.requests.RequestService;
+import zeromonos.services.requests.RequestTransitionMetrics;
+import zeromonos.services.requests.SlotScheduler;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({RequestService.class, MunicipalityService.class, SlotScheduler.class, RequestTransitionMetrics.class, SimpleMeterRegistry.class})
+class RequestTransitionStatisticsTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private RequestService requestService;
+
+    @Autowired
+    private MunicipalityService municipalityService;
+
+    private Statistics statistics;
+    private String token;
+
+    @BeforeEach
+    void setup() {
+        Request request = new Request(municipalityService.getOrCreate("Aveiro"), LocalDateTime.now());
+        request.addResidue(new Residue("Plastic", 1f, 1f));
+        request.addResidue(new Residue("Glass", 1f, 1f));
+        token = em.persistAndFlush(request).getToken();
+        em.clear();
+
+        statistics = em.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void whenTransitioning_thenIssueOneUpdateOneKeyLookupAndOneInsert() {
+        requestService.assignRequest(token);
+        em.flush();
+
+        // UPDATE request, SELECT its municipality_id by primary key, INSERT status: no join table row
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+
+        em.clear();
+        Request request = em.find(Request.class, Request.parseToken(token).orElseThrow());
+        assertThat(request.getRequestStatus()).isEqualTo(RequestStatus.ASSIGNED);
+        assertThat(request.getVersion()).isEqualTo(1L);
+        assertThat(request.getStatuses())
+                .extracting(Status::getRequestStatus)
+                .containsExactly(RequestStatus.RECEIVED, RequestStatus.ASSIGNED);
+    }
+
+    @Test
+    void whenCreating_thenStatusIsWrittenOnce() {
+        Request request = new Request(municipalityService.getOrCreate("Aveiro"), LocalDateTime.now());
+        statistics.clear();
+
+        em.persistAndFlush(request);
+
+        // INSERT request, INSERT status: no join table row, no UPDATE of the status
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityStatistics(Status.class.getName()).getInsertCount()).isEqualTo(1);
+    }
+
+    @Test
+    void whenHistoryIsLoadedAndFlushed_thenNoStatusIsUpdated() {
+        requestService.assignRequest(token);
+        Request request = em.find(Request.class, Request.parseToken(token).orElseThrow());
+        request.getStatuses().size();
+        statistics.clear();
+
+        em.flush();
+
+        assertThat(statistics.getEntityStatistics(Status.class.getName()).getUpdateCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void whenTransitionIsIllegal_thenNoStatusIsWritten() {
+        assertThatThrownBy(() -> requestService.completeRequest(token))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(statistics.getEntityInsertCount()).isZero();
+    }
+}
@@ -0,0 +1,80 @@
+package zeromonos.data;
+
+import org.junit.jupiter.api.Test;
+import zeromonos.data.requests.*;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestTransitionsTest {
+
+    @Test
+    void ValidTransitionsTest() {
+        assertThat(RequestTransitions.allowedTargets(RequestStatus.RECEIVED))
+                .containsExactlyInAnyOrder(RequestStatus.ASSIGNED, RequestStatus.CANCELED);
+        assertThat(RequestTransitions.allowedTargets(RequestStatus.ASSIGNED))
+                .containsExactlyInAnyOrder(RequestStatus.IN_PROGRESS, RequestStatus.CANCELED);
+        assertThat(RequestTransitions.allowedTargets(RequestStatus.IN_PROGRESS))
+                .containsExactly(RequestStatus.COMPLETED);
+        assertThat(RequestTransitions.allowedTargets(RequestStatus.COMPLETED)).isEmpty();
+        assertThat(RequestTransitions.allowedTargets(RequestStatus.CANCELED)).isEmpty();
+    }
+
+    @Test
+    void MatrixMatchesAllowedTargetsTest() {
+        for (RequestStatus from : RequestStatus.values()) {
+            Set<RequestStatus> targets = RequestTransitions.allowedTargets(from);
+            for (RequestStatus to : RequestStatus.values()) {
+                assertThat(RequestTransitions.canTransition(from, to)).isEqualTo(targets.contains(to));
+                assertThat(RequestTransitions.allowedSources(to).contains(from)).isEqualTo(targets.contains(to));
+            }
+        }
+    }
+
+    @Test
+    void ReachableFollowsTransitionChainsTest() {
+        assertThat(RequestTransitions.canReach(RequestStatus.RECEIVED, RequestStatus.IN_PROGRESS)).isTrue();
+        assertThat(RequestTransitions.canReach(RequestStatus.RECEIVED, RequestStatus.COMPLETED)).isTrue();
+        assertThat(RequestTransitions.canReach(RequestStatus.ASSIGNED, RequestStatus.CANCELED)).isTrue();
+        assertThat(RequestTransitions.canReach(RequestStatus.IN_PROGRESS, RequestStatus.ASSIGNED)).isFalse();
+        assertThat(RequestTransitions.canReach(RequestStatus.IN_PROGRESS, RequestStatus.CANCELED)).isFalse();
+        assertThat(RequestTransitions.canReach(RequestStatus.RECEIVED, RequestStatus.RECEIVED)).isFalse();
+    }
+
+    @Test
+    void AllowedSourcesTest() {
+        assertThat(RequestTransitions.allowedSources(RequestStatus.CANCELED))
+                .isEqualTo(EnumSet.of(RequestStatus.RECEIVED, RequestStatus.ASSIGNED));
+        assertThat(RequestTransitions.allowedSources(RequestStatus.RECEIVED)).isEmpty();
+    }
+
+    @Test
+    void AllowedSetsAreImmutableTest() {
+        Set<RequestStatus> targets = RequestTransitions.allowedTargets(RequestStatus.RECEIVED);
+
+        assertThatThrownBy(() -> targets.add(RequestStatus.COMPLETED))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void StatesAreSharedSingletonsTest() {
+        Request r0 = new Request();
+        Request r1 = new Request();
+
+        assertThat(r0.getState()).isSameAs(r1.getState());
+        assertThat(r0.assign().getState()).isSameAs(RequestStateFactory.getState(RequestStatus.ASSIGNED));
+        assertThat(r0.getState().getStatus()).isEqualTo(RequestStatus.ASSIGNED);
+    }
+
+    @Test
+    void CanTransitionToDoesNotChangeStateTest() {
+        Request request = new Request();
+
+        assertThat(request.canTransitionTo(RequestStatus.ASSIGNED)).isTrue();
+        assertThat(request.canTransitionTo(RequestStatus.COMPLETED)).isFalse();
+        assertThat(request.getRequestStatus()).isEqualTo(RequestStatus.RECEIVED);
+    }
+}
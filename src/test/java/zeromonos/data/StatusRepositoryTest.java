@@ -7,16 +7,23 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import zeromonos.data.municipalities.Municipality;
+import zeromonos.data.municipalities.MunicipalityRepository;
 import zeromonos.data.requests.Request;
 import zeromonos.data.requests.RequestStatus;
 import zeromonos.data.residues.Residue;
 import zeromonos.data.statuses.Status;
+import zeromonos.data.statuses.StatusDTO;
 import zeromonos.data.statuses.StatusRepository;
+import zeromonos.data.statuses.StatusTransition;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @DataJpaTest
 class StatusRepositoryTest {
@@ -27,6 +34,9 @@ class StatusRepositoryTest {
     @Autowired
     private StatusRepository statusRepository;
 
+    @Autowired
+    private MunicipalityRepository municipalityRepository;
+
     private Request r0;
     private Request r1;
 
@@ -49,13 +59,13 @@ class StatusRepositoryTest {
 
     @Test
     void whenFindAllByValidRequest_thenReturnList() {
-        List<Status> statuses0 = statusRepository.findAllByRequest_Token(r0.getToken());
+        List<Status> statuses0 = statusRepository.findAllByRequest_Token(r0.getId());
         assertThat(statuses0)
                 .hasSize(3)
                 .extracting(Status::getRequestStatus)
                 .contains(RequestStatus.RECEIVED, RequestStatus.ASSIGNED, RequestStatus.IN_PROGRESS);
 
-        List<Status> statuses1 = statusRepository.findAllByRequest_Token(r1.getToken());
+        List<Status> statuses1 = statusRepository.findAllByRequest_Token(r1.getId());
         assertThat(statuses1)
                 .hasSize(2)
                 .extracting(Status::getRequestStatus)
@@ -71,7 +81,7 @@ class StatusRepositoryTest {
     @Test
     void whenFindAllByValidRequestAndRequestStatus_thenReturnList() {
         List<Status> statuses = statusRepository
-                .findAllByRequest_TokenAndRequestStatusEquals(r0.getToken(), RequestStatus.ASSIGNED);
+                .findAllByRequest_TokenAndRequestStatusEquals(r0.getId(), RequestStatus.ASSIGNED);
 
         assertThat(statuses)
                 .hasSize(1)
@@ -82,21 +92,92 @@ class StatusRepositoryTest {
     @Test
     void whenFindAllByInvalidRequestAndRequestStatus_thenReturnEmptyList() {
         List<Status> statuses0 = statusRepository
-                .findAllByRequest_TokenAndRequestStatusEquals(r0.getToken(), RequestStatus.COMPLETED);
+                .findAllByRequest_TokenAndRequestStatusEquals(r0.getId(), RequestStatus.COMPLETED);
 
         assertThat(statuses0).isEmpty();
 
         List<Status> statuses1 = statusRepository
-                .findAllByRequest_TokenAndRequestStatusEquals(r1.getToken(), RequestStatus.ASSIGNED);
+                .findAllByRequest_TokenAndRequestStatusEquals(r1.getId(), RequestStatus.ASSIGNED);
 
         assertThat(statuses1).isEmpty();
     }
 
-    private static Request createRequestWithSimpleResidue(String municipality) {
+    @Test
+    void whenFindAllByRequestStatusBetween_thenReturnOnlyThatStatusInWindowInOrder() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        em.persist(new Status(RequestStatus.COMPLETED, yesterday.atTime(18, 0), r1));
+        em.persist(new Status(RequestStatus.COMPLETED, yesterday.atTime(9, 0), r0));
+        em.persist(new Status(RequestStatus.COMPLETED, yesterday.minusDays(1).atTime(9, 0), r0));
+        em.persist(new Status(RequestStatus.IN_PROGRESS, yesterday.atTime(8, 0), r1));
+        em.flush();
+
+        List<StatusDTO> completed = statusRepository.findAllByRequestStatusBetween(
+                RequestStatus.COMPLETED, yesterday.atStartOfDay(), yesterday.plusDays(1).atStartOfDay()
+        );
+
+        assertThat(completed)
+                .extracting(StatusDTO::getRequestToken, StatusDTO::getDatetime)
+                .containsExactly(
+                        tuple(r0.getToken(), yesterday.atTime(9, 0)),
+                        tuple(r1.getToken(), yesterday.atTime(18, 0))
+                );
+    }
+
+    @Test
+    void whenFindAllByRequest_thenReturnHistoryInOrder() {
+        List<Status> statuses = statusRepository.findAllByRequest_Token(r0.getId());
+
+        assertThat(statuses)
+                .extracting(Status::getRequestStatus)
+                .containsExactly(RequestStatus.RECEIVED, RequestStatus.ASSIGNED, RequestStatus.IN_PROGRESS);
+    }
+
+    @Test
+    void whenFindAllByRequestTokenIn_thenReturnEveryHistoryGroupedByRequest() {
+        Request other = em.persistFlushFind(createRequestWithSimpleResidue("Braga"));
+
+        List<StatusDTO> statuses = statusRepository.findAllByRequestTokenIn(List.of(r0.getId(), r1.getId()));
+
+        List<String> tokens = statuses.stream().map(StatusDTO::getRequestToken).toList();
+        assertThat(tokens).hasSize(5).doesNotContain(other.getToken());
+        // Rows of one request are contiguous
+        long groups = IntStream.range(0, tokens.size())
+                .filter(i -> i == 0 || !tokens.get(i).equals(tokens.get(i - 1)))
+                .count();
+        assertThat(groups).isEqualTo(2);
+    }
+
+    @Test
+    void whenFindAllTransitionsOfOpenOrRecentRequests_thenSkipOldClosedRequests() {
+        List<RequestStatus> open = List.of(RequestStatus.RECEIVED, RequestStatus.ASSIGNED, RequestStatus.IN_PROGRESS);
+
+        List<StatusTransition> onlyOpen = statusRepository.findAllTransitionsOfOpenOrRecentRequests(
+                open, LocalDateTime.now().plusDays(1)
+        );
+        assertThat(onlyOpen)
+                .extracting(StatusTransition::municipality, StatusTransition::requestStatus)
+                .containsExactly(
+                        tuple("Aveiro", RequestStatus.RECEIVED),
+                        tuple("Aveiro", RequestStatus.ASSIGNED),
+                        tuple("Aveiro", RequestStatus.IN_PROGRESS)
+                );
+
+        List<StatusTransition> recent = statusRepository.findAllTransitionsOfOpenOrRecentRequests(
+                open, LocalDateTime.now().minusDays(1)
+        );
+        assertThat(recent).hasSize(5);
+    }
+
+    private Request createRequestWithSimpleResidue(String name) {
         Residue residue = new Residue("Residue", "Simple Residue", 1f, 1f);
-        Request request = new Request(municipality, LocalDateTime.now());
+        Request request = new Request(municipality(name), LocalDateTime.now());
         request.addResidue(residue);
 
         return request;
     }
+
+    private Municipality municipality(String name) {
+        return municipalityRepository.findByNormalizedName(Municipality.normalize(name))
+                .orElseGet(() -> em.persist(new Municipality(name)));
+    }
 }
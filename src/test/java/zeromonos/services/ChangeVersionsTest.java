@@ -0,0 +1,91 @@
+package zeromonos.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import zeromonos.data.requests.RequestLoad;
+import zeromonos.data.requests.RequestStatus;
+import zeromonos.services.requests.RequestLoadsChangedEvent;
+import zeromonos.services.requests.RequestStatusChangedEvent;
+import zeromonos.services.residues.ResiduesChangedEvent;
+import zeromonos.services.versions.ChangeVersions;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChangeVersionsTest {
+
+    private static final UUID TOKEN = UUID.fromString("0190a6f4-6a8b-7cde-8f01-23456789abcd");
+
+    private ChangeVersions versions;
+
+    @BeforeEach
+    void setUp() {
+        versions = new ChangeVersions();
+    }
+
+    @Test
+    void whenRequestIsCreated_thenRequestsAndItsMunicipalityMove() {
+        String requests = versions.requestsTag();
+        String aveiro = versions.municipalityTag("Aveiro");
+        String porto = versions.municipalityTag("Porto");
+        String residues = versions.residuesTag();
+
+        versions.onRequestStatusChanged(new RequestStatusChangedEvent(TOKEN, RequestStatus.RECEIVED, LocalDateTime.now(), "Aveiro"));
+
+        assertThat(versions.requestsTag()).isNotEqualTo(requests).startsWith("W/\"");
+        assertThat(versions.municipalityTag("Aveiro")).isNotEqualTo(aveiro);
+        // Queries are matched like MunicipalityService matches them
+        assertThat(versions.municipalityTag(" aveiro ")).isEqualTo(versions.municipalityTag("Aveiro"));
+        assertThat(versions.municipalityTag("Porto")).isEqualTo(porto);
+        assertThat(versions.residuesTag()).isEqualTo(residues);
+    }
+
+    @Test
+    void whenTransitionCarriesMunicipality_thenOnlyThatOneMoves() {
+        String aveiro = versions.municipalityTag("Aveiro");
+        String porto = versions.municipalityTag("Porto");
+
+        versions.onRequestStatusChanged(new RequestStatusChangedEvent(TOKEN, RequestStatus.ASSIGNED, LocalDateTime.now(), "Porto"));
+
+        assertThat(versions.municipalityTag("Porto")).isNotEqualTo(porto);
+        assertThat(versions.municipalityTag("Aveiro")).isEqualTo(aveiro);
+    }
+
+    @Test
+    void whenMunicipalityIsMissing_thenEveryMunicipalityMoves() {
+        String aveiro = versions.municipalityTag("Aveiro");
+        String porto = versions.municipalityTag("Porto");
+
+        versions.onRequestStatusChanged(new RequestStatusChangedEvent(TOKEN, RequestStatus.CANCELED, LocalDateTime.now(), null));
+
+        assertThat(versions.municipalityTag("Aveiro")).isNotEqualTo(aveiro);
+        assertThat(versions.municipalityTag("Porto")).isNotEqualTo(porto);
+    }
+
+    @Test
+    void whenRequestsAreDeleted_thenTheirMunicipalitiesMove() {
+        String requests = versions.requestsTag();
+        String braga = versions.municipalityTag("Braga");
+
+        versions.onRequestLoadsChanged(new RequestLoadsChangedEvent(RequestLoadsChangedEvent.Change.DELETED, List.of(
+                new RequestLoad(TOKEN, "Braga", LocalDateTime.now(), RequestStatus.RECEIVED, 1.0, 1.0)
+        )));
+
+        assertThat(versions.requestsTag()).isNotEqualTo(requests);
+        assertThat(versions.municipalityTag("Braga")).isNotEqualTo(braga);
+    }
+
+    @Test
+    void whenResiduesChange_thenOnlyResiduesMove() {
+        String requests = versions.requestsTag();
+        String residues = versions.residuesTag();
+
+        versions.onResiduesChanged(new ResiduesChangedEvent(ResiduesChangedEvent.Change.CREATED, List.of()));
+
+        assertThat(versions.residuesTag()).isNotEqualTo(residues);
+        assertThat(versions.requestsTag()).isEqualTo(requests);
+    }
+}
@@ -0,0 +1,115 @@
+package zeromonos.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+import zeromonos.data.municipalities.Municipality;
+import zeromonos.services.municipalities.MunicipalityDirectory;
+import zeromonos.services.municipalities.MunicipalityService;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.*;
+
+class MunicipalityDirectoryTest {
+
+    private static final String URL = "http://geoapi.test/municipios";
+    private static final String MUNICIPALITIES = "[\"Aveiro\", \"Águeda\", \"Vila Nova de Gaia\", \"Montemor-o-Velho\"]";
+
+    @TempDir
+    private Path tempDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private MockRestServiceServer server;
+    private MunicipalityService municipalityService;
+    private MunicipalityDirectory directory;
+
+    @BeforeEach
+    void setup() {
+        RestClient.Builder builder = RestClient.builder();
+        server = MockRestServiceServer.bindTo(builder).build();
+        municipalityService = mock(MunicipalityService.class);
+        directory = new MunicipalityDirectory(builder, objectMapper, municipalityService, URL, tempDir.resolve("municipalities.json"));
+    }
+
+    @Test
+    void resolve_shouldOnlyAcceptStoredMunicipalitiesBeforeLoading() {
+        when(municipalityService.find(" aveiro ")).thenReturn(Optional.of(new Municipality("Aveiro")));
+        when(municipalityService.find(" Anywhere ")).thenReturn(Optional.empty());
+
+        assertThat(directory.isLoaded()).isFalse();
+        assertThat(directory.resolve(" aveiro ")).contains("Aveiro");
+        assertThat(directory.resolve(" Anywhere ")).isEmpty();
+        assertThat(directory.resolve(" ")).isEmpty();
+    }
+
+    @Test
+    void refresh_shouldLoadAndNormalizeLookups() {
+        server.expect(requestTo(URL)).andRespond(withSuccess(MUNICIPALITIES, MediaType.APPLICATION_JSON));
+
+        directory.refresh();
+
+        server.verify();
+        assertThat(directory.getListing().municipalities()).hasSize(4).startsWith("Águeda", "Aveiro");
+        assertThat(directory.resolve("aveiro")).contains("Aveiro");
+        assertThat(directory.resolve("  AGUEDA ")).contains("Águeda");
+        assertThat(directory.resolve("montemor o velho")).contains("Montemor-o-Velho");
+        assertThat(directory.resolve("Atlantis")).isEmpty();
+    }
+
+    @Test
+    void refresh_shouldPersistSnapshotForOfflineStartup() {
+        server.expect(requestTo(URL)).andRespond(withSuccess(MUNICIPALITIES, MediaType.APPLICATION_JSON));
+        directory.refresh();
+
+        MunicipalityDirectory offline = new MunicipalityDirectory(RestClient.builder(), objectMapper, municipalityService, "",
+                tempDir.resolve("municipalities.json"));
+        offline.loadSnapshot();
+
+        assertThat(offline.getListing()).isEqualTo(directory.getListing());
+        assertThat(offline.resolve("vila nova de gaia")).contains("Vila Nova de Gaia");
+    }
+
+    @Test
+    void refresh_shouldKeepListWhenApiFails() {
+        server.expect(requestTo(URL)).andRespond(withSuccess(MUNICIPALITIES, MediaType.APPLICATION_JSON));
+        server.expect(requestTo(URL)).andRespond(withServerError());
+
+        directory.refresh();
+        String etag = directory.getListing().etag();
+        directory.refresh();
+
+        server.verify();
+        assertThat(directory.getListing().etag()).isEqualTo(etag);
+        assertThat(directory.resolve("Aveiro")).contains("Aveiro");
+    }
+
+    @Test
+    void refresh_shouldSendUpstreamETag() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"v1\"");
+        server.expect(requestTo(URL))
+                .andRespond(withSuccess(MUNICIPALITIES, MediaType.APPLICATION_JSON).headers(headers));
+        server.expect(requestTo(URL))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        directory.refresh();
+        directory.refresh();
+
+        server.verify();
+        assertThat(directory.getListing().municipalities()).hasSize(4);
+    }
+}
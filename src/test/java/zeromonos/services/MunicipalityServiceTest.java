@@ -0,0 +1,102 @@
+package zeromonos.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import zeromonos.data.municipalities.Municipality;
+import zeromonos.data.municipalities.MunicipalityRepository;
+import zeromonos.services.municipalities.MunicipalityService;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class MunicipalityServiceTest {
+
+    @Mock
+    private MunicipalityRepository municipalityRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MunicipalityService municipalityService;
+
+    @BeforeEach
+    void setUp() {
+        municipalityService = new MunicipalityService(municipalityRepository, transactionManager);
+        when(municipalityRepository.findByNormalizedName(anyString())).thenReturn(Optional.empty());
+        when(municipalityRepository.saveAndFlush(any(Municipality.class))).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Test
+    void normalize_shouldIgnoreCaseAccentsAndSeparators() {
+        assertThat(Municipality.normalize("  Póvoa de Varzim ")).isEqualTo("povoa de varzim");
+        assertThat(Municipality.normalize("Vila Nova de Foz-Côa")).isEqualTo(Municipality.normalize("vila nova de foz coa"));
+    }
+
+    @Test
+    void find_shouldQueryRepositoryOnlyOnce() {
+        Municipality aveiro = new Municipality("Aveiro");
+        when(municipalityRepository.findByNormalizedName("aveiro")).thenReturn(Optional.of(aveiro));
+
+        assertThat(municipalityService.find("AVEIRO")).contains(aveiro);
+        assertThat(municipalityService.find("aveiro")).contains(aveiro);
+
+        verify(municipalityRepository, times(1)).findByNormalizedName("aveiro");
+    }
+
+    @Test
+    void findById_shouldReuseMunicipalityResolvedByName() {
+        Municipality aveiro = new Municipality("Aveiro");
+        ReflectionTestUtils.setField(aveiro, "id", 3);
+        when(municipalityRepository.findByNormalizedName("aveiro")).thenReturn(Optional.of(aveiro));
+
+        municipalityService.find("Aveiro");
+
+        assertThat(municipalityService.findById(3)).contains(aveiro);
+        verify(municipalityRepository, never()).findById(any());
+    }
+
+    @Test
+    void find_shouldNotCacheMisses() {
+        assertThat(municipalityService.find("Aveiro")).isEmpty();
+        assertThat(municipalityService.find("Aveiro")).isEmpty();
+
+        verify(municipalityRepository, times(2)).findByNormalizedName("aveiro");
+    }
+
+    @Test
+    void getOrCreate_shouldInsertUnknownMunicipality() {
+        Municipality created = municipalityService.getOrCreate("Ílhavo");
+
+        assertThat(created.getName()).isEqualTo("Ílhavo");
+        assertThat(municipalityService.find("ilhavo")).contains(created);
+        verify(municipalityRepository, times(1)).saveAndFlush(any(Municipality.class));
+    }
+
+    @Test
+    void getOrCreate_shouldReuseRowInsertedConcurrently() {
+        Municipality winner = new Municipality("Aveiro");
+        when(municipalityRepository.saveAndFlush(any(Municipality.class))).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(municipalityRepository.findByNormalizedName("aveiro")).thenReturn(Optional.empty(), Optional.of(winner));
+
+        assertThat(municipalityService.getOrCreate("Aveiro")).isSameAs(winner);
+    }
+
+    @Test
+    void getOrCreate_shouldThrowWhenNameIsBlank() {
+        assertThatThrownBy(() -> municipalityService.getOrCreate(" "))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(municipalityRepository, never()).saveAndFlush(any());
+    }
+}
@@ -0,0 +1,121 @@
+package zeromonos.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import zeromonos.data.municipalities.Municipality;
+import zeromonos.data.requests.ReactiveRequestRepository;
+import zeromonos.data.requests.RequestDTO;
+import zeromonos.data.requests.RequestStatus;
+import zeromonos.data.residues.ResidueDTO;
+import zeromonos.data.statuses.ReactiveStatusRepository;
+import zeromonos.data.statuses.StatusDTO;
+import zeromonos.services.municipalities.MunicipalityService;
+import zeromonos.services.requests.ReactiveRequestReader;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ReactiveRequestReaderTest {
+
+    @Mock
+    private ReactiveRequestRepository requestRepository;
+
+    @Mock
+    private ReactiveStatusRepository statusRepository;
+
+    @Mock
+    private MunicipalityService municipalityService;
+
+    @InjectMocks
+    private ReactiveRequestReader reader;
+
+    private final List<UUID> tokens = IntStream.range(0, 300).mapToObj(i -> UUID.randomUUID()).toList();
+
+    @BeforeEach
+    void setUp() {
+        when(requestRepository.findAllOrderedByCursor()).thenAnswer(invocation -> Flux.fromIterable(tokens).map(this::request));
+        when(requestRepository.findAllResiduesByRequestTokenIn(anyCollection())).thenAnswer(invocation -> {
+            UUID first = tokens.get(0);
+            ResidueDTO residue = new ResidueDTO();
+            residue.setRequestToken(first.toString());
+            return ((Collection<?>) invocation.getArgument(0)).contains(first) ? Flux.just(residue) : Flux.empty();
+        });
+        when(statusRepository.findAllByRequestTokenIn(anyCollection())).thenAnswer(invocation -> Flux.fromIterable(
+                ((Collection<?>) invocation.getArgument(0)).stream()
+                        .map(token -> new StatusDTO(1L, RequestStatus.RECEIVED, LocalDateTime.now(), (UUID) token))
+                        .toList()
+        ));
+    }
+
+    @Test
+    void whenStreamingAllRequests_thenChildrenAreAttachedInOrder() {
+        List<RequestDTO> requests = reader.streamAllRequests().collectList().block();
+
+        assertThat(requests).extracting(RequestDTO::getToken)
+                .containsExactlyElementsOf(tokens.stream().map(UUID::toString).toList());
+        assertThat(requests.get(0).getResidues()).hasSize(1);
+        assertThat(requests.get(1).getResidues()).isEmpty();
+        assertThat(requests).allSatisfy(request -> assertThat(request.getStatuses()).hasSize(1));
+        // 300 requests are two batches
+        verify(requestRepository, times(2)).findAllResiduesByRequestTokenIn(anyCollection());
+        verify(statusRepository, times(2)).findAllByRequestTokenIn(anyCollection());
+    }
+
+    @Test
+    void whenSubscriberAsksForOne_thenOnlyTheFirstBatchIsQueried() {
+        StepVerifier.create(reader.streamAllRequests(), 1)
+                .expectNextMatches(request -> request.getToken().equals(tokens.get(0).toString()))
+                .thenCancel()
+                .verify();
+
+        verify(requestRepository, times(1)).findAllResiduesByRequestTokenIn(anyCollection());
+    }
+
+    @Test
+    void whenMunicipalityIsUnknown_thenNothingIsQueried() {
+        when(municipalityService.find("Atlantis")).thenReturn(Optional.empty());
+
+        StepVerifier.create(reader.streamRequestsByMunicipality("Atlantis")).verifyComplete();
+        verify(requestRepository, never()).findAllByMunicipalityOrderByDatetime(any());
+    }
+
+    @Test
+    void whenMunicipalityIsKnown_thenItsIdIsScanned() {
+        Municipality aveiro = mock(Municipality.class);
+        when(aveiro.getId()).thenReturn(7);
+        when(municipalityService.find("aveiro")).thenReturn(Optional.of(aveiro));
+        when(requestRepository.findAllByMunicipalityOrderByDatetime(7)).thenReturn(Flux.just(request(tokens.get(0))));
+
+        StepVerifier.create(reader.streamRequestsByMunicipality("aveiro")).expectNextCount(1).verifyComplete();
+    }
+
+    @Test
+    void whenTokenIsMalformed_thenNoStatuses() {
+        StepVerifier.create(reader.streamStatuses("not-a-token")).verifyComplete();
+        verifyNoInteractions(statusRepository);
+    }
+
+    private RequestDTO request(UUID token) {
+        RequestDTO request = new RequestDTO();
+        request.setToken(token.toString());
+        return request;
+    }
+}
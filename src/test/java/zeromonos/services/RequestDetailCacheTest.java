@@ -0,0 +1,111 @@
+package zeromonos.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+import zeromonos.data.municipalities.Municipality;
+import zeromonos.data.requests.Request;
+import zeromonos.data.requests.RequestLoad;
+import zeromonos.data.requests.RequestStatus;
+import zeromonos.services.requests.RequestDetailCache;
+import zeromonos.services.requests.RequestLoadsChangedEvent;
+import zeromonos.services.requests.RequestService;
+import zeromonos.services.requests.RequestStatusChangedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RequestDetailCacheTest {
+
+    private static final String TOKEN = "0190a6f4-6a8b-7cde-8f01-23456789abcd";
+    private static final String OTHER_TOKEN = "0190a6f4-6a8b-7cde-8f01-23456789abce";
+
+    @Mock
+    private RequestService requestService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RequestDetailCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new RequestDetailCache(requestService, new ObjectMapper().findAndRegisterModules(), transactionManager,
+                100, Duration.ofMinutes(10));
+        when(requestService.getRequest(TOKEN)).thenReturn(request(TOKEN, 3L));
+        when(requestService.getRequest(OTHER_TOKEN)).thenReturn(request(OTHER_TOKEN, 5L));
+    }
+
+    @Test
+    void whenPolledTwice_thenLoadOnceWithLatestStatusAsETag() {
+        RequestDetailCache.RequestDetail first = cache.get(TOKEN);
+        RequestDetailCache.RequestDetail second = cache.get(TOKEN.toUpperCase());
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.etag()).isEqualTo("\"3\"");
+        assertThat(new String(first.json())).contains(TOKEN);
+        verify(requestService, times(1)).getRequest(TOKEN);
+    }
+
+    @Test
+    void whenStatusChanges_thenOnlyThatTokenIsReloaded() {
+        cache.get(TOKEN);
+        cache.get(OTHER_TOKEN);
+        when(requestService.getRequest(TOKEN)).thenReturn(request(TOKEN, 4L));
+
+        cache.onRequestStatusChanged(new RequestStatusChangedEvent(UUID.fromString(TOKEN), RequestStatus.ASSIGNED, LocalDateTime.now(), null));
+
+        assertThat(cache.get(TOKEN).etag()).isEqualTo("\"4\"");
+        cache.get(OTHER_TOKEN);
+        verify(requestService, times(2)).getRequest(TOKEN);
+        verify(requestService, times(1)).getRequest(OTHER_TOKEN);
+    }
+
+    @Test
+    void whenRequestIsDeleted_thenEntryIsEvicted() {
+        cache.get(TOKEN);
+        when(requestService.getRequest(TOKEN)).thenThrow(NoSuchElementException.class);
+
+        cache.onRequestLoadsChanged(new RequestLoadsChangedEvent(RequestLoadsChangedEvent.Change.DELETED, List.of(
+                new RequestLoad(UUID.fromString(TOKEN), "Aveiro", LocalDateTime.now(), RequestStatus.CANCELED, 1.0, 1.0)
+        )));
+
+        assertThatThrownBy(() -> cache.get(TOKEN)).isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    void whenTokenIsUnknownOrMalformed_thenThrowAndCacheNothing() {
+        when(requestService.getRequest(TOKEN)).thenThrow(NoSuchElementException.class);
+
+        assertThatThrownBy(() -> cache.get(TOKEN)).isInstanceOf(NoSuchElementException.class);
+        assertThatThrownBy(() -> cache.get(TOKEN)).isInstanceOf(NoSuchElementException.class);
+        assertThatThrownBy(() -> cache.get("not-a-token")).isInstanceOf(NoSuchElementException.class);
+
+        verify(requestService, times(2)).getRequest(TOKEN);
+        verify(requestService, never()).getRequest("not-a-token");
+    }
+
+    private static Request request(String token, long latestStatusId) {
+        Request request = new Request(new Municipality("Aveiro"), LocalDateTime.of(2025, 1, 1, 10, 0));
+        request.setToken(token);
+        request.getStatuses().get(0).setId(latestStatusId - 1);
+        request.assign();
+        request.getStatuses().get(1).setId(latestStatusId);
+        return request;
+    }
+}
@@ -0,0 +1,204 @@
+package zeromonos.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import zeromonos.data.requests.LifecycleTimingDTO;
+import zeromonos.data.requests.RequestLoad;
+import zeromonos.data.requests.RequestStatus;
+import zeromonos.data.statuses.StatusRepository;
+import zeromonos.data.statuses.StatusTransition;
+import zeromonos.services.requests.RequestLifecycleMetrics;
+import zeromonos.services.requests.RequestLoadsChangedEvent;
+import zeromonos.services.requests.RequestStatusChangedEvent;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RequestLifecycleMetricsTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final LocalDateTime MORNING = TODAY.atTime(8, 0);
+
+    @Mock
+    private StatusRepository statusRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestLifecycleMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new RequestLifecycleMetrics(statusRepository, meterRegistry, 30, 7);
+    }
+
+    @Test
+    void whenRequestMovesThroughItsLifecycle_thenEveryPhaseIsTimed() {
+        UUID token = UUID.randomUUID();
+        event(token, "Aveiro", RequestStatus.RECEIVED, MORNING);
+        event(token, null, RequestStatus.ASSIGNED, MORNING.plusMinutes(60));
+        event(token, null, RequestStatus.IN_PROGRESS, MORNING.plusMinutes(90));
+        event(token, null, RequestStatus.COMPLETED, MORNING.plusMinutes(100));
+
+        assertThat(metrics.getTimings("Aveiro", TODAY, TODAY))
+                .extracting(LifecycleTimingDTO::getPhase, LifecycleTimingDTO::getTransitions)
+                .containsExactly(
+                        tuple(RequestStatus.RECEIVED, 1L),
+                        tuple(RequestStatus.ASSIGNED, 1L),
+                        tuple(RequestStatus.IN_PROGRESS, 1L)
+                );
+        LifecycleTimingDTO received = metrics.getTimings("Aveiro", TODAY, TODAY).get(0);
+        assertThat(received.getP50()).isCloseTo(3600, withinPercentage(3));
+        assertThat(metrics.getTimings("Aveiro", TODAY, TODAY).get(2).getP99()).isCloseTo(600, withinPercentage(3));
+    }
+
+    @Test
+    void whenManyRequestsAreTimed_thenPercentilesMergeAcrossMunicipalitiesAndDays() {
+        for (int i = 1; i <= 100; i++) {
+            UUID token = UUID.randomUUID();
+            LocalDateTime created = MORNING.minusDays(i % 2);
+            event(token, i % 2 == 0 ? "Aveiro" : "Porto", RequestStatus.RECEIVED, created);
+            event(token, null, RequestStatus.ASSIGNED, created.plusMinutes(i));
+        }
+
+        LifecycleTimingDTO all = metrics.getTimings(null, TODAY.minusDays(1), TODAY).get(0);
+        assertThat(all.getTransitions()).isEqualTo(100);
+        assertThat(all.getP50()).isCloseTo(50 * 60, withinPercentage(3));
+        assertThat(all.getP95()).isCloseTo(95 * 60, withinPercentage(3));
+
+        assertThat(metrics.getTimings("Aveiro", TODAY, TODAY).get(0).getTransitions()).isEqualTo(50);
+        assertThat(metrics.getTimings("Porto", TODAY, TODAY).get(0).getTransitions()).isZero();
+    }
+
+    @Test
+    void whenEventIsStaleOrUnknown_thenItIsIgnored() {
+        UUID token = UUID.randomUUID();
+        event(token, "Aveiro", RequestStatus.RECEIVED, MORNING);
+        event(token, null, RequestStatus.ASSIGNED, MORNING.plusMinutes(10));
+        event(token, null, RequestStatus.ASSIGNED, MORNING.plusMinutes(20));
+        event(UUID.randomUUID(), null, RequestStatus.ASSIGNED, MORNING.plusMinutes(20));
+
+        assertThat(metrics.getTimings(null, TODAY, TODAY).get(0).getTransitions()).isEqualTo(1);
+    }
+
+    @Test
+    void whenEventsArriveOutOfOrder_thenEveryPhaseIsStillTimed() {
+        UUID token = UUID.randomUUID();
+        event(token, "Aveiro", RequestStatus.RECEIVED, MORNING);
+        event(token, null, RequestStatus.IN_PROGRESS, MORNING.plusMinutes(90));
+        event(token, null, RequestStatus.ASSIGNED, MORNING.plusMinutes(60));
+        event(token, null, RequestStatus.COMPLETED, MORNING.plusMinutes(100));
+
+        List<LifecycleTimingDTO> timings = metrics.getTimings("Aveiro", TODAY, TODAY);
+        assertThat(timings)
+                .extracting(LifecycleTimingDTO::getPhase, LifecycleTimingDTO::getTransitions)
+                .containsExactly(
+                        tuple(RequestStatus.RECEIVED, 1L),
+                        tuple(RequestStatus.ASSIGNED, 1L),
+                        tuple(RequestStatus.IN_PROGRESS, 1L)
+                );
+        assertThat(timings.get(0).getP50()).isCloseTo(3600, withinPercentage(3));
+        assertThat(timings.get(1).getP50()).isCloseTo(1800, withinPercentage(3));
+        assertThat(timings.get(2).getP50()).isCloseTo(600, withinPercentage(3));
+        assertThat(openRequests()).isEmpty();
+    }
+
+    @Test
+    void whenFinalEventArrivesBeforeTheSkippedStep_thenTheRequestIsClosedByThatStep() {
+        UUID token = UUID.randomUUID();
+        event(token, "Aveiro", RequestStatus.RECEIVED, MORNING);
+        event(token, null, RequestStatus.ASSIGNED, MORNING.plusMinutes(10));
+        event(token, null, RequestStatus.COMPLETED, MORNING.plusMinutes(40));
+        assertThat(openRequests()).containsOnlyKeys(token);
+
+        event(token, null, RequestStatus.IN_PROGRESS, MORNING.plusMinutes(25));
+
+        List<LifecycleTimingDTO> timings = metrics.getTimings("Aveiro", TODAY, TODAY);
+        assertThat(timings.get(1).getP50()).isCloseTo(900, withinPercentage(3));
+        assertThat(timings.get(2).getP50()).isCloseTo(900, withinPercentage(3));
+        assertThat(openRequests()).isEmpty();
+    }
+
+    @Test
+    void whenRequestIsDeleted_thenItsOpenPhaseIsDropped() {
+        UUID token = UUID.randomUUID();
+        event(token, "Aveiro", RequestStatus.RECEIVED, MORNING);
+        metrics.onRequestLoadsChanged(new RequestLoadsChangedEvent(RequestLoadsChangedEvent.Change.DELETED,
+                List.of(new RequestLoad(token, "Aveiro", MORNING, RequestStatus.RECEIVED, 0.0, 0.0))));
+        event(token, null, RequestStatus.CANCELED, MORNING.plusMinutes(5));
+
+        assertThat(metrics.getTimings(null, TODAY, TODAY).get(0).getTransitions()).isZero();
+    }
+
+    @Test
+    void whenRebuilding_thenHistoryIsReplayed() {
+        UUID token = UUID.randomUUID();
+        when(statusRepository.findAllTransitionsOfOpenOrRecentRequests(any(), any())).thenReturn(List.of(
+                new StatusTransition(token, "Braga", RequestStatus.RECEIVED, MORNING.minusDays(40)),
+                new StatusTransition(token, "Braga", RequestStatus.ASSIGNED, MORNING)
+        ));
+
+        metrics.rebuild();
+        event(token, null, RequestStatus.IN_PROGRESS, MORNING.plusHours(2));
+
+        assertThat(metrics.getTimings("Braga", TODAY, TODAY))
+                .extracting(LifecycleTimingDTO::getTransitions)
+                .containsExactly(1L, 1L, 0L);
+    }
+
+    @Test
+    void whenPublishing_thenPercentilesAreGaugesPerMunicipalityAndPhase() {
+        UUID token = UUID.randomUUID();
+        event(token, "Aveiro", RequestStatus.RECEIVED, MORNING);
+        event(token, null, RequestStatus.ASSIGNED, MORNING.plusHours(1));
+
+        metrics.publish();
+
+        assertThat(meterRegistry.get(RequestLifecycleMetrics.METRIC)
+                .tags("municipality", "Aveiro", "phase", "RECEIVED", "quantile", "0.95")
+                .gauge().value()).isCloseTo(3600, withinPercentage(3));
+    }
+
+    @Test
+    void whenMunicipalityHasNoRetainedDays_thenItsGaugesAreRemoved() {
+        UUID token = UUID.randomUUID();
+        event(token, "Aveiro", RequestStatus.RECEIVED, MORNING);
+        event(token, null, RequestStatus.ASSIGNED, MORNING.plusHours(1));
+        metrics.publish();
+        when(statusRepository.findAllTransitionsOfOpenOrRecentRequests(any(), any())).thenReturn(List.of());
+
+        metrics.rebuild();
+
+        assertThat(meterRegistry.find(RequestLifecycleMetrics.METRIC).tag("municipality", "Aveiro").gauges()).isEmpty();
+    }
+
+    @Test
+    void whenWindowIsInverted_thenThrows() {
+        assertThatThrownBy(() -> metrics.getTimings(null, TODAY, TODAY.minusDays(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Requests whose current phase is still being timed
+    @SuppressWarnings("unchecked")
+    private Map<UUID, ?> openRequests() {
+        return (Map<UUID, ?>) ReflectionTestUtils.getField(metrics, "open");
+    }
+
+    private void event(UUID token, String municipality, RequestStatus status, LocalDateTime datetime) {
+        metrics.onRequestStatusChanged(new RequestStatusChangedEvent(token, status, datetime, municipality));
+    }
+}
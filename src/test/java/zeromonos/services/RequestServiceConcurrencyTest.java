@@ -0,0 +1,111 @@
+package zeromonos.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import zeromonos.data.requests.Request;
+import zeromonos.data.requests.RequestRepository;
+import zeromonos.data.requests.RequestStatus;
+import zeromonos.data.requests.RequestTransitions;
+import zeromonos.data.statuses.Status;
+import zeromonos.data.statuses.StatusRepository;
+import zeromonos.services.municipalities.MunicipalityService;
+import zeromonos.services.requests.RequestService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+class RequestServiceConcurrencyTest {
+
+    private static final int THREADS = 64;
+
+    @Autowired
+    private RequestService requestService;
+
+    @Autowired
+    private RequestRepository requestRepository;
+
+    @Autowired
+    private StatusRepository statusRepository;
+
+    @Autowired
+    private MunicipalityService municipalityService;
+
+    private String token;
+
+    @BeforeEach
+    void setup() {
+        token = requestRepository.saveAndFlush(new Request(municipalityService.getOrCreate("Aveiro"), LocalDateTime.now())).getToken();
+    }
+
+    @AfterEach
+    void tearDown() {
+        requestRepository.deleteAll();
+    }
+
+    @Test
+    void whenTransitioningFromManyThreads_thenHistoryIsAValidPath() throws Exception {
+        List<Consumer<String>> actions = List.of(
+                requestService::assignRequest,
+                requestService::startRequest,
+                requestService::completeRequest,
+                requestService::cancelRequest
+        );
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < THREADS; i++) {
+            Consumer<String> action = actions.get(i % actions.size());
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < 4; j++) {
+                    try {
+                        action.accept(token);
+                    } catch (IllegalStateException e) {
+                        // Losing a race is expected, a corrupted history is not
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        List<RequestStatus> history = statusRepository.findAllByRequest_Token(UUID.fromString(token))
+                .stream()
+                .sorted(Comparator.comparing(Status::getId))
+                .map(Status::getRequestStatus)
+                .toList();
+
+        assertThat(history).first().isEqualTo(RequestStatus.RECEIVED);
+        assertThat(history).doesNotHaveDuplicates();
+        for (int i = 1; i < history.size(); i++) {
+            assertThat(RequestTransitions.canTransition(history.get(i - 1), history.get(i)))
+                    .as("transition %s -> %s", history.get(i - 1), history.get(i))
+                    .isTrue();
+        }
+        assertThat(requestService.getRequest(token).getRequestStatus()).isEqualTo(history.get(history.size() - 1));
+    }
+}
@@ -1,22 +1,49 @@
 package zeromonos.services;
 
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import zeromonos.data.municipalities.Municipality;
+import zeromonos.data.municipalities.MunicipalityLookup;
 import zeromonos.data.requests.Request;
+import zeromonos.data.requests.RequestBatchResultDTO;
+import zeromonos.data.requests.RequestCursor;
+import zeromonos.data.requests.RequestLoad;
 import zeromonos.data.requests.RequestRepository;
+import zeromonos.data.requests.RequestStatus;
+import zeromonos.data.requests.RequestSummary;
 import zeromonos.data.residues.Residue;
 import zeromonos.data.residues.ResidueRepository;
+import zeromonos.data.statuses.Status;
+import zeromonos.data.statuses.StatusRepository;
+import zeromonos.services.municipalities.MunicipalityService;
+import zeromonos.services.requests.RequestLoadsChangedEvent;
 import zeromonos.services.requests.RequestService;
-
+import zeromonos.services.requests.RequestStatusChangedEvent;
+import zeromonos.services.requests.RequestTransitionMetrics;
+import zeromonos.services.requests.SlotScheduler;
+import zeromonos.services.residues.ResiduesChangedEvent;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -25,12 +52,38 @@ import static org.mockito.Mockito.*;
 @MockitoSettings(strictness = Strictness.LENIENT)
 class RequestServiceTest {
 
+    private static final String TOKEN = "0190a6f4-6a8b-7cde-8f01-23456789abcd";
+    private static final String UNKNOWN_TOKEN = "0190a6f4-6a8b-7cde-8f01-000000000000";
+    private static final int MUNICIPALITY_ID = 7;
+    private static final MunicipalityLookup KNOWN_MUNICIPALITIES = name -> Optional.of(name.trim());
+
     @Mock
     private RequestRepository requestRepository;
 
     @Mock
     private ResidueRepository residueRepository;
 
+    @Mock
+    private StatusRepository statusRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private MunicipalityService municipalityService;
+
+    @Mock
+    private SlotScheduler slotScheduler;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private RequestTransitionMetrics transitionMetrics;
+
     @InjectMocks
     private RequestService requestService;
 
@@ -46,7 +99,12 @@ class RequestServiceTest {
         residue2.setId(2L);
 
         request = new Request();
-        request.setToken("REQ123");
+        request.setToken(TOKEN);
+        request.setMunicipality(new Municipality("Aveiro"));
+
+        when(municipalityService.getOrCreate(anyString())).thenAnswer(inv -> new Municipality(inv.getArgument(0)));
+        when(slotScheduler.tryReserve(any(Request.class))).thenReturn(true);
+        when(municipalityService.find(anyString())).thenAnswer(inv -> Optional.of(new Municipality(inv.getArgument(0))));
 
         when(residueRepository.findById(1L)).thenReturn(Optional.of(residue1));
         when(residueRepository.findById(2L)).thenReturn(Optional.of(residue2));
@@ -54,21 +112,38 @@ class RequestServiceTest {
 
         when(requestRepository.saveAndFlush(any(Request.class))).thenAnswer(inv -> {
             Request req = inv.getArgument(0);
-            req.setToken("REQ123");
+            req.setToken(TOKEN);
             return req;
         });
 
-        when(requestRepository.findRequestByTokenEquals("REQ123")).thenReturn(Optional.of(request));
-        when(requestRepository.findRequestByTokenEquals("UNKNOWN")).thenReturn(Optional.empty());
+        when(requestRepository.findRequestByTokenEquals(UUID.fromString(TOKEN))).thenReturn(Optional.of(request));
+        when(requestRepository.findRequestByTokenEquals(UUID.fromString(UNKNOWN_TOKEN))).thenReturn(Optional.empty());
 
         when(requestRepository.save(any(Request.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Emulate the conditional UPDATE against the in-memory request
+        when(requestRepository.updateRequestStatusIfIn(eq(UUID.fromString(TOKEN)), any(), any())).thenAnswer(inv -> {
+            Collection<RequestStatus> sources = inv.getArgument(1);
+            if (!sources.contains(request.getRequestStatus())) {
+                return 0;
+            }
+            request.setRequestStatus(inv.getArgument(2));
+            return 1;
+        });
+        when(requestRepository.updateRequestStatusIfIn(eq(UUID.fromString(UNKNOWN_TOKEN)), any(), any())).thenReturn(0);
+        when(requestRepository.findMunicipalityIdByToken(UUID.fromString(TOKEN))).thenReturn(Optional.of(MUNICIPALITY_ID));
+        when(municipalityService.findById(MUNICIPALITY_ID)).thenReturn(Optional.of(new Municipality("Aveiro")));
+        when(requestRepository.findRequestStatusByToken(UUID.fromString(TOKEN)))
+                .thenAnswer(inv -> Optional.of(request.getRequestStatus()));
+        when(requestRepository.getReferenceById(UUID.fromString(TOKEN))).thenReturn(request);
+        when(statusRepository.save(any(Status.class))).thenAnswer(inv -> inv.getArgument(0));
     }
 
     @Test
     void createRequest_shouldSaveRequestWithResidues() {
         String token = requestService.createRequest(request, List.of(1L, 2L));
 
-        assertThat(token).isEqualTo("REQ123");
+        assertThat(token).isEqualTo(TOKEN);
         assertThat(request.getResidues())
                 .hasSize(2)
                 .containsExactlyInAnyOrder(residue1, residue2);
@@ -77,6 +152,22 @@ class RequestServiceTest {
         verify(requestRepository).saveAndFlush(request);
     }
 
+    @Test
+    void createRequest_shouldInvalidateAttachedResidues() {
+        requestService.createRequest(request, List.of(1L, 2L));
+
+        verify(eventPublisher).publishEvent(new ResiduesChangedEvent(ResiduesChangedEvent.Change.UPDATED, List.of(residue1, residue2)));
+    }
+
+    @Test
+    void createRequest_shouldPublishItsResidueLoad() {
+        requestService.createRequest(request, List.of(1L, 2L));
+
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof RequestLoadsChangedEvent loads
+                && loads.change() == RequestLoadsChangedEvent.Change.CREATED
+                && loads.loads().equals(List.of(new RequestLoad(UUID.fromString(TOKEN), "Aveiro", null, RequestStatus.RECEIVED, 3.0, 5.0)))));
+    }
+
     @Test
     void createRequest_shouldThrowWhenNoResiduesAreProvided() {
         assertThatThrownBy(() -> requestService.createRequest(request, List.of()))
@@ -94,139 +185,436 @@ class RequestServiceTest {
         verify(requestRepository, never()).saveAndFlush(any());
     }
 
+    @Test
+    void createRequest_shouldThrowWhenSlotIsFull() {
+        when(slotScheduler.tryReserve(request)).thenReturn(false);
+
+        assertThatThrownBy(() -> requestService.createRequest(request, List.of(1L, 2L)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("fully booked");
+        verify(requestRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void createRequest_shouldResolveMunicipalityBeforeOpeningItsTransaction() {
+        requestService.createRequest(request, List.of(1L, 2L));
+
+        InOrder inOrder = inOrder(municipalityService, transactionManager);
+        inOrder.verify(municipalityService).getOrCreate("Aveiro");
+        inOrder.verify(transactionManager).getTransaction(any());
+    }
+
+    @Test
+    void createRequests_shouldResolveMunicipalitiesBeforeOpeningItsTransaction() {
+        when(residueRepository.findAllById(any())).thenReturn(List.of(residue1, residue2));
+
+        requestService.createRequests(List.of(request), List.of(List.of(1L, 2L)), KNOWN_MUNICIPALITIES);
+
+        InOrder inOrder = inOrder(municipalityService, transactionManager);
+        inOrder.verify(municipalityService).getOrCreate("Aveiro");
+        inOrder.verify(transactionManager).getTransaction(any());
+    }
+
+    @Test
+    void createRequests_shouldResolveResiduesWithSingleQuery() {
+        Request other = new Request(new Municipality("Aveiro"), LocalDateTime.now());
+        when(residueRepository.findAllById(any())).thenReturn(List.of(residue1, residue2));
+
+        List<RequestBatchResultDTO> results = requestService.createRequests(
+                List.of(request, other), List.of(List.of(1L), List.of(2L)), KNOWN_MUNICIPALITIES
+        );
+
+        assertThat(results).extracting(RequestBatchResultDTO::getError).containsOnlyNulls();
+        assertThat(request.getResidues()).containsExactly(residue1);
+        assertThat(other.getResidues()).containsExactly(residue2);
+
+        verify(residueRepository, times(1)).findAllById(any());
+        verify(residueRepository, never()).findById(anyLong());
+        verify(requestRepository).saveAll(List.of(request, other));
+    }
+
+    @Test
+    void createRequests_shouldReportErrorsPerItem() {
+        Request missing = new Request(new Municipality("Aveiro"), LocalDateTime.now());
+        Request empty = new Request(new Municipality("Aveiro"), LocalDateTime.now());
+        Request duplicated = new Request(new Municipality("Aveiro"), LocalDateTime.now());
+        Request repeated = new Request(new Municipality("Aveiro"), LocalDateTime.now());
+        when(residueRepository.findAllById(any())).thenReturn(List.of(residue1, residue2));
+
+        List<RequestBatchResultDTO> results = requestService.createRequests(
+                List.of(request, missing, empty, duplicated, repeated),
+                List.of(List.of(1L), List.of(-1L), List.of(), List.of(1L), List.of(2L, 2L)),
+                KNOWN_MUNICIPALITIES
+        );
+
+        assertThat(results).extracting(RequestBatchResultDTO::getIndex).containsExactly(0, 1, 2, 3, 4);
+        assertThat(results.get(0).getError()).isNull();
+        assertThat(results.get(1).getError()).contains("Residue with id -1 not found");
+        assertThat(results.get(2).getError()).contains("cannot be empty");
+        assertThat(results.get(3).getError()).contains("already belongs to a Request");
+        assertThat(results.get(4).getError()).contains("listed more than once");
+        assertThat(residue2.getRequest()).isNull();
+        verify(requestRepository).saveAll(List.of(request));
+    }
+
+    @Test
+    void createRequests_shouldRejectItemsForFullSlots() {
+        Request other = new Request(new Municipality("Aveiro"), LocalDateTime.now());
+        when(residueRepository.findAllById(any())).thenReturn(List.of(residue1, residue2));
+        when(slotScheduler.tryReserve(other)).thenReturn(false);
+
+        List<RequestBatchResultDTO> results = requestService.createRequests(
+                List.of(request, other), List.of(List.of(1L), List.of(2L)), KNOWN_MUNICIPALITIES
+        );
+
+        assertThat(results.get(0).getError()).isNull();
+        assertThat(results.get(1).getError()).contains("fully booked");
+        assertThat(residue2.getRequest()).isNull();
+        verify(requestRepository).saveAll(List.of(request));
+    }
+
+    @Test
+    void createRequests_shouldRejectUnknownMunicipalitiesPerItem() {
+        Request atlantis = new Request(new Municipality("Atlantis"), LocalDateTime.now());
+        Request porto = new Request(new Municipality(" porto "), LocalDateTime.now());
+        when(residueRepository.findAllById(any())).thenReturn(List.of(residue1, residue2));
+        MunicipalityLookup municipalities = name -> name.trim().equalsIgnoreCase("Porto") ? Optional.of("Porto") : Optional.empty();
+
+        List<RequestBatchResultDTO> results = requestService.createRequests(
+                List.of(atlantis, porto), List.of(List.of(1L), List.of(2L)), municipalities
+        );
+
+        assertThat(results.get(0).getError()).isEqualTo("Unknown municipality Atlantis");
+        assertThat(results.get(1).getError()).isNull();
+        assertThat(porto.getMunicipality().getName()).isEqualTo("Porto");
+        assertThat(residue1.getRequest()).isNull();
+        verify(slotScheduler, never()).tryReserve(atlantis);
+        verify(requestRepository).saveAll(List.of(porto));
+    }
+
+    @Test
+    void createRequests_shouldThrowWhenBatchIsMalformed() {
+        assertThatThrownBy(() -> requestService.createRequests(List.of(request), List.of(), KNOWN_MUNICIPALITIES))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(requestRepository, never()).saveAll(any());
+    }
+
     @Test
     void getRequest_shouldReturnRequestWhenExists() {
-        Request found = requestService.getRequest("REQ123");
+        Request found = requestService.getRequest(TOKEN);
 
         assertThat(found).isNotNull();
-        assertThat(found.getToken()).isEqualTo("REQ123");
-        verify(requestRepository).findRequestByTokenEquals("REQ123");
+        assertThat(found.getToken()).isEqualTo(TOKEN);
+        verify(requestRepository).findRequestByTokenEquals(UUID.fromString(TOKEN));
     }
 
     @Test
     void getRequest_shouldThrowWhenNotFound() {
-        assertThatThrownBy(() -> requestService.getRequest("UNKNOWN"))
+        assertThatThrownBy(() -> requestService.getRequest(UNKNOWN_TOKEN))
                 .isInstanceOf(NoSuchElementException.class)
-                .hasMessageContaining("Request with Token UNKNOWN not found");
+                .hasMessageContaining("Request with Token " + UNKNOWN_TOKEN + " not found");
 
-        verify(requestRepository).findRequestByTokenEquals("UNKNOWN");
+        verify(requestRepository).findRequestByTokenEquals(UUID.fromString(UNKNOWN_TOKEN));
+    }
+
+    @Test
+    void getRequest_shouldThrowWithoutQueryingWhenTokenIsMalformed() {
+        assertThatThrownBy(() -> requestService.getRequest("not-a-token"))
+                .isInstanceOf(NoSuchElementException.class)
+                .hasMessageContaining("Request with Token not-a-token not found");
+
+        verify(requestRepository, never()).findRequestByTokenEquals(any());
     }
 
     @Test
     void deleteRequest_shouldDeleteRequest() {
-        requestService.deleteRequest("REQ123");
+        requestService.deleteRequest(TOKEN);
+
+        verify(requestRepository, times(1)).deleteByToken(UUID.fromString(TOKEN));
+        verify(requestRepository, times(1)).findRequestByTokenEquals(UUID.fromString(TOKEN));
+        verify(slotScheduler).release(request);
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof RequestLoadsChangedEvent loads
+                && loads.change() == RequestLoadsChangedEvent.Change.DELETED));
+    }
 
-        verify(requestRepository, times(1)).deleteByToken("REQ123");
-        verify(requestRepository, times(1)).findRequestByTokenEquals("REQ123");
+    @Test
+    void deleteRequest_shouldNotReleaseSlotOfCanceledRequest() {
+        request.cancel();
+        requestService.deleteRequest(TOKEN);
+
+        verify(requestRepository).deleteByToken(UUID.fromString(TOKEN));
+        verify(slotScheduler, never()).release(any());
     }
 
     @Test
     void deleteRequest_shouldThrowWhenNotFound() {
-        assertThatThrownBy(() -> requestService.deleteRequest("UNKNOWN"))
+        assertThatThrownBy(() -> requestService.deleteRequest(UNKNOWN_TOKEN))
                 .isInstanceOf(NoSuchElementException.class)
-                .hasMessageContaining("Request with Token UNKNOWN not found");
+                .hasMessageContaining("Request with Token " + UNKNOWN_TOKEN + " not found");
 
         verify(requestRepository, never()).delete(any());
     }
 
     @Test
     void cancelRequest_shouldSaveCancelledRequest() {
-        requestService.cancelRequest("REQ123");
+        requestService.cancelRequest(TOKEN);
 
-        verify(requestRepository).save(request);
+        assertThat(request.getRequestStatus()).isEqualTo(RequestStatus.CANCELED);
+        verify(statusRepository).save(argThat((Status status) -> status.getRequestStatus() == RequestStatus.CANCELED));
+        verify(slotScheduler).release(request);
     }
 
     @Test
     void cancelRequest_shouldThrowWhenInvalidTransition() {
         request.assign().start();
-        assertThatThrownBy(() -> requestService.cancelRequest("REQ123"))
+        assertThatThrownBy(() -> requestService.cancelRequest(TOKEN))
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("Illegal state transition");
 
-        verify(requestRepository, never()).save(request);
+        verify(statusRepository, never()).save(any());
     }
 
     @Test
     void cancelRequest_shouldThrowWhenNotFound() {
-        assertThatThrownBy(() -> requestService.cancelRequest("UNKNOWN"))
+        assertThatThrownBy(() -> requestService.cancelRequest(UNKNOWN_TOKEN))
                 .isInstanceOf(NoSuchElementException.class)
-                .hasMessageContaining("Request with Token UNKNOWN not found");
-        verify(requestRepository, never()).save(request);
+                .hasMessageContaining("Request with Token " + UNKNOWN_TOKEN + " not found");
+        verify(statusRepository, never()).save(any());
     }
 
     @Test
     void assignRequest_shouldSaveAssignedRequest() {
-        requestService.assignRequest("REQ123");
+        requestService.assignRequest(TOKEN);
 
-        verify(requestRepository).save(request);
+        assertThat(request.getRequestStatus()).isEqualTo(RequestStatus.ASSIGNED);
+        verify(statusRepository).save(argThat((Status status) -> status.getRequestStatus() == RequestStatus.ASSIGNED));
+        verify(slotScheduler, never()).release(any());
     }
 
     @Test
     void assignRequest_shouldThrowWhenInvalidTransition() {
         request.assign();
-        assertThatThrownBy(() -> requestService.assignRequest("REQ123"))
+        assertThatThrownBy(() -> requestService.assignRequest(TOKEN))
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("Illegal state transition");
 
-        verify(requestRepository, never()).save(request);
+        verify(statusRepository, never()).save(any());
+        verify(transitionMetrics).rejected(RequestStatus.ASSIGNED, 1);
     }
 
     @Test
     void assignRequest_shouldThrowWhenNotFound() {
-        assertThatThrownBy(() -> requestService.assignRequest("UNKNOWN"))
+        assertThatThrownBy(() -> requestService.assignRequest(UNKNOWN_TOKEN))
                 .isInstanceOf(NoSuchElementException.class)
-                .hasMessageContaining("Request with Token UNKNOWN not found");
-        verify(requestRepository, never()).save(request);
+                .hasMessageContaining("Request with Token " + UNKNOWN_TOKEN + " not found");
+        verify(statusRepository, never()).save(any());
+    }
+
+    @Test
+    void assignRequest_shouldNotLoadRequest() {
+        requestService.assignRequest(TOKEN);
+
+        verify(requestRepository).updateRequestStatusIfIn(UUID.fromString(TOKEN), Set.of(RequestStatus.RECEIVED), RequestStatus.ASSIGNED);
+        verify(requestRepository, never()).findRequestByTokenEquals(any());
+        verify(requestRepository, never()).findRequestStatusByToken(any());
+    }
+
+    @Test
+    void assignRequest_shouldPublishStatusChange() {
+        requestService.assignRequest(TOKEN);
+
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof RequestStatusChangedEvent e
+                && e.token().equals(UUID.fromString(TOKEN))
+                && e.requestStatus() == RequestStatus.ASSIGNED
+                && "Aveiro".equals(e.municipality())));
+        verify(requestRepository, never()).findMunicipalityByToken(any());
+    }
+
+    @Test
+    void assignRequest_shouldNotPublishWhenInvalidTransition() {
+        request.cancel();
+        assertThatThrownBy(() -> requestService.assignRequest(TOKEN))
+                .isInstanceOf(IllegalStateException.class);
+
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void assignAll_shouldAssignWholeLoadWithOneUpdate() {
+        List<UUID> tokens = List.of(UUID.fromString(TOKEN), UUID.fromString(UNKNOWN_TOKEN));
+        when(requestRepository.updateRequestStatusesIfIn(tokens, Set.of(RequestStatus.RECEIVED), RequestStatus.ASSIGNED)).thenReturn(2);
+
+        assertThat(requestService.assignAll(loads(tokens))).isTrue();
+
+        verify(statusRepository).saveAll(argThat((List<Status> statuses) -> statuses.size() == 2
+                && statuses.stream().allMatch(status -> status.getRequestStatus() == RequestStatus.ASSIGNED)));
+        verify(eventPublisher, times(2)).publishEvent(argThat((Object event) -> event instanceof RequestStatusChangedEvent e
+                && "Aveiro".equals(e.municipality())));
+        verify(requestRepository, never()).updateRequestStatusIfIn(any(), any(), any());
+        verify(requestRepository, never()).findMunicipalityByToken(any());
+    }
+
+    @Test
+    void assignAll_shouldBindAtMostOneChunkOfTokensPerUpdate() {
+        List<UUID> tokens = Stream.generate(UUID::randomUUID).limit(RequestService.ASSIGN_CHUNK_SIZE * 2L + 1).toList();
+        when(requestRepository.updateRequestStatusesIfIn(anyCollection(), any(), any()))
+                .thenAnswer(inv -> ((Collection<?>) inv.getArgument(0)).size());
+
+        assertThat(requestService.assignAll(loads(tokens))).isTrue();
+
+        verify(requestRepository, times(3)).updateRequestStatusesIfIn(
+                argThat((Collection<UUID> chunk) -> chunk.size() <= RequestService.ASSIGN_CHUNK_SIZE), any(), any());
+        verify(statusRepository).saveAll(argThat((List<Status> statuses) -> statuses.size() == tokens.size()));
+    }
+
+    @Test
+    void assignAll_shouldRollBackWhenAnyRequestMovedOn() {
+        SimpleTransactionStatus transaction = new SimpleTransactionStatus();
+        when(transactionManager.getTransaction(any())).thenReturn(transaction);
+        List<UUID> tokens = List.of(UUID.fromString(TOKEN), UUID.fromString(UNKNOWN_TOKEN));
+        when(requestRepository.updateRequestStatusesIfIn(eq(tokens), any(), any())).thenReturn(1);
+
+        assertThat(requestService.assignAll(loads(tokens))).isFalse();
+
+        assertThat(transaction.isRollbackOnly()).isTrue();
+        verify(transitionMetrics).rejected(RequestStatus.ASSIGNED, 1);
+        verify(statusRepository, never()).saveAll(any());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
     }
 
     @Test
     void startRequest_shouldSaveStartedRequest() {
         request.assign();
-        requestService.startRequest("REQ123");
+        requestService.startRequest(TOKEN);
 
-        verify(requestRepository).save(request);
+        assertThat(request.getRequestStatus()).isEqualTo(RequestStatus.IN_PROGRESS);
+        verify(statusRepository).save(argThat((Status status) -> status.getRequestStatus() == RequestStatus.IN_PROGRESS));
     }
 
     @Test
     void startRequest_shouldThrowWhenInvalidTransition() {
-        assertThatThrownBy(() -> requestService.startRequest("REQ123"))
+        assertThatThrownBy(() -> requestService.startRequest(TOKEN))
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("Illegal state transition");
 
-        verify(requestRepository, never()).save(request);
+        verify(statusRepository, never()).save(any());
     }
 
     @Test
     void startRequest_shouldThrowWhenNotFound() {
-        assertThatThrownBy(() -> requestService.startRequest("UNKNOWN"))
+        assertThatThrownBy(() -> requestService.startRequest(UNKNOWN_TOKEN))
                 .isInstanceOf(NoSuchElementException.class)
-                .hasMessageContaining("Request with Token UNKNOWN not found");
-        verify(requestRepository, never()).save(request);
+                .hasMessageContaining("Request with Token " + UNKNOWN_TOKEN + " not found");
+        verify(statusRepository, never()).save(any());
     }
 
     @Test
     void completeRequest_shouldSaveCompletedRequest() {
         request.assign().start();
-        requestService.completeRequest("REQ123");
+        requestService.completeRequest(TOKEN);
 
-        verify(requestRepository).save(request);
+        assertThat(request.getRequestStatus()).isEqualTo(RequestStatus.COMPLETED);
+        verify(statusRepository).save(argThat((Status status) -> status.getRequestStatus() == RequestStatus.COMPLETED));
     }
 
     @Test
     void completeRequest_shouldThrowWhenInvalidTransition() {
-        assertThatThrownBy(() -> requestService.completeRequest("REQ123"))
+        assertThatThrownBy(() -> requestService.completeRequest(TOKEN))
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("Illegal state transition");
 
-        verify(requestRepository, never()).save(request);
+        verify(statusRepository, never()).save(any());
     }
 
     @Test
     void completeRequest_shouldThrowWhenNotFound() {
-        assertThatThrownBy(() -> requestService.completeRequest("UNKNOWN"))
+        assertThatThrownBy(() -> requestService.completeRequest(UNKNOWN_TOKEN))
                 .isInstanceOf(NoSuchElementException.class)
-                .hasMessageContaining("Request with Token UNKNOWN not found");
+                .hasMessageContaining("Request with Token " + UNKNOWN_TOKEN + " not found");
+
+        verify(statusRepository, never()).save(any());
+    }
+
+    @Test
+    void getRequestsPage_shouldQueryFirstPageWithoutCursor() {
+        when(requestRepository.findAllByOrderByDatetimeAscTokenAsc(Limit.of(10))).thenReturn(List.of(request));
+
+        assertThat(requestService.getRequestsPage(null, 10)).containsExactly(request);
+        verify(requestRepository, never()).findAllAfterCursor(any(), any(), any());
+    }
+
+    @Test
+    void getAllRequestsByMunicipality_shouldScanResolvedMunicipality() {
+        Municipality aveiro = new Municipality("Aveiro");
+        when(municipalityService.find("aveiro")).thenReturn(Optional.of(aveiro));
+        when(requestRepository.findAllWithResiduesByMunicipalityOrderByDatetime(aveiro)).thenReturn(List.of(request));
+
+        assertThat(requestService.getAllRequestsByMunicipality("aveiro")).containsExactly(request);
+        verify(requestRepository).fetchStatusesByMunicipality(aveiro);
+    }
+
+    @Test
+    void getAllRequestsByMunicipality_shouldNotQueryUnknownMunicipality() {
+        when(municipalityService.find("Atlantis")).thenReturn(Optional.empty());
+
+        assertThat(requestService.getAllRequestsByMunicipality("Atlantis")).isEmpty();
+        verify(requestRepository, never()).findAllWithResiduesByMunicipalityOrderByDatetime(any());
+    }
+
+    @Test
+    void getRequestSummariesByMunicipality_shouldReadProjectionOnly() {
+        Municipality aveiro = new Municipality("Aveiro");
+        RequestSummary summary = new RequestSummary(UUID.fromString(TOKEN), "Aveiro", LocalDateTime.now(), RequestStatus.RECEIVED, 2L, "Plastic, Glass");
+        when(municipalityService.find("aveiro")).thenReturn(Optional.of(aveiro));
+        when(requestRepository.findSummariesByMunicipality(aveiro)).thenReturn(List.of(summary));
+
+        assertThat(requestService.getRequestSummariesByMunicipality("aveiro")).containsExactly(summary);
+        verify(requestRepository, never()).findAllWithResiduesByMunicipalityOrderByDatetime(any());
+        verify(requestRepository, never()).fetchStatusesByMunicipality(any());
+    }
+
+    @Test
+    void getRequestSummariesByMunicipality_shouldNotQueryUnknownMunicipality() {
+        when(municipalityService.find("Atlantis")).thenReturn(Optional.empty());
+
+        assertThat(requestService.getRequestSummariesByMunicipality("Atlantis")).isEmpty();
+        verify(requestRepository, never()).findSummariesByMunicipality(any());
+    }
+
+    @Test
+    void getRequestsPage_shouldQueryAfterCursor() {
+        LocalDateTime datetime = LocalDateTime.of(2025, 1, 1, 10, 0);
+        UUID after = UUID.fromString(UNKNOWN_TOKEN);
+        when(requestRepository.findAllAfterCursor(datetime, after, Limit.of(10))).thenReturn(List.of(request));
+
+        assertThat(requestService.getRequestsPage(new RequestCursor(datetime, after), 10)).containsExactly(request);
+    }
+
+    @Test
+    void getRequestsPage_shouldThrowWhenSizeIsOutOfBounds() {
+        assertThatThrownBy(() -> requestService.getRequestsPage(null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> requestService.getRequestsPage(null, RequestService.MAX_PAGE_SIZE + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void streamAllRequests_shouldDetachEveryConsumedRequest() {
+        Request other = new Request(new Municipality("Aveiro"), LocalDateTime.now());
+        other.setToken("0190a6f4-6a8b-7cde-8f01-23456789abce");
+        when(requestRepository.streamAllOrderedByCursor()).thenReturn(Stream.of(request, other));
+
+        List<Request> consumed = new ArrayList<>();
+        requestService.streamAllRequests(consumed::add);
+
+        assertThat(consumed).containsExactly(request, other);
+        verify(entityManager).detach(request);
+        verify(entityManager).detach(other);
+    }
 
-        verify(requestRepository, never()).save(request);
+    private static List<RequestLoad> loads(List<UUID> tokens) {
+        return tokens.stream()
+                .map(token -> new RequestLoad(token, "Aveiro", LocalDateTime.now(), RequestStatus.RECEIVED, 1.0, 1.0))
+                .toList();
     }
 }
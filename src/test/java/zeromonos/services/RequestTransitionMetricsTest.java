@@ -0,0 +1,53 @@
+package zeromonos.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import zeromonos.data.requests.RequestStatus;
+import zeromonos.services.requests.RequestStatusChangedEvent;
+import zeromonos.services.requests.RequestTransitionMetrics;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestTransitionMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestTransitionMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new RequestTransitionMetrics(meterRegistry);
+    }
+
+    @Test
+    void whenCreated_thenEveryStatusHasItsCounters() {
+        assertThat(meterRegistry.find(RequestTransitionMetrics.TRANSITIONS).counters()).hasSize(RequestStatus.values().length);
+        assertThat(meterRegistry.find(RequestTransitionMetrics.REJECTED).counters()).hasSize(RequestStatus.values().length);
+    }
+
+    @Test
+    void whenStatusChanges_thenItsTargetIsCounted() {
+        metrics.onRequestStatusChanged(new RequestStatusChangedEvent(UUID.randomUUID(), RequestStatus.ASSIGNED, LocalDateTime.now(), null));
+        metrics.onRequestStatusChanged(new RequestStatusChangedEvent(UUID.randomUUID(), RequestStatus.ASSIGNED, LocalDateTime.now(), null));
+
+        assertThat(count(RequestTransitionMetrics.TRANSITIONS, RequestStatus.ASSIGNED)).isEqualTo(2);
+        assertThat(count(RequestTransitionMetrics.TRANSITIONS, RequestStatus.CANCELED)).isZero();
+    }
+
+    @Test
+    void whenTransitionsAreRejected_thenEveryRequestIsCounted() {
+        metrics.rejected(RequestStatus.ASSIGNED, 3);
+        metrics.rejected(RequestStatus.COMPLETED, 1);
+
+        assertThat(count(RequestTransitionMetrics.REJECTED, RequestStatus.ASSIGNED)).isEqualTo(3);
+        assertThat(count(RequestTransitionMetrics.REJECTED, RequestStatus.COMPLETED)).isEqualTo(1);
+    }
+
+    private double count(String name, RequestStatus status) {
+        return meterRegistry.get(name).tag("status", status.name()).counter().count();
+    }
+}
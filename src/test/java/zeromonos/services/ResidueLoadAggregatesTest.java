@@ -0,0 +1,180 @@
+package zeromonos.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import zeromonos.data.requests.RequestLoad;
+import zeromonos.data.requests.RequestLoadTotals;
+import zeromonos.data.requests.RequestRepository;
+import zeromonos.data.requests.RequestStatus;
+import zeromonos.data.residues.ResidueLoadCheckDTO;
+import zeromonos.data.residues.ResidueLoadDTO;
+import zeromonos.services.requests.RequestLoadsChangedEvent;
+import zeromonos.services.requests.RequestStatusChangedEvent;
+import zeromonos.services.residues.ResidueLoadAggregates;
+import zeromonos.services.residues.ResidueLoadAggregates.Dimension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ResidueLoadAggregatesTest {
+
+    private static final LocalDateTime DATETIME = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    @Mock
+    private RequestRepository requestRepository;
+
+    private ResidueLoadAggregates aggregates;
+
+    @BeforeEach
+    void setUp() {
+        aggregates = new ResidueLoadAggregates(requestRepository);
+    }
+
+    @Test
+    void whenRequestsAreCreated_thenTotalsArePerGroup() {
+        created(load("Aveiro", DATETIME, 2, 1), load("Aveiro", DATETIME.plusDays(1), 4, 2), load("Porto", DATETIME, 6, 3));
+
+        assertThat(aggregates.getLoads(Dimension.MUNICIPALITY))
+                .extracting(ResidueLoadDTO::getGroup, ResidueLoadDTO::getRequests, ResidueLoadDTO::getTotalWeight, ResidueLoadDTO::getTotalVolume)
+                .containsExactly(tuple("Aveiro", 2L, 6.0, 3.0), tuple("Porto", 1L, 6.0, 3.0));
+        assertThat(aggregates.getLoads(Dimension.DAY))
+                .extracting(ResidueLoadDTO::getGroup, ResidueLoadDTO::getRequests)
+                .containsExactly(tuple("2025-01-01", 2L), tuple("2025-01-02", 1L));
+        assertThat(aggregates.getLoads(Dimension.STATUS))
+                .extracting(ResidueLoadDTO::getGroup, ResidueLoadDTO::getRequests)
+                .containsExactly(tuple("RECEIVED", 3L));
+    }
+
+    @Test
+    void whenManyRequestsAreCreated_thenPercentilesAreWithinBucketPrecision() {
+        List<RequestLoad> loads = new ArrayList<>();
+        for (int i = 1; i <= 1000; i++) {
+            loads.add(load("Aveiro", DATETIME, i, i / 10.0));
+        }
+        aggregates.onRequestLoadsChanged(new RequestLoadsChangedEvent(RequestLoadsChangedEvent.Change.CREATED, loads));
+
+        ResidueLoadDTO aveiro = aggregates.getLoads(Dimension.MUNICIPALITY).get(0);
+        assertThat(aveiro.getWeightP50()).isCloseTo(500, withinPercentage(3));
+        assertThat(aveiro.getWeightP95()).isCloseTo(950, withinPercentage(3));
+        assertThat(aveiro.getWeightP99()).isCloseTo(990, withinPercentage(3));
+        assertThat(aveiro.getVolumeP50()).isCloseTo(50, withinPercentage(3));
+    }
+
+    @Test
+    void whenRequestTransitions_thenItsLoadMovesToTheNewStatus() {
+        RequestLoad load = load("Aveiro", DATETIME, 2, 1);
+        created(load, load("Aveiro", DATETIME, 3, 1));
+
+        aggregates.onRequestStatusChanged(new RequestStatusChangedEvent(load.token(), RequestStatus.ASSIGNED, DATETIME, null));
+
+        assertThat(aggregates.getLoads(Dimension.STATUS))
+                .extracting(ResidueLoadDTO::getGroup, ResidueLoadDTO::getTotalWeight)
+                .containsExactly(tuple("RECEIVED", 3.0), tuple("ASSIGNED", 2.0));
+        assertThat(aggregates.getLoads(Dimension.MUNICIPALITY))
+                .extracting(ResidueLoadDTO::getRequests)
+                .containsExactly(2L);
+    }
+
+    @Test
+    void whenEventIsStaleOrRepeated_thenItIsIgnored() {
+        RequestLoad load = load("Aveiro", DATETIME, 2, 1);
+        created(load);
+        created(load);
+        aggregates.onRequestStatusChanged(new RequestStatusChangedEvent(load.token(), RequestStatus.ASSIGNED, DATETIME, null));
+        aggregates.onRequestStatusChanged(new RequestStatusChangedEvent(load.token(), RequestStatus.RECEIVED, DATETIME, "Aveiro"));
+        aggregates.onRequestStatusChanged(new RequestStatusChangedEvent(UUID.randomUUID(), RequestStatus.ASSIGNED, DATETIME, null));
+
+        assertThat(aggregates.getLoads(Dimension.STATUS))
+                .extracting(ResidueLoadDTO::getGroup, ResidueLoadDTO::getRequests)
+                .containsExactly(tuple("ASSIGNED", 1L));
+    }
+
+    @Test
+    void whenEventsArriveOutOfOrder_thenTheFurthestStatusWins() {
+        RequestLoad load = load("Aveiro", DATETIME, 2, 1);
+        created(load);
+        aggregates.onRequestStatusChanged(new RequestStatusChangedEvent(load.token(), RequestStatus.IN_PROGRESS, DATETIME, "Aveiro"));
+        aggregates.onRequestStatusChanged(new RequestStatusChangedEvent(load.token(), RequestStatus.ASSIGNED, DATETIME, "Aveiro"));
+
+        assertThat(aggregates.getLoads(Dimension.STATUS))
+                .extracting(ResidueLoadDTO::getGroup, ResidueLoadDTO::getRequests)
+                .containsExactly(tuple("IN_PROGRESS", 1L));
+    }
+
+    @Test
+    void whenRequestIsDeleted_thenEmptyGroupsDisappear() {
+        RequestLoad load = load("Braga", DATETIME, 2, 1);
+        created(load, load("Aveiro", DATETIME, 3, 1));
+
+        aggregates.onRequestLoadsChanged(new RequestLoadsChangedEvent(RequestLoadsChangedEvent.Change.DELETED, List.of(load)));
+
+        assertThat(aggregates.getLoads(Dimension.MUNICIPALITY))
+                .extracting(ResidueLoadDTO::getGroup)
+                .containsExactly("Aveiro");
+    }
+
+    @Test
+    void whenRebuilding_thenAggregatesMatchTheDatabase() {
+        created(load("Aveiro", DATETIME, 100, 100));
+        when(requestRepository.findAllLoads()).thenReturn(List.of(load("Porto", DATETIME, 2, 1)));
+
+        aggregates.rebuild();
+
+        assertThat(aggregates.getLoads(Dimension.MUNICIPALITY))
+                .extracting(ResidueLoadDTO::getGroup, ResidueLoadDTO::getTotalWeight)
+                .containsExactly(tuple("Porto", 2.0));
+    }
+
+    @Test
+    void whenAggregatesMatchGroupBy_thenCheckIsConsistent() {
+        created(load("Aveiro", DATETIME, 2, 1), load("Aveiro", DATETIME, 3, 1));
+        when(requestRepository.sumLoadsByMunicipalityStatusAndDay()).thenReturn(List.of(
+                new RequestLoadTotals("Aveiro", RequestStatus.RECEIVED, LocalDate.of(2025, 1, 1), 2L, 5.0, 2.0)
+        ));
+
+        ResidueLoadCheckDTO check = aggregates.check();
+
+        assertThat(check.isConsistent()).isTrue();
+        assertThat(check.getGroups()).isEqualTo(3);
+        assertThat(check.getMismatches()).isEmpty();
+    }
+
+    @Test
+    void whenAggregatesDrift_thenCheckReportsEveryMismatchedGroup() {
+        created(load("Aveiro", DATETIME, 2, 1));
+        when(requestRepository.sumLoadsByMunicipalityStatusAndDay()).thenReturn(List.of(
+                new RequestLoadTotals("Aveiro", RequestStatus.RECEIVED, LocalDate.of(2025, 1, 1), 1L, 2.0, 1.0),
+                new RequestLoadTotals("Porto", RequestStatus.RECEIVED, LocalDate.of(2025, 1, 1), 1L, 4.0, 1.0)
+        ));
+
+        ResidueLoadCheckDTO check = aggregates.check();
+
+        assertThat(check.isConsistent()).isFalse();
+        assertThat(check.getMismatches())
+                .hasSize(3)
+                .anySatisfy(mismatch -> assertThat(mismatch).startsWith("municipality Porto"))
+                .anySatisfy(mismatch -> assertThat(mismatch).startsWith("status RECEIVED"))
+                .anySatisfy(mismatch -> assertThat(mismatch).startsWith("day 2025-01-01"));
+    }
+
+    private void created(RequestLoad... loads) {
+        aggregates.onRequestLoadsChanged(new RequestLoadsChangedEvent(RequestLoadsChangedEvent.Change.CREATED, List.of(loads)));
+    }
+
+    private static RequestLoad load(String municipality, LocalDateTime datetime, double weight, double volume) {
+        return new RequestLoad(UUID.randomUUID(), municipality, datetime, RequestStatus.RECEIVED, weight, volume);
+    }
+}
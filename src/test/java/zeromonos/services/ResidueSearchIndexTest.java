@@ -0,0 +1,122 @@
+package zeromonos.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import zeromonos.data.residues.Residue;
+import zeromonos.data.residues.ResidueRepository;
+import zeromonos.services.residues.ResidueSearchIndex;
+import zeromonos.services.residues.ResiduesChangedEvent;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ResidueSearchIndexTest {
+
+    @Mock
+    private ResidueRepository residueRepository;
+
+    private ResidueSearchIndex searchIndex;
+
+    private Residue plastic;
+    private Residue plasma;
+    private Residue glass;
+
+    @BeforeEach
+    void setup() {
+        plastic = residue(1L, "Plastic", "Garrafas de plástico");
+        plasma = residue(2L, "Plasma TV", "Broken television");
+        glass = residue(3L, "Glass", "Bottles and jars");
+
+        when(residueRepository.findAll()).thenReturn(List.of(plastic, plasma, glass));
+
+        searchIndex = new ResidueSearchIndex(residueRepository, false);
+        searchIndex.rebuild();
+    }
+
+    @Test
+    void search_shouldMatchPrefixes() {
+        assertThat(searchIndex.search("pla", 10)).containsExactly(1L, 2L);
+        assertThat(searchIndex.search("bott", 10)).containsExactly(3L);
+    }
+
+    @Test
+    void search_shouldTolerateTypos() {
+        assertThat(searchIndex.search("plastc", 10)).startsWith(1L);
+        assertThat(searchIndex.search("televsion", 10)).containsExactly(2L);
+    }
+
+    @Test
+    void search_shouldAlwaysMatchSubstrings() {
+        assertThat(searchIndex.search("ast", 10)).containsExactly(1L);
+    }
+
+    @Test
+    void search_shouldMatchShortQueriesOnlyAtWordStarts() {
+        assertThat(searchIndex.search("g", 10)).containsExactly(3L, 1L);
+        assertThat(searchIndex.search("tv", 10)).containsExactly(2L);
+        assertThat(searchIndex.search("ss", 10)).isEmpty();
+    }
+
+    @Test
+    void search_shouldIgnoreCaseAndAccents() {
+        assertThat(searchIndex.search("PLASTICO", 10)).startsWith(1L);
+    }
+
+    @Test
+    void search_shouldRankNamePrefixesFirst() {
+        assertThat(searchIndex.search("plasma", 10)).startsWith(2L);
+    }
+
+    @Test
+    void search_shouldRespectLimit() {
+        assertThat(searchIndex.search("pla", 1)).containsExactly(1L);
+    }
+
+    @Test
+    void search_shouldReturnNothingForUnknownTerms() {
+        assertThat(searchIndex.search("zzz", 10)).isEmpty();
+        assertThat(searchIndex.search("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void onResiduesChanged_shouldIndexCreatedAndDropDeletedResidues() {
+        Residue paper = residue(4L, "Papel", "Cartão");
+
+        searchIndex.onResiduesChanged(new ResiduesChangedEvent(ResiduesChangedEvent.Change.CREATED, List.of(paper)));
+        searchIndex.onResiduesChanged(new ResiduesChangedEvent(ResiduesChangedEvent.Change.DELETED, List.of(plastic)));
+
+        assertThat(searchIndex.search("cartao", 10)).containsExactly(4L);
+        assertThat(searchIndex.search("pla", 10)).containsExactly(2L);
+    }
+
+    @Test
+    void onResiduesChanged_shouldKeepResultsAfterCompaction() {
+        searchIndex.onResiduesChanged(new ResiduesChangedEvent(ResiduesChangedEvent.Change.DELETED, List.of(plastic, glass)));
+
+        assertThat(searchIndex.search("plasma", 10)).containsExactly(2L);
+        assertThat(searchIndex.search("glass", 10)).isEmpty();
+    }
+
+    @Test
+    void rebuild_shouldDoNothingWhenPgTrgmIsEnabled() {
+        ResidueSearchIndex disabled = new ResidueSearchIndex(residueRepository, true);
+        disabled.rebuild();
+
+        assertThat(disabled.isReady()).isFalse();
+    }
+
+    private static Residue residue(Long id, String name, String desc) {
+        Residue residue = new Residue(name, desc, 1f, 1f);
+        residue.setId(id);
+        return residue;
+    }
+}
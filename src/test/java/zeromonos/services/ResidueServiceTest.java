@@ -3,16 +3,21 @@ package zeromonos.services;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
 import zeromonos.data.requests.Request;
 import zeromonos.data.residues.Residue;
 import zeromonos.data.residues.ResidueRepository;
+import zeromonos.services.residues.ResidueCache;
+import zeromonos.services.residues.ResidueSearchIndex;
 import zeromonos.services.residues.ResidueService;
+import zeromonos.services.residues.ResiduesChangedEvent;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -29,7 +34,11 @@ class ResidueServiceTest {
     @Mock
     private ResidueRepository residueRepository;
 
-    @InjectMocks
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ResidueCache residueCache;
+    private ResidueSearchIndex searchIndex;
     private ResidueService residueService;
 
     private Residue plastic;
@@ -38,6 +47,10 @@ class ResidueServiceTest {
 
     @BeforeEach
     void setup() {
+        residueCache = new ResidueCache(16, Duration.ofMinutes(10));
+        searchIndex = new ResidueSearchIndex(residueRepository, false);
+        residueService = new ResidueService(residueRepository, residueCache, searchIndex, eventPublisher, false);
+
         plastic = new Residue("Plastic", "My plastic", 1f, 2f);
         plastic.setId(0L);
 
@@ -63,10 +76,15 @@ class ResidueServiceTest {
         when(residueRepository.findAll())
                 .thenReturn(residues);
 
-        when(residueRepository.findAllBySimilarNameOrDesc("Wood"))
-                .thenReturn(List.of(wood));
-        when(residueRepository.findAllBySimilarNameOrDesc(null))
-                .thenReturn(List.of());
+        when(residueRepository.findAllById(any())).thenAnswer(inv -> {
+            Iterable<Long> ids = inv.getArgument(0);
+            List<Long> requested = new ArrayList<>();
+            ids.forEach(requested::add);
+            return residues.stream().filter(r -> requested.contains(r.getId())).toList();
+        });
+
+        searchIndex.rebuild();
+        clearInvocations(residueRepository);
     }
 
     @Test
@@ -119,18 +137,54 @@ class ResidueServiceTest {
 
     @Test
     void getResiduesBySimilarNameOrDesc_ValidQuery() {
-        List<Residue> result = residueService.getResiduesBySimilarNameOrDesc("Wood");
+        List<Residue> result = residueService.getResiduesBySimilarNameOrDesc("Wood", 20);
 
         assertThat(result).hasSize(1).contains(wood);
-        verify(residueRepository, times(1)).findAllBySimilarNameOrDesc("Wood");
+        verify(residueRepository, times(1)).findAllById(List.of(wood.getId()));
+        verify(residueRepository, never()).findAllBySimilarNameOrDesc(any());
+    }
+
+    @Test
+    void getResiduesBySimilarNameOrDesc_TypoQuery() {
+        List<Residue> result = residueService.getResiduesBySimilarNameOrDesc("plastc", 20);
+
+        assertThat(result).containsExactly(plastic);
     }
 
     @Test
     void getResiduesBySimilarNameOrDesc_NullQuery() {
-        List<Residue> result = residueService.getResiduesBySimilarNameOrDesc(null);
+        List<Residue> result = residueService.getResiduesBySimilarNameOrDesc(null, 20);
 
         assertThat(result).isEmpty();
-        verify(residueRepository, times(1)).findAllBySimilarNameOrDesc(null);
+        verifyNoInteractions(residueRepository);
+    }
+
+    @Test
+    void getResiduesBySimilarNameOrDesc_InvalidLimit() {
+        assertThatThrownBy(() -> residueService.getResiduesBySimilarNameOrDesc("Wood", 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> residueService.getResiduesBySimilarNameOrDesc("Wood", ResidueService.MAX_SEARCH_LIMIT + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void getResiduesBySimilarNameOrDesc_shouldUseLikeWithoutCachingUntilIndexIsReady() {
+        ResidueService service = new ResidueService(residueRepository, residueCache,
+                new ResidueSearchIndex(residueRepository, false), eventPublisher, false);
+        when(residueRepository.findAllBySimilarNameOrDesc("Wood")).thenReturn(List.of(wood));
+
+        assertThat(service.getResiduesBySimilarNameOrDesc("Wood", 20)).containsExactly(wood);
+        assertThat(service.getResiduesBySimilarNameOrDesc("Wood", 20)).containsExactly(wood);
+        verify(residueRepository, times(2)).findAllBySimilarNameOrDesc("Wood");
+    }
+
+    @Test
+    void getResiduesBySimilarNameOrDesc_shouldUsePgTrgmWhenEnabled() {
+        ResidueService service = new ResidueService(residueRepository, residueCache, searchIndex, eventPublisher, true);
+        when(residueRepository.findAllByTrigramSimilarity("Wood", 20)).thenReturn(List.of(wood));
+
+        assertThat(service.getResiduesBySimilarNameOrDesc("Wood", 20)).containsExactly(wood);
+        verify(residueRepository, never()).findAllById(any());
     }
 
     @Test
@@ -141,4 +195,83 @@ class ResidueServiceTest {
         verify(residueRepository, times(1)).findAll();
     }
 
+    @Test
+    void getAllResidues_shouldServeRepeatedReadsFromCache() {
+        residueService.getAllResidues();
+        List<Residue> result = residueService.getAllResidues();
+
+        assertThat(result).hasSize(2).contains(plastic, wood);
+        verify(residueRepository, times(1)).findAll();
+    }
+
+    @Test
+    void getResidue_shouldNotCacheMisses() {
+        residueService.getResidue(-1L);
+        residueService.getResidue(-1L);
+        residueService.getResidue(plastic.getId());
+        residueService.getResidue(plastic.getId());
+
+        verify(residueRepository, times(2)).findById(-1L);
+        verify(residueRepository, times(1)).findById(plastic.getId());
+    }
+
+    @Test
+    void createResidue_shouldPublishChange() {
+        residueService.createResidue(plastic);
+
+        verify(eventPublisher).publishEvent(new ResiduesChangedEvent(ResiduesChangedEvent.Change.CREATED, List.of(plastic)));
+    }
+
+    @Test
+    void deleteResidue_shouldPublishChange() {
+        residueService.deleteResidue(plastic.getId());
+
+        verify(eventPublisher).publishEvent(new ResiduesChangedEvent(ResiduesChangedEvent.Change.DELETED, List.of(plastic)));
+    }
+
+    @Test
+    void onResiduesChanged_shouldEvictOnlyAffectedEntries() {
+        residueService.getAllResidues();
+        residueService.getResidue(plastic.getId());
+        residueService.getResidue(linkedResidue.getId());
+        residueService.getResiduesBySimilarNameOrDesc("Wood", 20);
+        residueService.getResiduesBySimilarNameOrDesc("Glass", 20);
+
+        Residue glass = new Residue("Glass", "Bottles", 1f, 1f);
+        glass.setId(4L);
+        publish(new ResiduesChangedEvent(ResiduesChangedEvent.Change.UPDATED, List.of(plastic)));
+        publish(new ResiduesChangedEvent(ResiduesChangedEvent.Change.CREATED, List.of(glass)));
+
+        residueService.getAllResidues();
+        residueService.getResidue(plastic.getId());
+        residueService.getResidue(linkedResidue.getId());
+        residueService.getResiduesBySimilarNameOrDesc("Wood", 20);
+        residueService.getResiduesBySimilarNameOrDesc("Glass", 20);
+
+        verify(residueRepository, times(2)).findAll();
+        verify(residueRepository, times(2)).findById(plastic.getId());
+        verify(residueRepository, times(1)).findById(linkedResidue.getId());
+        verify(residueRepository, times(1)).findAllById(List.of(wood.getId()));
+        verify(residueRepository, times(1)).findAllById(List.of(glass.getId()));
+    }
+
+    private void publish(ResiduesChangedEvent event) {
+        searchIndex.onResiduesChanged(event);
+        residueCache.onResiduesChanged(event);
+    }
+
+    @Test
+    void getCacheStats_shouldReportHitsAndMisses() {
+        residueService.getAllResidues();
+        residueService.getAllResidues();
+
+        assertThat(residueService.getCacheStats())
+                .filteredOn(stats -> stats.getCache().equals("catalogue"))
+                .singleElement()
+                .satisfies(stats -> {
+                    assertThat(stats.getHitCount()).isEqualTo(1);
+                    assertThat(stats.getMissCount()).isEqualTo(1);
+                    assertThat(stats.getSize()).isEqualTo(1);
+                });
+    }
 }
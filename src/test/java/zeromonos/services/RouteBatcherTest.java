@@ -0,0 +1,136 @@
+package zeromonos.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import zeromonos.data.municipalities.Municipality;
+import zeromonos.data.requests.RequestLoad;
+import zeromonos.data.requests.RequestRepository;
+import zeromonos.data.requests.RequestStatus;
+import zeromonos.data.requests.RouteBatchDTO;
+import zeromonos.data.requests.RoutePlanDTO;
+import zeromonos.services.municipalities.MunicipalityService;
+import zeromonos.services.requests.RequestService;
+import zeromonos.services.requests.RouteBatcher;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RouteBatcherTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2025, 1, 2, 0, 0);
+
+    @Mock
+    private RequestRepository requestRepository;
+
+    @Mock
+    private MunicipalityService municipalityService;
+
+    @Mock
+    private RequestService requestService;
+
+    private RouteBatcher routeBatcher;
+    private Municipality aveiro;
+
+    @BeforeEach
+    void setUp() {
+        routeBatcher = new RouteBatcher(requestRepository, municipalityService, requestService, 100, 10);
+        aveiro = new Municipality("Aveiro");
+        when(municipalityService.find("Aveiro")).thenReturn(Optional.of(aveiro));
+        when(municipalityService.find("Porto")).thenReturn(Optional.empty());
+        when(requestService.assignAll(anyList())).thenReturn(true);
+    }
+
+    @Test
+    void whenRequestsAreReceived_thenEachTruckIsAssignedAsOneBatch() {
+        RequestLoad heavy = load(80, 1);
+        RequestLoad light = load(20, 1);
+        RequestLoad bulky = load(10, 9.5);
+        received(heavy, light, bulky);
+
+        RoutePlanDTO plan = routeBatcher.batchReceivedRequests("Aveiro", FROM, TO, null, null);
+
+        assertThat(plan.getBatches())
+                .extracting(RouteBatchDTO::getTruck, RouteBatchDTO::getTokens, RouteBatchDTO::getWeight, RouteBatchDTO::isAssigned)
+                .containsExactly(
+                        tuple(0, List.of(bulky.token().toString()), 10.0, true),
+                        tuple(1, List.of(heavy.token().toString(), light.token().toString()), 100.0, true)
+                );
+        verify(requestService).assignAll(List.of(heavy, light));
+        verify(requestService).assignAll(List.of(bulky));
+        verify(requestRepository).findLoadsByMunicipalityAndStatusBetween(aveiro, RequestStatus.RECEIVED, FROM, TO);
+    }
+
+    @Test
+    void whenCapacityIsGiven_thenItOverridesTheConfiguredTruck() {
+        received(load(80, 1), load(20, 1));
+
+        RoutePlanDTO plan = routeBatcher.batchReceivedRequests("Aveiro", FROM, TO, 80.0, null);
+
+        assertThat(plan.getBatches()).hasSize(2);
+    }
+
+    @Test
+    void whenABatchConflicts_thenItIsReportedAndTheOthersStillAssigned() {
+        RequestLoad first = load(60, 1);
+        RequestLoad second = load(60, 1);
+        received(first, second);
+        when(requestService.assignAll(List.of(first))).thenReturn(false);
+
+        RoutePlanDTO plan = routeBatcher.batchReceivedRequests("Aveiro", FROM, TO, null, null);
+
+        assertThat(plan.getBatches()).extracting(RouteBatchDTO::isAssigned).containsExactly(false, true);
+    }
+
+    @Test
+    void whenARequestExceedsATruck_thenItIsLeftOut() {
+        RequestLoad oversized = load(150, 1);
+        RequestLoad fitting = load(10, 1);
+        received(oversized, fitting);
+
+        RoutePlanDTO plan = routeBatcher.batchReceivedRequests("Aveiro", FROM, TO, null, null);
+
+        assertThat(plan.getOversized()).containsExactly(oversized.token().toString());
+        assertThat(plan.getBatches()).singleElement()
+                .extracting(RouteBatchDTO::getTokens)
+                .isEqualTo(List.of(fitting.token().toString()));
+    }
+
+    @Test
+    void whenMunicipalityIsUnknown_thenNothingIsQueried() {
+        RoutePlanDTO plan = routeBatcher.batchReceivedRequests("Porto", FROM, TO, null, null);
+
+        assertThat(plan.getBatches()).isEmpty();
+        verify(requestRepository, never()).findLoadsByMunicipalityAndStatusBetween(any(), any(), any(), any());
+        verify(requestService, never()).assignAll(any());
+    }
+
+    @Test
+    void whenWindowOrCapacityIsInvalid_thenThrows() {
+        assertThatThrownBy(() -> routeBatcher.batchReceivedRequests("Aveiro", TO, FROM, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> routeBatcher.batchReceivedRequests("Aveiro", FROM, TO, -1.0, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void received(RequestLoad... loads) {
+        when(requestRepository.findLoadsByMunicipalityAndStatusBetween(aveiro, RequestStatus.RECEIVED, FROM, TO))
+                .thenReturn(List.of(loads));
+    }
+
+    private static RequestLoad load(double weight, double volume) {
+        return new RequestLoad(UUID.randomUUID(), "Aveiro", FROM, RequestStatus.RECEIVED, weight, volume);
+    }
+}
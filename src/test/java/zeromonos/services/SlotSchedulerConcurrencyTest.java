@@ -0,0 +1,114 @@
+package zeromonos.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import zeromonos.data.municipalities.Municipality;
+import zeromonos.data.requests.Request;
+import zeromonos.data.requests.RequestRepository;
+import zeromonos.data.residues.Residue;
+import zeromonos.data.residues.ResidueRepository;
+import zeromonos.services.municipalities.MunicipalityService;
+import zeromonos.services.requests.RequestService;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "zeromonos.slots.capacity=" + SlotSchedulerConcurrencyTest.CAPACITY)
+@AutoConfigureTestDatabase
+class SlotSchedulerConcurrencyTest {
+
+    static final int CAPACITY = 5;
+    private static final int THREADS = 64;
+
+    @Autowired
+    private RequestService requestService;
+
+    @Autowired
+    private RequestRepository requestRepository;
+
+    @Autowired
+    private ResidueRepository residueRepository;
+
+    @Autowired
+    private MunicipalityService municipalityService;
+
+    @AfterEach
+    void tearDown() {
+        requestRepository.deleteAll();
+        residueRepository.deleteAll();
+    }
+
+    @Test
+    void whenBookingOneSlotFromManyThreads_thenItIsNeverOversubscribed() throws Exception {
+        LocalDateTime slot = LocalDate.now().plusDays(7).atTime(10, 0);
+
+        List<Optional<String>> tokens = bookConcurrently(slot);
+
+        assertThat(tokens.stream().filter(Optional::isPresent)).hasSize(CAPACITY);
+        assertThat(activeBookings(slot)).isEqualTo(CAPACITY);
+    }
+
+    @Test
+    void whenABookingIsCanceled_thenExactlyOnePlaceIsFreed() throws Exception {
+        // Another day than the test above, counters outlive the rows deleted between tests
+        LocalDateTime slot = LocalDate.now().plusDays(8).atTime(10, 0);
+        String canceled = bookConcurrently(slot).stream().flatMap(Optional::stream).findFirst().orElseThrow();
+        requestService.cancelRequest(canceled);
+
+        List<Optional<String>> tokens = bookConcurrently(slot);
+
+        assertThat(tokens.stream().filter(Optional::isPresent)).hasSize(1);
+        assertThat(activeBookings(slot)).isEqualTo(CAPACITY);
+    }
+
+    private List<Optional<String>> bookConcurrently(LocalDateTime slot) throws Exception {
+        List<Long> residueIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            residueIds.add(residueRepository.save(new Residue("Plastic", 1f, 1f)).getId());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Optional<String>>> futures = new ArrayList<>();
+
+        for (int i = 0; i < THREADS; i++) {
+            Long residueId = residueIds.get(i);
+            // Spread over the slot, every booking lands in the same one
+            LocalDateTime datetime = slot.plusSeconds(i);
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    return Optional.of(requestService.createRequest(new Request(new Municipality("Braga"), datetime), List.of(residueId)));
+                } catch (IllegalStateException e) {
+                    return Optional.<String>empty();
+                }
+            }));
+        }
+
+        start.countDown();
+        List<Optional<String>> tokens = new ArrayList<>();
+        for (Future<Optional<String>> future : futures) {
+            tokens.add(future.get(60, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        return tokens;
+    }
+
+    private int activeBookings(LocalDateTime slot) {
+        Municipality braga = municipalityService.find("Braga").orElseThrow();
+        return requestRepository.findActiveDatetimesByMunicipalityBetween(braga, slot, slot.plusHours(1)).size();
+    }
+}
@@ -0,0 +1,181 @@
+package zeromonos.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import zeromonos.data.municipalities.Municipality;
+import zeromonos.data.requests.Request;
+import zeromonos.data.requests.RequestRepository;
+import zeromonos.data.requests.SlotDTO;
+import zeromonos.services.municipalities.MunicipalityService;
+import zeromonos.services.requests.SlotScheduler;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class SlotSchedulerTest {
+
+    private static final int CAPACITY = 3;
+    private static final int THREADS = 64;
+
+    @Mock
+    private RequestRepository requestRepository;
+
+    @Mock
+    private MunicipalityService municipalityService;
+
+    private SlotScheduler slotScheduler;
+    private Municipality aveiro;
+    private LocalDateTime tomorrow;
+
+    @BeforeEach
+    void setUp() {
+        slotScheduler = new SlotScheduler(requestRepository, municipalityService, CAPACITY, Duration.ofHours(1), 2);
+        aveiro = municipality("Aveiro", 1);
+        tomorrow = LocalDate.now().plusDays(1).atTime(10, 0);
+
+        when(municipalityService.find("Aveiro")).thenReturn(Optional.of(aveiro));
+        when(requestRepository.findActiveDatetimesByMunicipalityBetween(any(), any(), any())).thenReturn(List.of());
+    }
+
+    @Test
+    void tryReserve_shouldRejectOnceSlotIsFull() {
+        for (int i = 0; i < CAPACITY; i++) {
+            assertThat(slotScheduler.tryReserve(new Request(aveiro, tomorrow.plusMinutes(i * 10)))).isTrue();
+        }
+
+        assertThat(slotScheduler.tryReserve(new Request(aveiro, tomorrow.plusMinutes(50)))).isFalse();
+        assertThat(slotScheduler.tryReserve(new Request(aveiro, tomorrow.plusHours(1)))).isTrue();
+        assertThat(slotScheduler.tryReserve(new Request(municipality("Porto", 2), tomorrow))).isTrue();
+    }
+
+    @Test
+    void tryReserve_shouldCountExistingBookingsOncePerDay() {
+        when(requestRepository.findActiveDatetimesByMunicipalityBetween(aveiro, tomorrow.toLocalDate().atStartOfDay(), tomorrow.toLocalDate().plusDays(1).atStartOfDay()))
+                .thenReturn(List.of(tomorrow, tomorrow.plusMinutes(30)));
+
+        assertThat(slotScheduler.tryReserve(new Request(aveiro, tomorrow))).isTrue();
+        assertThat(slotScheduler.tryReserve(new Request(aveiro, tomorrow))).isFalse();
+        assertThat(slotScheduler.tryReserve(new Request(aveiro, tomorrow.plusHours(3)))).isTrue();
+
+        verify(requestRepository, times(1)).findActiveDatetimesByMunicipalityBetween(any(), any(), any());
+    }
+
+    @Test
+    void tryReserve_shouldThrowForPastDay() {
+        assertThatThrownBy(() -> slotScheduler.tryReserve(new Request(aveiro, tomorrow.minusDays(2))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void release_shouldFreeLoadedSlot() {
+        List<Request> requests = new ArrayList<>();
+        for (int i = 0; i < CAPACITY; i++) {
+            requests.add(new Request(aveiro, tomorrow));
+            slotScheduler.tryReserve(requests.get(i));
+        }
+
+        slotScheduler.release(requests.get(0));
+
+        assertThat(slotScheduler.tryReserve(new Request(aveiro, tomorrow))).isTrue();
+        assertThat(slotScheduler.tryReserve(new Request(aveiro, tomorrow))).isFalse();
+    }
+
+    @Test
+    void tryReserve_shouldNeverOversubscribeUnderContention() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                int admitted = 0;
+                for (int j = 0; j < 100; j++) {
+                    Request request = new Request(aveiro, tomorrow.plusHours(j % 4));
+                    if (slotScheduler.tryReserve(request)) {
+                        admitted++;
+                        // Every other round is canceled again, so slots keep churning
+                        if ((j / 4) % 2 == 0) {
+                            slotScheduler.release(request);
+                            admitted--;
+                        }
+                    }
+                }
+                return admitted;
+            }));
+        }
+
+        start.countDown();
+        int admitted = 0;
+        for (Future<Integer> future : futures) {
+            admitted += future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Four slots of CAPACITY places each, every one of them taken and none overbooked
+        assertThat(admitted).isEqualTo(4 * CAPACITY);
+        assertThat(slotScheduler.findFreeSlots("Aveiro", tomorrow, 4))
+                .extracting(SlotDTO::getStart)
+                .doesNotContain(tomorrow, tomorrow.plusHours(1), tomorrow.plusHours(2), tomorrow.plusHours(3));
+    }
+
+    @Test
+    void findFreeSlots_shouldSkipFullSlots() {
+        for (int i = 0; i < CAPACITY; i++) {
+            slotScheduler.tryReserve(new Request(aveiro, tomorrow));
+        }
+        slotScheduler.tryReserve(new Request(aveiro, tomorrow.plusHours(1)));
+
+        List<SlotDTO> free = slotScheduler.findFreeSlots("Aveiro", tomorrow.minusMinutes(1), 3);
+
+        assertThat(free).extracting(SlotDTO::getStart)
+                .containsExactly(tomorrow.plusHours(1), tomorrow.plusHours(2), tomorrow.plusHours(3));
+        assertThat(free).extracting(SlotDTO::getRemaining)
+                .containsExactly(CAPACITY - 1, CAPACITY, CAPACITY);
+        assertThat(free.get(0).getEnd()).isEqualTo(tomorrow.plusHours(2));
+    }
+
+    @Test
+    void findFreeSlots_shouldNotQueryMunicipalityWithoutBookings() {
+        when(municipalityService.find("Porto")).thenReturn(Optional.empty());
+
+        assertThat(slotScheduler.findFreeSlots("Porto", tomorrow, 2))
+                .extracting(SlotDTO::getStart)
+                .containsExactly(tomorrow, tomorrow.plusHours(1));
+        verify(requestRepository, never()).findActiveDatetimesByMunicipalityBetween(any(), any(), any());
+    }
+
+    @Test
+    void findFreeSlots_shouldThrowWhenCountIsOutOfBounds() {
+        assertThatThrownBy(() -> slotScheduler.findFreeSlots("Aveiro", tomorrow, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> slotScheduler.findFreeSlots("Aveiro", tomorrow, SlotScheduler.MAX_FREE_SLOTS + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Municipality municipality(String name, int id) {
+        Municipality municipality = new Municipality(name);
+        ReflectionTestUtils.setField(municipality, "id", id);
+        return municipality;
+    }
+}
@@ -10,18 +10,27 @@ import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import zeromonos.data.requests.RequestStatus;
 import zeromonos.data.statuses.Status;
+import zeromonos.data.statuses.StatusDTO;
 import zeromonos.data.statuses.StatusRepository;
 import zeromonos.services.statuses.StatusService;
 
+import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
 class StatusServiceTest {
 
+    private static final String TOKEN = "0190a6f4-6a8b-7cde-8f01-23456789abcd";
+    private static final String EMPTY_TOKEN = "0190a6f4-6a8b-7cde-8f01-000000000000";
+
     @Mock
     private StatusRepository statusRepository;
 
@@ -39,22 +48,22 @@ class StatusServiceTest {
 
         statuses = List.of(status1, status2);
 
-        when(statusRepository.findAllByRequest_TokenAndRequestStatusEquals("REQ123", RequestStatus.ASSIGNED))
+        when(statusRepository.findAllByRequest_TokenAndRequestStatusEquals(UUID.fromString(TOKEN), RequestStatus.ASSIGNED))
                 .thenReturn(statuses);
 
-        when(statusRepository.findAllByRequest_Token("REQ123"))
+        when(statusRepository.findAllByRequest_Token(UUID.fromString(TOKEN)))
                 .thenReturn(statuses);
 
-        when(statusRepository.findAllByRequest_TokenAndRequestStatusEquals("REQ999", RequestStatus.COMPLETED))
+        when(statusRepository.findAllByRequest_TokenAndRequestStatusEquals(UUID.fromString(EMPTY_TOKEN), RequestStatus.COMPLETED))
                 .thenReturn(List.of());
 
-        when(statusRepository.findAllByRequest_Token("REQ999"))
+        when(statusRepository.findAllByRequest_Token(UUID.fromString(EMPTY_TOKEN)))
                 .thenReturn(List.of());
     }
 
     @Test
     void getStatus_shouldReturnStatusesForGivenTokenAndRequestStatus() {
-        List<Status> result = statusService.getStatus("REQ123", RequestStatus.ASSIGNED);
+        List<Status> result = statusService.getStatus(TOKEN, RequestStatus.ASSIGNED);
 
         assertThat(result)
                 .isNotNull()
@@ -62,36 +71,82 @@ class StatusServiceTest {
                 .containsAll(statuses);
 
         verify(statusRepository, times(1))
-                .findAllByRequest_TokenAndRequestStatusEquals("REQ123", RequestStatus.ASSIGNED);
+                .findAllByRequest_TokenAndRequestStatusEquals(UUID.fromString(TOKEN), RequestStatus.ASSIGNED);
     }
 
     @Test
     void getStatus_shouldReturnEmptyListWhenNoStatusesFound() {
-        List<Status> result = statusService.getStatus("REQ999", RequestStatus.COMPLETED);
+        List<Status> result = statusService.getStatus(EMPTY_TOKEN, RequestStatus.COMPLETED);
 
         assertThat(result).isEmpty();
 
         verify(statusRepository)
-                .findAllByRequest_TokenAndRequestStatusEquals("REQ999", RequestStatus.COMPLETED);
+                .findAllByRequest_TokenAndRequestStatusEquals(UUID.fromString(EMPTY_TOKEN), RequestStatus.COMPLETED);
     }
 
     @Test
     void getAllStatuses_shouldReturnAllStatusesForRequest() {
-        List<Status> result = statusService.getAllStatuses("REQ123");
+        List<Status> result = statusService.getAllStatuses(TOKEN);
 
         assertThat(result)
                 .isNotNull()
                 .hasSize(2)
                 .containsAll(statuses);
 
-        verify(statusRepository, times(1)).findAllByRequest_Token("REQ123");
+        verify(statusRepository, times(1)).findAllByRequest_Token(UUID.fromString(TOKEN));
     }
 
     @Test
     void getAllStatuses_shouldReturnEmptyListWhenNoStatusesExist() {
-        List<Status> result = statusService.getAllStatuses("REQ999");
+        List<Status> result = statusService.getAllStatuses(EMPTY_TOKEN);
 
         assertThat(result).isEmpty();
-        verify(statusRepository, times(1)).findAllByRequest_Token("REQ999");
+        verify(statusRepository, times(1)).findAllByRequest_Token(UUID.fromString(EMPTY_TOKEN));
+    }
+
+    @Test
+    void getStatusesBetween_shouldQueryTheWindow() {
+        LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0);
+        StatusDTO completed = new StatusDTO(1L, RequestStatus.COMPLETED, from.plusHours(9), UUID.fromString(TOKEN));
+        when(statusRepository.findAllByRequestStatusBetween(RequestStatus.COMPLETED, from, from.plusDays(1)))
+                .thenReturn(List.of(completed));
+
+        assertThat(statusService.getStatusesBetween(RequestStatus.COMPLETED, from, from.plusDays(1)))
+                .containsExactly(completed);
+    }
+
+    @Test
+    void getStatusesBetween_shouldThrowWhenWindowIsInvalid() {
+        LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+        assertThatThrownBy(() -> statusService.getStatusesBetween(RequestStatus.COMPLETED, from, from))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> statusService.getStatusesBetween(RequestStatus.COMPLETED, from, from.plus(StatusService.MAX_WINDOW).plusSeconds(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(statusRepository, never()).findAllByRequestStatusBetween(any(), any(), any());
+    }
+
+    @Test
+    void getStatusesByTokens_shouldQueryAllValidTokensAtOnce() {
+        when(statusRepository.findAllByRequestTokenIn(anyCollection())).thenReturn(List.of());
+
+        statusService.getStatusesByTokens(List.of(TOKEN, EMPTY_TOKEN, "not-a-token", TOKEN));
+
+        verify(statusRepository).findAllByRequestTokenIn(Set.of(UUID.fromString(TOKEN), UUID.fromString(EMPTY_TOKEN)));
+    }
+
+    @Test
+    void getStatusesByTokens_shouldNotQueryWithoutValidTokens() {
+        assertThat(statusService.getStatusesByTokens(List.of("not-a-token"))).isEmpty();
+
+        verify(statusRepository, never()).findAllByRequestTokenIn(any());
+    }
+
+    @Test
+    void getStatusesByTokens_shouldThrowWhenBatchIsTooLarge() {
+        List<String> tokens = Collections.nCopies(StatusService.MAX_BATCH_TOKENS + 1, TOKEN);
+
+        assertThatThrownBy(() -> statusService.getStatusesByTokens(tokens))
+                .isInstanceOf(IllegalArgumentException.class);
     }
 }
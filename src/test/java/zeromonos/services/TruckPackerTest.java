@@ -0,0 +1,82 @@
+package zeromonos.services;
+
+import org.junit.jupiter.api.Test;
+import zeromonos.services.requests.TruckPacker;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TruckPackerTest {
+
+    @Test
+    void whenLoadsFit_thenLargestGoFirstAndFillEarlierTrucks() {
+        double[] weights = {10, 1000, 500, 500};
+        double[] volumes = {1, 1, 10, 10};
+
+        int[] trucks = TruckPacker.pack(weights, volumes, 1000, 20);
+
+        assertThat(trucks).containsExactly(2, 0, 1, 1);
+        assertThat(TruckPacker.countTrucks(trucks)).isEqualTo(3);
+    }
+
+    @Test
+    void whenVolumeDominates_thenTrucksAreLimitedByVolume() {
+        int[] trucks = TruckPacker.pack(new double[]{1, 1, 1}, new double[]{15, 10, 5}, 1000, 20);
+
+        assertThat(trucks).containsExactly(0, 1, 0);
+    }
+
+    @Test
+    void whenLoadExceedsATruck_thenItIsOversized() {
+        int[] trucks = TruckPacker.pack(new double[]{1001, 1, 1}, new double[]{1, 21, 1}, 1000, 20);
+
+        assertThat(trucks).containsExactly(TruckPacker.OVERSIZED, TruckPacker.OVERSIZED, 0);
+    }
+
+    @Test
+    void whenNothingToPack_thenNoTruckIsUsed() {
+        int[] trucks = TruckPacker.pack(new double[0], new double[0], 1000, 20);
+
+        assertThat(trucks).isEmpty();
+        assertThat(TruckPacker.countTrucks(trucks)).isZero();
+    }
+
+    @Test
+    void whenCapacityIsNotPositive_thenThrows() {
+        assertThatThrownBy(() -> TruckPacker.pack(new double[]{1}, new double[]{1}, 0, 20))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TruckPacker.pack(new double[]{1}, new double[0], 1000, 20))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void whenPackingManyLoads_thenNoTruckIsOverloadedAndFewAreWasted() {
+        Random random = new Random(7);
+        int n = 100_000;
+        double[] weights = new double[n];
+        double[] volumes = new double[n];
+        double totalVolume = 0;
+        for (int i = 0; i < n; i++) {
+            weights[i] = 1 + random.nextDouble() * 50;
+            volumes[i] = 0.05 + random.nextDouble() * 2;
+            totalVolume += volumes[i];
+        }
+
+        int[] trucks = TruckPacker.pack(weights, volumes, 1000, 20);
+
+        int count = TruckPacker.countTrucks(trucks);
+        double[] weight = new double[count];
+        double[] volume = new double[count];
+        for (int i = 0; i < n; i++) {
+            weight[trucks[i]] += weights[i];
+            volume[trucks[i]] += volumes[i];
+        }
+        for (int t = 0; t < count; t++) {
+            assertThat(weight[t]).isLessThanOrEqualTo(1000 + 1e-6);
+            assertThat(volume[t]).isLessThanOrEqualTo(20 + 1e-6);
+        }
+        // Volume is the binding limit here, first fit decreasing stays within 1% of the bound
+        assertThat(count).isLessThanOrEqualTo((int) Math.ceil(totalVolume / 20 * 1.01));
+    }
+}